@@ -0,0 +1,69 @@
+package graph.benchmarks;
+
+import graph.BasicGraph;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Graph ingestion with addVertex/addEdge, and removeVertex.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ConstructionBenchmark {
+
+    @Param({"SPARSE", "DENSE", "POWER_LAW"})
+    public GraphShape shape;
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    /**
+     * Fraction of the vertices removed by one removeVertex measurement.
+     */
+    private static final int REMOVE_PERCENT = 1;
+
+    private GraphShape.EdgeList edgeList;
+    private BasicGraph<Integer> graph;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        edgeList = shape.generate(edges);
+    }
+
+    @Setup(Level.Iteration)
+    public void build() {
+        graph = Graphs.build(edgeList);
+    }
+
+    @Benchmark
+    public BasicGraph<Integer> addVertexAndEdges() {
+        return Graphs.build(edgeList);
+    }
+
+    /**
+     * Removes the first 1% of the vertices of a freshly built graph.
+     */
+    @Benchmark
+    public BasicGraph<Integer> removeVertex() {
+        int count = Math.max(1, edgeList.vertexCount * REMOVE_PERCENT / 100);
+        for (int v = 0; v < count; v++) {
+            graph.removeVertex(v);
+        }
+        return graph;
+    }
+}
@@ -0,0 +1,80 @@
+package graph.benchmarks;
+
+import graph.ContractionHierarchy;
+import graph.CsrGraph;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Point-to-point queries on road-like graphs: bidirectional Dijkstra against a
+ * ContractionHierarchy query, with the same QUERIES random pairs as PointToPointBenchmark.
+ * Scores are per query; the hierarchy is built once per trial and not measured.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class ContractionHierarchyBenchmark {
+
+    private static final int QUERIES = 64;
+
+    @Param({"GRID"})
+    public GraphShape shape;
+
+    @Param({"100000", "1000000"})
+    public int edges;
+
+    private CsrGraph<Integer> csr;
+    private ContractionHierarchy<Integer>.Query query;
+    private int[] sources;
+    private int[] targets;
+
+    @Setup(Level.Trial)
+    public void build() {
+        csr = Graphs.build(shape.generate(edges)).freeze();
+        query = ContractionHierarchy.build(csr, ForkJoinPool.commonPool()).query();
+        Random rng = new Random(42);
+        sources = new int[QUERIES];
+        targets = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            sources[q] = csr.label(rng.nextInt(csr.vertexCount()));
+            targets[q] = csr.label(rng.nextInt(csr.vertexCount()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public long bidirectional() {
+        long total = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            total += csr.bidirectionalShortestPath(sources[q], targets[q]).distanceTo(targets[q]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public long contractionHierarchy() {
+        long total = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            total += query.distance(sources[q], targets[q]);
+        }
+        return total;
+    }
+}
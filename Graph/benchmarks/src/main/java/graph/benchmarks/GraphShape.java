@@ -0,0 +1,137 @@
+package graph.benchmarks;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/**
+ * Shapes of generated benchmark graphs. Every shape produces the same edges for the same edge
+ * count, so runs before and after a change are comparable.
+ */
+public enum GraphShape {
+    /**
+     * Uniformly random edges with an average out-degree of 4.
+     */
+    SPARSE {
+        @Override
+        EdgeList generate(int edges, SplittableRandom rng) {
+            int n = Math.max(2, edges / 4);
+            EdgeList list = new EdgeList(n, edges);
+            while (list.size < edges) {
+                list.add(rng.nextInt(n), rng.nextInt(n), rng.nextInt(MAX_WEIGHT));
+            }
+            return list;
+        }
+    },
+
+    /**
+     * Every ordered pair of vertices is an edge with probability 1/2.
+     */
+    DENSE {
+        @Override
+        EdgeList generate(int edges, SplittableRandom rng) {
+            int n = (int) Math.ceil(Math.sqrt(2.0 * edges)) + 1;
+            EdgeList list = new EdgeList(n, edges);
+            for (int u = 0; u < n && list.size < edges; u++) {
+                for (int v = 0; v < n && list.size < edges; v++) {
+                    if (u != v && rng.nextBoolean()) {
+                        list.add(u, v, rng.nextInt(MAX_WEIGHT));
+                    }
+                }
+            }
+            return list;
+        }
+    },
+
+    /**
+     * Chung-Lu graph whose expected degrees follow a power law with exponent 2.5, so a few hubs
+     * have most of the edges; average out-degree 8.
+     */
+    POWER_LAW {
+        @Override
+        EdgeList generate(int edges, SplittableRandom rng) {
+            int n = Math.max(2, edges / 8);
+            // Endpoints are drawn with probability proportional to (i + 1)^(-1 / (2.5 - 1)).
+            double[] cumulative = new double[n];
+            double total = 0;
+            for (int i = 0; i < n; i++) {
+                total += Math.pow(i + 1, -1 / 1.5);
+                cumulative[i] = total;
+            }
+            EdgeList list = new EdgeList(n, edges);
+            while (list.size < edges) {
+                list.add(sample(cumulative, rng), sample(cumulative, rng),
+                        rng.nextInt(MAX_WEIGHT));
+            }
+            return list;
+        }
+
+        private int sample(double[] cumulative, SplittableRandom rng) {
+            double x = rng.nextDouble() * cumulative[cumulative.length - 1];
+            int i = Arrays.binarySearch(cumulative, x);
+            return Math.min(cumulative.length - 1, i < 0 ? -i - 1 : i);
+        }
+    },
+
+    /**
+     * Square grid with edges both ways between horizontal and vertical neighbors, like a road
+     * network; average out-degree just under 4.
+     */
+    GRID {
+        @Override
+        EdgeList generate(int edges, SplittableRandom rng) {
+            int side = Math.max(2, (int) Math.sqrt(edges / 4.0));
+            EdgeList list = new EdgeList(side * side, 4 * side * (side - 1));
+            for (int v = 0; v < side * side; v++) {
+                if (v % side + 1 < side) {
+                    list.add(v, v + 1, 1 + rng.nextInt(MAX_WEIGHT));
+                    list.add(v + 1, v, 1 + rng.nextInt(MAX_WEIGHT));
+                }
+                if (v + side < side * side) {
+                    list.add(v, v + side, 1 + rng.nextInt(MAX_WEIGHT));
+                    list.add(v + side, v, 1 + rng.nextInt(MAX_WEIGHT));
+                }
+            }
+            return list;
+        }
+    };
+
+    static final int MAX_WEIGHT = 100;
+
+    abstract EdgeList generate(int edges, SplittableRandom rng);
+
+    /**
+     * Returns about 'edges' edges of this shape, without self loops. Duplicate edges may be
+     * generated; BasicGraph ignores them.
+     */
+    public EdgeList generate(int edges) {
+        return generate(edges, new SplittableRandom(0x5EED + edges));
+    }
+
+    /**
+     * Edges as parallel arrays: source[i] -> target[i] with weight weight[i], over vertices
+     * 0..vertexCount.
+     */
+    public static final class EdgeList {
+        public final int vertexCount;
+        public final int[] source;
+        public final int[] target;
+        public final int[] weight;
+        public int size;
+
+        EdgeList(int vertexCount, int capacity) {
+            this.vertexCount = vertexCount;
+            source = new int[capacity];
+            target = new int[capacity];
+            weight = new int[capacity];
+        }
+
+        void add(int u, int v, int w) {
+            if (u != v) {
+                source[size] = u;
+                target[size] = v;
+                weight[size] = w;
+                size++;
+            }
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package graph.benchmarks;
+
+import graph.BasicEdge;
+import graph.BasicGraph;
+import graph.BasicVertex;
+
+/**
+ * Builds BasicGraphs from generated edge lists.
+ */
+final class Graphs {
+
+    private Graphs() {
+    }
+
+    /**
+     * Returns a graph with vertices labelled 0..edges.vertexCount and all of 'edges'.
+     */
+    static BasicGraph<Integer> build(GraphShape.EdgeList edges) {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        for (int v = 0; v < edges.vertexCount; v++) {
+            g.addVertex(new BasicVertex<>(v));
+        }
+        for (int i = 0; i < edges.size; i++) {
+            g.addEdge(edges.source[i], new BasicEdge<>(edges.target[i], edges.weight[i]));
+        }
+        return g;
+    }
+
+    /**
+     * Returns the graph of 'edges' with every edge pointing from the smaller to the larger id, so
+     * that it is acyclic and can be topologically sorted.
+     */
+    static BasicGraph<Integer> buildAcyclic(GraphShape.EdgeList edges) {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        for (int v = 0; v < edges.vertexCount; v++) {
+            g.addVertex(new BasicVertex<>(v));
+        }
+        for (int i = 0; i < edges.size; i++) {
+            int u = Math.min(edges.source[i], edges.target[i]);
+            int v = Math.max(edges.source[i], edges.target[i]);
+            g.addEdge(u, new BasicEdge<>(v, edges.weight[i]));
+        }
+        return g;
+    }
+}
@@ -0,0 +1,77 @@
+package graph.benchmarks;
+
+import graph.CsrGraph;
+import graph.ForwardPush;
+import graph.PageRankResult;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Global PageRank by parallel power iteration to the default tolerance, against single-seed
+ * personalized PageRank by forward push, per query over QUERIES random seeds.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PageRankBenchmark {
+
+    private static final int QUERIES = 16;
+
+    @Param({"SPARSE", "POWER_LAW"})
+    public GraphShape shape;
+
+    @Param({"100000", "10000000"})
+    public int edges;
+
+    @Param({"1e-6"})
+    public double epsilon;
+
+    private CsrGraph<Integer> csr;
+    private ForwardPush<Integer> push;
+    private int[] seeds;
+
+    @Setup(Level.Trial)
+    public void build() {
+        csr = Graphs.build(shape.generate(edges)).freeze();
+        push = csr.forwardPush();
+        Random rng = new Random(42);
+        seeds = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            seeds[q] = csr.label(rng.nextInt(csr.vertexCount()));
+        }
+    }
+
+    @Benchmark
+    public PageRankResult<Integer> pageRank() {
+        return csr.pageRank(0.85, 1e-9, 100, ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public int forwardPush() {
+        int touched = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            Map<Integer, Double> ranks = push.personalizedPageRank(seeds[q], 0.85, epsilon);
+            touched += ranks.size();
+        }
+        return touched;
+    }
+}
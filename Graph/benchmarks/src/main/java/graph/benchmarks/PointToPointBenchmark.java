@@ -0,0 +1,92 @@
+package graph.benchmarks;
+
+import graph.CsrGraph;
+import graph.Landmarks;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Single source and target queries on a CsrGraph: Dijkstra's algorithm stopping at the target,
+ * bidirectional Dijkstra, and A* with landmarks. Every invocation runs the same QUERIES random
+ * pairs; scores are per query.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class PointToPointBenchmark {
+
+    private static final int QUERIES = 64;
+
+    @Param({"SPARSE", "POWER_LAW"})
+    public GraphShape shape;
+
+    @Param({"100000", "10000000"})
+    public int edges;
+
+    @Param({"16"})
+    public int landmarkCount;
+
+    private CsrGraph<Integer> csr;
+    private Landmarks<Integer> landmarks;
+    private int[] sources;
+    private int[] targets;
+
+    @Setup(Level.Trial)
+    public void build() {
+        csr = Graphs.build(shape.generate(edges)).freeze();
+        landmarks = csr.landmarks(landmarkCount);
+        Random rng = new Random(42);
+        sources = new int[QUERIES];
+        targets = new int[QUERIES];
+        for (int q = 0; q < QUERIES; q++) {
+            sources[q] = csr.label(rng.nextInt(csr.vertexCount()));
+            targets[q] = csr.label(rng.nextInt(csr.vertexCount()));
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public long dijkstra() {
+        long total = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            total += csr.shortestPath(sources[q], targets[q]).distanceTo(targets[q]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public long bidirectional() {
+        long total = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            total += csr.bidirectionalShortestPath(sources[q], targets[q]).distanceTo(targets[q]);
+        }
+        return total;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(QUERIES)
+    public long aStarLandmarks() {
+        long total = 0;
+        for (int q = 0; q < QUERIES; q++) {
+            total += csr.aStar(sources[q], targets[q], landmarks).distanceTo(targets[q]);
+        }
+        return total;
+    }
+}
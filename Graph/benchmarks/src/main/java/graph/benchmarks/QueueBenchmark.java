@@ -0,0 +1,85 @@
+package graph.benchmarks;
+
+import graph.IntIndexedDaryHeap;
+import graph.MinQueue;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * MinQueue and IntIndexedDaryHeap under a Dijkstra-like load: every key is added, its priority
+ * is changed twice by addOrUpdate, and then all keys are removed. Scores are per whole load of
+ * 'keys' keys.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class QueueBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    public int keys;
+
+    private int[] priorities;
+
+    @Setup(Level.Trial)
+    public void generate() {
+        SplittableRandom rng = new SplittableRandom(42);
+        priorities = new int[3 * keys];
+        for (int i = 0; i < priorities.length; i++) {
+            priorities[i] = rng.nextInt(Integer.MAX_VALUE);
+        }
+    }
+
+    @Benchmark
+    public long minQueue() {
+        MinQueue<Integer> queue = new MinQueue<>();
+        for (int pass = 0; pass < 3; pass++) {
+            for (int k = 0; k < keys; k++) {
+                queue.addOrUpdate(k, priorities[pass * keys + k] >> pass);
+            }
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.remove();
+        }
+        return sum / keys;
+    }
+
+    @Benchmark
+    public long binaryHeap() {
+        return heap(2);
+    }
+
+    @Benchmark
+    public long quaternaryHeap() {
+        return heap(4);
+    }
+
+    private long heap(int arity) {
+        IntIndexedDaryHeap queue = new IntIndexedDaryHeap(keys, arity);
+        for (int pass = 0; pass < 3; pass++) {
+            for (int k = 0; k < keys; k++) {
+                queue.addOrUpdate(k, priorities[pass * keys + k] >> pass);
+            }
+        }
+        long sum = 0;
+        while (!queue.isEmpty()) {
+            sum += queue.removeMin();
+        }
+        return sum / keys;
+    }
+}
@@ -0,0 +1,138 @@
+package graph.benchmarks;
+
+import graph.BasicGraph;
+import graph.ComponentAlgorithm;
+import graph.Components;
+import graph.CsrGraph;
+import graph.DfsOrder;
+import graph.ShortestPathResult;
+import graph.SpanningForestAlgorithm;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Whole-graph algorithms on BasicGraph, and on its CsrGraph snapshot where one exists.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms8g", "-Xmx8g"})
+public class TraversalBenchmark {
+
+    @Param({"SPARSE", "DENSE", "POWER_LAW"})
+    public GraphShape shape;
+
+    @Param({"1000", "100000", "10000000"})
+    public int edges;
+
+    private BasicGraph<Integer> graph;
+    private BasicGraph<Integer> acyclic;
+    private CsrGraph<Integer> csr;
+
+    @Setup(Level.Trial)
+    public void build() {
+        GraphShape.EdgeList edgeList = shape.generate(edges);
+        graph = Graphs.build(edgeList);
+        acyclic = Graphs.buildAcyclic(edgeList);
+        csr = graph.freeze();
+    }
+
+    @Benchmark
+    public List<Integer> topologicalSort() {
+        return acyclic.topologicalSort();
+    }
+
+    @Benchmark
+    public List<Integer> dfsTraversal() {
+        return graph.dfsTraversal(0, DfsOrder.POST_ORDER);
+    }
+
+    @Benchmark
+    public List<Integer> bfsTraversal() {
+        return graph.bfsTraversal(0);
+    }
+
+    @Benchmark
+    public ShortestPathResult<Integer> shortestPath() {
+        return graph.shortestPath(0);
+    }
+
+    @Benchmark
+    public List<Integer> csrBfsTraversal() {
+        return csr.bfsTraversal(0);
+    }
+
+    @Benchmark
+    public ShortestPathResult<Integer> csrShortestPath() {
+        return csr.shortestPath(0);
+    }
+
+    @Benchmark
+    public Components<Integer> csrComponentsUnionFind() {
+        return csr.weaklyConnectedComponents(ForkJoinPool.commonPool(),
+                ComponentAlgorithm.UNION_FIND);
+    }
+
+    @Benchmark
+    public Components<Integer> csrComponentsLabelPropagation() {
+        return csr.weaklyConnectedComponents(ForkJoinPool.commonPool(),
+                ComponentAlgorithm.LABEL_PROPAGATION);
+    }
+
+    @Benchmark
+    public Components<Integer> csrStrongComponentsTarjan() {
+        return csr.stronglyConnectedComponents();
+    }
+
+    @Benchmark
+    public Components<Integer> csrStrongComponentsParallel() {
+        return csr.stronglyConnectedComponents(ForkJoinPool.commonPool());
+    }
+
+    @Benchmark
+    public Components<Integer> csrLabelPropagation() {
+        return csr.labelPropagation();
+    }
+
+    @Benchmark
+    public Components<Integer> csrLouvain() {
+        return csr.louvain();
+    }
+
+    @Benchmark
+    public long csrTriangles() {
+        return csr.triangles().count();
+    }
+
+    @Benchmark
+    public long csrSpanningForestBoruvka() {
+        return csr.minimumSpanningForest(ForkJoinPool.commonPool(),
+                SpanningForestAlgorithm.BORUVKA).totalWeight();
+    }
+
+    @Benchmark
+    public long csrSpanningForestKruskal() {
+        return csr.minimumSpanningForest(ForkJoinPool.commonPool(),
+                SpanningForestAlgorithm.KRUSKAL).totalWeight();
+    }
+
+    @Benchmark
+    public CsrGraph<Integer> freeze() {
+        return graph.freeze();
+    }
+}
@@ -1,26 +1,31 @@
 package graph;
 
+import java.util.AbstractMap;
+import java.util.AbstractSet;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
-import java.util.LinkedList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.NoSuchElementException;
-import java.util.Queue;
 import java.util.Set;
 import java.util.Stack;
-import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
     /**
      * BasicGraph is a class that implements the Graph ADT. The graph contains no duplicate
      * vertices, and only edges between two distinct vertices can exist - no edges that originate
      * and end at the same vertex.
+     * Every vertex has a dense int id: its index in 'vertices'. Edges are stored by id in the
+     * primitive rows 'outgoing' and 'incoming', and the Vertex objects in 'vertices' are read-only
+     * views that translate ids back to labels. Modify edges through addEdge and removeEdge.
      */
 
     public static List<String> output = new ArrayList<>();
@@ -29,12 +34,10 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
     // Map 'index' maps the label of a vertex to its index in ArrayList 'vertices'.
     public final Map<LabelType, Integer> index;
 
-    /**
-     * Queue of vertex IDs currently known to be reachable from the starting vertex but for whom the
-     * shortest possible path has not yet been determined.  Ordered by weight of the shortest known
-     * path from the starting vertex.
-     */
-    private final PriorityQueue<LabelType> frontier;
+    // 'outgoing.get(v)' holds the ids and weights of the edges v -> w, in insertion order.
+    private final List<IntAdjacency> outgoing;
+    // 'incoming.get(v)' holds the ids and weights of the edges u -> v, in insertion order.
+    private final List<IntAdjacency> incoming;
 
     private int size;
     private int edges;
@@ -45,16 +48,80 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
     public BasicGraph() {
         vertices = new ArrayList<>();
         index = new HashMap<>();
-        frontier = new MinQueue<>();
+        outgoing = new ArrayList<>();
+        incoming = new ArrayList<>();
+    }
+
+    /**
+     * Initializes a BasicGraph instance containing copies of 'vertices' and their edges. Vertex
+     * 'vertices.get(v)' gets id 'v'. Requires that the labels of 'vertices' are distinct.
+     */
+    public BasicGraph(List<Vertex<LabelType>> vertices) {
+        this();
+        copy(vertices);
     }
 
     /**
-     * Initializes a BasicGraph instance with already defined vertices, index, and heap fields.
+     * Initializes a BasicGraph instance containing copies of 'vertices' and their edges, like
+     * BasicGraph(vertices). Throws IllegalArgumentException unless 'index' maps the label of
+     * every vertex to its position in 'vertices' and nothing else.
+     * @deprecated ids always follow the order of 'vertices'; use BasicGraph(vertices).
      */
+    @Deprecated
     public BasicGraph(List<Vertex<LabelType>> vertices, Map<LabelType, Integer> index) {
-        this.vertices = vertices;
+        this(checkIndex(vertices, index));
+    }
+
+    // Returns 'vertices' if 'index' maps exactly their labels to their positions.
+    private static <LabelType> List<Vertex<LabelType>> checkIndex(
+            List<Vertex<LabelType>> vertices, Map<LabelType, Integer> index) {
+        boolean matches = index.size() == vertices.size();
+        for (int v = 0; matches && v < vertices.size(); v++) {
+            matches = Integer.valueOf(v).equals(index.get(vertices.get(v).label()));
+        }
+        if (!matches) {
+            throw new IllegalArgumentException("index does not match the order of vertices");
+        }
+        return vertices;
+    }
+
+    // Adds copies of 'vertices' and their edges to this empty graph. Calls only private methods,
+    // since it runs in a constructor.
+    private void copy(List<Vertex<LabelType>> vertices) {
+        // Add every vertex before any edge, so that neighbors do not get ids out of order.
+        for (Vertex<LabelType> vertex : vertices) {
+            register(vertex.label());
+        }
+        assert size == vertices.size() : "duplicate labels";
+        for (Vertex<LabelType> vertex : vertices) {
+            for (Entry<LabelType, Integer> out : vertex.outgoingEdges().entrySet()) {
+                addEdge(vertex.label(), out.getKey(), out.getValue());
+            }
+            for (Entry<LabelType, Integer> in : vertex.incomingEdges().entrySet()) {
+                addEdge(in.getKey(), vertex.label(), in.getValue());
+            }
+        }
+    }
+
+    /**
+     * Initializes a BasicGraph that takes over already built rows: vertex 'v' gets label
+     * 'labels.get(v)' and the edges in 'outgoing[v]' and 'incoming[v]'. Requires that 'index'
+     * maps every label to its position in 'labels', that the incoming rows describe exactly the
+     * reverse of the outgoing rows, and that 'edges' is the number of edges. Used by GraphBuilder.
+     */
+    BasicGraph(List<LabelType> labels, Map<LabelType, Integer> index, IntAdjacency[] outgoing,
+            IntAdjacency[] incoming, int edges) {
+        assert labels.size() == index.size() && outgoing.length == labels.size()
+                && incoming.length == labels.size();
+        vertices = new ArrayList<>(labels.size());
+        for (int v = 0; v < labels.size(); v++) {
+            vertices.add(new AdjacencyVertex(labels.get(v), v));
+        }
         this.index = index;
-        frontier = new MinQueue<>();
+        this.outgoing = new ArrayList<>(Arrays.asList(outgoing));
+        this.incoming = new ArrayList<>(Arrays.asList(incoming));
+        this.size = labels.size();
+        this.edges = edges;
     }
 
     @Override
@@ -81,14 +148,77 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
     }
 
     /**
-     *  Adds a new vertex to graph without any incoming or outgoing edges if 'vertex' does not
-     *  already exist in the graph.
+     * Returns the outgoing edges of the vertex with id 'id'.
+     */
+    IntAdjacency outgoing(int id) {
+        return outgoing.get(id);
+    }
+
+    /**
+     * Returns the incoming edges of the vertex with id 'id'.
+     */
+    IntAdjacency incoming(int id) {
+        return incoming.get(id);
+    }
+
+    /**
+     * Returns a view of this graph's edges by vertex id, for the algorithms shared with CsrGraph.
+     * The view reflects later changes to the graph.
+     */
+    IntGraph adjacency() {
+        return new IntGraph() {
+            @Override
+            public int vertexCount() {
+                return BasicGraph.this.vertexCount();
+            }
+
+            @Override
+            public int outDegree(int v) {
+                return outgoing.get(v).size();
+            }
+
+            @Override
+            public int outTarget(int v, int i) {
+                return outgoing.get(v).id(i);
+            }
+
+            @Override
+            public int outWeight(int v, int i) {
+                return outgoing.get(v).weight(i);
+            }
+
+            @Override
+            public int inDegree(int v) {
+                return incoming.get(v).size();
+            }
+
+            @Override
+            public int inTarget(int v, int i) {
+                return incoming.get(v).id(i);
+            }
+
+            @Override
+            public int inWeight(int v, int i) {
+                return incoming.get(v).weight(i);
+            }
+        };
+    }
+
+    /**
+     *  Adds a new vertex to graph if 'vertex' does not already exist in the graph. Edges already
+     *  stored in 'vertex' are added as well, creating any neighbor that does not exist yet.
      */
     public void addVertex(Vertex<LabelType> vertex) {
         if (!index.containsKey(vertex.label())) {
-            index.putIfAbsent(vertex.label(), vertexCount());
-            vertices.add(vertex);
-            size++;
+            register(vertex.label());
+            for (Entry<LabelType, Integer> out : vertex.outgoingEdges().entrySet()) {
+                register(out.getKey());
+                addEdge(vertex.label(), out.getKey(), out.getValue());
+            }
+            for (Entry<LabelType, Integer> in : vertex.incomingEdges().entrySet()) {
+                register(in.getKey());
+                addEdge(in.getKey(), vertex.label(), in.getValue());
+            }
         }
     }
 
@@ -97,8 +227,7 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
      *  If other vertex is an outgoing edge of Vertex, add Vertex to other vertex's incomingEdges.
      *  If other vertex is an incoming edge of Vertex, add Vertex to other vertex's outgoingEdges.
      *  Lists 'incoming' and 'outgoing' are lists containing Edge elements: Edge(neighbor, weight).
-     *  Requires that vertices in outgoingEdges and incomingEdges must already exist as a vertex in
-     *  BasicGraph.
+     *  Vertices in 'incoming' and 'outgoing' that do not exist in BasicGraph yet are created.
      */
     public void addVertex(Vertex<LabelType> vertex, List<BasicEdge<LabelType, Integer>>
             incoming, List<BasicEdge<LabelType, Integer>> outgoing) {
@@ -107,60 +236,88 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
 
         // If 'in' is an incoming edge of Vertex, add Vertex to 'in's outgoingEdges.
         for (BasicEdge<LabelType, Integer> in : incoming) {
-            if (!index.containsKey(in.neighbor())) {
-                addVertex(new BasicVertex<>(in.neighbor()));
-            }
-            if (!getVertex(in.neighbor()).outgoingEdges().containsKey(vertex.label())) {
-                getVertex(vertex.label()).incomingEdges().putIfAbsent(in.neighbor(), in.weight());
-                getVertex(in.neighbor()).outgoingEdges().putIfAbsent(vertex.label(), in.weight());
-                edges++;
-            }
+            register(in.neighbor());
+            addEdge(in.neighbor(), vertex.label(), in.weight());
         }
 
         // If label in incoming, outgoing edges does not exist in vertices, create new vertex.
         for (BasicEdge<LabelType, Integer> out : outgoing) {
-            if (!index.containsKey(out.neighbor())) {
-                addVertex(new BasicVertex<>(out.neighbor()));
-            }
-            if (!getVertex(out.neighbor()).incomingEdges().containsKey(vertex.label())) {
-                getVertex(vertex.label()).outgoingEdges().putIfAbsent(out.neighbor(), out.weight());
-                getVertex(out.neighbor()).incomingEdges().putIfAbsent(vertex.label(), out.weight());
-                edges++;
-            }
+            register(out.neighbor());
+            addEdge(vertex.label(), out.neighbor(), out.weight());
         }
     }
 
     /**
-     * Returns and removes vertex with label 'label' from the graph by swapping vertex to be removed
-     * with the last vertex in ArrayList 'vertices' and removing this last element in 'vertices'.
+     * Gives 'label' the next free id if it does not have one yet, and returns its id.
+     */
+    private int register(LabelType label) {
+        Integer id = index.get(label);
+        if (id != null) {
+            return id;
+        }
+        int next = vertices.size();
+        index.put(label, next);
+        vertices.add(new AdjacencyVertex(label, next));
+        outgoing.add(new IntAdjacency());
+        incoming.add(new IntAdjacency());
+        size++;
+        return next;
+    }
+
+    /**
+     * Returns and removes vertex with label 'label' from the graph by moving the last vertex in
+     * ArrayList 'vertices' into the removed vertex's id and removing this last element in
+     * 'vertices'. The returned vertex is detached from the graph and keeps a copy of its edges.
      * Requires that vertex with label 'label' exists in the graph.
      * O(|E|) algorithm.
      */
     public Vertex<LabelType> removeVertex(LabelType label) {
         assert getVertex(label) != null;
 
-        Vertex<LabelType> remove = getVertex(label);
-        // Replaces the value of vertices.getLast() with the index of the vertex to be removed.
-        index.replace(vertices.getLast().label(), index.get(remove.label()));
-        // Replaces the value for the vertex to be removed with the last index in vertices.
-        vertices.set(vertices.indexOf(remove), vertices.getLast());
+        int id = index.get(label);
+        Vertex<LabelType> remove = new BasicVertex<>(label,
+                new LinkedHashMap<>(vertices.get(id).incomingEdges()),
+                new LinkedHashMap<>(vertices.get(id).outgoingEdges()));
 
         // For all vertex 'in' that 'remove' is adjacent to: 'in' -> 'remove', remove vertex
         // 'remove' from 'in's outgoingEdges.
-        for (LabelType in : remove.incomingEdges().keySet()) {
-            getVertex(in).outgoingEdges().remove(label);
+        IntAdjacency in = incoming.get(id);
+        for (int i = 0; i < in.size(); i++) {
+            outgoing.get(in.id(i)).remove(id);
             edges--;
         }
         // For all vertex 'out' that are adjacent to 'remove': 'out' <- 'remove', remove vertex
         // 'remove' from 'out's incomingEdges.
-        for (LabelType out: remove.outgoingEdges().keySet()) {
-            getVertex(out).incomingEdges().remove(label);
+        IntAdjacency out = outgoing.get(id);
+        for (int i = 0; i < out.size(); i++) {
+            incoming.get(out.id(i)).remove(id);
             edges--;
         }
 
+        // Move the last vertex into id 'id', renaming it in the rows of its neighbors.
+        int last = vertexCount() - 1;
+        if (id != last) {
+            IntAdjacency lastIn = incoming.get(last);
+            for (int i = 0; i < lastIn.size(); i++) {
+                outgoing.get(lastIn.id(i)).replace(last, id);
+            }
+            IntAdjacency lastOut = outgoing.get(last);
+            for (int i = 0; i < lastOut.size(); i++) {
+                incoming.get(lastOut.id(i)).replace(last, id);
+            }
+            incoming.set(id, lastIn);
+            outgoing.set(id, lastOut);
+            AdjacencyVertex moved = (AdjacencyVertex) vertices.get(last);
+            moved.id = id;
+            vertices.set(id, moved);
+            index.replace(moved.label(), id);
+        }
+
         // Remove last vertex in vertices: which is now vertex with label 'label'.
         index.remove(label);
         vertices.removeLast();
+        incoming.removeLast();
+        outgoing.removeLast();
         size--;
         return remove;
     }
@@ -174,10 +331,20 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
     public boolean addEdge(LabelType label, BasicEdge<LabelType, Integer> edge) {
         assert containsVertex(label) && containsVertex(edge.neighbor());
 
-        if (!getVertex(label).outgoingEdges().containsKey(edge.neighbor())) {
-            getVertex(label).outgoingEdges().put(edge.neighbor(), edge.weight());
-            getVertex(edge.neighbor()).incomingEdges().put(label, edge.weight());
+        return addEdge(label, edge.neighbor(), edge.weight());
+    }
+
+    /**
+     * Add the edge: 'sourceLabel' -> 'destLabel' with weight 'weight' if it doesn't already exist.
+     * Returns true if the edge is added. Requires both vertices exist in graph.
+     */
+    private boolean addEdge(LabelType sourceLabel, LabelType destLabel, int weight) {
+        int source = index.get(sourceLabel);
+        int dest = index.get(destLabel);
+        if (outgoing.get(source).add(dest, weight)) {
+            incoming.get(dest).add(source, weight);
             edges++;
+            return true;
         }
         return false;
     }
@@ -190,14 +357,65 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
     public boolean removeEdge(LabelType sourceLabel, LabelType destLabel) {
         assert containsVertex(sourceLabel) && containsVertex(destLabel);
 
-        if (getVertex(sourceLabel).outgoingEdges().remove(destLabel) != null) {
-            getVertex(destLabel).incomingEdges().remove(sourceLabel);
+        int source = index.get(sourceLabel);
+        int dest = index.get(destLabel);
+        if (outgoing.get(source).remove(dest)) {
+            incoming.get(dest).remove(source);
             edges--;
             return true;
         }
         return false;
     }
 
+    /**
+     * Sets the weight of the edge: 'sourceLabel' -> 'destLabel' to 'weight', keeping its position
+     * among the edges of both vertices. Returns true if the edge exists.
+     * Requires 'sourceLabel' and 'destLabel' vertices exist in graph.
+     */
+    public boolean setEdgeWeight(LabelType sourceLabel, LabelType destLabel, int weight) {
+        assert containsVertex(sourceLabel) && containsVertex(destLabel);
+
+        int source = index.get(sourceLabel);
+        int dest = index.get(destLabel);
+        int i = outgoing.get(source).indexOf(dest);
+        if (i < 0) {
+            return false;
+        }
+        outgoing.get(source).setWeight(i, weight);
+        incoming.get(dest).setWeight(incoming.get(dest).indexOf(source), weight);
+        return true;
+    }
+
+    /**
+     * Returns an immutable CsrGraph snapshot of the current graph. Vertex ids in the snapshot are
+     * the vertices' indices in 'vertices', and every vertex keeps the order of its incoming and
+     * outgoing edges. Later changes to this graph are not reflected in the snapshot.
+     * O(|V| + |E|) algorithm.
+     */
+    public CsrGraph<LabelType> freeze() {
+        int n = vertexCount();
+        List<LabelType> labels = new ArrayList<>(n);
+        int[] outOffsets = new int[n + 1];
+        int[] inOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            labels.add(vertices.get(v).label());
+            outOffsets[v + 1] = outOffsets[v] + outgoing.get(v).size();
+            inOffsets[v + 1] = inOffsets[v] + incoming.get(v).size();
+        }
+        int[] outTargets = new int[outOffsets[n]];
+        int[] outWeights = new int[outOffsets[n]];
+        int[] inTargets = new int[inOffsets[n]];
+        int[] inWeights = new int[inOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            outgoing.get(v).copyIds(outTargets, outOffsets[v]);
+            outgoing.get(v).copyWeights(outWeights, outOffsets[v]);
+            incoming.get(v).copyIds(inTargets, inOffsets[v]);
+            incoming.get(v).copyWeights(inWeights, inOffsets[v]);
+        }
+        return new CsrGraph<>(labels, new HashMap<>(index), outOffsets, outTargets, outWeights,
+                inOffsets, inTargets, inWeights);
+    }
+
     /**
      * Kahn's algorithm for topological sorting:
      * Continue to remove vertices with indegree = 0 until either graph is empty, or all
@@ -205,26 +423,21 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
      * the graph is not cyclic and the order at which the vertices were removed represents
      * topological sorting. If there are remaining vertices that cannot be removed, then the
      * graph is cyclic, cannot be topologically sorted, and topologicalSort() returns null.
+     * Use topologicalOrder() to find out which vertices are stuck on a cycle.
      */
     public List<LabelType> topologicalSort() {
-        // Make a copy of the current graph.
-        BasicGraph<LabelType> topCopy = new BasicGraph<>(new ArrayList<>(vertices),
-                new HashMap<LabelType, Integer>(index));
-        List<LabelType> inFrontier = new ArrayList<>();
-        // if size of inFrontier doesn't change
-        while (inFrontier.size() != this.vertexCount()) {
-            int size = inFrontier.size();
-            for (Vertex<LabelType> vertex : this.vertices) {
-                if (!inFrontier.contains(vertex.label()) &&
-                        topCopy.getVertex(vertex.label()).incomingEdges().isEmpty()) {
-                    inFrontier.add(topCopy.removeVertex(vertex.label()).label());
-                }
-            }
-            // If nothing is added to inFrontier after 1 for loop iteration, return null.
-            if (size == inFrontier.size()) { return null; }
-        }
-        // Graph is topologically sorted only if all vertices are added to the new inFrontier list.
-        return (inFrontier.size() == this.vertexCount()) ? inFrontier : null;
+        TopologicalOrder<LabelType> order = topologicalOrder();
+        return order.isAcyclic() ? order.order() : null;
+    }
+
+    /**
+     * Returns the result of Kahn's algorithm, including the vertices stuck on a cycle and one such
+     * cycle if the graph is cyclic. Vertex removal is simulated with an in-degree counter per
+     * vertex, so the graph is left untouched.
+     * O(|V| + |E|) algorithm.
+     */
+    public TopologicalOrder<LabelType> topologicalOrder() {
+        return TopologicalOrder.kahn(adjacency(), id -> vertices.get(id).label());
     }
 
     /**
@@ -233,67 +446,203 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
      * If 'order' is neither "settlement" or "visit", returns null.
      */
     public List<LabelType> dfsTraversal(LabelType start, String order) {
-        List<LabelType> discovered = new ArrayList<>(List.of(start));
-        List<LabelType> settled = new ArrayList<>();
-        dfsWalk(start, discovered, settled::add);
-        return order.equals("settlement") ? settled : (order.equals("visit") ? discovered : null);
+        return order.equals("settlement") ? dfsTraversal(start, DfsOrder.POST_ORDER)
+                : (order.equals("visit") ? dfsTraversal(start, DfsOrder.PRE_ORDER) : null);
     }
 
     /**
-     * Implements depth first search traversal of the graph from a starting vertex with label
-     * 'start' in dfs settlement order.
+     * Returns the vertices reachable from 'start' in depth first order 'order'.
      * Vertex is settled when all of its neighbors have already been visited: all outgoing
      * edge vertices have already been visited.
-     * Do dfs recursively.
-     */
-    private void dfsWalk(LabelType start, List<LabelType> discovered, Consumer<LabelType> settled) {
-        // Once the end of the for loop is reached (or if outgoingEdges is empty, loop will be
-        // skipped), means that all neighbors of 'vertex' are visited and 'vertex' can be settled.
-        for (LabelType vertex : getVertex(start).outgoingEdges().keySet()) {
-            if (!discovered.contains(vertex)) {
-                discovered.add(vertex);
-                dfsWalk(vertex, discovered, settled);
-            }
+     * Walks with an explicit stack, so deep graphs do not overflow the thread's stack.
+     * O(|V| + |E|) algorithm.
+     */
+    public List<LabelType> dfsTraversal(LabelType start, DfsOrder order) {
+        assert containsVertex(start);
+        return labelsOf(DepthFirstSearch.from(adjacency(), index.get(start), order));
+    }
+
+    /**
+     * Returns all vertices in depth first order 'order', starting a new traversal from each
+     * vertex not yet visited, in the order of 'vertices'.
+     * O(|V| + |E|) algorithm.
+     */
+    public List<LabelType> dfsTraversal(DfsOrder order) {
+        return labelsOf(DepthFirstSearch.all(adjacency(), order));
+    }
+
+    // Returns the labels of the vertices with ids 'ids', in the same order.
+    private List<LabelType> labelsOf(int[] ids) {
+        List<LabelType> labels = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            labels.add(vertices.get(id).label());
         }
-        settled.accept(start);
+        return labels;
     }
 
     /**
      * Breadth first search: put discovered vertices in a queue, such that the first vertex to be
      * discovered is the first vertex to be visited. Settle a vertex when all of its neighbors
      * have been discovered.
+     * For large graphs, freeze() the graph and use CsrGraph.parallelBfs, which also returns the
+     * level and parent of every vertex.
+     * O(|V| + |E|) algorithm.
      */
     public List<LabelType> bfsTraversal(LabelType start) {
-        // When removing vertex from discovered, always remove first vertex and visit.
-        Queue<LabelType> frontier = new LinkedList<>(List.of(start));
-        List<LabelType> discovered = new ArrayList<>();
-        List<LabelType> settled = new ArrayList<>();
-        while (!frontier.isEmpty()) {
-            LabelType vertex = frontier.remove();
-            settled.add(vertex);
-            for (LabelType neighbors : getVertex(vertex).outgoingEdges().keySet()) {
-                if (!discovered.contains(neighbors)) {
-                    frontier.add(neighbors);
-                    discovered.add(neighbors);
-                }
-            }
-        }
-        return settled;
+        assert containsVertex(start);
+        return labelsOf(BreadthFirstSearch.order(adjacency(), index.get(start)));
     }
 
-    // Start priority is 0.
-    public void shortestPath(LabelType start) {
-        frontier.addOrUpdate(start, 0);
-        List<LabelType> discovered = new ArrayList<>();
-        while (!frontier.isEmpty()) {
-            LabelType vertex = frontier.remove();
-            for (LabelType neighbor : getVertex(vertex).outgoingEdges().keySet()) {
-                if (!discovered.contains(neighbor)) {
-                    discovered.add(neighbor);
-                    frontier.addOrUpdate(neighbor, getVertex(vertex).outgoingEdges().get(neighbor));
-                }
-            }
-        }
+    /**
+     * Returns the weakly connected components, the components of the graph with edge directions
+     * ignored, computed in parallel on a CsrGraph snapshot; see
+     * CsrGraph.weaklyConnectedComponents(). Vertex ids and component numbers are those of this
+     * graph until it changes.
+     * O(|V| + |E| α(|V|)) algorithm.
+     */
+    public Components<LabelType> weaklyConnectedComponents() {
+        return freeze().weaklyConnectedComponents();
+    }
+
+    /**
+     * Returns the PageRank of every vertex, computed in parallel on a CsrGraph snapshot; see
+     * CsrGraph.pageRank(). Vertex ids are those of this graph until it changes.
+     * O((|V| + |E|) * iterations) algorithm.
+     */
+    public PageRankResult<LabelType> pageRank() {
+        return freeze().pageRank();
+    }
+
+    /**
+     * Returns communities of high modularity found by the Louvain method on a CsrGraph snapshot;
+     * see CsrGraph.louvain(). Vertex ids and community numbers are those of this graph until it
+     * changes.
+     */
+    public Components<LabelType> louvain() {
+        return freeze().louvain();
+    }
+
+    /**
+     * Returns communities found by parallel label propagation on a CsrGraph snapshot; see
+     * CsrGraph.labelPropagation().
+     */
+    public Components<LabelType> labelPropagation() {
+        return freeze().labelPropagation();
+    }
+
+    /**
+     * Returns the triangles of this graph with edge directions ignored, counted in parallel on a
+     * CsrGraph snapshot; see CsrGraph.triangles().
+     */
+    public Triangles<LabelType> triangles() {
+        return freeze().triangles();
+    }
+
+    /**
+     * Returns a minimum spanning forest of this graph with edge directions ignored, found in
+     * parallel on a CsrGraph snapshot; see CsrGraph.minimumSpanningForest(). Vertex ids are those
+     * of this graph until it changes.
+     * O(|E| log |V|) algorithm.
+     */
+    public SpanningForest<LabelType> minimumSpanningForest() {
+        return freeze().minimumSpanningForest();
+    }
+
+    /**
+     * Returns the strongly connected components, the maximal sets of vertices that all reach
+     * each other, found by an iterative Tarjan's algorithm. Vertex ids and component numbers are
+     * those of this graph until it changes. For large graphs, freeze() the graph and use
+     * CsrGraph.stronglyConnectedComponents(pool), which runs in parallel.
+     * O(|V| + |E|) algorithm.
+     */
+    public Components<LabelType> stronglyConnectedComponents() {
+        int[] components = new int[vertexCount()];
+        Arrays.fill(components, StronglyConnectedComponents.UNASSIGNED);
+        StronglyConnectedComponents.tarjan(adjacency(), components);
+        return new Components<>(Components.smallest(components), index,
+                id -> vertices.get(id).label());
+    }
+
+    /**
+     * Dijkstra's algorithm: returns the shortest path tree from 'start' to every vertex reachable
+     * from it. The priority of a vertex in the frontier is the length of the shortest known path
+     * from 'start', lowered with addOrUpdate whenever a shorter path is found. The frontier is a
+     * 4-ary IntIndexedDaryHeap keyed by vertex id.
+     * Requires that 'start' exists in the graph and that all edge weights are non-negative.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start) {
+        return shortestPath(start, null, new IntIndexedDaryHeap(vertexCount()));
+    }
+
+    /**
+     * Returns the shortest path from 'start' to 'target', stopping as soon as 'target' is settled.
+     * Requires that both vertices exist in the graph and that all edge weights are non-negative.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start, LabelType target) {
+        assert target != null;
+        return shortestPath(start, target, new IntIndexedDaryHeap(vertexCount()));
+    }
+
+    /**
+     * Same as shortestPath(start, target), using 'frontier' as the queue of vertex ids, e.g. a
+     * MinQueue or an IntIndexedDaryHeap with a different arity. A null 'target' computes the
+     * paths to every vertex. Queues other than IntIndexedDaryHeap box every vertex id they
+     * hold. Requires that 'frontier' is empty.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start, LabelType target,
+            PriorityQueue<Integer> frontier) {
+        assert containsVertex(start) && (target == null || containsVertex(target));
+        int source = index.get(start);
+        int dest = target == null ? ShortestPathResult.NONE : index.get(target);
+        int[] distances = new int[vertexCount()];
+        int[] predecessors = new int[vertexCount()];
+        ShortestPaths.dijkstra(adjacency(), source, dest, distances, predecessors,
+                IntPriorityQueue.boxed(frontier));
+        return new ShortestPathResult<>(source, distances, predecessors, index,
+                id -> vertices.get(id).label());
+    }
+
+    /**
+     * A* search: returns the shortest path from 'start' to 'target', settling vertices in order of
+     * their distance from 'start' plus 'heuristic' of their label, a lower bound on their
+     * distance to 'target', such as the straight-line distance between coordinates attached to
+     * the labels. The better the bound, the fewer vertices are settled before 'target'. The
+     * heuristic must be 0 for 'target' and never overestimate; see ShortestPaths.aStar.
+     * Requires that both vertices exist in the graph and that all edge weights are non-negative.
+     */
+    public ShortestPathResult<LabelType> aStar(LabelType start, LabelType target,
+            ToIntFunction<LabelType> heuristic) {
+        assert containsVertex(start) && containsVertex(target);
+        int source = index.get(start);
+        int[] distances = new int[vertexCount()];
+        int[] predecessors = new int[vertexCount()];
+        ShortestPaths.aStar(adjacency(), source, index.get(target),
+                id -> heuristic.applyAsInt(vertices.get(id).label()), distances, predecessors,
+                new IntIndexedDaryHeap(vertexCount()));
+        return new ShortestPathResult<>(source, distances, predecessors, index,
+                id -> vertices.get(id).label());
+    }
+
+    /**
+     * Bidirectional Dijkstra: returns the shortest path from 'start' to 'target', searching
+     * forward from 'start' over outgoing edges and backward from 'target' over incoming edges
+     * until the searches meet, so each settles only about the vertices within half the distance
+     * of its end. As for shortestPath(start, target), only the path itself is final in the
+     * result.
+     * Requires that both vertices exist in the graph and that all edge weights are non-negative.
+     */
+    public ShortestPathResult<LabelType> bidirectionalShortestPath(LabelType start,
+            LabelType target) {
+        assert containsVertex(start) && containsVertex(target);
+        int n = vertexCount();
+        int source = index.get(start);
+        int[] distances = new int[n];
+        int[] predecessors = new int[n];
+        ShortestPaths.bidirectional(adjacency(), source, index.get(target), distances,
+                predecessors, new int[n], new int[n], new IntIndexedDaryHeap(n),
+                new IntIndexedDaryHeap(n));
+        return new ShortestPathResult<>(source, distances, predecessors, index,
+                id -> vertices.get(id).label());
     }
 
     // Find 3 numbers in array that sum to zero.
@@ -399,5 +748,113 @@ public class BasicGraph<LabelType> implements Graph<BasicVertex<LabelType>>{
         }
         return letters;
     }
-}
 
+    /**
+     * Read-only Vertex of this graph. Its edge maps are views over the vertex's primitive rows,
+     * translating neighbor ids back to labels, so they always reflect the current edges.
+     */
+    private class AdjacencyVertex implements Vertex<LabelType> {
+        private final LabelType label;
+        // Index of this vertex in 'vertices'; changes when removeVertex moves this vertex.
+        private int id;
+
+        AdjacencyVertex(LabelType label, int id) {
+            this.label = label;
+            this.id = id;
+        }
+
+        @Override
+        public LabelType label() {
+            return label;
+        }
+
+        @Override
+        public int edgeCount() {
+            return outgoing.get(id).size() + incoming.get(id).size();
+        }
+
+        @Override
+        public Map<LabelType, Integer> outgoingEdges() {
+            return new EdgeMap(this, true);
+        }
+
+        @Override
+        public Map<LabelType, Integer> incomingEdges() {
+            return new EdgeMap(this, false);
+        }
+    }
+
+    /**
+     * Unmodifiable Map from neighbor label to weight over one row of a vertex. The row is looked
+     * up on every call, so the view stays valid when removeVertex moves its vertex.
+     */
+    private class EdgeMap extends AbstractMap<LabelType, Integer> {
+        private final AdjacencyVertex vertex;
+        private final boolean out;
+
+        EdgeMap(AdjacencyVertex vertex, boolean out) {
+            this.vertex = vertex;
+            this.out = out;
+        }
+
+        private IntAdjacency row() {
+            return out ? outgoing.get(vertex.id) : incoming.get(vertex.id);
+        }
+
+        // Returns the position of neighbor 'key' in the row, or -1 if it is not a neighbor.
+        private int find(Object key) {
+            Integer id = index.get(key);
+            return id == null ? -1 : row().indexOf(id);
+        }
+
+        @Override
+        public int size() {
+            return row().size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int i = find(key);
+            return i < 0 ? null : row().weight(i);
+        }
+
+        @Override
+        public Set<Entry<LabelType, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return row().size();
+                }
+
+                @Override
+                public Iterator<Entry<LabelType, Integer>> iterator() {
+                    IntAdjacency row = row();
+                    return new Iterator<>() {
+                        private int i = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < row.size();
+                        }
+
+                        @Override
+                        public Entry<LabelType, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<LabelType, Integer> entry = new SimpleImmutableEntry<>(
+                                    vertices.get(row.id(i)).label(), row.weight(i));
+                            i++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -576,5 +576,169 @@ public class BasicGraphTest {
         System.out.println(BasicGraph.commonChars(new String[]{"bella","label","roller"}));
     }
 
-}
+    @DisplayName("WHEN a vertex has many neighbors AND vertices are removed.")
+    @Test
+    void testHighDegreeVertex() {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        g.addVertex(new BasicVertex<>(0));
+        for (int i = 1; i <= 50; i++) {
+            g.addVertex(new BasicVertex<>(i));
+            g.addEdge(0, new BasicEdge<>(i, i));
+            g.addEdge(i, new BasicEdge<>(0, -i));
+        }
+        assertFalse(g.addEdge(0, new BasicEdge<>(7, 1)));
+        assertEquals(100, g.edgeCount());
+        assertEquals(100, g.getVertex(0).edgeCount());
+        assertEquals(7, g.getVertex(0).outgoingEdges().get(7));
+        assertEquals(-7, g.getVertex(0).incomingEdges().get(7));
+
+        // Removing vertex 7 moves vertex 50 into its id; its edges must follow it.
+        Vertex<Integer> removed = g.removeVertex(7);
+        assertEquals(Map.of(0, 7), removed.incomingEdges());
+        assertEquals(Map.of(0, -7), removed.outgoingEdges());
+        assertEquals(98, g.edgeCount());
+        assertFalse(g.getVertex(0).outgoingEdges().containsKey(7));
+        assertEquals(50, g.getVertex(0).outgoingEdges().get(50));
+        assertEquals(Map.of(0, 50), g.getVertex(50).incomingEdges());
+        assertEquals(Map.of(0, -50), g.getVertex(50).outgoingEdges());
+        assertTrue(g.removeEdge(50, 0));
+        assertFalse(g.getVertex(0).incomingEdges().containsKey(50));
+
+        // Neighbors keep the order in which their edges were added.
+        List<Integer> expected = new ArrayList<>();
+        for (int i = 1; i <= 50; i++) {
+            if (i != 7) {
+                expected.add(i);
+            }
+        }
+        assertEquals(expected, new ArrayList<>(g.getVertex(0).outgoingEdges().keySet()));
+    }
 
+    @DisplayName("WHEN the graph is weighted, THEN shortestPath returns distances and paths.")
+    @Test
+    void testShortestPath() {
+        BasicGraph<String> g = new BasicGraph<>();
+        g.addVertex(new BasicVertex<String>("A"),
+                List.of(),
+                List.of(new BasicEdge<>("B", 7), new BasicEdge<>("C", 2)));
+        g.addVertex(new BasicVertex<String>("C"),
+                List.of(),
+                List.of(new BasicEdge<>("B", 3), new BasicEdge<>("D", 8)));
+        g.addVertex(new BasicVertex<String>("B"),
+                List.of(),
+                List.of(new BasicEdge<>("D", 1)));
+        g.addVertex(new BasicVertex<String>("E"),
+                List.of(),
+                List.of(new BasicEdge<>("A", 1)));
+
+        ShortestPathResult<String> result = g.shortestPath("A");
+        assertEquals("A", result.source());
+        assertEquals(0, result.distanceTo("A"));
+        assertEquals(5, result.distanceTo("B"));
+        assertEquals(2, result.distanceTo("C"));
+        assertEquals(6, result.distanceTo("D"));
+        assertEquals(List.of("A", "C", "B", "D"), result.pathTo("D"));
+        assertFalse(result.hasPathTo("E"));
+        assertEquals(ShortestPathResult.UNREACHABLE, result.distanceTo("E"));
+        assertEquals(List.of(), result.pathTo("E"));
+        assertEquals(ShortestPathResult.NONE, result.predecessors()[g.index.get("A")]);
+
+        // Single-target query stops once 'C' is settled, before 'D' gets its final distance.
+        ShortestPathResult<String> toC = g.shortestPath("A", "C");
+        assertEquals(2, toC.distanceTo("C"));
+        assertEquals(List.of("A", "C"), toC.pathTo("C"));
+        assertEquals(ShortestPathResult.UNREACHABLE, toC.distanceTo("D"));
+        assertEquals(List.of("E", "A", "C", "B"), g.shortestPath("E", "B").pathTo("B"));
+    }
+
+    @DisplayName("WHEN the graph is cyclic, THEN topologicalOrder reports a cycle AND the graph "
+            + "is unchanged.")
+    @Test
+    void testTopologicalOrderCycle() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("A", "B", "C", "D", "E", "F")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("A", new BasicEdge<>("B", 1));
+        g.addEdge("B", new BasicEdge<>("C", 1));
+        g.addEdge("C", new BasicEdge<>("D", 1));
+        g.addEdge("D", new BasicEdge<>("B", 1));
+        g.addEdge("D", new BasicEdge<>("E", 1));
+        g.addEdge("A", new BasicEdge<>("F", 1));
+
+        TopologicalOrder<String> order = g.topologicalOrder();
+        assertFalse(order.isAcyclic());
+        assertEquals(List.of("A", "F"), order.order());
+        assertEquals(List.of("B", "C", "D", "E"), order.remaining());
+        List<String> cycle = order.cycle();
+        assertEquals(Set.of("B", "C", "D"), new HashSet<>(cycle));
+        for (int i = 0; i < cycle.size(); i++) {
+            String next = cycle.get((i + 1) % cycle.size());
+            assertTrue(g.getVertex(cycle.get(i)).outgoingEdges().containsKey(next));
+        }
+        assertNull(g.topologicalSort());
+        assertEquals(6, g.edgeCount());
+        assertEquals(2, g.getVertex("B").incomingEdges().size());
+
+        g.removeEdge("D", "B");
+        assertTrue(g.topologicalOrder().isAcyclic());
+        assertEquals(List.of("A", "B", "C", "D", "E", "F"), g.topologicalSort());
+        assertEquals(List.of(), g.topologicalOrder().cycle());
+    }
+
+    @DisplayName("WHEN the graph is a long chain, THEN dfsTraversal does not overflow the stack.")
+    @Test
+    void testDFSDeepChain() {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        int n = 200_000;
+        g.addVertex(new BasicVertex<>(0));
+        for (int i = 1; i < n; i++) {
+            g.addVertex(new BasicVertex<>(i));
+            g.addEdge(i - 1, new BasicEdge<>(i, 1));
+        }
+        List<Integer> visit = g.dfsTraversal(0, DfsOrder.PRE_ORDER);
+        List<Integer> settle = g.dfsTraversal(0, DfsOrder.POST_ORDER);
+        assertEquals(n, visit.size());
+        assertEquals(0, visit.get(0));
+        assertEquals(n - 1, settle.get(0));
+        assertEquals(visit, g.dfsTraversal(0, DfsOrder.REVERSE_POST_ORDER));
+    }
+
+    @DisplayName("WHEN the graph is sparse and acyclic, THEN a full traversal visits every vertex.")
+    @Test
+    void testDFSOrders() {
+        BasicGraph<String> g = CsrGraphTest.makeTree();
+        g.addVertex(new BasicVertex<>("9"));
+        g.addEdge("9", new BasicEdge<>("4", 0));
+
+        assertEquals(List.of("1", "4", "8", "3", "7", "2", "6", "5"),
+                g.dfsTraversal("1", DfsOrder.REVERSE_POST_ORDER));
+        assertEquals(List.of("5", "6", "2", "7", "3", "8", "4", "1", "9"),
+                g.dfsTraversal(DfsOrder.POST_ORDER));
+        assertEquals(List.of("1", "2", "5", "6", "3", "7", "4", "8", "9"),
+                g.dfsTraversal(DfsOrder.PRE_ORDER));
+        assertNull(g.dfsTraversal("1", "neither"));
+    }
+
+    @DisplayName("WHEN a graph is copied from its vertices, THEN the copy has the same ids and "
+            + "edges AND a mismatched index is rejected.")
+    @SuppressWarnings("deprecation")
+    @Test
+    void testCopyConstructor() {
+        BasicGraph<String> g = CsrGraphTest.makeTree();
+        BasicGraph<String> copy = new BasicGraph<>(g.vertices);
+        assertEquals(g.index, copy.index);
+        assertEquals(g.edgeCount(), copy.edgeCount());
+        for (Vertex<String> vertex : g.vertices) {
+            assertEquals(vertex.outgoingEdges(), copy.getVertex(vertex.label()).outgoingEdges());
+        }
+        assertEquals(g.index, new BasicGraph<>(g.vertices, g.index).index);
+
+        Map<String, Integer> swapped = new HashMap<>(g.index);
+        swapped.put(g.vertices.get(0).label(), 1);
+        swapped.put(g.vertices.get(1).label(), 0);
+        assertThrows(IllegalArgumentException.class, () -> new BasicGraph<>(g.vertices, swapped));
+        assertThrows(IllegalArgumentException.class,
+                () -> new BasicGraph<>(g.vertices, Map.of()));
+    }
+}
@@ -0,0 +1,79 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+public class BfsResult<LabelType> {
+    /**
+     * BfsResult holds the breadth first search tree from one source vertex. Levels and parents are
+     * stored in int arrays indexed by vertex id: 'levels()[v]' is the number of edges on a
+     * shortest path from the source to 'v', or UNREACHED, and 'parents()[v]' is the id of the
+     * vertex that discovered 'v', or NONE for the source and unreached vertices.
+     */
+
+    // Level of a vertex that is not reachable from the source.
+    public static final int UNREACHED = -1;
+    // Parent of the source and of unreached vertices.
+    public static final int NONE = -1;
+
+    private final int source;
+    private final int[] levels;
+    private final int[] parents;
+    private final Map<LabelType, Integer> ids;
+    private final IntFunction<LabelType> labels;
+
+    BfsResult(int source, int[] levels, int[] parents, Map<LabelType, Integer> ids,
+            IntFunction<LabelType> labels) {
+        assert levels.length == parents.length;
+        this.source = source;
+        this.levels = levels;
+        this.parents = parents;
+        this.ids = ids;
+        this.labels = labels;
+    }
+
+    public LabelType source() {
+        return labels.apply(source);
+    }
+
+    /**
+     * Returns the id-indexed level array. Callers must not modify it.
+     */
+    public int[] levels() {
+        return levels;
+    }
+
+    /**
+     * Returns the id-indexed parent array. Callers must not modify it.
+     */
+    public int[] parents() {
+        return parents;
+    }
+
+    /**
+     * Returns the level of 'label', or UNREACHED if it is not reachable from the source.
+     */
+    public int levelOf(LabelType label) {
+        Integer v = ids.get(label);
+        return v == null ? UNREACHED : levels[v];
+    }
+
+    /**
+     * Returns the labels on the breadth first tree path from the source to 'label', both
+     * included, or an empty list if 'label' is not reachable.
+     */
+    public List<LabelType> pathTo(LabelType label) {
+        if (levelOf(label) == UNREACHED) {
+            return List.of();
+        }
+        List<LabelType> path = new ArrayList<>();
+        for (int v = ids.get(label); v != NONE; v = parents[v]) {
+            path.add(labels.apply(v));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+}
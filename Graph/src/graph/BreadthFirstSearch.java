@@ -0,0 +1,174 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Breadth first search over vertex ids: a sequential traversal for any IntGraph, and a parallel,
+ * direction-optimizing search for CsrGraph snapshots.
+ * The parallel search expands each level either top-down, where frontier vertices claim their
+ * unvisited outgoing neighbors, or bottom-up, where every unvisited vertex looks for a parent
+ * among its incoming neighbors and stops at the first one found.  Bottom-up wins when the
+ * frontier is large, since most of its edges would lead to already visited vertices.  The switch
+ * uses the heuristic of Beamer, Asanovic and Patterson, "Direction-Optimizing Breadth-First
+ * Search" (SC 2012).
+ */
+final class BreadthFirstSearch {
+
+    /**
+     * Switch to bottom-up once the frontier's edges exceed 1/ALPHA of the unvisited vertices'.
+     */
+    private static final int ALPHA = 14;
+
+    /**
+     * Switch back to top-down once a shrinking frontier holds fewer than 1/BETA of the vertices.
+     */
+    private static final int BETA = 24;
+
+    private static final VarHandle LEVELS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private BreadthFirstSearch() {
+    }
+
+    /**
+     * Returns the ids of the vertices reachable from 'start' in breadth first order.
+     */
+    static int[] order(IntGraph graph, int start) {
+        // Array 'queue' doubles as the visitation order: vertices in [head, tail) are the frontier.
+        int[] queue = new int[graph.vertexCount()];
+        BitSet discovered = new BitSet(graph.vertexCount());
+        int head = 0;
+        int tail = 0;
+        queue[tail++] = start;
+        discovered.set(start);
+        while (head < tail) {
+            int vertex = queue[head++];
+            for (int i = 0; i < graph.outDegree(vertex); i++) {
+                int neighbor = graph.outTarget(vertex, i);
+                if (!discovered.get(neighbor)) {
+                    discovered.set(neighbor);
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+        return Arrays.copyOf(queue, tail);
+    }
+
+    /**
+     * Parallel direction-optimizing search of 'graph' from 'source' on 'pool'.  Fills 'levels'
+     * and 'parents' (both of length graph.vertexCount()) as described in BfsResult.  Levels are
+     * deterministic; when several frontier vertices could discover a vertex in top-down mode,
+     * which one becomes its parent depends on thread timing.
+     */
+    static void parallel(CsrGraph<?> graph, int source, ForkJoinPool pool, int[] levels,
+            int[] parents) {
+        int n = graph.vertexCount();
+        Arrays.fill(levels, BfsResult.UNREACHED);
+        Arrays.fill(parents, BfsResult.NONE);
+        levels[source] = 0;
+        int[] frontier = {source};
+        long frontierEdges = graph.outDegree(source);
+        long unvisitedEdges = graph.edgeCount() - frontierEdges;
+        boolean bottomUp = false;
+        int depth = 0;
+        while (frontier.length > 0) {
+            int previousSize = frontier.length;
+            Level next = bottomUp
+                    ? bottomUp(graph, depth, pool, levels, parents)
+                    : topDown(graph, frontier, depth, pool, levels, parents);
+            frontier = next.vertices;
+            frontierEdges = next.edges;
+            unvisitedEdges -= frontierEdges;
+            if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA) {
+                bottomUp = true;
+            } else if (bottomUp && frontier.length < previousSize && frontier.length < n / BETA) {
+                bottomUp = false;
+            }
+            depth++;
+        }
+    }
+
+    /**
+     * The vertices discovered in one step, and the sum of their out-degrees.
+     */
+    private record Level(int[] vertices, long edges) {
+    }
+
+    private static Level topDown(CsrGraph<?> graph, int[] frontier, int depth, ForkJoinPool pool,
+            int[] levels, int[] parents) {
+        ParallelRange range = new ParallelRange(pool, 0, frontier.length);
+        IntList[] found = new IntList[range.chunks()];
+        long[] edges = new long[range.chunks()];
+        range.forEach((chunk, from, to) -> {
+            IntList local = new IntList();
+            long localEdges = 0;
+            for (int i = from; i < to; i++) {
+                int vertex = frontier[i];
+                for (int e = graph.outOffsets[vertex]; e < graph.outOffsets[vertex + 1]; e++) {
+                    int neighbor = graph.outTargets[e];
+                    // Read before the CAS so that visited vertices cost no atomic operation.
+                    if (levels[neighbor] == BfsResult.UNREACHED && LEVELS.compareAndSet(levels,
+                            neighbor, BfsResult.UNREACHED, depth + 1)) {
+                        parents[neighbor] = vertex;
+                        local.add(neighbor);
+                        localEdges += graph.outDegree(neighbor);
+                    }
+                }
+            }
+            found[chunk] = local;
+            edges[chunk] = localEdges;
+        });
+        return merge(found, edges);
+    }
+
+    private static Level bottomUp(CsrGraph<?> graph, int depth, ForkJoinPool pool, int[] levels,
+            int[] parents) {
+        ParallelRange range = new ParallelRange(pool, 0, graph.vertexCount());
+        IntList[] found = new IntList[range.chunks()];
+        long[] edges = new long[range.chunks()];
+        range.forEach((chunk, from, to) -> {
+            IntList local = new IntList();
+            long localEdges = 0;
+            for (int vertex = from; vertex < to; vertex++) {
+                if (levels[vertex] != BfsResult.UNREACHED) {
+                    continue;
+                }
+                for (int e = graph.inOffsets[vertex]; e < graph.inOffsets[vertex + 1]; e++) {
+                    // Other chunks only change levels from UNREACHED to depth + 1, so a racy read
+                    // never mistakes a vertex for one on the frontier.
+                    int parent = graph.inTargets[e];
+                    if (levels[parent] == depth) {
+                        levels[vertex] = depth + 1;
+                        parents[vertex] = parent;
+                        local.add(vertex);
+                        localEdges += graph.outDegree(vertex);
+                        break;
+                    }
+                }
+            }
+            found[chunk] = local;
+            edges[chunk] = localEdges;
+        });
+        return merge(found, edges);
+    }
+
+    // Concatenates the per-chunk results in chunk order.
+    private static Level merge(IntList[] found, long[] edges) {
+        int size = 0;
+        long total = 0;
+        for (int c = 0; c < found.length; c++) {
+            size += found[c].size();
+            total += edges[c];
+        }
+        int[] vertices = new int[size];
+        int position = 0;
+        for (IntList local : found) {
+            local.copyTo(vertices, position);
+            position += local.size();
+        }
+        return new Level(vertices, total);
+    }
+}
@@ -0,0 +1,282 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Community detection on an UndirectedGraph: parallel label propagation, and the Louvain method
+ * of Blondel et al. (2008) with the parallel local moving of Lu, Halappanavar and Kalyanaraman,
+ * "Parallel heuristics for scalable community detection" (2015).  Both return the community of
+ * every vertex as some vertex id shared by its community, for Components.smallest().
+ * Label propagation: every vertex starts in a community of its own, then repeatedly joins the
+ * community with the largest total edge weight among its neighbors, staying put on a tie.  Rounds
+ * run in parallel over vertex ranges and are asynchronous: labels are plain int array slots that
+ * vertices overwrite in place, without locks, and later vertices in the same round already see
+ * the new labels, which converges in fewer rounds than synchronous updates and breaks the
+ * oscillations of bipartite structures.  Stops when a round changes no label.
+ * Louvain: the local moving phase sweeps over all vertices in parallel, moving each to the
+ * neighboring community with the best modularity gain, with community totals updated by atomic
+ * adds; a vertex alone in its community only moves to another singleton with a smaller id, so
+ * that two neighbors cannot swap forever.  Sweeps stop once modularity improves by less than the
+ * minimum gain.  Then every community is coarsened into a single vertex, and the two phases repeat
+ * on the coarser graph until a level gains less than the minimum.
+ * In both, a vertex is only reconsidered after one of its neighbors changed community, which
+ * skips most of the graph once the communities settle.
+ */
+final class CommunityDetection {
+
+    /**
+     * Most local moving sweeps per Louvain level.
+     */
+    static final int MAX_SWEEPS = 100;
+
+    private static final VarHandle DOUBLES = MethodHandles.arrayElementVarHandle(double[].class);
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private CommunityDetection() {
+    }
+
+    /**
+     * Returns the label of every vertex after label propagation, at most 'maxRounds' rounds.
+     * O((|V| + |E|) * rounds) algorithm.
+     */
+    static int[] labelPropagation(UndirectedGraph graph, ForkJoinPool pool, int maxRounds) {
+        int[] labels = identity(graph.n);
+        boolean[] active = new boolean[graph.n];
+        Arrays.fill(active, true);
+        ParallelRange range = new ParallelRange(pool, 0, graph.n);
+        int[] changes = new int[range.chunks()];
+        ConcurrentLinkedQueue<UndirectedGraph.Scratch> idle = new ConcurrentLinkedQueue<>();
+        for (int round = 0; round < maxRounds; round++) {
+            range.forEach((chunk, from, to) -> {
+                UndirectedGraph.Scratch scratch = UndirectedGraph.Scratch.poll(idle, graph.n);
+                int changed = 0;
+                for (int v = from; v < to; v++) {
+                    if (!active[v]) {
+                        continue;
+                    }
+                    active[v] = false;
+                    scratch.begin();
+                    for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                        scratch.add(labels[graph.targets[e]], graph.weights[e]);
+                    }
+                    int own = labels[v];
+                    int best = own;
+                    double bestWeight = scratch.weight(own);
+                    for (int i = 0; i < scratch.touched.size(); i++) {
+                        int label = scratch.touched.get(i);
+                        double weight = scratch.weightAt(i);
+                        if (weight > bestWeight
+                                || (weight == bestWeight && best != own && label < best)) {
+                            best = label;
+                            bestWeight = weight;
+                        }
+                    }
+                    if (best != own) {
+                        labels[v] = best;
+                        activate(graph, v, active);
+                        changed++;
+                    }
+                }
+                changes[chunk] = changed;
+                idle.add(scratch);
+            });
+            int changed = 0;
+            for (int count : changes) {
+                changed += count;
+            }
+            if (changed == 0) {
+                break;
+            }
+        }
+        return labels;
+    }
+
+    // Marks the neighbors of 'v', which just changed community, for another look.
+    private static void activate(UndirectedGraph graph, int v, boolean[] active) {
+        for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+            active[graph.targets[e]] = true;
+        }
+    }
+
+    /**
+     * Returns the community of every vertex found by Louvain, stopping when a sweep or level
+     * improves modularity by less than 'minGain'.
+     * O((|V| + |E|) * sweeps) algorithm, over all levels.
+     */
+    static int[] louvain(UndirectedGraph graph, ForkJoinPool pool, double minGain) {
+        int[] membership = identity(graph.n);
+        if (graph.total == 0) {
+            return membership;
+        }
+        double quality = modularity(graph, membership, pool);
+        while (true) {
+            int[] community = identity(graph.n);
+            double moved = moveVertices(graph, community, pool, minGain);
+            int count = renumber(community);
+            if (count == graph.n) {
+                break;
+            }
+            // A level that gains too little is dropped, so the result never scores below the
+            // previous level.
+            if (moved - quality < minGain) {
+                break;
+            }
+            for (int v = 0; v < membership.length; v++) {
+                membership[v] = community[membership[v]];
+            }
+            quality = moved;
+            graph = graph.coarsen(community, count, pool);
+        }
+        return membership;
+    }
+
+    /**
+     * Local moving phase: moves vertices between the communities in 'community' until a sweep
+     * gains less than 'minGain'. Parallel moves can lower modularity, so 'community' ends as the
+     * best assignment seen, whose modularity is returned.
+     */
+    private static double moveVertices(UndirectedGraph graph, int[] community, ForkJoinPool pool,
+            double minGain) {
+        double[] totals = new double[graph.n];
+        int[] sizes = new int[graph.n];
+        for (int v = 0; v < graph.n; v++) {
+            totals[community[v]] += graph.degrees[v];
+            sizes[community[v]]++;
+        }
+        boolean[] active = new boolean[graph.n];
+        Arrays.fill(active, true);
+        ParallelRange range = new ParallelRange(pool, 0, graph.n);
+        ConcurrentLinkedQueue<UndirectedGraph.Scratch> idle = new ConcurrentLinkedQueue<>();
+        double quality = modularity(graph, community, pool);
+        int[] best = community.clone();
+        double bestQuality = quality;
+        for (int sweep = 0; sweep < MAX_SWEEPS; sweep++) {
+            range.forEach((chunk, from, to) -> {
+                UndirectedGraph.Scratch scratch = UndirectedGraph.Scratch.poll(idle, graph.n);
+                for (int v = from; v < to; v++) {
+                    if (active[v]) {
+                        active[v] = false;
+                        if (move(graph, v, community, totals, sizes, scratch)) {
+                            activate(graph, v, active);
+                        }
+                    }
+                }
+                idle.add(scratch);
+            });
+            double next = modularity(graph, community, pool);
+            boolean done = next - quality < minGain;
+            quality = next;
+            if (quality > bestQuality) {
+                System.arraycopy(community, 0, best, 0, graph.n);
+                bestQuality = quality;
+            }
+            if (done) {
+                break;
+            }
+        }
+        System.arraycopy(best, 0, community, 0, graph.n);
+        return bestQuality;
+    }
+
+    // Moves 'v' to the community with the best modularity gain, if it is not its own, and returns
+    // whether it moved. Leaving its community for 'c' gains, up to a positive factor, the weight
+    // from 'v' to 'c' minus totals[c] * degree(v) / total, with v's own community counted
+    // without it.
+    private static boolean move(UndirectedGraph graph, int v, int[] community, double[] totals,
+            int[] sizes, UndirectedGraph.Scratch scratch) {
+        scratch.begin();
+        for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+            scratch.add(community[graph.targets[e]], graph.weights[e]);
+        }
+        int own = community[v];
+        double degree = graph.degrees[v];
+        double share = degree / graph.total;
+        int best = own;
+        double bestGain = scratch.weight(own) - (totals[own] - degree) * share;
+        for (int i = 0; i < scratch.touched.size(); i++) {
+            int c = scratch.touched.get(i);
+            if (c == own) {
+                continue;
+            }
+            double gain = scratch.weightAt(i) - totals[c] * share;
+            if (gain > bestGain || (gain == bestGain && best != own && c < best)) {
+                best = c;
+                bestGain = gain;
+            }
+        }
+        if (best == own || (sizes[own] == 1 && sizes[best] == 1 && best > own)) {
+            return false;
+        }
+        DOUBLES.getAndAdd(totals, own, -degree);
+        DOUBLES.getAndAdd(totals, best, degree);
+        INTS.getAndAdd(sizes, own, -1);
+        INTS.getAndAdd(sizes, best, 1);
+        community[v] = best;
+        return true;
+    }
+
+    /**
+     * Returns the modularity of the partition 'community' of 'graph', where 'community[v]' is a
+     * vertex id: the fraction of edge weight inside communities, minus the fraction expected if
+     * edges were placed at random with the same degrees. 0 for a graph without edge weight.
+     * O(|V| + |E|) algorithm.
+     */
+    static double modularity(UndirectedGraph graph, int[] community, ForkJoinPool pool) {
+        if (graph.total == 0) {
+            return 0;
+        }
+        ParallelRange range = new ParallelRange(pool, 0, graph.n);
+        double[] partial = new double[range.chunks()];
+        range.forEach((chunk, from, to) -> {
+            double inside = 0;
+            for (int v = from; v < to; v++) {
+                inside += graph.loops[v];
+                for (int e = graph.offsets[v]; e < graph.offsets[v + 1]; e++) {
+                    if (community[graph.targets[e]] == community[v]) {
+                        inside += graph.weights[e];
+                    }
+                }
+            }
+            partial[chunk] = inside;
+        });
+        double inside = 0;
+        for (double value : partial) {
+            inside += value;
+        }
+        double[] totals = new double[graph.n];
+        for (int v = 0; v < graph.n; v++) {
+            totals[community[v]] += graph.degrees[v];
+        }
+        double expected = 0;
+        for (double value : totals) {
+            expected += (value / graph.total) * (value / graph.total);
+        }
+        return inside / graph.total - expected;
+    }
+
+    // Renumbers the communities 0 to count - 1 in order of their smallest vertex; returns count.
+    private static int renumber(int[] community) {
+        int[] dense = new int[community.length];
+        Arrays.fill(dense, -1);
+        int count = 0;
+        for (int v = 0; v < community.length; v++) {
+            if (dense[community[v]] < 0) {
+                dense[community[v]] = count++;
+            }
+            community[v] = dense[community[v]];
+        }
+        return count;
+    }
+
+    private static int[] identity(int n) {
+        int[] identity = new int[n];
+        for (int v = 0; v < n; v++) {
+            identity[v] = v;
+        }
+        return identity;
+    }
+}
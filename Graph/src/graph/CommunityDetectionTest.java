@@ -0,0 +1,135 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CommunityDetectionTest {
+
+    // Returns 'groups' groups of 'size' vertices, where vertex v is in group v % groups so that
+    // groups interleave by id, with every edge inside a group present with probability 'inside'
+    // and 'between' random edges across groups.
+    private static BasicGraph<Integer> makePlanted(int groups, int size, double inside,
+            int between, long seed) {
+        Random rng = new Random(seed);
+        int n = groups * size;
+        BasicGraph<Integer> g = new BasicGraph<>();
+        for (int v = 0; v < n; v++) {
+            g.addVertex(new BasicVertex<>(v));
+        }
+        for (int u = 0; u < n; u++) {
+            for (int v = u + groups; v < n; v += groups) {
+                if (rng.nextDouble() < inside) {
+                    g.addEdge(u, new BasicEdge<>(v, 1 + rng.nextInt(3)));
+                }
+            }
+        }
+        for (int i = 0; i < between; i++) {
+            int u = rng.nextInt(n);
+            int v = rng.nextInt(n);
+            if (u % groups != v % groups) {
+                g.addEdge(u, new BasicEdge<>(v, 1));
+            }
+        }
+        return g;
+    }
+
+    // Returns the modularity of 'communities' computed from the definition over all vertex pairs.
+    private static double reference(CsrGraph<Integer> g, int[] communities) {
+        int n = g.vertexCount();
+        double[][] a = new double[n][n];
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < g.outDegree(u); i++) {
+                a[u][g.outTarget(u, i)] += g.outWeight(u, i);
+                a[g.outTarget(u, i)][u] += g.outWeight(u, i);
+            }
+        }
+        double[] degrees = new double[n];
+        double total = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                degrees[u] += a[u][v];
+            }
+            total += degrees[u];
+        }
+        double q = 0;
+        for (int u = 0; u < n; u++) {
+            for (int v = 0; v < n; v++) {
+                if (communities[u] == communities[v]) {
+                    q += a[u][v] - degrees[u] * degrees[v] / total;
+                }
+            }
+        }
+        return q / total;
+    }
+
+    @DisplayName("WHEN the graph is two triangles joined by an edge, THEN both algorithms find "
+            + "the triangles, and modularity matches its definition.")
+    @Test
+    void testSmallGraph() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("a", "b", "c", "d", "e", "f", "g")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("a", new BasicEdge<>("b", 2));
+        g.addEdge("b", new BasicEdge<>("c", 2));
+        g.addEdge("c", new BasicEdge<>("a", 2));
+        g.addEdge("d", new BasicEdge<>("e", 2));
+        g.addEdge("e", new BasicEdge<>("f", 2));
+        g.addEdge("f", new BasicEdge<>("d", 2));
+        g.addEdge("c", new BasicEdge<>("d", 1));
+        for (Components<String> communities : List.of(g.louvain(), g.labelPropagation())) {
+            assertArrayEquals(new int[] {0, 0, 0, 1, 1, 1, 2}, communities.components());
+        }
+        // Inside weight 24 of 26, degrees 13 and 13 out of 26 twice over.
+        CsrGraph<String> csr = g.freeze();
+        assertEquals(24.0 / 26 - 0.5, csr.modularity(csr.louvain()), 1e-12);
+    }
+
+    @DisplayName("WHEN the graph has planted groups, THEN Louvain recovers them, label "
+            + "propagation splits at most a few, and modularity matches its definition.")
+    @Test
+    void testPlanted() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CsrGraph<Integer> g = makePlanted(40, 30, 0.3, 500, 7).freeze();
+        Components<Integer> communities = g.louvain(pool, 1e-6);
+        assertEquals(40, communities.count());
+        for (int v = 0; v < g.vertexCount(); v++) {
+            assertEquals(v % 40, communities.components()[v]);
+        }
+        // Label propagation may split a group, but never mixes two.
+        Components<Integer> labels = g.labelPropagation(pool, 20);
+        assertTrue(labels.count() >= 40 && labels.count() < 50, labels.count() + " labels");
+        int[] group = new int[labels.count()];
+        Arrays.fill(group, -1);
+        for (int v = 0; v < g.vertexCount(); v++) {
+            int label = labels.components()[v];
+            group[label] = group[label] < 0 ? v % 40 : group[label];
+            assertEquals(group[label], v % 40);
+        }
+        assertEquals(reference(g, communities.components()), g.modularity(communities), 1e-9);
+        pool.shutdown();
+    }
+
+    @DisplayName("WHEN the graph is large and random, THEN Louvain coarsens over several levels "
+            + "and reaches higher modularity than label propagation.")
+    @Test
+    void testLargeGraph() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CsrGraph<Integer> g = CsrGraphTest.makeRandom(50_000, 150_000, 10, 8).freeze();
+        Components<Integer> louvain = g.louvain(pool, 1e-6);
+        Components<Integer> propagation = g.labelPropagation(pool, 20);
+        double q = g.modularity(louvain);
+        assertTrue(q > 0.5, "modularity " + q);
+        assertTrue(q > g.modularity(propagation));
+        assertTrue(louvain.count() < 1000, louvain.count() + " communities");
+        // No level can gain 1, so none is applied.
+        assertEquals(g.vertexCount(), g.louvain(pool, 1.0).count());
+        pool.shutdown();
+    }
+}
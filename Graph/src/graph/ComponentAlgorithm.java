@@ -0,0 +1,20 @@
+package graph;
+
+/**
+ * The parallel algorithm that finds weakly connected components.
+ */
+public enum ComponentAlgorithm {
+    /**
+     * Every edge is a union in a lock-free union-find: a single pass over the edges, with random
+     * reads and CASes into one shared parent array.
+     */
+    UNION_FIND,
+
+    /**
+     * Shiloach-Vishkin label propagation: rounds that hook component roots onto smaller
+     * neighboring labels, then shortcut every label to its root. Each round streams over all
+     * edges without random writes to a shared tree, which suits very large graphs; the number
+     * of rounds grows with the logarithm of the component diameters.
+     */
+    LABEL_PROPAGATION
+}
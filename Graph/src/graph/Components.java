@@ -0,0 +1,107 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+public class Components<LabelType> {
+    /**
+     * Components holds a partition of the vertices into components, stored in an int array
+     * indexed by vertex id: 'components()[v]' is the component of 'v', from 0 to count() - 1.
+     * Components are numbered in order of their smallest vertex id, so the numbering does not
+     * depend on the algorithm or thread interleaving that found them.
+     */
+
+    private final int[] components;
+    private final int[] sizes;
+    private final Map<LabelType, Integer> ids;
+    private final IntFunction<LabelType> labels;
+
+    /**
+     * Initializes Components from 'roots', where 'roots[v]' is the smallest vertex id in the
+     * component of 'v'. Overwrites 'roots' with the component numbers.
+     * O(|V|) algorithm.
+     */
+    Components(int[] roots, Map<LabelType, Integer> ids, IntFunction<LabelType> labels) {
+        int count = 0;
+        for (int v = 0; v < roots.length; v++) {
+            // Every root comes before the other vertices of its component.
+            roots[v] = roots[v] == v ? count++ : roots[roots[v]];
+        }
+        sizes = new int[count];
+        for (int component : roots) {
+            sizes[component]++;
+        }
+        this.components = roots;
+        this.ids = ids;
+        this.labels = labels;
+    }
+
+    /**
+     * Replaces 'groups[v]', a vertex id shared by all vertices in the same group as 'v', by the
+     * smallest vertex id in that group, and returns 'groups', ready for the constructor.
+     * O(|V|) algorithm.
+     */
+    static int[] smallest(int[] groups) {
+        int[] smallest = new int[groups.length];
+        Arrays.fill(smallest, Integer.MAX_VALUE);
+        for (int v = 0; v < groups.length; v++) {
+            smallest[groups[v]] = Math.min(smallest[groups[v]], v);
+        }
+        for (int v = 0; v < groups.length; v++) {
+            groups[v] = smallest[groups[v]];
+        }
+        return groups;
+    }
+
+    public int count() {
+        return sizes.length;
+    }
+
+    /**
+     * Returns the id-indexed component array. Callers must not modify it.
+     */
+    public int[] components() {
+        return components;
+    }
+
+    /**
+     * Returns the number of vertices of every component. Callers must not modify it.
+     */
+    public int[] sizes() {
+        return sizes;
+    }
+
+    /**
+     * Returns the component of 'label'. Requires that the vertex exists.
+     */
+    public int componentOf(LabelType label) {
+        assert ids.containsKey(label);
+        return components[ids.get(label)];
+    }
+
+    /**
+     * Returns whether 'first' and 'second' are in the same component. Requires that both
+     * vertices exist.
+     */
+    public boolean connected(LabelType first, LabelType second) {
+        return componentOf(first) == componentOf(second);
+    }
+
+    /**
+     * Returns the labels of the vertices of 'component', in id order.
+     * O(|V|) algorithm.
+     */
+    public List<LabelType> vertices(int component) {
+        assert component >= 0 && component < count();
+        List<LabelType> vertices = new ArrayList<>(sizes[component]);
+        for (int v = 0; v < components.length; v++) {
+            if (components[v] == component) {
+                vertices.add(labels.apply(v));
+            }
+        }
+        return vertices;
+    }
+}
@@ -0,0 +1,277 @@
+package graph;
+
+import java.util.Map.Entry;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+public class ConcurrentBasicGraph<LabelType> implements Graph<Vertex<LabelType>> {
+    /**
+     * ConcurrentBasicGraph is a BasicGraph that many threads can modify at once while others
+     * read it. Like BasicGraph it stores every vertex's edges as rows of neighbor ids, and
+     * contains no duplicate vertices or edges.
+     * The graph is a sequence of immutable GraphSnapshot versions. Readers call snapshot(), which
+     * returns the current version in O(1), and traverse it without locking; they never see half
+     * of a write. Writers build the next version from the current one, sharing everything they
+     * do not change, and publish it with a compare-and-set on 'current'.
+     * The rows of vertex 'v' are changed only under lock 'stripes[stripe(v)]'; there are a few
+     * times more stripes than processors, so writers to different vertices rarely wait for each
+     * other. addEdge and removeEdge lock the stripes of both endpoints, in stripe order, so the
+     * vertices they change cannot be changed by anyone else before their version is published;
+     * if another writer publishes first, they only need to apply the same vertices to the newer
+     * version. removeVertex locks every stripe.
+     * Labels map to ids in a ConcurrentHashMap that never shrinks: a label removed and added
+     * again gets its old id back, so older snapshots keep finding their own vertex for it.
+     */
+
+    // Map 'index' maps every label ever added to its id.
+    private final ConcurrentHashMap<LabelType, Integer> index;
+    private final AtomicInteger nextId;
+    // The newest version.
+    private final AtomicReference<GraphSnapshot<LabelType>> current;
+
+    private final ReentrantLock[] stripes;
+
+    /**
+     * Initializes an empty ConcurrentBasicGraph with a few lock stripes per available processor.
+     */
+    public ConcurrentBasicGraph() {
+        this(4 * Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Initializes an empty ConcurrentBasicGraph with at least 'concurrency' lock stripes.
+     */
+    public ConcurrentBasicGraph(int concurrency) {
+        assert concurrency > 0;
+        index = new ConcurrentHashMap<>();
+        nextId = new AtomicInteger();
+        current = new AtomicReference<>(
+                new GraphSnapshot<>(index, PersistentVector.empty(), 0, 0, 0));
+        stripes = new ReentrantLock[Integer.highestOneBit(Math.max(1, concurrency - 1)) << 1];
+        for (int i = 0; i < stripes.length; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+    }
+
+    /**
+     * Returns the current version of the graph. It does not change when the graph does.
+     * O(1) algorithm.
+     */
+    public GraphSnapshot<LabelType> snapshot() {
+        return current.get();
+    }
+
+    @Override
+    public int vertexCount() {
+        return current.get().vertexCount();
+    }
+
+    public int edgeCount() {
+        return current.get().edgeCount();
+    }
+
+    public boolean containsVertex(LabelType label) {
+        return current.get().containsVertex(label);
+    }
+
+    /**
+     * Returns a read-only view of the vertex with label 'label' and its current edges if it
+     * exists in the graph, else returns null. The view does not change with the graph.
+     */
+    public Vertex<LabelType> getVertex(LabelType label) {
+        return current.get().getVertex(label);
+    }
+
+    /**
+     * Adds vertex 'label' if it does not already exist in the graph. Returns true if it was added.
+     */
+    public boolean addVertex(LabelType label) {
+        int id = index.computeIfAbsent(label, key -> nextId.getAndIncrement());
+        GraphSnapshot.Node<LabelType> node =
+                new GraphSnapshot.Node<>(label, SharedRow.EMPTY, SharedRow.EMPTY);
+        while (true) {
+            GraphSnapshot<LabelType> version = current.get();
+            if (version.node(id) != null) {
+                return false;
+            }
+            if (current.compareAndSet(version, version.with(id, node, 1, 0))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Adds a new vertex to graph if 'vertex' does not already exist in the graph. Edges already
+     * stored in 'vertex' are added as well, creating any neighbor that does not exist yet. The
+     * edges are added one at a time, so other threads may see some of them before the others.
+     */
+    public void addVertex(Vertex<LabelType> vertex) {
+        if (addVertex(vertex.label())) {
+            for (Entry<LabelType, Integer> out : vertex.outgoingEdges().entrySet()) {
+                addVertex(out.getKey());
+                addEdge(vertex.label(), new BasicEdge<>(out.getKey(), out.getValue()));
+            }
+            for (Entry<LabelType, Integer> in : vertex.incomingEdges().entrySet()) {
+                addVertex(in.getKey());
+                addEdge(in.getKey(), new BasicEdge<>(vertex.label(), in.getValue()));
+            }
+        }
+    }
+
+    /**
+     * Add the edge: 'label' -> 'edge'.neighbor() if edge doesn't already exist. Returns true if
+     * the edge is added. Returns false if the edge exists, or if either vertex does not exist,
+     * for instance because another thread removed it.
+     */
+    public boolean addEdge(LabelType label, BasicEdge<LabelType, Integer> edge) {
+        Integer source = index.get(label);
+        Integer dest = index.get(edge.neighbor());
+        if (source == null || dest == null || source.equals(dest)) {
+            return false;
+        }
+        lockPair(source, dest);
+        try {
+            GraphSnapshot<LabelType> version = current.get();
+            GraphSnapshot.Node<LabelType> from = version.node(source);
+            GraphSnapshot.Node<LabelType> to = version.node(dest);
+            if (from == null || to == null || from.outgoing().indexOf(dest) >= 0) {
+                return false;
+            }
+            publish(source, new GraphSnapshot.Node<>(from.label(),
+                    from.outgoing().with(dest, edge.weight()), from.incoming()),
+                    dest, new GraphSnapshot.Node<>(to.label(), to.outgoing(),
+                    to.incoming().with(source, edge.weight())), 1);
+            return true;
+        } finally {
+            unlockPair(source, dest);
+        }
+    }
+
+    /**
+     * Remove the edge: 'sourceLabel' -> 'destLabel'. Returns true if the edge existed.
+     */
+    public boolean removeEdge(LabelType sourceLabel, LabelType destLabel) {
+        Integer source = index.get(sourceLabel);
+        Integer dest = index.get(destLabel);
+        if (source == null || dest == null || source.equals(dest)) {
+            return false;
+        }
+        lockPair(source, dest);
+        try {
+            GraphSnapshot<LabelType> version = current.get();
+            GraphSnapshot.Node<LabelType> from = version.node(source);
+            GraphSnapshot.Node<LabelType> to = version.node(dest);
+            if (from == null || to == null || from.outgoing().indexOf(dest) < 0) {
+                return false;
+            }
+            publish(source, new GraphSnapshot.Node<>(from.label(),
+                    from.outgoing().without(dest), from.incoming()),
+                    dest, new GraphSnapshot.Node<>(to.label(), to.outgoing(),
+                    to.incoming().without(source)), -1);
+            return true;
+        } finally {
+            unlockPair(source, dest);
+        }
+    }
+
+    /**
+     * Publishes the newest version with vertices 'a' and 'b' replaced by 'nodeA' and 'nodeB', and
+     * 'edgeDelta' more edges. Requires that the caller holds the stripes of 'a' and 'b', so that
+     * only vertices without edges may have been added to the newest version in the meantime.
+     */
+    private void publish(int a, GraphSnapshot.Node<LabelType> nodeA, int b,
+            GraphSnapshot.Node<LabelType> nodeB, int edgeDelta) {
+        while (true) {
+            GraphSnapshot<LabelType> version = current.get();
+            GraphSnapshot<LabelType> next =
+                    version.with(a, nodeA, 0, 0).with(b, nodeB, 0, edgeDelta);
+            if (current.compareAndSet(version, next)) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Returns and removes vertex with label 'label' and all of its edges, or returns null if it
+     * does not exist. The returned vertex is a read-only view of the vertex just before it was
+     * removed. Locks every stripe, so it waits for and blocks all other edge writers.
+     */
+    public Vertex<LabelType> removeVertex(LabelType label) {
+        lockAll();
+        try {
+            while (true) {
+                GraphSnapshot<LabelType> version = current.get();
+                int id = version.idOf(label);
+                if (id < 0) {
+                    return null;
+                }
+                GraphSnapshot.Node<LabelType> node = version.node(id);
+                GraphSnapshot<LabelType> next = version;
+                for (int i = 0; i < node.incoming().size(); i++) {
+                    int in = node.incoming().id(i);
+                    GraphSnapshot.Node<LabelType> neighbor = next.node(in);
+                    next = next.with(in, new GraphSnapshot.Node<>(neighbor.label(),
+                            neighbor.outgoing().without(id), neighbor.incoming()), 0, -1);
+                }
+                for (int i = 0; i < node.outgoing().size(); i++) {
+                    int out = node.outgoing().id(i);
+                    GraphSnapshot.Node<LabelType> neighbor = next.node(out);
+                    next = next.with(out, new GraphSnapshot.Node<>(neighbor.label(),
+                            neighbor.outgoing(), neighbor.incoming().without(id)), 0, -1);
+                }
+                // Only addVertex can publish concurrently; retry on top of its version.
+                if (current.compareAndSet(version, next.with(id, null, -1, 0))) {
+                    return version.getVertex(label);
+                }
+            }
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Returns an immutable CsrGraph of the current version, see GraphSnapshot.freeze().
+     * O(|V| + |E|) algorithm.
+     */
+    public CsrGraph<LabelType> freeze() {
+        return current.get().freeze();
+    }
+
+    private int stripe(int id) {
+        int h = id * 0x9E3779B9;
+        return (h ^ (h >>> 16)) & (stripes.length - 1);
+    }
+
+    // Locks the stripes of 'a' and 'b', lower stripe first so that two writers cannot deadlock.
+    private void lockPair(int a, int b) {
+        int first = Math.min(stripe(a), stripe(b));
+        int second = Math.max(stripe(a), stripe(b));
+        stripes[first].lock();
+        if (second != first) {
+            stripes[second].lock();
+        }
+    }
+
+    private void unlockPair(int a, int b) {
+        int first = Math.min(stripe(a), stripe(b));
+        int second = Math.max(stripe(a), stripe(b));
+        if (second != first) {
+            stripes[second].unlock();
+        }
+        stripes[first].unlock();
+    }
+
+    private void lockAll() {
+        for (ReentrantLock lock : stripes) {
+            lock.lock();
+        }
+    }
+
+    private void unlockAll() {
+        for (int i = stripes.length - 1; i >= 0; i--) {
+            stripes[i].unlock();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ConcurrentBasicGraphTest {
+
+    /**
+     * Runs 'task' for every thread number in [0, threads) at once, and waits for all of them.
+     */
+    static void runInParallel(int threads, IntConsumer task) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            int thread = t;
+            futures.add(executor.submit(() -> task.accept(thread)));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        executor.shutdown();
+    }
+
+    /**
+     * Asserts that the incoming edges of 'csr' are exactly the reverse of its outgoing edges, and
+     * returns the edges as "u->v:w" strings.
+     */
+    static Set<String> edgesOf(CsrGraph<Integer> csr) {
+        Set<String> out = new HashSet<>();
+        Set<String> in = new HashSet<>();
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            for (int i = 0; i < csr.outDegree(v); i++) {
+                out.add(csr.label(v) + "->" + csr.label(csr.outTarget(v, i)) + ":"
+                        + csr.outWeight(v, i));
+            }
+            for (int i = 0; i < csr.inDegree(v); i++) {
+                in.add(csr.label(csr.inTarget(v, i)) + "->" + csr.label(v) + ":"
+                        + csr.inWeight(v, i));
+            }
+        }
+        assertEquals(out, in);
+        return out;
+    }
+
+    @DisplayName("WHEN one thread uses the graph, THEN it behaves like BasicGraph.")
+    @Test
+    void testSingleThread() {
+        ConcurrentBasicGraph<String> g = new ConcurrentBasicGraph<>();
+        g.addVertex(new BasicVertex<String>("1"));
+        g.addVertex(new BasicVertex<String>("2"));
+        assertFalse(g.addVertex("2"));
+        assertTrue(g.addEdge("1", new BasicEdge<>("2", 3)));
+        assertFalse(g.addEdge("1", new BasicEdge<>("2", 4)));
+        assertFalse(g.addEdge("1", new BasicEdge<>("9", 4)));
+        g.addVertex("3");
+        g.addEdge("2", new BasicEdge<>("3", 1));
+        g.addEdge("3", new BasicEdge<>("1", 2));
+        assertEquals(3, g.vertexCount());
+        assertEquals(3, g.edgeCount());
+        assertEquals(3, g.getVertex("2").incomingEdges().get("1"));
+
+        Vertex<String> removed = g.removeVertex("2");
+        assertEquals(1, removed.outgoingEdges().get("3"));
+        assertNull(g.getVertex("2"));
+        assertNull(g.removeVertex("2"));
+        assertEquals(1, g.edgeCount());
+        assertTrue(g.removeEdge("3", "1"));
+        assertEquals(0, g.edgeCount());
+
+        g.addEdge("1", new BasicEdge<>("3", 5));
+        CsrGraph<String> csr = g.freeze();
+        assertEquals(List.of("1", "3"), csr.bfsTraversal("1"));
+        assertEquals(1, csr.edgeCount());
+    }
+
+    @DisplayName("WHEN many threads add the same edges, THEN every edge is added exactly once.")
+    @Test
+    void testConcurrentAddEdge() throws Exception {
+        int n = 2_000;
+        int m = 40_000;
+        ConcurrentBasicGraph<Integer> g = new ConcurrentBasicGraph<>();
+        // Every thread adds every vertex and the same edges, in a different order.
+        runInParallel(8, thread -> {
+            Random rng = new Random(1);
+            List<int[]> edges = new ArrayList<>();
+            for (int e = 0; e < m; e++) {
+                edges.add(new int[] {rng.nextInt(n), rng.nextInt(n)});
+            }
+            Collections.shuffle(edges, new Random(thread));
+            for (int[] edge : edges) {
+                g.addVertex(edge[0]);
+                g.addVertex(edge[1]);
+                g.addEdge(edge[0], new BasicEdge<>(edge[1], edge[0] ^ edge[1]));
+            }
+        });
+
+        BasicGraph<Integer> expected = new BasicGraph<>();
+        Random rng = new Random(1);
+        for (int e = 0; e < m; e++) {
+            int u = rng.nextInt(n);
+            int v = rng.nextInt(n);
+            expected.addVertex(new BasicVertex<>(u));
+            expected.addVertex(new BasicVertex<>(v));
+            if (u != v) {
+                expected.addEdge(u, new BasicEdge<>(v, u ^ v));
+            }
+        }
+        assertEquals(expected.vertexCount(), g.vertexCount());
+        assertEquals(expected.edgeCount(), g.edgeCount());
+        assertEquals(edgesOf(expected.freeze()), edgesOf(g.freeze()));
+    }
+
+    @DisplayName("WHEN threads add and remove edges and vertices at once, THEN the edge count "
+            + "and both directions of every edge stay consistent.")
+    @Test
+    void testConcurrentAddAndRemove() throws Exception {
+        int n = 500;
+        ConcurrentBasicGraph<Integer> g = new ConcurrentBasicGraph<>(4);
+        for (int v = 0; v < n; v++) {
+            g.addVertex(v);
+        }
+        runInParallel(8, thread -> {
+            Random rng = new Random(thread);
+            for (int i = 0; i < 20_000; i++) {
+                int u = rng.nextInt(n);
+                int v = rng.nextInt(n);
+                switch (rng.nextInt(20)) {
+                    case 0 -> g.removeVertex(u);
+                    case 1 -> g.addVertex(u);
+                    case 2 -> g.freeze();
+                    default -> {
+                        if (rng.nextBoolean()) {
+                            g.addEdge(u, new BasicEdge<>(v, 1));
+                        } else {
+                            g.removeEdge(u, v);
+                        }
+                    }
+                }
+            }
+        });
+
+        CsrGraph<Integer> csr = g.freeze();
+        assertEquals(g.vertexCount(), csr.vertexCount());
+        assertEquals(g.edgeCount(), csr.edgeCount());
+        assertEquals(csr.edgeCount(), edgesOf(csr).size());
+    }
+
+    @DisplayName("WHEN the graph changes after a snapshot, THEN the snapshot does not.")
+    @Test
+    void testSnapshotIsImmutable() {
+        ConcurrentBasicGraph<String> g = new ConcurrentBasicGraph<>();
+        for (String label : List.of("1", "2", "3", "4")) {
+            g.addVertex(label);
+        }
+        g.addEdge("1", new BasicEdge<>("2", 1));
+        g.addEdge("2", new BasicEdge<>("3", 1));
+        g.addEdge("1", new BasicEdge<>("4", 5));
+        GraphSnapshot<String> before = g.snapshot();
+
+        g.removeVertex("2");
+        g.addVertex("2");
+        g.addEdge("4", new BasicEdge<>("2", 1));
+        g.addEdge("1", new BasicEdge<>("3", 9));
+        g.removeEdge("1", "4");
+        GraphSnapshot<String> after = g.snapshot();
+
+        assertEquals(3, before.edgeCount());
+        assertEquals(List.of("1", "2", "4", "3"), before.bfsTraversal("1"));
+        assertEquals(2, before.shortestPath("1").distanceTo("3"));
+        assertTrue(before.getVertex("1").outgoingEdges().containsKey("4"));
+        assertEquals(List.of("2"), List.copyOf(before.getVertex("3").incomingEdges().keySet()));
+
+        assertEquals(2, after.edgeCount());
+        assertEquals(List.of("1", "3"), after.dfsTraversal("1", DfsOrder.PRE_ORDER));
+        assertEquals(9, after.shortestPath("1", "3").distanceTo("3"));
+        assertFalse(after.shortestPath("1").hasPathTo("2"));
+        assertEquals(4, after.freeze().vertexCount());
+        assertSame(after, g.snapshot());
+    }
+
+    @DisplayName("WHEN readers take snapshots while writers change the graph, THEN every "
+            + "snapshot is consistent.")
+    @Test
+    void testSnapshotsDuringWrites() throws Exception {
+        int n = 300;
+        ConcurrentBasicGraph<Integer> g = new ConcurrentBasicGraph<>();
+        for (int v = 0; v < n; v++) {
+            g.addVertex(v);
+        }
+        runInParallel(8, thread -> {
+            Random rng = new Random(thread);
+            for (int i = 0; i < 10_000; i++) {
+                int u = rng.nextInt(n);
+                int v = rng.nextInt(n);
+                if (thread < 2) {
+                    // Readers.
+                    GraphSnapshot<Integer> snapshot = g.snapshot();
+                    CsrGraph<Integer> csr = snapshot.freeze();
+                    assertEquals(snapshot.vertexCount(), csr.vertexCount());
+                    assertEquals(snapshot.edgeCount(), edgesOf(csr).size());
+                    if (snapshot.containsVertex(u)) {
+                        assertEquals(csr.bfsTraversal(u), snapshot.bfsTraversal(u));
+                    }
+                    i += 100;
+                } else if (rng.nextInt(50) == 0) {
+                    g.removeVertex(u);
+                    g.addVertex(u);
+                } else if (rng.nextBoolean()) {
+                    g.addEdge(u, new BasicEdge<>(v, rng.nextInt(10)));
+                } else {
+                    g.removeEdge(u, v);
+                }
+            }
+        });
+        assertEquals(g.edgeCount(), edgesOf(g.freeze()).size());
+    }
+}
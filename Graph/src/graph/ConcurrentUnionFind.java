@@ -0,0 +1,86 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * Disjoint sets of the ints `0..n`, safe for concurrent use without locks.  Each set is a tree
+ * in `parent`, and the root of a tree is always its smallest element: union links the larger of
+ * two roots under the smaller with a CAS that fails if another thread linked it first, and find
+ * halves paths with CASes that only ever replace a parent by one of its ancestors.  So every
+ * parent pointer points down in value, no thread can create a cycle, and the sets after
+ * concurrent unions do not depend on their interleaving.
+ */
+final class ConcurrentUnionFind {
+
+    private static final VarHandle PARENT = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private final int[] parent;
+
+    /**
+     * Create `n` singleton sets.
+     */
+    ConcurrentUnionFind(int n) {
+        parent = new int[n];
+        for (int x = 0; x < n; x++) {
+            parent[x] = x;
+        }
+    }
+
+    /**
+     * Return the root, the smallest element, of the set of `x`.
+     */
+    int find(int x) {
+        while (true) {
+            int p = parent[x];
+            if (p == x) {
+                return x;
+            }
+            int grandparent = parent[p];
+            if (grandparent == p) {
+                return p;
+            }
+            // Path halving; a failed CAS means another thread already moved 'x' further up.
+            PARENT.compareAndSet(parent, x, p, grandparent);
+            x = grandparent;
+        }
+    }
+
+    /**
+     * Merge the sets of `x` and `y`.  Return true if they were different sets, in which case
+     * this call merged them.
+     */
+    boolean union(int x, int y) {
+        while (true) {
+            int rx = find(x);
+            int ry = find(y);
+            if (rx == ry) {
+                return false;
+            }
+            int high = Math.max(rx, ry);
+            if (PARENT.compareAndSet(parent, high, high, Math.min(rx, ry))) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Return whether `x` and `y` are in the same set.  Only meaningful when no union runs
+     * concurrently.
+     */
+    boolean connected(int x, int y) {
+        return find(x) == find(y);
+    }
+
+    /**
+     * Return the root of every element, compressing all paths.  Requires that no union runs
+     * concurrently.
+     */
+    int[] roots() {
+        // Parents point down, so visiting in increasing order finds every parent already final.
+        for (int x = 0; x < parent.length; x++) {
+            parent[x] = parent[parent[x]];
+        }
+        return parent;
+    }
+}
@@ -0,0 +1,93 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel weakly connected components of CsrGraph snapshots.  Both algorithms return the
+ * smallest vertex id of every vertex's component, which Components turns into dense component
+ * numbers.  Edge directions are ignored, so the outgoing edges suffice.
+ */
+final class ConnectedComponents {
+
+    private static final VarHandle LABELS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    private ConnectedComponents() {
+    }
+
+    static int[] roots(CsrGraph<?> graph, ForkJoinPool pool, ComponentAlgorithm algorithm) {
+        return switch (algorithm) {
+            case UNION_FIND -> unionFind(graph, pool);
+            case LABEL_PROPAGATION -> labelPropagation(graph, pool);
+        };
+    }
+
+    /**
+     * Unions the endpoints of every edge in a ConcurrentUnionFind, the chunks of vertices in
+     * parallel.
+     * O(|V| + |E| α(|V|)) work, barring contention.
+     */
+    static int[] unionFind(CsrGraph<?> graph, ForkJoinPool pool) {
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(graph.vertexCount());
+        ParallelRange.forEach(pool, 0, graph.vertexCount(), (chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                    sets.union(v, graph.outTargets[e]);
+                }
+            }
+        });
+        return sets.roots();
+    }
+
+    /**
+     * Shiloach-Vishkin: 'labels' is a forest in which every label is smaller than its vertex,
+     * so roots are the smallest vertex of their tree. Each round first hooks, for every edge
+     * whose endpoints have different labels, the larger label onto the smaller one, with a CAS
+     * that only succeeds while the larger label is still a root; then shortcuts every label to
+     * its root. Rounds repeat until no edge joins two trees.
+     * O((|V| + |E|) log |V|) work.
+     */
+    static int[] labelPropagation(CsrGraph<?> graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        int[] labels = new int[n];
+        for (int v = 0; v < n; v++) {
+            labels[v] = v;
+        }
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        boolean[] hooked = new boolean[range.chunks()];
+        boolean changed = true;
+        while (changed) {
+            range.forEach((chunk, from, to) -> {
+                boolean any = false;
+                for (int v = from; v < to; v++) {
+                    for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                        int lv = labels[v];
+                        int lw = labels[graph.outTargets[e]];
+                        if (lv != lw) {
+                            int high = Math.max(lv, lw);
+                            // Read before the CAS so that hooked labels cost no atomic operation.
+                            any |= labels[high] == high
+                                    && LABELS.compareAndSet(labels, high, high, Math.min(lv, lw));
+                        }
+                    }
+                }
+                hooked[chunk] = any;
+            });
+            range.forEach((chunk, from, to) -> {
+                for (int v = from; v < to; v++) {
+                    int root = labels[v];
+                    while (labels[root] != root) {
+                        root = labels[root];
+                    }
+                    labels[v] = root;
+                }
+            });
+            changed = false;
+            for (boolean any : hooked) {
+                changed |= any;
+            }
+        }
+        return labels;
+    }
+}
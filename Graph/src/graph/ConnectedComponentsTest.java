@@ -0,0 +1,82 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ConnectedComponentsTest {
+
+    // Returns the components of 'g' numbered in order of their smallest vertex id, found by
+    // breadth first searches that follow edges both ways.
+    private static int[] reference(CsrGraph<Integer> g) {
+        int n = g.vertexCount();
+        int[] components = new int[n];
+        Arrays.fill(components, -1);
+        int count = 0;
+        ArrayDeque<Integer> queue = new ArrayDeque<>();
+        for (int s = 0; s < n; s++) {
+            if (components[s] >= 0) {
+                continue;
+            }
+            components[s] = count;
+            queue.add(s);
+            while (!queue.isEmpty()) {
+                int v = queue.poll();
+                for (int i = 0; i < g.outDegree(v) + g.inDegree(v); i++) {
+                    int w = i < g.outDegree(v) ? g.outTarget(v, i)
+                            : g.inTarget(v, i - g.outDegree(v));
+                    if (components[w] < 0) {
+                        components[w] = count;
+                        queue.add(w);
+                    }
+                }
+            }
+            count++;
+        }
+        return components;
+    }
+
+    @DisplayName("WHEN the graph has directed chains and an isolated vertex, THEN each is a "
+            + "component regardless of edge directions.")
+    @Test
+    void testSmallGraph() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("a", "b", "c", "d", "e", "f")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("a", new BasicEdge<>("b", 1));
+        g.addEdge("c", new BasicEdge<>("b", 1));
+        g.addEdge("e", new BasicEdge<>("d", 1));
+        Components<String> components = g.weaklyConnectedComponents();
+        assertEquals(3, components.count());
+        assertArrayEquals(new int[] {0, 0, 0, 1, 1, 2}, components.components());
+        assertArrayEquals(new int[] {3, 2, 1}, components.sizes());
+        assertTrue(components.connected("a", "c"));
+        assertFalse(components.connected("a", "d"));
+        assertEquals(List.of("d", "e"), components.vertices(components.componentOf("e")));
+        assertEquals(List.of("f"), components.vertices(2));
+    }
+
+    @DisplayName("WHEN the graph is large and sparse, THEN union-find and label propagation "
+            + "both find the components of breadth first search.")
+    @Test
+    void testParallelAlgorithms() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int m : new int[] {20_000, 60_000}) {
+            CsrGraph<Integer> g = CsrGraphTest.makeRandom(50_000, m, 10, m).freeze();
+            int[] expected = reference(g);
+            for (ComponentAlgorithm algorithm : ComponentAlgorithm.values()) {
+                Components<Integer> components = g.weaklyConnectedComponents(pool, algorithm);
+                assertArrayEquals(expected, components.components(), algorithm.name());
+                assertEquals(Arrays.stream(expected).max().getAsInt() + 1, components.count());
+                assertEquals(g.vertexCount(), Arrays.stream(components.sizes()).sum());
+            }
+        }
+        pool.shutdown();
+    }
+}
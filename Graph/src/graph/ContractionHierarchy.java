@@ -0,0 +1,472 @@
+package graph;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+
+public final class ContractionHierarchy<LabelType> {
+    /**
+     * ContractionHierarchy answers point-to-point shortest path queries on a graph with
+     * non-negative integer weights after preprocessing it into a contraction hierarchy
+     * (Geisberger et al., 2008). Preprocessing ranks the vertices by importance and contracts them
+     * least important first, adding a shortcut u -> x through 'v' whenever contracting 'v' would
+     * otherwise lose the shortest path u -> v -> x. Every shortest path then has a counterpart
+     * that first only climbs in rank and then only descends, so a query runs Dijkstra's algorithm
+     * upward from the start and backward-upward from the target and stops once neither search can
+     * improve on the best meeting vertex. Both searches see only a small, high-ranked part of the
+     * graph, so queries settle hundreds of vertices instead of a large fraction of the graph.
+     * The upward edges of 'v' are 'upTargets[upOffsets[v]..upOffsets[v+1])', and its downward
+     * edges, those that enter 'v' from a higher-ranked vertex, are
+     * 'downSources[downOffsets[v]..downOffsets[v+1])'. Each edge has a weight and a middle vertex,
+     * NONE for an original edge, from which paths are unpacked.
+     * A hierarchy is immutable and can be shared by threads; each thread queries through its own
+     * Query. write() and read() save it to a file so it is preprocessed only once.
+     */
+
+    // "GRAPH-CH" in ASCII.
+    static final long MAGIC = 0x47524150482D4348L;
+    static final int VERSION = 1;
+
+    private final List<LabelType> labels;
+    private final Map<LabelType, Integer> ids;
+    // 'rank[v]' is the position of 'v' in the contraction order.
+    private final int[] rank;
+    private final int[] upOffsets;
+    private final int[] upTargets;
+    private final int[] upWeights;
+    private final int[] upMiddles;
+    private final int[] downOffsets;
+    private final int[] downSources;
+    private final int[] downWeights;
+    private final int[] downMiddles;
+
+    private ContractionHierarchy(List<LabelType> labels, int[] rank, int[] upOffsets,
+            int[] upTargets, int[] upWeights, int[] upMiddles, int[] downOffsets,
+            int[] downSources, int[] downWeights, int[] downMiddles) {
+        this.labels = Collections.unmodifiableList(labels);
+        Map<LabelType, Integer> ids = new HashMap<>();
+        for (int v = 0; v < labels.size(); v++) {
+            ids.put(labels.get(v), v);
+        }
+        this.ids = Collections.unmodifiableMap(ids);
+        this.rank = rank;
+        this.upOffsets = upOffsets;
+        this.upTargets = upTargets;
+        this.upWeights = upWeights;
+        this.upMiddles = upMiddles;
+        this.downOffsets = downOffsets;
+        this.downSources = downSources;
+        this.downWeights = downWeights;
+        this.downMiddles = downMiddles;
+    }
+
+    /**
+     * Preprocesses 'graph' into a contraction hierarchy, on the common pool. Requires
+     * non-negative edge weights.
+     */
+    public static <LabelType> ContractionHierarchy<LabelType> build(BasicGraph<LabelType> graph) {
+        return build(graph.freeze(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Preprocesses 'graph' into a contraction hierarchy, computing the initial vertex importances
+     * on 'pool'. Requires non-negative edge weights.
+     */
+    public static <LabelType> ContractionHierarchy<LabelType> build(CsrGraph<LabelType> graph,
+            ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        HierarchyBuilder builder = new HierarchyBuilder(graph);
+        builder.contract(pool);
+        int[] rank = builder.rank();
+
+        // Counting sort of the edges: upward edges by source, downward edges by target.
+        int[] upOffsets = new int[n + 1];
+        int[] downOffsets = new int[n + 1];
+        for (int e = 0; e < builder.edgeCount(); e++) {
+            if (rank[builder.from(e)] < rank[builder.to(e)]) {
+                upOffsets[builder.from(e) + 1]++;
+            } else {
+                downOffsets[builder.to(e) + 1]++;
+            }
+        }
+        for (int v = 0; v < n; v++) {
+            upOffsets[v + 1] += upOffsets[v];
+            downOffsets[v + 1] += downOffsets[v];
+        }
+        int[] upTargets = new int[upOffsets[n]];
+        int[] upWeights = new int[upOffsets[n]];
+        int[] upMiddles = new int[upOffsets[n]];
+        int[] downSources = new int[downOffsets[n]];
+        int[] downWeights = new int[downOffsets[n]];
+        int[] downMiddles = new int[downOffsets[n]];
+        int[] upNext = Arrays.copyOf(upOffsets, n);
+        int[] downNext = Arrays.copyOf(downOffsets, n);
+        for (int e = 0; e < builder.edgeCount(); e++) {
+            int from = builder.from(e);
+            int to = builder.to(e);
+            if (rank[from] < rank[to]) {
+                int i = upNext[from]++;
+                upTargets[i] = to;
+                upWeights[i] = builder.weight(e);
+                upMiddles[i] = builder.middle(e);
+            } else {
+                int i = downNext[to]++;
+                downSources[i] = from;
+                downWeights[i] = builder.weight(e);
+                downMiddles[i] = builder.middle(e);
+            }
+        }
+        return new ContractionHierarchy<>(new ArrayList<>(graph.labels), rank, upOffsets,
+                upTargets, upWeights, upMiddles, downOffsets, downSources, downWeights,
+                downMiddles);
+    }
+
+    public int vertexCount() {
+        return labels.size();
+    }
+
+    /**
+     * Returns the number of edges of the hierarchy: the original edges plus the shortcuts.
+     */
+    public int edgeCount() {
+        return upTargets.length + downSources.length;
+    }
+
+    public boolean containsVertex(LabelType label) {
+        return ids.containsKey(label);
+    }
+
+    /**
+     * Returns a new Query for this hierarchy.
+     */
+    public Query query() {
+        return new Query();
+    }
+
+    /**
+     * Query holds the search state of point-to-point queries, reused from one query to the next
+     * so that a query costs only the vertices it touches. Not thread-safe.
+     */
+    public final class Query {
+        private final int[] forward = new int[vertexCount()];
+        private final int[] backward = new int[vertexCount()];
+        private final int[] forwardPredecessors = new int[vertexCount()];
+        private final int[] backwardPredecessors = new int[vertexCount()];
+        // A distance is valid only if its stamp is the current query's.
+        private final int[] forwardStamps = new int[vertexCount()];
+        private final int[] backwardStamps = new int[vertexCount()];
+        private int stamp;
+        private final IntIndexedDaryHeap forwardFrontier = new IntIndexedDaryHeap(vertexCount());
+        private final IntIndexedDaryHeap backwardFrontier = new IntIndexedDaryHeap(vertexCount());
+        private final IntList stack = new IntList();
+        // The vertex where the searches of the last query met, or NONE.
+        private int meeting;
+        private long best;
+
+        private Query() {
+        }
+
+        /**
+         * Returns the length of the shortest path from 'start' to 'target', or UNREACHABLE if
+         * there is none. Requires that both vertices exist.
+         */
+        public int distance(LabelType start, LabelType target) {
+            assert containsVertex(start) && containsVertex(target);
+            search(ids.get(start), ids.get(target));
+            return (int) best;
+        }
+
+        /**
+         * Returns the shortest path from 'start' to 'target' as the list of its vertices, from
+         * 'start' to 'target', or an empty list if there is none. Requires that both vertices
+         * exist.
+         */
+        public List<LabelType> path(LabelType start, LabelType target) {
+            assert containsVertex(start) && containsVertex(target);
+            int source = ids.get(start);
+            int dest = ids.get(target);
+            search(source, dest);
+            List<LabelType> path = new ArrayList<>();
+            if (meeting == ShortestPathResult.NONE) {
+                return path;
+            }
+            // The hierarchy path climbs from 'source' to the meeting vertex, then descends.
+            IntList vertices = new IntList();
+            for (int v = meeting; v != ShortestPathResult.NONE; v = forwardPredecessors[v]) {
+                vertices.add(v);
+            }
+            int climb = vertices.size();
+            for (int i = 0, j = climb - 1; i < j; i++, j--) {
+                int v = vertices.get(i);
+                vertices.set(i, vertices.get(j));
+                vertices.set(j, v);
+            }
+            for (int v = backwardPredecessors[meeting]; v != ShortestPathResult.NONE;
+                    v = backwardPredecessors[v]) {
+                vertices.add(v);
+            }
+            path.add(start);
+            for (int i = 1; i < vertices.size(); i++) {
+                unpack(vertices.get(i - 1), vertices.get(i), path);
+            }
+            return path;
+        }
+
+        // Appends the original path of the hierarchy edge 'from' -> 'to', without 'from'.
+        private void unpack(int from, int to, List<LabelType> path) {
+            stack.add(to);
+            stack.add(from);
+            while (!stack.isEmpty()) {
+                int u = stack.removeLast();
+                int x = stack.removeLast();
+                int middle = middle(u, x);
+                if (middle == ShortestPathResult.NONE) {
+                    path.add(labels.get(x));
+                } else {
+                    stack.add(x);
+                    stack.add(middle);
+                    stack.add(middle);
+                    stack.add(u);
+                }
+            }
+        }
+
+        /**
+         * Runs the upward searches from 'source' and backward from 'target', leaving the length
+         * of the shortest path in 'best' and the vertex where it peaks in 'meeting'.
+         */
+        private void search(int source, int target) {
+            stamp++;
+            best = ShortestPathResult.UNREACHABLE;
+            meeting = ShortestPathResult.NONE;
+            reach(forward, forwardStamps, forwardPredecessors, forwardFrontier, source, 0,
+                    ShortestPathResult.NONE);
+            reach(backward, backwardStamps, backwardPredecessors, backwardFrontier, target, 0,
+                    ShortestPathResult.NONE);
+            while (!forwardFrontier.isEmpty() || !backwardFrontier.isEmpty()) {
+                // Advance the search with the nearer frontier; a search whose frontier is no
+                // nearer than the best path found cannot improve it, and stops.
+                boolean isForward = backwardFrontier.isEmpty() || (!forwardFrontier.isEmpty()
+                        && forwardFrontier.minPriority() <= backwardFrontier.minPriority());
+                IntIndexedDaryHeap frontier = isForward ? forwardFrontier : backwardFrontier;
+                if (frontier.minPriority() >= best) {
+                    frontier.clear();
+                    continue;
+                }
+                int v = frontier.removeMin();
+                int[] distances = isForward ? forward : backward;
+                int[] otherStamps = isForward ? backwardStamps : forwardStamps;
+                int[] other = isForward ? backward : forward;
+                if (otherStamps[v] == stamp && (long) distances[v] + other[v] < best) {
+                    best = (long) distances[v] + other[v];
+                    meeting = v;
+                }
+                if (isForward) {
+                    for (int i = upOffsets[v]; i < upOffsets[v + 1]; i++) {
+                        reach(forward, forwardStamps, forwardPredecessors, forwardFrontier,
+                                upTargets[i], (long) distances[v] + upWeights[i], v);
+                    }
+                } else {
+                    for (int i = downOffsets[v]; i < downOffsets[v + 1]; i++) {
+                        reach(backward, backwardStamps, backwardPredecessors, backwardFrontier,
+                                downSources[i], (long) distances[v] + downWeights[i], v);
+                    }
+                }
+            }
+        }
+
+        // Records 'distance' to 'v' via 'predecessor' if it is shorter than the known one.
+        private void reach(int[] distances, int[] stamps, int[] predecessors,
+                IntIndexedDaryHeap frontier, int v, long distance, int predecessor) {
+            if (distance >= ShortestPathResult.UNREACHABLE
+                    || (stamps[v] == stamp && distances[v] <= distance)) {
+                return;
+            }
+            distances[v] = (int) distance;
+            stamps[v] = stamp;
+            predecessors[v] = predecessor;
+            frontier.addOrUpdate(v, (int) distance);
+        }
+    }
+
+    /**
+     * Returns the middle vertex of the hierarchy edge 'u' -> 'x', which is stored with the lower
+     * ranked of the two.
+     */
+    private int middle(int u, int x) {
+        if (rank[u] < rank[x]) {
+            for (int i = upOffsets[u]; i < upOffsets[u + 1]; i++) {
+                if (upTargets[i] == x) {
+                    return upMiddles[i];
+                }
+            }
+        } else {
+            for (int i = downOffsets[x]; i < downOffsets[x + 1]; i++) {
+                if (downSources[i] == u) {
+                    return downMiddles[i];
+                }
+            }
+        }
+        throw new IllegalStateException("no hierarchy edge " + u + " -> " + x);
+    }
+
+    /**
+     * Writes the hierarchy to the file 'path', replacing it, with labels encoded by 'codec'. All
+     * numbers are big-endian: MAGIC (long), VERSION (int), vertex count 'n', upward edge count
+     * 'u' and downward edge count 'd' (int each); then for every vertex the length of its encoded
+     * label (int) and the label; then rank (n ints), upward offsets (n + 1 ints), targets, weights
+     * and middles (u ints each), and downward offsets, sources, weights and middles.
+     * O(|V| + |E|) algorithm, where |E| counts the shortcuts.
+     */
+    public void write(Path path, LabelCodec<LabelType> codec) throws IOException {
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(vertexCount());
+            out.writeInt(upTargets.length);
+            out.writeInt(downSources.length);
+            for (LabelType label : labels) {
+                byte[] bytes = codec.encode(label);
+                out.writeInt(bytes.length);
+                out.write(bytes);
+            }
+            for (int[] values : new int[][] {rank, upOffsets, upTargets, upWeights, upMiddles,
+                    downOffsets, downSources, downWeights, downMiddles}) {
+                for (int value : values) {
+                    out.writeInt(value);
+                }
+            }
+        }
+    }
+
+    /**
+     * Reads a hierarchy written by write() from the file 'path', with labels decoded by 'codec'.
+     * Throws IOException if the file is not a hierarchy file of this version, or is truncated or
+     * inconsistent.
+     * O(|V| + |E|) algorithm, where |E| counts the shortcuts.
+     */
+    public static <LabelType> ContractionHierarchy<LabelType> read(Path path,
+            LabelCodec<LabelType> codec) throws IOException {
+        try (DataInputStream in = new DataInputStream(
+                new BufferedInputStream(Files.newInputStream(path), 1 << 16))) {
+            if (in.readLong() != MAGIC) {
+                throw new IOException(path + " is not a contraction hierarchy file");
+            }
+            int version = in.readInt();
+            if (version != VERSION) {
+                throw new IOException(path
+                        + " has unsupported contraction hierarchy file version " + version);
+            }
+            int n = in.readInt();
+            int up = in.readInt();
+            int down = in.readInt();
+            if (n < 0 || up < 0 || down < 0) {
+                throw new IOException(path + " is corrupt");
+            }
+            // Check the counts against the file size before allocating arrays of their size: the
+            // header, a length per label, and the rank, offset, edge and middle arrays.
+            long size = Files.size(path);
+            long ints = 4L * n + 2 + 3L * up + 3L * down;
+            if (24 + Integer.BYTES * ints > size) {
+                throw new IOException(path + " is truncated or corrupt");
+            }
+            List<LabelType> labels = new ArrayList<>(n);
+            for (int v = 0; v < n; v++) {
+                int length = in.readInt();
+                if (length < 0 || length > size) {
+                    throw new IOException(path + " is corrupt");
+                }
+                byte[] bytes = in.readNBytes(length);
+                if (bytes.length != length) {
+                    throw new EOFException(path + " ends inside the label of vertex " + v);
+                }
+                labels.add(codec.decode(bytes));
+            }
+            int[] rank = readRank(in, n, path);
+            int[] upOffsets = readOffsets(in, n, up, path);
+            int[] upTargets = readIds(in, up, n, path);
+            int[] upWeights = readInts(in, up);
+            int[] upMiddles = readMiddles(in, up, n, path);
+            int[] downOffsets = readOffsets(in, n, down, path);
+            int[] downSources = readIds(in, down, n, path);
+            int[] downWeights = readInts(in, down);
+            int[] downMiddles = readMiddles(in, down, n, path);
+            return new ContractionHierarchy<>(labels, rank, upOffsets, upTargets, upWeights,
+                    upMiddles, downOffsets, downSources, downWeights, downMiddles);
+        }
+    }
+
+    // Reads 'length' ints; throws EOFException if the file ends first.
+    private static int[] readInts(DataInputStream in, int length) throws IOException {
+        int[] values = new int[length];
+        for (int i = 0; i < length; i++) {
+            values[i] = in.readInt();
+        }
+        return values;
+    }
+
+    // Reads the ranks of 'n' vertices, checking that they are a permutation of 0 to 'n' - 1.
+    private static int[] readRank(DataInputStream in, int n, Path path) throws IOException {
+        int[] rank = readInts(in, n);
+        boolean[] seen = new boolean[n];
+        for (int r : rank) {
+            if (r < 0 || r >= n || seen[r]) {
+                throw new IOException(path + " is corrupt");
+            }
+            seen[r] = true;
+        }
+        return rank;
+    }
+
+    // Reads the 'n' + 1 offsets of 'edges' edges, checking that they are ordered.
+    private static int[] readOffsets(DataInputStream in, int n, int edges, Path path)
+            throws IOException {
+        int[] offsets = readInts(in, n + 1);
+        for (int v = 0; v < n; v++) {
+            if (offsets[v] > offsets[v + 1]) {
+                throw new IOException(path + " is corrupt");
+            }
+        }
+        if (offsets[0] != 0 || offsets[n] != edges) {
+            throw new IOException(path + " is corrupt");
+        }
+        return offsets;
+    }
+
+    // Reads 'length' vertex ids, checking that they are below 'n'.
+    private static int[] readIds(DataInputStream in, int length, int n, Path path)
+            throws IOException {
+        int[] ids = readInts(in, length);
+        for (int id : ids) {
+            if (id < 0 || id >= n) {
+                throw new IOException(path + " is corrupt");
+            }
+        }
+        return ids;
+    }
+
+    // Reads 'length' middle vertices, checking that each is NONE or below 'n'.
+    private static int[] readMiddles(DataInputStream in, int length, int n, Path path)
+            throws IOException {
+        int[] middles = readInts(in, length);
+        for (int middle : middles) {
+            if (middle != ShortestPathResult.NONE && (middle < 0 || middle >= n)) {
+                throw new IOException(path + " is corrupt");
+            }
+        }
+        return middles;
+    }
+}
@@ -0,0 +1,133 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class ContractionHierarchyTest {
+
+    @TempDir
+    Path directory;
+
+    // Checks 'queries' random queries of 'hierarchy' against Dijkstra's algorithm on 'g'.
+    private static void assertMatchesDijkstra(BasicGraph<Integer> g,
+            ContractionHierarchy<Integer> hierarchy, int queries, long seed) {
+        CsrGraph<Integer> csr = g.freeze();
+        ContractionHierarchy<Integer>.Query query = hierarchy.query();
+        Random rng = new Random(seed);
+        for (int i = 0; i < queries; i++) {
+            int start = rng.nextInt(g.vertexCount());
+            int target = rng.nextInt(g.vertexCount());
+            int expected = g.shortestPath(start, target).distanceTo(target);
+            assertEquals(expected, query.distance(start, target));
+            List<Integer> path = query.path(start, target);
+            if (expected == ShortestPathResult.UNREACHABLE) {
+                assertTrue(path.isEmpty());
+            } else {
+                assertEquals(start, path.get(0));
+                assertEquals(target, path.get(path.size() - 1));
+                assertEquals(expected, ShortestPathsTest.length(csr, path));
+            }
+        }
+    }
+
+    @DisplayName("WHEN the graph is a grid, THEN queries find the shortest paths.")
+    @Test
+    void testGrid() {
+        BasicGraph<Integer> g = ShortestPathsTest.makeGrid(5);
+        ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(g);
+        assertEquals(g.vertexCount(), hierarchy.vertexCount());
+        assertTrue(hierarchy.edgeCount() >= g.freeze().edgeCount());
+        assertMatchesDijkstra(g, hierarchy, 200, 6);
+    }
+
+    @DisplayName("WHEN the graph is random and directed, THEN queries find the shortest paths, "
+            + "including to unreachable vertices and from a vertex to itself.")
+    @Test
+    void testRandom() {
+        BasicGraph<Integer> g = CsrGraphTest.makeRandom(1500, 4000, 30, 7);
+        ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(g.freeze(),
+                new ForkJoinPool(4));
+        assertMatchesDijkstra(g, hierarchy, 300, 8);
+        assertEquals(0, hierarchy.query().distance(3, 3));
+        assertEquals(List.of(3), hierarchy.query().path(3, 3));
+    }
+
+    @DisplayName("WHEN a hierarchy is written and read back, THEN it answers like the original "
+            + "AND a file that is not a hierarchy is rejected.")
+    @Test
+    void testWriteAndRead() throws IOException {
+        BasicGraph<Integer> g = CsrGraphTest.makeRandom(800, 3000, 20, 9);
+        ContractionHierarchy<Integer> hierarchy = ContractionHierarchy.build(g);
+        Path file = directory.resolve("random.ch");
+        hierarchy.write(file, LabelCodec.integers());
+        ContractionHierarchy<Integer> read = ContractionHierarchy.read(file,
+                LabelCodec.integers());
+        assertEquals(hierarchy.edgeCount(), read.edgeCount());
+        assertMatchesDijkstra(g, read, 200, 10);
+
+        Path truncated = directory.resolve("truncated.ch");
+        byte[] bytes = Files.readAllBytes(file);
+        Files.write(truncated, Arrays.copyOf(bytes, bytes.length / 2));
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(truncated,
+                LabelCodec.integers()));
+        Path graph = directory.resolve("random.graph");
+        GraphFile.write(g, graph, LabelCodec.integers());
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(graph,
+                LabelCodec.integers()));
+    }
+
+    @DisplayName("WHEN a hierarchy file ends inside a label, repeats a rank, names a middle "
+            + "vertex out of range or has counts too large for it, THEN reading it throws "
+            + "IOException.")
+    @Test
+    void testReadCorrupt() throws IOException {
+        BasicGraph<Integer> g = CsrGraphTest.makeRandom(100, 300, 20, 11);
+        Path file = directory.resolve("random.ch");
+        ContractionHierarchy.build(g).write(file, LabelCodec.integers());
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        int n = buffer.getInt(12);
+        int up = buffer.getInt(16);
+        assertTrue(up > 0);
+        // Integer labels take a length and 4 bytes each.
+        int rank = 24 + 8 * n;
+        int upMiddles = rank + 4 * (n + n + 1 + 2 * up);
+
+        Path corrupt = directory.resolve("corrupt.ch");
+        Files.write(corrupt, Arrays.copyOf(bytes, 24 + 8 + 6));
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(corrupt,
+                LabelCodec.integers()));
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putInt(rank, buffer.getInt(rank + 4))
+                .array());
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(corrupt,
+                LabelCodec.integers()));
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putInt(upMiddles, n).array());
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(corrupt,
+                LabelCodec.integers()));
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putInt(upMiddles, -2).array());
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(corrupt,
+                LabelCodec.integers()));
+        // Counts too large for the file, which must not be allocated.
+        for (int offset : new int[] {12, 16, 20}) {
+            Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putInt(offset, Integer.MAX_VALUE)
+                    .array());
+            assertThrows(IOException.class, () -> ContractionHierarchy.read(corrupt,
+                    LabelCodec.integers()));
+        }
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putInt(24, Integer.MAX_VALUE)
+                .array());
+        assertThrows(IOException.class, () -> ContractionHierarchy.read(corrupt,
+                LabelCodec.integers()));
+    }
+}
@@ -0,0 +1,619 @@
+package graph;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntUnaryOperator;
+import java.util.function.ToIntFunction;
+
+public class CsrGraph<LabelType> implements Graph<Vertex<LabelType>>, IntGraph {
+    /**
+     * CsrGraph is an immutable snapshot of a BasicGraph in compressed sparse row form. Vertex
+     * labels are translated to dense int ids once, when the snapshot is built; after that every
+     * traversal runs over primitive arrays. The outgoing edges of vertex 'v' are the entries
+     * 'outTargets[outOffsets[v]..outOffsets[v+1])' with weights at the same positions in
+     * 'outWeights', and likewise for incoming edges. Neighbors keep the order in which the edges
+     * were added to the BasicGraph, so traversals visit vertices in the same order.
+     * Obtain one with BasicGraph.freeze().
+     */
+
+    // List 'labels' maps the id of a vertex to its label.
+    final List<LabelType> labels;
+    // Map 'ids' maps the label of a vertex to its id.
+    final Map<LabelType, Integer> ids;
+
+    final int[] outOffsets;
+    final int[] outTargets;
+    final int[] outWeights;
+    final int[] inOffsets;
+    final int[] inTargets;
+    final int[] inWeights;
+
+    /**
+     * Initializes a CsrGraph from already packed adjacency arrays. Requires that 'outOffsets' and
+     * 'inOffsets' have length labels.size() + 1, and that the incoming arrays describe exactly the
+     * reverse of the outgoing arrays.
+     */
+    CsrGraph(List<LabelType> labels, Map<LabelType, Integer> ids, int[] outOffsets,
+            int[] outTargets, int[] outWeights, int[] inOffsets, int[] inTargets,
+            int[] inWeights) {
+        assert outOffsets.length == labels.size() + 1 && inOffsets.length == labels.size() + 1;
+        assert outTargets.length == inTargets.length;
+        this.labels = Collections.unmodifiableList(labels);
+        this.ids = Collections.unmodifiableMap(ids);
+        this.outOffsets = outOffsets;
+        this.outTargets = outTargets;
+        this.outWeights = outWeights;
+        this.inOffsets = inOffsets;
+        this.inTargets = inTargets;
+        this.inWeights = inWeights;
+    }
+
+    @Override
+    public int vertexCount() {
+        return labels.size();
+    }
+
+    public int edgeCount() {
+        return outTargets.length;
+    }
+
+    public boolean containsVertex(LabelType label) {
+        return ids.containsKey(label);
+    }
+
+    /**
+     * Returns the id of the vertex with label 'label'. Requires that the vertex exists.
+     */
+    public int id(LabelType label) {
+        assert containsVertex(label);
+        return ids.get(label);
+    }
+
+    /**
+     * Returns the label of the vertex with id 'id'.
+     */
+    public LabelType label(int id) {
+        return labels.get(id);
+    }
+
+    @Override
+    public int outDegree(int id) {
+        return outOffsets[id + 1] - outOffsets[id];
+    }
+
+    @Override
+    public int outTarget(int id, int i) {
+        return outTargets[outOffsets[id] + i];
+    }
+
+    @Override
+    public int outWeight(int id, int i) {
+        return outWeights[outOffsets[id] + i];
+    }
+
+    @Override
+    public int inDegree(int id) {
+        return inOffsets[id + 1] - inOffsets[id];
+    }
+
+    @Override
+    public int inTarget(int id, int i) {
+        return inTargets[inOffsets[id] + i];
+    }
+
+    @Override
+    public int inWeight(int id, int i) {
+        return inWeights[inOffsets[id] + i];
+    }
+
+    /**
+     * Returns a read-only view of the vertex with label 'label' if it exists in the graph, else
+     * returns null.
+     */
+    public Vertex<LabelType> getVertex(LabelType label) {
+        Integer id = ids.get(label);
+        return id == null ? null : new CsrVertex(id);
+    }
+
+    /**
+     * Returns the shortest path tree from 'start' computed by parallel delta-stepping on the
+     * ForkJoin common pool, with a bucket width chosen from the edge weights and average degree.
+     * Distances equal those of shortestPath(start). Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> deltaStepping(LabelType start) {
+        return deltaStepping(start, DeltaStepping.defaultDelta(this), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as deltaStepping(start), with bucket width 'delta' and running on 'pool'. Edges of
+     * weight at most 'delta' are relaxed repeatedly within a bucket, heavier edges once per
+     * bucket. Requires 'delta' >= 1.
+     */
+    public ShortestPathResult<LabelType> deltaStepping(LabelType start, int delta,
+            ForkJoinPool pool) {
+        int source = id(start);
+        int[] distances = new int[vertexCount()];
+        int[] predecessors = new int[vertexCount()];
+        DeltaStepping.run(this, source, delta, pool, distances, predecessors);
+        return new ShortestPathResult<>(source, distances, predecessors, ids, labels::get);
+    }
+
+    /**
+     * Returns the result of Kahn's algorithm on the snapshot, see BasicGraph.topologicalOrder().
+     * O(|V| + |E|) algorithm.
+     */
+    public TopologicalOrder<LabelType> topologicalOrder() {
+        return TopologicalOrder.kahn(this, labels::get);
+    }
+
+    /**
+     * Returns either the settlement or visitation order of vertices in the graph after depth
+     * first traversal depending on whether 'order' is "settlement" or "visit", respectively.
+     * If 'order' is neither "settlement" or "visit", returns null.
+     */
+    public List<LabelType> dfsTraversal(LabelType start, String order) {
+        return order.equals("settlement") ? dfsTraversal(start, DfsOrder.POST_ORDER)
+                : (order.equals("visit") ? dfsTraversal(start, DfsOrder.PRE_ORDER) : null);
+    }
+
+    /**
+     * Returns the vertices reachable from 'start' in depth first order 'order'.
+     * Uses an explicit stack, so the depth of the graph is not limited by the thread's stack size.
+     */
+    public List<LabelType> dfsTraversal(LabelType start, DfsOrder order) {
+        return labelsOf(DepthFirstSearch.from(this, id(start), order));
+    }
+
+    /**
+     * Returns all vertices in depth first order 'order', starting a new traversal from each
+     * vertex not yet visited, in id order.
+     */
+    public List<LabelType> dfsTraversal(DfsOrder order) {
+        return labelsOf(DepthFirstSearch.all(this, order));
+    }
+
+    // Returns the labels of the vertices with ids 'ids', in the same order.
+    private List<LabelType> labelsOf(int[] ids) {
+        List<LabelType> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(labels.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Returns the order in which vertices reachable from 'start' are visited by breadth first
+     * search.
+     */
+    public List<LabelType> bfsTraversal(LabelType start) {
+        return labelsOf(BreadthFirstSearch.order(this, id(start)));
+    }
+
+    /**
+     * Returns the breadth first levels and parents of all vertices reachable from 'start',
+     * computed by a direction-optimizing search on the ForkJoin common pool.
+     */
+    public BfsResult<LabelType> parallelBfs(LabelType start) {
+        return parallelBfs(start, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as parallelBfs(start), running on 'pool'.
+     */
+    public BfsResult<LabelType> parallelBfs(LabelType start, ForkJoinPool pool) {
+        int source = id(start);
+        int[] levels = new int[vertexCount()];
+        int[] parents = new int[vertexCount()];
+        BreadthFirstSearch.parallel(this, source, pool, levels, parents);
+        return new BfsResult<>(source, levels, parents, ids, labels::get);
+    }
+
+    /**
+     * Returns the weakly connected components, the components of the graph with edge directions
+     * ignored, found by a parallel union-find on the ForkJoin common pool.
+     * O(|V| + |E| α(|V|)) algorithm.
+     */
+    public Components<LabelType> weaklyConnectedComponents() {
+        return weaklyConnectedComponents(ForkJoinPool.commonPool(),
+                ComponentAlgorithm.UNION_FIND);
+    }
+
+    /**
+     * Same as weaklyConnectedComponents(), running 'algorithm' on 'pool'. Both algorithms give
+     * the same result.
+     */
+    public Components<LabelType> weaklyConnectedComponents(ForkJoinPool pool,
+            ComponentAlgorithm algorithm) {
+        return new Components<>(ConnectedComponents.roots(this, pool, algorithm), ids,
+                labels::get);
+    }
+
+    /**
+     * Returns the strongly connected components, the maximal sets of vertices that all reach
+     * each other, found by an iterative Tarjan's algorithm on the calling thread.
+     * O(|V| + |E|) algorithm.
+     */
+    public Components<LabelType> stronglyConnectedComponents() {
+        int[] components = new int[vertexCount()];
+        Arrays.fill(components, StronglyConnectedComponents.UNASSIGNED);
+        StronglyConnectedComponents.tarjan(this, components);
+        return new Components<>(Components.smallest(components), ids,
+                labels::get);
+    }
+
+    /**
+     * Same as stronglyConnectedComponents(), found in parallel on 'pool' by trimming, a
+     * forward-backward search from a likely member of the giant component, and coloring rounds,
+     * with Tarjan's algorithm finishing the small remainder. Gives the same result.
+     */
+    public Components<LabelType> stronglyConnectedComponents(ForkJoinPool pool) {
+        int[] components = new int[vertexCount()];
+        StronglyConnectedComponents.multistep(this, pool, components);
+        return new Components<>(Components.smallest(components), ids,
+                labels::get);
+    }
+
+    /**
+     * Returns the condensation of this graph into 'components', usually its strongly connected
+     * components: one vertex per component, labelled with the component number, and an edge
+     * c -> d weighing the least of the edges from component c to component d, if any. The
+     * condensation of the strongly connected components is acyclic.
+     * Requires that 'components' partitions the vertices of this graph.
+     * O(|V| + |E| log |E|) algorithm.
+     */
+    public CsrGraph<Integer> condensation(Components<LabelType> components) {
+        assert components.components().length == vertexCount();
+        return StronglyConnectedComponents.condense(this, components.components(),
+                components.count(), ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Returns the PageRank of every vertex with damping factor 0.85, iterated on the ForkJoin
+     * common pool until the ranks move by at most 1e-9 in L1 norm, or for 100 iterations.
+     * Vertices without outgoing edges pass their rank to all vertices evenly.
+     * O((|V| + |E|) * iterations) algorithm.
+     */
+    public PageRankResult<LabelType> pageRank() {
+        return pageRank(0.85, 1e-9, 100, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as pageRank(), with damping factor 'damping', iterating on 'pool' until the ranks
+     * move by at most 'tolerance' in L1 norm, or for 'maxIterations' iterations.
+     * Requires 0 <= 'damping' < 1.
+     */
+    public PageRankResult<LabelType> pageRank(double damping, double tolerance,
+            int maxIterations, ForkJoinPool pool) {
+        double[] ranks = new double[vertexCount()];
+        int iterations = PageRank.powerIteration(this, damping, null, tolerance, maxIterations,
+                pool, ranks);
+        return new PageRankResult<>(ranks, iterations, ids, labels::get);
+    }
+
+    /**
+     * Same as pageRank(damping, tolerance, maxIterations, pool), except that random surfers
+     * restart, and leave vertices without outgoing edges, to vertex 'v' with probability
+     * proportional to 'restart'.get(v), and never to the vertices missing from 'restart'.
+     * Requires that the vertices of 'restart' exist, with non-negative weights and a positive
+     * sum.
+     */
+    public PageRankResult<LabelType> personalizedPageRank(Map<LabelType, Double> restart,
+            double damping, double tolerance, int maxIterations, ForkJoinPool pool) {
+        double[] vector = new double[vertexCount()];
+        double total = 0;
+        for (Map.Entry<LabelType, Double> entry : restart.entrySet()) {
+            assert entry.getValue() >= 0;
+            vector[id(entry.getKey())] += entry.getValue();
+            total += entry.getValue();
+        }
+        assert total > 0;
+        for (int v = 0; v < vector.length; v++) {
+            vector[v] /= total;
+        }
+        double[] ranks = new double[vertexCount()];
+        int iterations = PageRank.powerIteration(this, damping, vector, tolerance, maxIterations,
+                pool, ranks);
+        return new PageRankResult<>(ranks, iterations, ids, labels::get);
+    }
+
+    /**
+     * Returns a ForwardPush for approximate single-seed personalized PageRank queries that
+     * touch only the neighborhood of the seed.
+     */
+    public ForwardPush<LabelType> forwardPush() {
+        return new ForwardPush<>(this);
+    }
+
+    /**
+     * Returns communities found by parallel label propagation on the ForkJoin common pool, edge
+     * directions ignored and weights summed, for at most 20 rounds. Fast, but the result depends
+     * on the thread interleaving.
+     * O((|V| + |E|) * rounds) algorithm.
+     */
+    public Components<LabelType> labelPropagation() {
+        return labelPropagation(ForkJoinPool.commonPool(), 20);
+    }
+
+    /**
+     * Same as labelPropagation(), running at most 'maxRounds' rounds on 'pool'.
+     */
+    public Components<LabelType> labelPropagation(ForkJoinPool pool, int maxRounds) {
+        UndirectedGraph graph = UndirectedGraph.of(this, pool);
+        return new Components<>(Components.smallest(
+                CommunityDetection.labelPropagation(graph, pool, maxRounds)), ids, labels::get);
+    }
+
+    /**
+     * Returns communities of high modularity found by the Louvain method on the ForkJoin common
+     * pool, edge directions ignored and weights summed, stopping once modularity improves by
+     * less than 1e-6. Requires non-negative edge weights.
+     * O((|V| + |E|) * sweeps) algorithm.
+     */
+    public Components<LabelType> louvain() {
+        return louvain(ForkJoinPool.commonPool(), 1e-6);
+    }
+
+    /**
+     * Same as louvain(), running on 'pool' and stopping once modularity improves by less than
+     * 'minGain'.
+     */
+    public Components<LabelType> louvain(ForkJoinPool pool, double minGain) {
+        UndirectedGraph graph = UndirectedGraph.of(this, pool);
+        return new Components<>(Components.smallest(
+                CommunityDetection.louvain(graph, pool, minGain)), ids, labels::get);
+    }
+
+    /**
+     * Returns the modularity of 'communities', edge directions ignored and weights summed: the
+     * fraction of edge weight inside communities minus its expected value for random edges with
+     * the same vertex degrees, between -1/2 and 1.
+     * O(|V| + |E|) algorithm.
+     */
+    public double modularity(Components<LabelType> communities) {
+        assert communities.components().length == vertexCount();
+        ForkJoinPool pool = ForkJoinPool.commonPool();
+        return CommunityDetection.modularity(UndirectedGraph.of(this, pool),
+                communities.components(), pool);
+    }
+
+    /**
+     * Returns the triangles of this graph with edge directions ignored, counted in parallel on
+     * the ForkJoin common pool, with per-vertex counts and clustering coefficients.
+     * O(|E| sqrt(|E|)) algorithm.
+     */
+    public Triangles<LabelType> triangles() {
+        return triangles(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as triangles(), running on 'pool'.
+     */
+    public Triangles<LabelType> triangles(ForkJoinPool pool) {
+        TriangleCounting.Neighbors neighbors = TriangleCounting.neighbors(this, pool);
+        int[] degrees = new int[vertexCount()];
+        for (int v = 0; v < degrees.length; v++) {
+            degrees[v] = neighbors.degree(v);
+        }
+        long[] triangles = new long[vertexCount()];
+        long count = TriangleCounting.count(TriangleCounting.orient(neighbors, pool), pool,
+                triangles);
+        return new Triangles<>(count, triangles, degrees, ids);
+    }
+
+    /**
+     * Returns a minimum spanning forest of this graph with edge directions ignored, found by
+     * parallel Borůvka rounds on the ForkJoin common pool.
+     * O(|E| log |V|) algorithm.
+     */
+    public SpanningForest<LabelType> minimumSpanningForest() {
+        return minimumSpanningForest(ForkJoinPool.commonPool(), SpanningForestAlgorithm.BORUVKA);
+    }
+
+    /**
+     * Same as minimumSpanningForest(), running 'algorithm' on 'pool'. Both algorithms give the
+     * same result, weight ties included.
+     */
+    public SpanningForest<LabelType> minimumSpanningForest(ForkJoinPool pool,
+            SpanningForestAlgorithm algorithm) {
+        return MinimumSpanningForest.forest(this, pool, algorithm, labels::get);
+    }
+
+    /**
+     * Returns the shortest path tree from 'start' to every vertex reachable from it.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start) {
+        return shortestPath(id(start), ShortestPathResult.NONE);
+    }
+
+    /**
+     * Returns the shortest path from 'start' to 'target', stopping as soon as 'target' is settled.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start, LabelType target) {
+        return shortestPath(id(start), id(target));
+    }
+
+    private ShortestPathResult<LabelType> shortestPath(int source, int target) {
+        int[] distances = new int[vertexCount()];
+        int[] predecessors = new int[vertexCount()];
+        ShortestPaths.dijkstra(this, source, target, distances, predecessors,
+                new IntIndexedDaryHeap(vertexCount()));
+        return new ShortestPathResult<>(source, distances, predecessors, ids, labels::get);
+    }
+
+    /**
+     * A* search: returns the shortest path from 'start' to 'target', see BasicGraph.aStar().
+     * Requires non-negative edge weights, and that 'heuristic' is 0 for 'target' and never
+     * overestimates the distance to it.
+     */
+    public ShortestPathResult<LabelType> aStar(LabelType start, LabelType target,
+            ToIntFunction<LabelType> heuristic) {
+        return aStar(id(start), id(target), v -> heuristic.applyAsInt(labels.get(v)));
+    }
+
+    /**
+     * A* search with the ALT heuristic of 'landmarks', which must have been computed for this
+     * graph by landmarks(). Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> aStar(LabelType start, LabelType target,
+            Landmarks<LabelType> landmarks) {
+        assert landmarks.graph() == this;
+        int dest = id(target);
+        return aStar(id(start), dest, landmarks.toward(dest));
+    }
+
+    private ShortestPathResult<LabelType> aStar(int source, int target,
+            IntUnaryOperator heuristic) {
+        int[] distances = new int[vertexCount()];
+        int[] predecessors = new int[vertexCount()];
+        ShortestPaths.aStar(this, source, target, heuristic, distances, predecessors,
+                new IntIndexedDaryHeap(vertexCount()));
+        return new ShortestPathResult<>(source, distances, predecessors, ids, labels::get);
+    }
+
+    /**
+     * Selects 'count' landmarks far apart and computes their distances to and from every vertex,
+     * for A* searches with aStar(start, target, landmarks). Requires a non-empty graph and
+     * non-negative edge weights.
+     * O(count * (|V| + |E|) log |V|) algorithm.
+     */
+    public Landmarks<LabelType> landmarks(int count) {
+        return new Landmarks<>(this, count);
+    }
+
+    /**
+     * Bidirectional Dijkstra: returns the shortest path from 'start' to 'target', see
+     * BasicGraph.bidirectionalShortestPath(). Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> bidirectionalShortestPath(LabelType start,
+            LabelType target) {
+        int n = vertexCount();
+        int source = id(start);
+        int[] distances = new int[n];
+        int[] predecessors = new int[n];
+        ShortestPaths.bidirectional(this, source, id(target), distances, predecessors, new int[n],
+                new int[n], new IntIndexedDaryHeap(n), new IntIndexedDaryHeap(n));
+        return new ShortestPathResult<>(source, distances, predecessors, ids, labels::get);
+    }
+
+    /**
+     * Read-only Vertex whose edge maps are views over one vertex's slices of the CSR arrays.
+     */
+    private class CsrVertex implements Vertex<LabelType> {
+        private final int id;
+
+        CsrVertex(int id) {
+            this.id = id;
+        }
+
+        @Override
+        public LabelType label() {
+            return labels.get(id);
+        }
+
+        @Override
+        public int edgeCount() {
+            return outDegree(id) + inDegree(id);
+        }
+
+        @Override
+        public Map<LabelType, Integer> outgoingEdges() {
+            return new SliceMap(outTargets, outWeights, outOffsets[id], outOffsets[id + 1]);
+        }
+
+        @Override
+        public Map<LabelType, Integer> incomingEdges() {
+            return new SliceMap(inTargets, inWeights, inOffsets[id], inOffsets[id + 1]);
+        }
+    }
+
+    /**
+     * Unmodifiable Map from neighbor label to weight over the range [from, to) of a target and
+     * weight array.
+     */
+    private class SliceMap extends AbstractMap<LabelType, Integer> {
+        private final int[] targets;
+        private final int[] weights;
+        private final int from;
+        private final int to;
+
+        SliceMap(int[] targets, int[] weights, int from, int to) {
+            this.targets = targets;
+            this.weights = weights;
+            this.from = from;
+            this.to = to;
+        }
+
+        // Returns the position of neighbor 'key' in 'targets', or -1 if it is not a neighbor.
+        private int find(Object key) {
+            Integer id = ids.get(key);
+            if (id != null) {
+                for (int e = from; e < to; e++) {
+                    if (targets[e] == id) {
+                        return e;
+                    }
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public int size() {
+            return to - from;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int e = find(key);
+            return e < 0 ? null : weights[e];
+        }
+
+        @Override
+        public Set<Entry<LabelType, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return to - from;
+                }
+
+                @Override
+                public Iterator<Entry<LabelType, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int e = from;
+
+                        @Override
+                        public boolean hasNext() {
+                            return e < to;
+                        }
+
+                        @Override
+                        public Entry<LabelType, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<LabelType, Integer> entry =
+                                    new SimpleImmutableEntry<>(labels.get(targets[e]), weights[e]);
+                            e++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,215 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class CsrGraphTest {
+
+    /**
+     * Builds the sparse, acyclic graph used by the traversal tests in BasicGraphTest.
+     */
+    static BasicGraph<String> makeTree() {
+        BasicGraph<String> g = new BasicGraph<>();
+        //1
+        g.addVertex(new BasicVertex<String>("1"),
+                List.of(),
+                List.of(new BasicEdge<>("2", 0),
+                        new BasicEdge<>("3", 0),
+                        new BasicEdge<>("4", 0)));
+        //2
+        g.addVertex(new BasicVertex<String>("2"),
+                List.of(),
+                List.of(new BasicEdge<>("5", 0),
+                        new BasicEdge<>("6", 0)));
+        //3
+        g.addVertex(new BasicVertex<String>("3"),
+                List.of(),
+                List.of(new BasicEdge<>("6", 0),
+                        new BasicEdge<>("7", 0)));
+        //4
+        g.addVertex(new BasicVertex<String>("4"),
+                List.of(),
+                List.of(new BasicEdge<>("7", 0),
+                        new BasicEdge<>("8", 0)));
+        return g;
+    }
+
+    /**
+     * Builds a random graph with 'n' integer-labelled vertices and about 'm' edges with weights
+     * in [0, maxWeight).
+     */
+    static BasicGraph<Integer> makeRandom(int n, int m, int maxWeight, long seed) {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        Random rng = new Random(seed);
+        for (int i = 0; i < n; i++) {
+            g.addVertex(new BasicVertex<>(i));
+        }
+        for (int i = 0; i < m; i++) {
+            int u = rng.nextInt(n);
+            int v = rng.nextInt(n);
+            if (u != v) {
+                g.addEdge(u, new BasicEdge<>(v, rng.nextInt(maxWeight)));
+            }
+        }
+        return g;
+    }
+
+    @DisplayName("WHEN the graph is empty.")
+    @Test
+    void testEmptyGraph() {
+        CsrGraph<String> csr = new BasicGraph<String>().freeze();
+        assertEquals(0, csr.vertexCount());
+        assertEquals(0, csr.edgeCount());
+    }
+
+    @DisplayName("WHEN the graph is sparse, THEN the snapshot has the same vertices and edges.")
+    @Test
+    void testFreezeSparseGraph() {
+        BasicGraph<String> g = makeTree();
+        CsrGraph<String> csr = g.freeze();
+
+        assertEquals(8, csr.vertexCount());
+        assertEquals(9, csr.edgeCount());
+        for (Vertex<String> vertex : g.vertices) {
+            Vertex<String> frozen = csr.getVertex(vertex.label());
+            assertEquals(vertex.outgoingEdges(), frozen.outgoingEdges());
+            assertEquals(vertex.incomingEdges(), frozen.incomingEdges());
+            assertEquals(List.copyOf(vertex.outgoingEdges().keySet()),
+                    List.copyOf(frozen.outgoingEdges().keySet()));
+        }
+        assertEquals(2, csr.inDegree(csr.id("7")));
+        assertNull(csr.getVertex("9"));
+    }
+
+    @DisplayName("WHEN the graph changes after freezing, THEN the snapshot does not.")
+    @Test
+    void testFreezeIsSnapshot() {
+        BasicGraph<String> g = makeTree();
+        CsrGraph<String> csr = g.freeze();
+        g.removeVertex("2");
+        g.addEdge("8", new BasicEdge<>("1", 4));
+
+        assertEquals(8, csr.vertexCount());
+        assertEquals(9, csr.edgeCount());
+        assertTrue(csr.getVertex("1").outgoingEdges().containsKey("2"));
+        assertFalse(csr.getVertex("8").outgoingEdges().containsKey("1"));
+    }
+
+    @DisplayName("WHEN the graph is sparse and acyclic.")
+    @Test
+    void testTraversals() {
+        CsrGraph<String> csr = makeTree().freeze();
+        assertEquals(List.of("1", "2", "5", "6", "3", "7", "4", "8"),
+                csr.dfsTraversal("1", "visit"));
+        assertEquals(List.of("5", "6", "2", "7", "3", "8", "4", "1"),
+                csr.dfsTraversal("1", "settlement"));
+        assertEquals(List.of("1", "2", "3", "4", "5", "6", "7", "8"), csr.bfsTraversal("1"));
+    }
+
+    @DisplayName("WHEN the graph is weighted, THEN the snapshot finds the same shortest paths.")
+    @Test
+    void testShortestPath() {
+        BasicGraph<String> g = makeTree();
+        g.addEdge("5", new BasicEdge<>("7", 1));
+        g.removeEdge("1", "3");
+        g.addEdge("1", new BasicEdge<>("3", 4));
+        g.removeEdge("1", "4");
+        g.addEdge("1", new BasicEdge<>("4", 5));
+        CsrGraph<String> csr = g.freeze();
+
+        ShortestPathResult<String> expected = g.shortestPath("1");
+        ShortestPathResult<String> result = csr.shortestPath("1");
+        assertArrayEquals(expected.distances(), result.distances());
+        assertEquals(List.of("1", "2", "5", "7"), csr.shortestPath("1", "7").pathTo("7"));
+    }
+
+    @DisplayName("WHEN the graph is large, THEN parallelBfs finds the same levels as a "
+            + "sequential search AND every parent is one level closer.")
+    @Test
+    void testParallelBfs() {
+        CsrGraph<Integer> csr = makeRandom(20_000, 200_000, 1, 3).freeze();
+        int[] expected = new int[csr.vertexCount()];
+        Arrays.fill(expected, BfsResult.UNREACHED);
+        expected[0] = 0;
+        for (int v : BreadthFirstSearch.order(csr, 0)) {
+            for (int i = 0; i < csr.outDegree(v); i++) {
+                int w = csr.outTarget(v, i);
+                if (expected[w] == BfsResult.UNREACHED) {
+                    expected[w] = expected[v] + 1;
+                }
+            }
+        }
+
+        for (ForkJoinPool pool : List.of(ForkJoinPool.commonPool(), new ForkJoinPool(3))) {
+            BfsResult<Integer> result = csr.parallelBfs(0, pool);
+            assertArrayEquals(expected, result.levels());
+            for (int v = 1; v < csr.vertexCount(); v++) {
+                int parent = result.parents()[v];
+                if (expected[v] != BfsResult.UNREACHED) {
+                    assertEquals(expected[v] - 1, expected[parent]);
+                    assertTrue(csr.getVertex(parent).outgoingEdges().containsKey(v));
+                }
+            }
+            assertEquals(BfsResult.NONE, result.parents()[0]);
+            List<Integer> path = result.pathTo(1);
+            assertEquals(expected[1] + 1, path.size());
+            pool.shutdown();
+        }
+    }
+
+    @DisplayName("WHEN the graph is large and weighted, THEN deltaStepping finds the same "
+            + "distances as Dijkstra's algorithm AND its predecessors form shortest paths.")
+    @Test
+    void testDeltaStepping() {
+        CsrGraph<Integer> csr = makeRandom(20_000, 120_000, 100, 5).freeze();
+        int[] expected = csr.shortestPath(0).distances();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int delta : List.of(1, 7, DeltaStepping.defaultDelta(csr), 1000)) {
+            ShortestPathResult<Integer> result = csr.deltaStepping(0, delta, pool);
+            assertArrayEquals(expected, result.distances());
+            for (int v = 1; v < csr.vertexCount(); v++) {
+                int predecessor = result.predecessors()[v];
+                if (expected[v] != ShortestPathResult.UNREACHABLE) {
+                    int weight = csr.getVertex(predecessor).outgoingEdges().get(v);
+                    assertEquals(expected[v], expected[predecessor] + weight);
+                }
+            }
+        }
+        pool.shutdown();
+        assertArrayEquals(expected, csr.deltaStepping(0).distances());
+    }
+
+    @DisplayName("WHEN the weights are large and delta is 1, THEN deltaStepping moves its bucket "
+            + "window past the gaps and finds the same distances as Dijkstra's algorithm.")
+    @Test
+    void testDeltaSteppingLargeWeights() {
+        // Weights up to 10^8 need far more buckets than the window holds.
+        CsrGraph<Integer> csr = makeRandom(5_000, 40_000, 100_000_000, 14).freeze();
+        int[] expected = csr.shortestPath(0).distances();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (int delta : List.of(1, 1_000, DeltaStepping.defaultDelta(csr))) {
+            assertArrayEquals(expected, csr.deltaStepping(0, delta, pool).distances());
+        }
+        pool.shutdown();
+    }
+
+    @DisplayName("WHEN the graph has zero-weight cycles, THEN deltaStepping paths still end.")
+    @Test
+    void testDeltaSteppingZeroWeights() {
+        CsrGraph<Integer> csr = makeRandom(3_000, 30_000, 2, 9).freeze();
+        ShortestPathResult<Integer> result = csr.deltaStepping(0);
+        assertArrayEquals(csr.shortestPath(0).distances(), result.distances());
+        for (int v = 0; v < csr.vertexCount(); v++) {
+            if (result.hasPathTo(v)) {
+                assertEquals(0, result.pathTo(v).get(0));
+            }
+        }
+    }
+
+}
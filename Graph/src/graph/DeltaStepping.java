@@ -0,0 +1,301 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Parallel single-source shortest paths by delta-stepping (Meyer and Sanders, "Delta-stepping: a
+ * parallelizable shortest path algorithm", J. Algorithms 2003) over a CsrGraph.
+ * Tentative distances are grouped into buckets of width `delta`.  The lowest non-empty bucket is
+ * emptied by relaxing the light edges (weight <= delta) of its vertices in parallel, repeating
+ * while relaxations put vertices back into it; then the heavy edges of every vertex it held are
+ * relaxed once, in parallel.  Relaxations from different threads meet in a compare-and-set on a
+ * packed (distance, predecessor) word per vertex, so a vertex's predecessor is always the vertex
+ * whose relaxation produced its distance.  That keeps the predecessors a tree even with
+ * zero-weight cycles.  Distances equal those of Dijkstra's algorithm; among several shortest
+ * paths, the predecessor chosen may differ.
+ * Buckets form a cyclic array over a window of consecutive bucket numbers starting at the one
+ * being emptied.  Its width, ceil(maxWeight / delta) + 1 capped at MAX_BUCKETS, covers every
+ * bucket a relaxation can reach unless the cap applies; vertices beyond the window wait in an
+ * overflow heap ordered by distance, and enter the window as it moves past them.  A bit per
+ * bucket marks the non-empty ones, so that the window jumps straight to the next of them.
+ */
+final class DeltaStepping {
+
+    /**
+     * Largest number of buckets in the window.
+     */
+    static final int MAX_BUCKETS = 1 << 16;
+
+    private static final VarHandle STATE = MethodHandles.arrayElementVarHandle(long[].class);
+
+    private final CsrGraph<?> graph;
+    private final int delta;
+    private final ForkJoinPool pool;
+
+    /**
+     * `state[v]` packs the tentative distance of `v` in the high 32 bits and its predecessor in
+     * the low 32 bits.
+     */
+    private final long[] state;
+
+    /**
+     * `buckets[b % width]` holds the vertices whose tentative distance was in
+     * `[b*delta, (b+1)*delta)` when they were added, for the bucket numbers `b` in
+     * `[base, base + width)`.  Entries become stale when a vertex moves to a lower bucket; they
+     * are skipped when the bucket is emptied.  Null for slots never used.
+     */
+    private final IntList[] buckets;
+    private final int width;
+    private int base;
+
+    /**
+     * Bit `i` is set if `buckets[i]` may hold entries.
+     */
+    private final long[] occupied;
+
+    /**
+     * Vertices whose bucket was beyond the window when they were added, by distance; null until
+     * first needed.  Entries whose distance dropped since are skipped when they leave it.
+     */
+    private IntIndexedDaryHeap overflow;
+
+    /**
+     * `stamp[v] == round` if `v` was already taken into the current round's frontier.
+     */
+    private final int[] stamp;
+    private int round;
+
+    // Scratch lists, reused for every bucket.
+    private final IntList frontier = new IntList();
+    private final IntList settled = new IntList();
+    private final IntList unique = new IntList();
+
+    private DeltaStepping(CsrGraph<?> graph, int delta, ForkJoinPool pool) {
+        this.graph = graph;
+        this.delta = delta;
+        this.pool = pool;
+        state = new long[graph.vertexCount()];
+        stamp = new int[graph.vertexCount()];
+        // A relaxation from bucket b reaches at most bucket b + (delta - 1 + maxWeight) / delta.
+        long reach = ((long) delta - 1 + maxWeight(graph)) / delta + 1;
+        width = (int) Math.min(reach, MAX_BUCKETS);
+        buckets = new IntList[width];
+        occupied = new long[(width + 63) / 64];
+    }
+
+    private static int maxWeight(CsrGraph<?> graph) {
+        int maxWeight = 0;
+        for (int w : graph.outWeights) {
+            maxWeight = Math.max(maxWeight, w);
+        }
+        return maxWeight;
+    }
+
+    /**
+     * Returns a bucket width for 'graph': the largest edge weight divided by the average
+     * out-degree, which keeps few light-edge re-relaxations per bucket on graphs with random
+     * weights, and at least 1.
+     */
+    static int defaultDelta(CsrGraph<?> graph) {
+        long averageDegree = Math.max(1, graph.edgeCount() / Math.max(1, graph.vertexCount()));
+        return (int) Math.max(1, maxWeight(graph) / averageDegree);
+    }
+
+    /**
+     * Computes shortest paths in 'graph' from 'source' with bucket width 'delta' on 'pool', and
+     * fills 'distances' and 'predecessors' as described in ShortestPathResult.  Requires
+     * non-negative weights and 'delta' >= 1.
+     */
+    static void run(CsrGraph<?> graph, int source, int delta, ForkJoinPool pool, int[] distances,
+            int[] predecessors) {
+        assert delta >= 1;
+        DeltaStepping search = new DeltaStepping(graph, delta, pool);
+        Arrays.fill(search.state, pack(ShortestPathResult.UNREACHABLE, ShortestPathResult.NONE));
+        search.state[source] = pack(0, ShortestPathResult.NONE);
+        search.add(0, source);
+        search.run();
+        for (int v = 0; v < distances.length; v++) {
+            distances[v] = distance(search.state[v]);
+            predecessors[v] = predecessor(search.state[v]);
+        }
+    }
+
+    private void run() {
+        while (advance()) {
+            int slot = base % width;
+            // Every vertex that was in the bucket while it was emptied; its heavy edges are
+            // relaxed afterwards.
+            settled.clear();
+            while (!buckets[slot].isEmpty()) {
+                take(slot);
+                for (int i = 0; i < frontier.size(); i++) {
+                    settled.add(frontier.get(i));
+                }
+                relax(frontier, true);
+            }
+            // A vertex can enter the bucket several times, but its heavy edges only need
+            // relaxing once since its distance no longer changes.
+            round++;
+            unique.clear();
+            for (int i = 0; i < settled.size(); i++) {
+                int v = settled.get(i);
+                if (stamp[v] != round) {
+                    stamp[v] = round;
+                    unique.add(v);
+                }
+            }
+            relax(unique, false);
+            occupied[slot >>> 6] &= ~(1L << slot);
+            base++;
+        }
+    }
+
+    /**
+     * Moves the window to the lowest non-empty bucket, bringing in the overflow vertices it
+     * passes. Returns false if no bucket has entries left.
+     */
+    private boolean advance() {
+        while (true) {
+            drain();
+            int start = base % width;
+            int slot = firstOccupied(start, width);
+            if (slot < 0) {
+                slot = firstOccupied(0, start);
+            }
+            if (slot >= 0) {
+                base += (slot - start + width) % width;
+                drain();
+                return true;
+            }
+            if (overflow == null || overflow.isEmpty()) {
+                return false;
+            }
+            base = overflow.minPriority() / delta;
+        }
+    }
+
+    // Moves the overflow vertices whose bucket is now in the window into it.
+    private void drain() {
+        long end = (long) base + width;
+        while (overflow != null && !overflow.isEmpty() && overflow.minPriority() / delta < end) {
+            int v = overflow.removeMin();
+            int b = distance(state[v]) / delta;
+            if (b >= base) {
+                add(b, v);
+            }
+        }
+    }
+
+    // Returns the first slot in '[from, to)' whose bit is set in 'occupied', or -1.
+    private int firstOccupied(int from, int to) {
+        for (int i = from; i < to; i = (i & ~63) + 64) {
+            long bits = occupied[i >>> 6] & (-1L << i);
+            if (bits != 0) {
+                int slot = (i & ~63) + Long.numberOfTrailingZeros(bits);
+                return slot < to ? slot : -1;
+            }
+        }
+        return -1;
+    }
+
+    // Adds 'v' to bucket 'b', which must be in the window.
+    private void add(int b, int v) {
+        int slot = b % width;
+        if (buckets[slot] == null) {
+            buckets[slot] = new IntList();
+        }
+        buckets[slot].add(v);
+        occupied[slot >>> 6] |= 1L << slot;
+    }
+
+    /**
+     * Moves the vertices of bucket 'slot' into 'frontier', without stale entries and duplicates.
+     */
+    private void take(int slot) {
+        IntList bucket = buckets[slot];
+        frontier.clear();
+        round++;
+        for (int i = 0; i < bucket.size(); i++) {
+            int v = bucket.get(i);
+            if (stamp[v] != round && distance(state[v]) / delta == base) {
+                stamp[v] = round;
+                frontier.add(v);
+            }
+        }
+        bucket.clear();
+    }
+
+    /**
+     * Relaxes the light (if 'light') or heavy edges of 'vertices' in parallel, then puts every
+     * vertex whose distance dropped into its bucket.
+     */
+    private void relax(IntList vertices, boolean light) {
+        ParallelRange range = new ParallelRange(pool, 0, vertices.size());
+        IntList[] improved = new IntList[range.chunks()];
+        range.forEach((chunk, from, to) -> {
+            IntList local = new IntList();
+            for (int i = from; i < to; i++) {
+                int u = vertices.get(i);
+                long known = distance((long) STATE.getVolatile(state, u));
+                for (int e = graph.outOffsets[u]; e < graph.outOffsets[u + 1]; e++) {
+                    int v = graph.outTargets[e];
+                    int weight = graph.outWeights[e];
+                    assert weight >= 0;
+                    if ((weight <= delta) == light && lower(v, known + weight, u)) {
+                        local.add(v);
+                    }
+                }
+            }
+            improved[chunk] = local;
+        });
+        for (IntList local : improved) {
+            for (int i = 0; i < local.size(); i++) {
+                int v = local.get(i);
+                int distance = distance(state[v]);
+                if (distance / delta < (long) base + width) {
+                    add(distance / delta, v);
+                } else {
+                    if (overflow == null) {
+                        overflow = new IntIndexedDaryHeap(0);
+                    }
+                    overflow.addOrUpdate(v, distance);
+                }
+            }
+        }
+    }
+
+    /**
+     * Lowers the distance of 'v' to 'distance' through 'predecessor' if that is an improvement.
+     * Returns whether it was.
+     */
+    private boolean lower(int v, long distance, int predecessor) {
+        if (distance >= ShortestPathResult.UNREACHABLE) {
+            return false;
+        }
+        long update = pack((int) distance, predecessor);
+        while (true) {
+            long current = (long) STATE.getVolatile(state, v);
+            if (distance >= distance(current)) {
+                return false;
+            }
+            if (STATE.compareAndSet(state, v, current, update)) {
+                return true;
+            }
+        }
+    }
+
+    private static long pack(int distance, int predecessor) {
+        return ((long) distance << 32) | (predecessor & 0xFFFFFFFFL);
+    }
+
+    private static int distance(long state) {
+        return (int) (state >>> 32);
+    }
+
+    private static int predecessor(long state) {
+        return (int) state;
+    }
+}
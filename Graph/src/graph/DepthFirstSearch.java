@@ -0,0 +1,101 @@
+package graph;
+
+import java.util.BitSet;
+
+/**
+ * Iterative depth first search over an IntGraph.  Uses an explicit stack of vertex ids with a
+ * cursor into each vertex's outgoing edges instead of recursion, so the depth of the graph is not
+ * limited by the thread's stack size, and a BitSet of visited ids, so every vertex and edge is
+ * examined once.  Neighbors are followed in edge order, which gives the same orders as a
+ * recursive walk.
+ */
+final class DepthFirstSearch {
+
+    private final IntGraph graph;
+    private final BitSet visited;
+    // 'stack[d]' is the vertex at depth 'd', 'cursor[d]' the index of its next edge to follow.
+    private final int[] stack;
+    private final int[] cursor;
+    // Vertex ids in the requested order; only 'result[0..count)' is meaningful.
+    private final int[] result;
+    private int count;
+
+    DepthFirstSearch(IntGraph graph) {
+        this.graph = graph;
+        visited = new BitSet(graph.vertexCount());
+        stack = new int[graph.vertexCount()];
+        cursor = new int[graph.vertexCount()];
+        result = new int[graph.vertexCount()];
+    }
+
+    /**
+     * Returns the ids of the vertices reachable from 'start' in order 'order'.
+     */
+    static int[] from(IntGraph graph, int start, DfsOrder order) {
+        DepthFirstSearch search = new DepthFirstSearch(graph);
+        search.walk(start, order);
+        return search.finish(order);
+    }
+
+    /**
+     * Returns the ids of all vertices in order 'order', starting a new walk from each unvisited
+     * vertex in id order.
+     */
+    static int[] all(IntGraph graph, DfsOrder order) {
+        DepthFirstSearch search = new DepthFirstSearch(graph);
+        for (int v = 0; v < graph.vertexCount(); v++) {
+            if (!search.visited.get(v)) {
+                search.walk(v, order);
+            }
+        }
+        return search.finish(order);
+    }
+
+    /**
+     * Visits every unvisited vertex reachable from 'start', appending to 'result' in pre-order
+     * for PRE_ORDER and in post-order otherwise.
+     */
+    private void walk(int start, DfsOrder order) {
+        boolean pre = order == DfsOrder.PRE_ORDER;
+        int depth = 0;
+        stack[0] = start;
+        cursor[0] = 0;
+        visited.set(start);
+        if (pre) {
+            result[count++] = start;
+        }
+        while (depth >= 0) {
+            int vertex = stack[depth];
+            if (cursor[depth] == graph.outDegree(vertex)) {
+                // All neighbors of 'vertex' are visited, so 'vertex' can be settled.
+                if (!pre) {
+                    result[count++] = vertex;
+                }
+                depth--;
+                continue;
+            }
+            int neighbor = graph.outTarget(vertex, cursor[depth]++);
+            if (!visited.get(neighbor)) {
+                visited.set(neighbor);
+                if (pre) {
+                    result[count++] = neighbor;
+                }
+                depth++;
+                stack[depth] = neighbor;
+                cursor[depth] = 0;
+            }
+        }
+    }
+
+    private int[] finish(DfsOrder order) {
+        int[] ids = new int[count];
+        if (order == DfsOrder.REVERSE_POST_ORDER) {
+            for (int i = 0; i < count; i++) {
+                ids[i] = result[count - 1 - i];
+            }
+        } else {
+            System.arraycopy(result, 0, ids, 0, count);
+        }
+        return ids;
+    }
+}
@@ -0,0 +1,22 @@
+package graph;
+
+/**
+ * The order in which a depth first traversal reports vertices.
+ */
+public enum DfsOrder {
+    /**
+     * Visitation order: a vertex is reported when it is first discovered, before its neighbors.
+     */
+    PRE_ORDER,
+
+    /**
+     * Settlement order: a vertex is reported once all of its outgoing neighbors are visited.
+     */
+    POST_ORDER,
+
+    /**
+     * Settlement order reversed. For an acyclic graph this is a topological order of the visited
+     * vertices.
+     */
+    REVERSE_POST_ORDER
+}
@@ -0,0 +1,322 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+public class DynamicTopologicalOrder<LabelType> {
+    /**
+     * DynamicTopologicalOrder is a directed acyclic BasicGraph together with a topological order
+     * of its vertices that is kept up to date as edges are added and removed, with the algorithm
+     * of Pearce and Kelly (2006).
+     * Every vertex 'v' has a position 'ord[v]', and an edge u -> v always has ord[u] < ord[v].
+     * Positions are not necessarily consecutive: 'vertexAt[p]' is the vertex at position 'p', or
+     * -1 if a removed vertex left a hole there. Adding an edge x -> y with ord[y] < ord[x] is the
+     * only change that breaks the order. Then the vertices reachable from y with a position below
+     * ord[x] (the forward region), and the vertices that reach x with a position above ord[y] (the
+     * backward region), are the only ones that may need to move; if the forward region contains x,
+     * the edge would close a cycle. Otherwise the two regions are given back their own positions,
+     * the backward region first, each keeping its relative order.
+     * So addEdge costs O(R log R), where R is the number of vertices and edges of the two regions,
+     * and nothing when the edge already agrees with the order, instead of the O(|V| + |E|) of
+     * rerunning Kahn's algorithm.
+     * Modify the graph only through this class; graph() is for reading it.
+     */
+
+    /**
+     * CycleException is thrown by addEdge when the edge would close a directed cycle. Labels need
+     * not be serializable, so the cycle is not serialized; a deserialized exception keeps only
+     * its message.
+     */
+    public static class CycleException extends IllegalArgumentException {
+        private static final long serialVersionUID = 1L;
+
+        private final transient List<?> cycle;
+
+        CycleException(List<?> cycle) {
+            super("edge would close the cycle " + cycle);
+            this.cycle = List.copyOf(cycle);
+        }
+
+        /**
+         * Returns the cycle [v0, v1, ..., vk] that the edge vk -> v0 would close, where
+         * v0 -> v1 -> ... -> vk are edges of the graph, or an empty list if the exception was
+         * deserialized.
+         */
+        public List<?> cycle() {
+            return cycle == null ? List.of() : cycle;
+        }
+    }
+
+    private final BasicGraph<LabelType> graph;
+    // 'ord[v]' is the position of vertex 'v'.
+    private int[] ord;
+    // 'vertexAt[p]' is the vertex at position 'p', or -1; positions are below 'end'.
+    private int[] vertexAt;
+    private int end;
+
+    // Search state: a vertex is in the current region iff 'mark[v] == epoch'.
+    private int[] mark;
+    private int epoch;
+    private final IntList stack = new IntList();
+    private final IntList forward = new IntList();
+    private final IntList backward = new IntList();
+    // 'parent[v]' is the vertex the forward search reached 'v' from, for reporting cycles.
+    private int[] parent;
+
+    /**
+     * Initializes a DynamicTopologicalOrder with an empty graph.
+     */
+    public DynamicTopologicalOrder() {
+        this(new BasicGraph<>());
+    }
+
+    /**
+     * Initializes a DynamicTopologicalOrder that takes over 'graph', starting from the order of
+     * BasicGraph.topologicalOrder(). Throws CycleException if 'graph' is cyclic.
+     * O(|V| + |E|) algorithm.
+     */
+    public DynamicTopologicalOrder(BasicGraph<LabelType> graph) {
+        TopologicalOrder<LabelType> sorted = graph.topologicalOrder();
+        if (!sorted.isAcyclic()) {
+            throw new CycleException(sorted.cycle());
+        }
+        this.graph = graph;
+        int n = graph.vertexCount();
+        ord = new int[Math.max(4, n)];
+        vertexAt = new int[Math.max(4, n)];
+        mark = new int[Math.max(4, n)];
+        parent = new int[Math.max(4, n)];
+        for (LabelType label : sorted.order()) {
+            int v = graph.index.get(label);
+            ord[v] = end;
+            vertexAt[end++] = v;
+        }
+    }
+
+    /**
+     * Returns the graph, for reading only.
+     */
+    public BasicGraph<LabelType> graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the vertices in topological order: every vertex comes after all of its incoming
+     * neighbors.
+     * O(|V|) algorithm.
+     */
+    public List<LabelType> order() {
+        List<LabelType> order = new ArrayList<>(graph.vertexCount());
+        for (int p = 0; p < end; p++) {
+            if (vertexAt[p] >= 0) {
+                order.add(graph.vertices.get(vertexAt[p]).label());
+            }
+        }
+        return order;
+    }
+
+    /**
+     * Returns whether vertex 'first' comes before vertex 'second' in the current order, which is
+     * the case if there is a path from 'first' to 'second'. Requires that both vertices exist.
+     * O(1) algorithm.
+     */
+    public boolean precedes(LabelType first, LabelType second) {
+        assert graph.containsVertex(first) && graph.containsVertex(second);
+        return ord[graph.index.get(first)] < ord[graph.index.get(second)];
+    }
+
+    /**
+     * Adds vertex 'label' at the end of the order if it does not already exist in the graph.
+     * Returns true if it was added.
+     */
+    public boolean addVertex(LabelType label) {
+        if (graph.containsVertex(label)) {
+            return false;
+        }
+        graph.addVertex(new BasicVertex<>(label));
+        int v = graph.index.get(label);
+        if (v == ord.length) {
+            ord = Arrays.copyOf(ord, 2 * v);
+            mark = Arrays.copyOf(mark, 2 * v);
+            parent = Arrays.copyOf(parent, 2 * v);
+        }
+        if (end == vertexAt.length) {
+            compact();
+        }
+        ord[v] = end;
+        vertexAt[end++] = v;
+        return true;
+    }
+
+    /**
+     * Returns and removes vertex 'label' and all of its edges, see BasicGraph.removeVertex().
+     * The order of the other vertices stays valid. Requires that the vertex exists.
+     */
+    public Vertex<LabelType> removeVertex(LabelType label) {
+        assert graph.containsVertex(label);
+        int v = graph.index.get(label);
+        int last = graph.vertexCount() - 1;
+        vertexAt[ord[v]] = -1;
+        // BasicGraph moves the last vertex into id 'v'.
+        if (v != last) {
+            ord[v] = ord[last];
+            vertexAt[ord[v]] = v;
+        }
+        return graph.removeVertex(label);
+    }
+
+    /**
+     * Add the edge: 'label' -> 'edge'.neighbor() if it doesn't already exist, moving the vertices
+     * between its endpoints in the order if needed. Returns true if the edge is added. Throws
+     * CycleException, leaving the graph and order unchanged, if the edge would close a cycle.
+     * Requires both vertices exist in graph.
+     * O(R log R) algorithm, where R is the size of the region that moves.
+     */
+    public boolean addEdge(LabelType label, BasicEdge<LabelType, Integer> edge) {
+        assert graph.containsVertex(label) && graph.containsVertex(edge.neighbor());
+        int x = graph.index.get(label);
+        int y = graph.index.get(edge.neighbor());
+        if (x == y) {
+            throw new CycleException(List.of(label));
+        }
+        if (graph.outgoing(x).contains(y)) {
+            return false;
+        }
+        if (ord[y] < ord[x]) {
+            reorder(x, y);
+        }
+        return graph.addEdge(label, edge);
+    }
+
+    /**
+     * Remove the edge: 'sourceLabel' -> 'destLabel'. Returns true if the edge existed. The order
+     * stays valid, so nothing moves.
+     * Requires 'sourceLabel' and 'destLabel' vertices exist in graph.
+     */
+    public boolean removeEdge(LabelType sourceLabel, LabelType destLabel) {
+        return graph.removeEdge(sourceLabel, destLabel);
+    }
+
+    /**
+     * Restores the order for a new edge x -> y with ord[y] < ord[x], or throws CycleException if
+     * y reaches x.
+     */
+    private void reorder(int x, int y) {
+        int lower = ord[y];
+        int upper = ord[x];
+        epoch++;
+        forward.clear();
+        backward.clear();
+
+        // Forward region: reachable from y, with positions below ord[x].
+        mark[y] = epoch;
+        parent[y] = -1;
+        stack.add(y);
+        while (!stack.isEmpty()) {
+            int v = stack.removeLast();
+            forward.add(v);
+            IntAdjacency out = graph.outgoing(v);
+            for (int i = 0; i < out.size(); i++) {
+                int w = out.id(i);
+                if (w == x) {
+                    stack.clear();
+                    throw new CycleException(pathTo(v, x));
+                }
+                if (mark[w] != epoch && ord[w] < upper) {
+                    mark[w] = epoch;
+                    parent[w] = v;
+                    stack.add(w);
+                }
+            }
+        }
+
+        // Backward region: reaches x, with positions above ord[y]. It cannot meet the forward
+        // region, since a shared vertex would put x on a path from y.
+        mark[x] = epoch;
+        stack.add(x);
+        while (!stack.isEmpty()) {
+            int v = stack.removeLast();
+            backward.add(v);
+            IntAdjacency in = graph.incoming(v);
+            for (int i = 0; i < in.size(); i++) {
+                int u = in.id(i);
+                if (mark[u] != epoch && ord[u] > lower) {
+                    mark[u] = epoch;
+                    stack.add(u);
+                }
+            }
+        }
+
+        // Both regions keep their relative order, and together take their old positions with
+        // the backward region first.
+        int[] b = sortByPosition(backward);
+        int[] f = sortByPosition(forward);
+        int[] positions = new int[b.length + f.length];
+        for (int i = 0; i < b.length; i++) {
+            positions[i] = ord[b[i]];
+        }
+        for (int i = 0; i < f.length; i++) {
+            positions[b.length + i] = ord[f[i]];
+        }
+        Arrays.sort(positions);
+        for (int i = 0; i < positions.length; i++) {
+            int v = i < b.length ? b[i] : f[i - b.length];
+            ord[v] = positions[i];
+            vertexAt[positions[i]] = v;
+        }
+    }
+
+    // Returns the vertices in 'region', sorted by position.
+    private int[] sortByPosition(IntList region) {
+        long[] keyed = new long[region.size()];
+        for (int i = 0; i < keyed.length; i++) {
+            keyed[i] = (long) ord[region.get(i)] << 32 | region.get(i);
+        }
+        Arrays.sort(keyed);
+        int[] sorted = new int[keyed.length];
+        for (int i = 0; i < keyed.length; i++) {
+            sorted[i] = (int) keyed[i];
+        }
+        return sorted;
+    }
+
+    /**
+     * Returns the cycle closed by the new edge x -> y when the forward search found the edge
+     * 'v' -> x: the search path from y to 'v', then x, so that x -> y closes it.
+     */
+    private List<LabelType> pathTo(int v, int x) {
+        List<LabelType> path = new ArrayList<>();
+        path.add(graph.vertices.get(x).label());
+        for (int w = v; w >= 0; w = parent[w]) {
+            path.add(graph.vertices.get(w).label());
+        }
+        // 'path' is [x, v, ..., y]; the cycle starts at y.
+        List<LabelType> cycle = new ArrayList<>(path.size());
+        for (int i = path.size() - 1; i >= 0; i--) {
+            cycle.add(path.get(i));
+        }
+        return cycle;
+    }
+
+    /**
+     * Closes the holes left by removed vertices, or doubles 'vertexAt' if there are few.
+     * Amortized O(1) per added vertex.
+     */
+    private void compact() {
+        int n = graph.vertexCount();
+        if (2 * n > end) {
+            vertexAt = Arrays.copyOf(vertexAt, 2 * vertexAt.length);
+            return;
+        }
+        int next = 0;
+        for (int p = 0; p < end; p++) {
+            int v = vertexAt[p];
+            if (v >= 0) {
+                ord[v] = next;
+                vertexAt[next++] = v;
+            }
+        }
+        end = next;
+    }
+}
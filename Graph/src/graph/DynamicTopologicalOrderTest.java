@@ -0,0 +1,119 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map.Entry;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class DynamicTopologicalOrderTest {
+
+    // Asserts that 'order' lists every vertex of the graph once, before its outgoing neighbors.
+    private static void assertValid(DynamicTopologicalOrder<Integer> order) {
+        BasicGraph<Integer> g = order.graph();
+        List<Integer> sorted = order.order();
+        assertEquals(g.vertexCount(), sorted.size());
+        assertEquals(g.vertexCount(), new HashSet<>(sorted).size());
+        for (Vertex<Integer> vertex : g.vertices) {
+            for (Entry<Integer, Integer> out : vertex.outgoingEdges().entrySet()) {
+                assertTrue(order.precedes(vertex.label(), out.getKey()));
+                assertTrue(sorted.indexOf(vertex.label()) < sorted.indexOf(out.getKey()));
+            }
+        }
+    }
+
+    @DisplayName("WHEN an edge goes against the order, THEN only the vertices between its "
+            + "endpoints move AND an edge closing a cycle is rejected.")
+    @Test
+    void testAddEdge() {
+        DynamicTopologicalOrder<Integer> order = new DynamicTopologicalOrder<>();
+        for (int v = 0; v < 6; v++) {
+            order.addVertex(v);
+        }
+        assertFalse(order.addVertex(0));
+        assertTrue(order.addEdge(3, new BasicEdge<>(4, 1)));
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), order.order());
+        assertTrue(order.addEdge(4, new BasicEdge<>(1, 1)));
+        assertEquals(List.of(0, 3, 2, 4, 1, 5), order.order());
+        assertFalse(order.addEdge(4, new BasicEdge<>(1, 7)));
+
+        DynamicTopologicalOrder.CycleException e = assertThrows(
+                DynamicTopologicalOrder.CycleException.class,
+                () -> order.addEdge(1, new BasicEdge<>(3, 1)));
+        assertEquals(List.of(3, 4, 1), e.cycle());
+        assertThrows(DynamicTopologicalOrder.CycleException.class,
+                () -> order.addEdge(2, new BasicEdge<>(2, 1)));
+        assertEquals(List.of(0, 3, 2, 4, 1, 5), order.order());
+        assertEquals(2, order.graph().edgeCount());
+
+        assertTrue(order.removeEdge(3, 4));
+        assertTrue(order.addEdge(1, new BasicEdge<>(3, 1)));
+        assertValid(order);
+    }
+
+    @DisplayName("WHEN random edges and vertices are added and removed, THEN the order stays a "
+            + "topological order of the graph.")
+    @Test
+    void testRandomUpdates() {
+        Random rng = new Random(11);
+        BasicGraph<Integer> start = new BasicGraph<>();
+        for (int v = 0; v < 200; v++) {
+            start.addVertex(new BasicVertex<>(v));
+        }
+        for (int e = 0; e < 300; e++) {
+            int a = rng.nextInt(200);
+            int b = rng.nextInt(200);
+            if (a < b) {
+                start.addEdge(a, new BasicEdge<>(b, 1));
+            }
+        }
+        DynamicTopologicalOrder<Integer> order = new DynamicTopologicalOrder<>(start);
+        assertValid(order);
+
+        int next = 200;
+        int rejected = 0;
+        for (int step = 0; step < 3000; step++) {
+            List<Integer> labels = order.order();
+            int a = labels.get(rng.nextInt(labels.size()));
+            int b = labels.get(rng.nextInt(labels.size()));
+            int choice = rng.nextInt(10);
+            if (choice == 0) {
+                order.addVertex(next++);
+            } else if (choice == 1 && labels.size() > 10) {
+                order.removeVertex(a);
+            } else if (choice == 2) {
+                order.removeEdge(a, b);
+            } else {
+                try {
+                    order.addEdge(a, new BasicEdge<>(b, 1));
+                } catch (DynamicTopologicalOrder.CycleException e) {
+                    rejected++;
+                    List<?> cycle = e.cycle();
+                    assertEquals(b, cycle.getFirst());
+                    assertEquals(a, cycle.getLast());
+                }
+            }
+            if (step % 100 == 0) {
+                assertValid(order);
+            }
+        }
+        assertTrue(rejected > 0);
+        assertValid(order);
+        assertTrue(order.graph().topologicalOrder().isAcyclic());
+    }
+
+    @DisplayName("WHEN the initial graph is cyclic, THEN the constructor throws CycleException.")
+    @Test
+    void testCyclicGraph() {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        g.addVertex(new BasicVertex<>(1));
+        g.addVertex(new BasicVertex<>(2));
+        g.addEdge(1, new BasicEdge<>(2, 1));
+        g.addEdge(2, new BasicEdge<>(1, 1));
+        assertThrows(DynamicTopologicalOrder.CycleException.class,
+                () -> new DynamicTopologicalOrder<>(g));
+    }
+}
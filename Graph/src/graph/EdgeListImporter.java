@@ -0,0 +1,435 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+public final class EdgeListImporter {
+    /**
+     * EdgeListImporter reads edge list files (TSV, CSV or space separated) into a GraphBuilder.
+     * Every line is 'source target [weight]': fields are separated by any run of tabs, commas
+     * and spaces, the weight is a decimal int and defaults to DEFAULT_WEIGHT, and a trailing
+     * '\r' is ignored. Blank lines and lines starting with '#' or '%' are skipped, as are self
+     * loops, which a BasicGraph cannot hold. Fields are not unquoted.
+     * Bytes are read from a FileChannel into a fixed buffer and parsed in place. The file is
+     * split into chunks of CHUNK_SIZE bytes at line boundaries, parsed in parallel with a pool.
+     * Within a chunk a label is looked up by its bytes in a hash table, and only decoded with a
+     * LabelCodec the first time it is seen, so no String is created per line. Chunks are added
+     * to the builder in file order as soon as they and every chunk before them are parsed, so
+     * the result is the same as reading the file sequentially, and at most two chunks per thread
+     * are parsed or waiting at any time: memory beyond the builder's own grows with the chunk
+     * size, not the file size.
+     */
+
+    // Weight of an edge whose line has no weight field.
+    public static final int DEFAULT_WEIGHT = 1;
+
+    /**
+     * Size of the read buffer of each chunk. Lines longer than this grow the buffer.
+     */
+    static final int BUFFER_SIZE = 1 << 20;
+
+    /**
+     * Size of the chunks the file is split into.
+     */
+    static final long CHUNK_SIZE = 16L << 20;
+
+    private EdgeListImporter() {
+    }
+
+    /**
+     * Reads the edge list file 'path' into a new GraphBuilder, with labels decoded by 'codec'.
+     */
+    public static <LabelType> GraphBuilder<LabelType> read(Path path,
+            LabelCodec<LabelType> codec) throws IOException {
+        GraphBuilder<LabelType> builder = new GraphBuilder<>();
+        read(path, codec, builder, null, bytes -> { });
+        return builder;
+    }
+
+    /**
+     * Reads the edge list file 'path' into 'builder', with labels decoded by 'codec'. Chunks of
+     * the file are parsed in parallel on 'pool', or sequentially if 'pool' is null. 'progress'
+     * is called with the number of bytes parsed so far after every buffer; with a pool it is
+     * called from several threads at once. Throws IOException if the file cannot be read, a
+     * line is malformed or a label cannot be decoded; the vertices and edges already added from
+     * earlier chunks are then removed, so 'builder' is left as it was.
+     */
+    public static <LabelType> void read(Path path, LabelCodec<LabelType> codec,
+            GraphBuilder<LabelType> builder, ForkJoinPool pool, LongConsumer progress)
+            throws IOException {
+        read(path, codec, builder, pool, progress, CHUNK_SIZE);
+    }
+
+    /**
+     * Same as read(path, codec, builder, pool, progress), splitting the file into chunks of
+     * 'chunkSize' bytes.
+     */
+    static <LabelType> void read(Path path, LabelCodec<LabelType> codec,
+            GraphBuilder<LabelType> builder, ForkJoinPool pool, LongConsumer progress,
+            long chunkSize) throws IOException {
+        int vertexCount = builder.vertexCount();
+        int edgeCount = builder.edgeCount();
+        // Chunks being parsed or waiting for an earlier one, in file order.
+        Deque<Future<ChunkParser<LabelType>>> pending = new ArrayDeque<>();
+        boolean added = false;
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = channel.size();
+            int window = pool == null ? 1 : 2 * pool.getParallelism();
+            AtomicLong parsed = new AtomicLong();
+            long next = 0;
+            while (next < size || !pending.isEmpty()) {
+                while (next < size && pending.size() < window) {
+                    ChunkParser<LabelType> parser = new ChunkParser<>(channel, codec, next,
+                            Math.min(size, next + chunkSize), parsed, progress);
+                    if (pool == null) {
+                        pending.add(CompletableFuture.completedFuture(parser.call()));
+                    } else {
+                        // A FutureTask reports the IOException itself as the cause, where
+                        // ForkJoinPool.submit would wrap it.
+                        FutureTask<ChunkParser<LabelType>> task = new FutureTask<>(parser);
+                        pool.execute(task);
+                        pending.add(task);
+                    }
+                    next += chunkSize;
+                }
+                join(pending.removeFirst()).addTo(builder);
+            }
+            added = true;
+        } finally {
+            if (!added) {
+                for (Future<ChunkParser<LabelType>> chunk : pending) {
+                    chunk.cancel(false);
+                }
+                builder.truncate(vertexCount, edgeCount);
+            }
+        }
+    }
+
+    // Waits for 'done' and returns its parser, rethrowing the IOException of a failed chunk.
+    private static <LabelType> ChunkParser<LabelType> join(Future<ChunkParser<LabelType>> done)
+            throws IOException {
+        try {
+            return done.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while reading edge list", e);
+        }
+    }
+
+    /**
+     * Parses the lines that start in the byte range [start, end) of a file. Labels get local ids
+     * in order of first appearance and are decoded once the chunk is parsed, and edges are kept
+     * by local id until addTo.
+     */
+    private static final class ChunkParser<LabelType> implements Callable<ChunkParser<LabelType>> {
+        private final FileChannel channel;
+        private final LabelCodec<LabelType> codec;
+        private final long start;
+        private final long end;
+        private final AtomicLong parsed;
+        private final LongConsumer progress;
+
+        // The bytes of local label 'l' are 'labelBytes[labelStarts[l]..labelStarts[l+1])'.
+        private byte[] labelBytes = new byte[1 << 12];
+        private final IntList labelStarts = new IntList();
+        // Open-addressing table holding 'l + 1' for every local label 'l', or 0.
+        private int[] slots = new int[1 << 10];
+
+        private final IntList sources = new IntList();
+        private final IntList targets = new IntList();
+        private final IntList weights = new IntList();
+
+        // The decoded local labels, by local id, once the chunk is parsed.
+        private List<LabelType> labels;
+
+        // Bytes of this chunk already passed to 'progress'.
+        private long reported;
+
+        // Read buffer, only held while parsing; bytes '[pos, limit)' are read but not yet parsed.
+        private byte[] buffer;
+        private int pos;
+        private int limit;
+        // File position of 'buffer[0]'.
+        private long bufferStart;
+
+        ChunkParser(FileChannel channel, LabelCodec<LabelType> codec, long start, long end,
+                AtomicLong parsed, LongConsumer progress) {
+            this.channel = channel;
+            this.codec = codec;
+            this.start = start;
+            this.end = end;
+            this.parsed = parsed;
+            this.progress = progress;
+            labelStarts.add(0);
+        }
+
+        @Override
+        public ChunkParser<LabelType> call() throws IOException {
+            buffer = new byte[BUFFER_SIZE];
+            bufferStart = start;
+            if (start > 0) {
+                // The line running into this chunk belongs to the previous one.
+                bufferStart = start - 1;
+                fill();
+                skipLine();
+            }
+            while (true) {
+                if (pos == limit && !fill()) {
+                    break;
+                }
+                if (bufferStart + pos >= end) {
+                    break;
+                }
+                parseLine();
+            }
+            buffer = null;
+            labels = decode();
+            progress.accept(parsed.addAndGet(end - start - reported));
+            return this;
+        }
+
+        /**
+         * Keeps the unparsed bytes and reads more after them. Returns false at the end of the
+         * file.
+         */
+        private boolean fill() throws IOException {
+            int kept = limit - pos;
+            if (kept == buffer.length) {
+                buffer = Arrays.copyOf(buffer, 2 * buffer.length);
+            }
+            System.arraycopy(buffer, pos, buffer, 0, kept);
+            bufferStart += pos;
+            pos = 0;
+            limit = kept;
+            int read = channel.read(ByteBuffer.wrap(buffer, limit, buffer.length - limit),
+                    bufferStart + limit);
+            if (read <= 0) {
+                return false;
+            }
+            limit += read;
+            long done = Math.max(0, Math.min(end, bufferStart + limit) - start);
+            if (done > reported) {
+                progress.accept(parsed.addAndGet(done - reported));
+                reported = done;
+            }
+            return true;
+        }
+
+        // Returns the next byte, unsigned, without consuming it, or -1 at the end of the file.
+        private int peek() throws IOException {
+            if (pos == limit && !fill()) {
+                return -1;
+            }
+            return buffer[pos] & 0xFF;
+        }
+
+        private void skipLine() throws IOException {
+            int b;
+            while ((b = peek()) >= 0) {
+                pos++;
+                if (b == '\n') {
+                    return;
+                }
+            }
+        }
+
+        private static boolean isSeparator(int b) {
+            return b == ' ' || b == '\t' || b == ',';
+        }
+
+        private static boolean isEnd(int b) {
+            return b < 0 || b == '\n' || b == '\r';
+        }
+
+        private void skipSeparators() throws IOException {
+            while (isSeparator(peek())) {
+                pos++;
+            }
+        }
+
+        private void parseLine() throws IOException {
+            long lineStart = bufferStart + pos;
+            skipSeparators();
+            int first = peek();
+            if (isEnd(first) || first == '#' || first == '%') {
+                skipLine();
+                return;
+            }
+            int source = label(lineStart);
+            skipSeparators();
+            int target = label(lineStart);
+            skipSeparators();
+            int weight = isEnd(peek()) ? DEFAULT_WEIGHT : weight(lineStart);
+            skipSeparators();
+            if (peek() == '\r') {
+                pos++;
+            }
+            if (!isEnd(peek())) {
+                throw malformed(lineStart, "extra field");
+            }
+            skipLine();
+            if (source != target) {
+                sources.add(source);
+                targets.add(target);
+                weights.add(weight);
+            }
+        }
+
+        /**
+         * Parses the label at the current position and returns its local id, adding it if it is
+         * new.
+         */
+        private int label(long lineStart) throws IOException {
+            // Make sure the whole field is in the buffer, so it can be hashed in place.
+            int length = 0;
+            while (true) {
+                // fill() moves the unparsed bytes, and so the field, to the front.
+                if (pos + length == limit && !fill()) {
+                    break;
+                }
+                int b = buffer[pos + length] & 0xFF;
+                if (isSeparator(b) || isEnd(b)) {
+                    break;
+                }
+                length++;
+            }
+            if (length == 0) {
+                throw malformed(lineStart, "missing label");
+            }
+            int mask = slots.length - 1;
+            int s = hash(buffer, pos, pos + length) & mask;
+            for (; slots[s] != 0; s = (s + 1) & mask) {
+                int l = slots[s] - 1;
+                int from = labelStarts.get(l);
+                if (labelStarts.get(l + 1) - from == length && Arrays.equals(labelBytes, from,
+                        from + length, buffer, pos, pos + length)) {
+                    pos += length;
+                    return l;
+                }
+            }
+            int l = labelStarts.size() - 1;
+            int from = labelStarts.get(l);
+            if (from + length > labelBytes.length) {
+                labelBytes = Arrays.copyOf(labelBytes,
+                        Math.max(from + length, 2 * labelBytes.length));
+            }
+            System.arraycopy(buffer, pos, labelBytes, from, length);
+            labelStarts.add(from + length);
+            slots[s] = l + 1;
+            pos += length;
+            if (2 * (l + 1) > slots.length) {
+                rehash();
+            }
+            return l;
+        }
+
+        private void rehash() {
+            slots = new int[2 * slots.length];
+            int mask = slots.length - 1;
+            for (int l = 0; l < labelStarts.size() - 1; l++) {
+                int s = hash(labelBytes, labelStarts.get(l), labelStarts.get(l + 1)) & mask;
+                while (slots[s] != 0) {
+                    s = (s + 1) & mask;
+                }
+                slots[s] = l + 1;
+            }
+        }
+
+        // Returns the 32-bit FNV-1a hash of 'bytes[from..to)', with the high bits spread.
+        private static int hash(byte[] bytes, int from, int to) {
+            int h = 0x811C9DC5;
+            for (int i = from; i < to; i++) {
+                h = (h ^ (bytes[i] & 0xFF)) * 0x01000193;
+            }
+            return h ^ (h >>> 16);
+        }
+
+        // Parses the decimal int at the current position.
+        private int weight(long lineStart) throws IOException {
+            boolean negative = peek() == '-';
+            if (negative) {
+                pos++;
+            }
+            long value = 0;
+            int digits = 0;
+            for (int b = peek(); b >= '0' && b <= '9'; b = peek()) {
+                value = 10 * value + (b - '0');
+                if (value > Integer.MAX_VALUE + 1L) {
+                    throw malformed(lineStart, "weight out of range");
+                }
+                digits++;
+                pos++;
+            }
+            value = negative ? -value : value;
+            int b = peek();
+            if (digits == 0 || value > Integer.MAX_VALUE || !(isSeparator(b) || isEnd(b))) {
+                throw malformed(lineStart, "invalid weight");
+            }
+            return (int) value;
+        }
+
+        private IOException malformed(long lineStart, String problem) {
+            return new IOException("malformed edge list line at byte " + lineStart + ": "
+                    + problem);
+        }
+
+        /**
+         * Returns the local labels decoded with 'codec', by local id. Throws IOException, with
+         * the position of the chunk, if 'codec' rejects a label.
+         */
+        private List<LabelType> decode() throws IOException {
+            List<LabelType> labels = new ArrayList<>(labelStarts.size() - 1);
+            for (int l = 0; l < labelStarts.size() - 1; l++) {
+                byte[] bytes = Arrays.copyOfRange(labelBytes, labelStarts.get(l),
+                        labelStarts.get(l + 1));
+                try {
+                    labels.add(codec.decode(bytes));
+                } catch (RuntimeException e) {
+                    throw new IOException("invalid label in edge list chunk at byte " + start
+                            + ": " + new String(bytes, StandardCharsets.UTF_8), e);
+                }
+            }
+            return labels;
+        }
+
+        /**
+         * Adds the labels and edges of this parsed chunk to 'builder'. Edges between two labels
+         * that decode to the same label, such as "01" and "1", are self loops and skipped.
+         */
+        void addTo(GraphBuilder<LabelType> builder) {
+            int[] ids = new int[labels.size()];
+            for (int l = 0; l < ids.length; l++) {
+                ids[l] = builder.addVertex(labels.get(l));
+            }
+            for (int e = 0; e < sources.size(); e++) {
+                int source = ids[sources.get(e)];
+                int target = ids[targets.get(e)];
+                if (source != target) {
+                    builder.addEdgeById(source, target, weights.get(e));
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class EdgeListImporterTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("WHEN lines mix separators, comments, missing weights and CRLF, THEN every edge "
+            + "is read.")
+    @Test
+    void testReadSmallFile() throws IOException {
+        Path file = directory.resolve("small.csv");
+        Files.writeString(file, "# source,target,weight\n"
+                + "a,b,3\n"
+                + "a\tc\t-2\r\n"
+                + "\n"
+                + "  b c\n"
+                + "% comment\n"
+                + "c,c,5\n"
+                + "a,b,9\n"
+                + "c, dé ,2147483647");
+        BasicGraph<String> g = EdgeListImporter.read(file, LabelCodec.strings()).build();
+
+        assertEquals(List.of("a", "b", "c", "dé"), g.dfsTraversal(DfsOrder.PRE_ORDER));
+        assertEquals(4, g.edgeCount());
+        assertEquals(3, g.getVertex("a").outgoingEdges().get("b"));
+        assertEquals(-2, g.getVertex("a").outgoingEdges().get("c"));
+        assertEquals(EdgeListImporter.DEFAULT_WEIGHT, g.getVertex("b").outgoingEdges().get("c"));
+        assertEquals(Integer.MAX_VALUE, g.getVertex("c").outgoingEdges().get("dé"));
+    }
+
+    @DisplayName("WHEN a line is malformed, THEN read throws IOException AND leaves the builder "
+            + "unchanged.")
+    @Test
+    void testReadMalformedFile() throws IOException {
+        GraphBuilder<Integer> builder = new GraphBuilder<>();
+        for (String content : List.of("1 2\n3\n", "1 2 x\n", "1 2 3 4\n", "1 2 99999999999\n",
+                "1 x 2\n")) {
+            Path file = directory.resolve("bad.tsv");
+            Files.writeString(file, content);
+            assertThrows(IOException.class, () -> EdgeListImporter.read(file,
+                    LabelCodec.decimalIntegers(), builder, null, bytes -> { }));
+        }
+        assertEquals(0, builder.vertexCount());
+        assertEquals(0, builder.edgeCount());
+    }
+
+    @DisplayName("WHEN the file is read in parallel chunks, THEN the graph equals the one read "
+            + "sequentially AND progress reaches the file size.")
+    @Test
+    void testReadInParallel() throws IOException {
+        Path file = directory.resolve("large.tsv");
+        Random rng = new Random(17);
+        StringBuilder text = new StringBuilder();
+        for (int e = 0; e < 200_000; e++) {
+            text.append(rng.nextInt(30_000)).append('\t').append(rng.nextInt(30_000));
+            if (rng.nextBoolean()) {
+                text.append('\t').append(rng.nextInt(1000));
+            }
+            text.append('\n');
+        }
+        Files.writeString(file, text);
+
+        BasicGraph<Integer> expected =
+                EdgeListImporter.read(file, LabelCodec.decimalIntegers()).build();
+        GraphBuilder<Integer> builder = new GraphBuilder<>();
+        AtomicLong progress = new AtomicLong();
+        ForkJoinPool pool = new ForkJoinPool(4);
+        EdgeListImporter.read(file, LabelCodec.decimalIntegers(), builder, pool,
+                bytes -> progress.accumulateAndGet(bytes, Math::max), 64 << 10);
+        pool.shutdown();
+
+        assertEquals(Files.size(file), progress.get());
+        GraphBuilderTest.assertSameGraph(expected, builder.build());
+    }
+
+    @DisplayName("WHEN two different fields decode to the same label, THEN the edge between them "
+            + "is skipped as a self loop AND a label the codec rejects throws IOException.")
+    @Test
+    void testLabelsDecodingAlike() throws IOException {
+        Path file = directory.resolve("alike.tsv");
+        Files.writeString(file, "01\t1\n+2 2\n1 2 7\n");
+        BasicGraph<Integer> g = EdgeListImporter.read(file, LabelCodec.decimalIntegers()).build();
+        assertEquals(2, g.vertexCount());
+        assertEquals(1, g.edgeCount());
+        assertEquals(7, g.getVertex(1).outgoingEdges().get(2));
+
+        Files.writeString(file, "1 2\nthree 4\n");
+        IOException e = assertThrows(IOException.class,
+                () -> EdgeListImporter.read(file, LabelCodec.decimalIntegers()));
+        assertTrue(e.getMessage().contains("three"));
+    }
+
+    @DisplayName("WHEN a late chunk of a parallel read is malformed, THEN the edges of the chunks "
+            + "already added are removed AND the builder is left as it was.")
+    @Test
+    void testReadMalformedChunk() throws IOException {
+        Path file = directory.resolve("late.tsv");
+        StringBuilder text = new StringBuilder();
+        for (int e = 0; e < 100_000; e++) {
+            text.append(e).append('\t').append(e + 1).append('\n');
+        }
+        Files.writeString(file, text.append("1 2 x\n"));
+
+        GraphBuilder<Integer> builder = new GraphBuilder<>();
+        builder.addEdge(-1, -2, 5);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (ForkJoinPool p : new ForkJoinPool[] {null, pool}) {
+            assertThrows(IOException.class, () -> EdgeListImporter.read(file,
+                    LabelCodec.decimalIntegers(), builder, p, bytes -> { }, 16 << 10));
+            assertEquals(2, builder.vertexCount());
+            assertEquals(1, builder.edgeCount());
+        }
+        pool.shutdown();
+        builder.addEdge(-2, 3, 1);
+        assertEquals(3, builder.addVertex(4));
+        BasicGraph<Integer> g = builder.build();
+        assertEquals(2, g.edgeCount());
+        assertEquals(List.of(-1, -2, 3, 4), g.dfsTraversal(DfsOrder.PRE_ORDER));
+    }
+}
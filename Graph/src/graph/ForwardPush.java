@@ -0,0 +1,101 @@
+package graph;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public final class ForwardPush<LabelType> {
+    /**
+     * ForwardPush approximates personalized PageRank from a single seed vertex with the local
+     * push algorithm of Andersen, Chung and Lang (2006), touching only the vertices near the seed
+     * instead of iterating over the whole graph. Every vertex has an estimate and a residual, the
+     * rank mass not yet settled; at first the seed holds a residual of 1. Pushing 'u' settles
+     * (1 - damping) of its residual into its estimate and spreads the rest evenly over its
+     * outgoing edges, or back to the seed if it has none, as in
+     * CsrGraph.personalizedPageRank(). Vertices are pushed while their residual is at least
+     * 'epsilon' times their out-degree (or 'epsilon' if they have none), so every estimate is
+     * at most the exact rank, and short of it by at most the remaining residuals.
+     * A query costs O(1 / (epsilon * (1 - damping))) pushes, independent of the size of the
+     * graph. The state is reused from one query to the next. Not thread-safe.
+     * Obtain one with CsrGraph.forwardPush().
+     */
+
+    private final CsrGraph<LabelType> graph;
+    private final double[] estimates;
+    private final double[] residuals;
+    // An estimate and residual are valid only if their stamp is the current query's.
+    private final int[] stamps;
+    private int stamp;
+    private final boolean[] queued;
+    private final IntList queue = new IntList();
+    private final IntList touched = new IntList();
+
+    ForwardPush(CsrGraph<LabelType> graph) {
+        this.graph = graph;
+        int n = graph.vertexCount();
+        estimates = new double[n];
+        residuals = new double[n];
+        stamps = new int[n];
+        queued = new boolean[n];
+    }
+
+    /**
+     * Returns the approximate personalized PageRank of every vertex with a positive estimate,
+     * for surfers that restart at 'seed' with probability 1 - 'damping' at every step.
+     * Requires that 'seed' exists, 0 <= 'damping' < 1 and 'epsilon' > 0.
+     */
+    public Map<LabelType, Double> personalizedPageRank(LabelType seed, double damping,
+            double epsilon) {
+        assert damping >= 0 && damping < 1 && epsilon > 0;
+        int s = graph.id(seed);
+        stamp++;
+        queue.clear();
+        touched.clear();
+        touch(s);
+        residuals[s] = 1;
+        queue.add(s);
+        queued[s] = true;
+        for (int head = 0; head < queue.size(); head++) {
+            int u = queue.get(head);
+            queued[u] = false;
+            double residual = residuals[u];
+            residuals[u] = 0;
+            estimates[u] += (1 - damping) * residual;
+            int degree = graph.outDegree(u);
+            if (degree == 0) {
+                add(s, damping * residual, epsilon);
+                continue;
+            }
+            double share = damping * residual / degree;
+            for (int e = graph.outOffsets[u]; e < graph.outOffsets[u + 1]; e++) {
+                add(graph.outTargets[e], share, epsilon);
+            }
+        }
+        Map<LabelType, Double> ranks = HashMap.newHashMap(touched.size());
+        for (int i = 0; i < touched.size(); i++) {
+            int v = touched.get(i);
+            if (estimates[v] > 0) {
+                ranks.put(graph.label(v), estimates[v]);
+            }
+        }
+        return ranks;
+    }
+
+    // Adds 'mass' to the residual of 'v', queueing it if that reaches its threshold.
+    private void add(int v, double mass, double epsilon) {
+        touch(v);
+        residuals[v] += mass;
+        if (!queued[v] && residuals[v] >= epsilon * Math.max(1, graph.outDegree(v))) {
+            queued[v] = true;
+            queue.add(v);
+        }
+    }
+
+    private void touch(int v) {
+        if (stamps[v] != stamp) {
+            stamps[v] = stamp;
+            estimates[v] = 0;
+            residuals[v] = 0;
+            touched.add(v);
+        }
+    }
+}
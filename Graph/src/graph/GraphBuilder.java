@@ -0,0 +1,294 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Stream;
+
+public class GraphBuilder<LabelType> {
+    /**
+     * GraphBuilder collects edges in bulk and turns them into a BasicGraph or CsrGraph at once,
+     * instead of one addEdge call per edge. Labels are interned to dense int ids as they arrive,
+     * in order of first appearance, and edges are buffered as three primitive int arrays. build()
+     * then sorts the edges by source and by target in parallel and creates every adjacency row
+     * with its final size, so no row is resized and no label is looked up again.
+     * The result is the graph that adding the same vertices and edges to an empty BasicGraph one
+     * at a time would give: vertex ids follow first appearance, neighbors keep insertion order,
+     * and of several edges between the same two vertices only the first is kept.
+     */
+
+    /**
+     * WeightedEdge is one edge 'source' -> 'target' with weight 'weight', as accepted by
+     * addEdges(Stream) and addEdges(Iterator).
+     */
+    public record WeightedEdge<LabelType>(LabelType source, LabelType target, int weight) {
+    }
+
+    // Map 'ids' maps the label of a vertex to its id.
+    private final Map<LabelType, Integer> ids;
+    // List 'labels' maps the id of a vertex to its label.
+    private final List<LabelType> labels;
+
+    // Edge 'e' is 'sources[e]' -> 'targets[e]' with weight 'weights[e]', by vertex id.
+    private final IntList sources;
+    private final IntList targets;
+    private final IntList weights;
+
+    /**
+     * Initializes an empty GraphBuilder.
+     */
+    public GraphBuilder() {
+        this(16, 16);
+    }
+
+    /**
+     * Initializes an empty GraphBuilder with room for 'expectedVertices' vertices and
+     * 'expectedEdges' edges before any buffer has to grow.
+     */
+    public GraphBuilder(int expectedVertices, int expectedEdges) {
+        ids = HashMap.newHashMap(expectedVertices);
+        labels = new ArrayList<>(expectedVertices);
+        sources = new IntList(expectedEdges);
+        targets = new IntList(expectedEdges);
+        weights = new IntList(expectedEdges);
+    }
+
+    public int vertexCount() {
+        return labels.size();
+    }
+
+    /**
+     * Returns the number of edges added so far, including duplicates that build() will drop.
+     */
+    public int edgeCount() {
+        return sources.size();
+    }
+
+    /**
+     * Adds vertex 'label' if it was not added yet, and returns its id. Ids are given out in
+     * order from 0, and are the vertex's id in the built graph.
+     */
+    public int addVertex(LabelType label) {
+        Integer id = ids.get(label);
+        if (id != null) {
+            return id;
+        }
+        int next = labels.size();
+        ids.put(label, next);
+        labels.add(label);
+        return next;
+    }
+
+    /**
+     * Adds the edge 'source' -> 'target' with weight 'weight', adding either vertex if it does not
+     * exist yet. Throws IllegalArgumentException if 'source' equals 'target'.
+     */
+    public void addEdge(LabelType source, LabelType target, int weight) {
+        if (Objects.equals(source, target)) {
+            throw new IllegalArgumentException("self-loop on " + source);
+        }
+        append(addVertex(source), addVertex(target), weight);
+    }
+
+    /**
+     * Adds the edge between the vertices with ids 'source' and 'target', as returned by
+     * addVertex, with weight 'weight'. Throws IllegalArgumentException if either id does not
+     * exist or the ids are equal.
+     */
+    public void addEdgeById(int source, int target, int weight) {
+        checkId(source);
+        checkId(target);
+        if (source == target) {
+            throw new IllegalArgumentException("self-loop on vertex id " + source);
+        }
+        append(source, target, weight);
+    }
+
+    /**
+     * Adds the edges 'sources[i]' -> 'targets[i]' with weight 'weights[i]' for every index 'i',
+     * adding vertices that do not exist yet. Requires the three arrays to have equal lengths.
+     */
+    public void addEdges(LabelType[] sources, LabelType[] targets, int[] weights) {
+        checkLengths(sources.length, targets.length, weights.length);
+        for (int i = 0; i < sources.length; i++) {
+            addEdge(sources[i], targets[i], weights[i]);
+        }
+    }
+
+    /**
+     * Adds the edges 'sources[i]' -> 'targets[i]' with weight 'weights[i]' for every index 'i',
+     * by vertex id. Throws IllegalArgumentException if the arrays have different lengths, or on
+     * the first edge that addEdgeById would reject; the edges before it stay added.
+     */
+    public void addEdgesById(int[] sources, int[] targets, int[] weights) {
+        checkLengths(sources.length, targets.length, weights.length);
+        for (int i = 0; i < sources.length; i++) {
+            addEdgeById(sources[i], targets[i], weights[i]);
+        }
+    }
+
+    /**
+     * Removes the vertices and edges added after the builder had 'vertexCount' vertices and
+     * 'edgeCount' edges, so that an import that fails halfway leaves the builder as it was.
+     * Requires both counts to be at most the current ones.
+     */
+    void truncate(int vertexCount, int edgeCount) {
+        assert vertexCount <= vertexCount() && edgeCount <= edgeCount();
+        for (int v = labels.size() - 1; v >= vertexCount; v--) {
+            ids.remove(labels.remove(v));
+        }
+        sources.truncate(edgeCount);
+        targets.truncate(edgeCount);
+        weights.truncate(edgeCount);
+    }
+
+    // Buffers the edge 'source' -> 'target' between two existing, distinct ids.
+    private void append(int source, int target, int weight) {
+        sources.add(source);
+        targets.add(target);
+        weights.add(weight);
+    }
+
+    // Throws IllegalArgumentException unless 'id' was given out by addVertex.
+    private void checkId(int id) {
+        if (id < 0 || id >= vertexCount()) {
+            throw new IllegalArgumentException("no vertex with id " + id + "; ids are below "
+                    + vertexCount());
+        }
+    }
+
+    // Throws IllegalArgumentException unless the three edge arrays have the same length.
+    private static void checkLengths(int sources, int targets, int weights) {
+        if (sources != targets || sources != weights) {
+            throw new IllegalArgumentException("edge arrays have lengths " + sources + ", "
+                    + targets + " and " + weights);
+        }
+    }
+
+    /**
+     * Adds every edge of 'edges'. Edges are taken in encounter order, so a parallel stream gives
+     * the same graph as a sequential one.
+     */
+    public void addEdges(Stream<WeightedEdge<LabelType>> edges) {
+        edges.forEachOrdered(edge -> addEdge(edge.source(), edge.target(), edge.weight()));
+    }
+
+    /**
+     * Adds every remaining edge of 'edges'.
+     */
+    public void addEdges(Iterator<WeightedEdge<LabelType>> edges) {
+        while (edges.hasNext()) {
+            WeightedEdge<LabelType> edge = edges.next();
+            addEdge(edge.source(), edge.target(), edge.weight());
+        }
+    }
+
+    /**
+     * Returns a new BasicGraph with the vertices and edges added so far, built on the ForkJoin
+     * common pool. The builder can still be used afterwards.
+     */
+    public BasicGraph<LabelType> build() {
+        return build(ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Same as build(), running on 'pool'.
+     * O(|E| log |E|) algorithm, for the two sorts; the rest is O(|V| + |E|) and parallel.
+     */
+    public BasicGraph<LabelType> build(ForkJoinPool pool) {
+        int n = labels.size();
+        int m = sources.size();
+        int[] source = sources.toArray();
+        int[] target = targets.toArray();
+        int[] weight = weights.toArray();
+
+        // Edge indices grouped by source, and by target, each group in insertion order.
+        long[] bySource = sortedEdges(source, pool);
+        long[] byTarget = sortedEdges(target, pool);
+        int[] outStart = groupStarts(source, n);
+        int[] inStart = groupStarts(target, n);
+
+        // Outgoing rows first: they decide which of several parallel edges is kept.
+        boolean[] kept = new boolean[m];
+        IntAdjacency[] outgoing = new IntAdjacency[n];
+        ParallelRange.forEach(pool, 0, n, (chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                IntAdjacency row = new IntAdjacency(outStart[v + 1] - outStart[v]);
+                for (int i = outStart[v]; i < outStart[v + 1]; i++) {
+                    int e = (int) bySource[i];
+                    kept[e] = row.add(target[e], weight[e]);
+                }
+                outgoing[v] = row;
+            }
+        });
+
+        IntAdjacency[] incoming = new IntAdjacency[n];
+        ParallelRange.forEach(pool, 0, n, (chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                int degree = 0;
+                for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+                    degree += kept[(int) byTarget[i]] ? 1 : 0;
+                }
+                IntAdjacency row = new IntAdjacency(degree);
+                for (int i = inStart[v]; i < inStart[v + 1]; i++) {
+                    int e = (int) byTarget[i];
+                    if (kept[e]) {
+                        row.append(source[e], weight[e]);
+                    }
+                }
+                incoming[v] = row;
+            }
+        });
+
+        int edges = 0;
+        for (IntAdjacency row : outgoing) {
+            edges += row.size();
+        }
+        return new BasicGraph<>(new ArrayList<>(labels), new HashMap<>(ids), outgoing, incoming,
+                edges);
+    }
+
+    /**
+     * Returns an immutable CsrGraph with the vertices and edges added so far, built on the
+     * ForkJoin common pool.
+     */
+    public CsrGraph<LabelType> freeze() {
+        return build().freeze();
+    }
+
+    /**
+     * Returns the edge indices sorted by 'key[e]', then by index, each packed as
+     * 'key[e] << 32 | e' so that one parallel primitive sort does the work.
+     */
+    private static long[] sortedEdges(int[] key, ForkJoinPool pool) {
+        long[] packed = new long[key.length];
+        ParallelRange.forEach(pool, 0, key.length, (chunk, from, to) -> {
+            for (int e = from; e < to; e++) {
+                packed[e] = (long) key[e] << 32 | e;
+            }
+        });
+        // Arrays.parallelSort forks into the pool of the thread that calls it.
+        pool.submit(() -> Arrays.parallelSort(packed)).join();
+        return packed;
+    }
+
+    /**
+     * Returns 'start' such that the edges with 'key[e] == v' are at positions
+     * '[start[v], start[v+1])' of the array returned by sortedEdges(key).
+     */
+    private static int[] groupStarts(int[] key, int n) {
+        int[] start = new int[n + 1];
+        for (int k : key) {
+            start[k + 1]++;
+        }
+        for (int v = 0; v < n; v++) {
+            start[v + 1] += start[v];
+        }
+        return start;
+    }
+}
@@ -0,0 +1,137 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class GraphBuilderTest {
+
+    /**
+     * Asserts that 'actual' has the same vertex ids, edges and edge order as 'expected'.
+     */
+    static <LabelType> void assertSameGraph(BasicGraph<LabelType> expected,
+            BasicGraph<LabelType> actual) {
+        assertEquals(expected.vertexCount(), actual.vertexCount());
+        assertEquals(expected.edgeCount(), actual.edgeCount());
+        assertEquals(expected.index, actual.index);
+        for (int v = 0; v < expected.vertexCount(); v++) {
+            Vertex<LabelType> e = expected.vertices.get(v);
+            Vertex<LabelType> a = actual.vertices.get(v);
+            assertEquals(e.label(), a.label());
+            assertEquals(List.copyOf(e.outgoingEdges().entrySet()),
+                    List.copyOf(a.outgoingEdges().entrySet()));
+            assertEquals(List.copyOf(e.incomingEdges().entrySet()),
+                    List.copyOf(a.incomingEdges().entrySet()));
+        }
+    }
+
+    @DisplayName("WHEN edges are added by label, THEN the graph equals one built edge by edge.")
+    @Test
+    void testBuildSmallGraph() {
+        GraphBuilder<String> builder = new GraphBuilder<>();
+        builder.addVertex("0");
+        builder.addEdges(new String[] {"1", "1", "2", "1", "3"},
+                new String[] {"2", "3", "3", "2", "1"}, new int[] {5, 1, 2, 7, 4});
+
+        BasicGraph<String> expected = new BasicGraph<>();
+        for (String label : List.of("0", "1", "2", "3")) {
+            expected.addVertex(new BasicVertex<>(label));
+        }
+        expected.addEdge("1", new BasicEdge<>("2", 5));
+        expected.addEdge("1", new BasicEdge<>("3", 1));
+        expected.addEdge("2", new BasicEdge<>("3", 2));
+        expected.addEdge("3", new BasicEdge<>("1", 4));
+
+        BasicGraph<String> g = builder.build();
+        assertSameGraph(expected, g);
+        assertEquals(5, builder.edgeCount());
+        assertEquals(4, g.edgeCount());
+        assertEquals(5, g.getVertex("2").incomingEdges().get("1"));
+
+        // The built graph is an ordinary BasicGraph.
+        g.removeVertex("1");
+        assertTrue(g.addEdge("0", new BasicEdge<>("2", 3)));
+        assertEquals(List.of("0", "2", "3"), g.topologicalSort());
+    }
+
+    @DisplayName("WHEN the graph is large with duplicate edges, THEN every input form and pool "
+            + "gives the graph built edge by edge.")
+    @Test
+    void testBuildLargeGraph() {
+        int n = 5_000;
+        int m = 60_000;
+        Random rng = new Random(11);
+        List<GraphBuilder.WeightedEdge<Integer>> edges = new ArrayList<>();
+        while (edges.size() < m) {
+            // A few hubs make some rows large enough to use the indexed IntAdjacency.
+            int u = rng.nextInt(10) == 0 ? rng.nextInt(5) : rng.nextInt(n);
+            int v = rng.nextInt(n);
+            if (u != v) {
+                edges.add(new GraphBuilder.WeightedEdge<>(u, v, rng.nextInt(50)));
+            }
+        }
+
+        BasicGraph<Integer> expected = new BasicGraph<>();
+        for (GraphBuilder.WeightedEdge<Integer> edge : edges) {
+            expected.addVertex(new BasicVertex<>(edge.source()));
+            expected.addVertex(new BasicVertex<>(edge.target()));
+            expected.addEdge(edge.source(), new BasicEdge<>(edge.target(), edge.weight()));
+        }
+        assertTrue(expected.edgeCount() < m);
+
+        GraphBuilder<Integer> fromStream = new GraphBuilder<>();
+        fromStream.addEdges(edges.parallelStream());
+        GraphBuilder<Integer> fromIterator = new GraphBuilder<>(n, m);
+        fromIterator.addEdges(edges.iterator());
+        ForkJoinPool pool = new ForkJoinPool(3);
+        assertSameGraph(expected, fromStream.build());
+        assertSameGraph(expected, fromIterator.build(pool));
+        pool.shutdown();
+
+        GraphBuilder<Integer> byId = new GraphBuilder<>();
+        int[] sources = new int[m];
+        int[] targets = new int[m];
+        int[] weights = new int[m];
+        for (int e = 0; e < m; e++) {
+            sources[e] = byId.addVertex(edges.get(e).source());
+            targets[e] = byId.addVertex(edges.get(e).target());
+            weights[e] = edges.get(e).weight();
+        }
+        byId.addEdgesById(sources, targets, weights);
+        assertSameGraph(expected, byId.build());
+
+        CsrGraph<Integer> csr = byId.freeze();
+        assertEquals(expected.edgeCount(), csr.edgeCount());
+        assertArrayEquals(expected.shortestPath(0).distances(), csr.shortestPath(0).distances());
+    }
+
+    @DisplayName("WHEN the labels are Integers, THEN addEdge takes them as labels AND the id "
+            + "variants reject unknown ids, self-loops and mismatched arrays.")
+    @Test
+    void testIntegerLabels() {
+        GraphBuilder<Integer> builder = new GraphBuilder<>();
+        for (int label : new int[] {10, 20, 30}) {
+            builder.addVertex(label);
+        }
+        builder.addEdge(10, 20, 1);
+        builder.addEdgeById(2, 0, 3);
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdgeById(11, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdgeById(0, -1, 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdgeById(1, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> builder.addEdge(30, 30, 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> builder.addEdgesById(new int[] {0, 1}, new int[] {1}, new int[] {1, 1}));
+        assertEquals(3, builder.vertexCount());
+
+        BasicGraph<Integer> g = builder.build();
+        assertEquals(2, g.edgeCount());
+        assertEquals(Map.of(20, 1), g.getVertex(10).outgoingEdges());
+        assertEquals(Map.of(10, 3), g.getVertex(30).outgoingEdges());
+    }
+}
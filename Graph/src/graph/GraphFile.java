@@ -0,0 +1,213 @@
+package graph;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+
+public final class GraphFile {
+    /**
+     * GraphFile reads and writes graphs in a compact binary format that MappedGraph serves
+     * straight from a memory mapping. All numbers are big-endian, and every section starts at a
+     * multiple of 8 bytes, padded with zeros:
+     * - header (HEADER_SIZE bytes): MAGIC (long), VERSION (int), vertex count 'n' (int), edge
+     *   count 'm' (long), hash slot count 'h', a power of two (int), 0 (int), then the positions
+     *   of the nine sections below (long each), in order.
+     * - label offsets: n + 1 longs; the encoded label of vertex 'v' is the bytes
+     *   '[offset[v], offset[v+1])' of the label bytes section.
+     * - label bytes: the labels encoded with a LabelCodec, one after the other.
+     * - hash slots: h ints, an open-addressing table with linear probing from label to id. A slot
+     *   holds 'id + 1', or 0 if empty; a label starts probing at slot 'hash(label) & (h - 1)'.
+     * - out offsets (n + 1 ints), out targets (m ints), out weights (m ints), in offsets,
+     *   in targets and in weights: the CSR arrays of CsrGraph.
+     */
+
+    // "GRAPHCSR" in ASCII.
+    static final long MAGIC = 0x4752415048435352L;
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 32 + 9 * Long.BYTES;
+
+    private GraphFile() {
+    }
+
+    /**
+     * Writes 'graph' to the file 'path', replacing it, with labels encoded by 'codec'.
+     * O(|V| + |E|) algorithm.
+     */
+    public static <LabelType> void write(BasicGraph<LabelType> graph, Path path,
+            LabelCodec<LabelType> codec) throws IOException {
+        write(graph.freeze(), path, codec);
+    }
+
+    /**
+     * Writes 'graph' to the file 'path', replacing it, with labels encoded by 'codec'. Vertices
+     * keep their ids. The file is written next to 'path' and then atomically renamed over it,
+     * so MappedGraphs already open on 'path' keep serving the old contents.
+     * O(|V| + |E|) algorithm.
+     */
+    public static <LabelType> void write(CsrGraph<LabelType> graph, Path path,
+            LabelCodec<LabelType> codec) throws IOException {
+        int n = graph.vertexCount();
+        int m = graph.edgeCount();
+        byte[][] labels = new byte[n][];
+        long labelBytes = 0;
+        for (int v = 0; v < n; v++) {
+            labels[v] = codec.encode(graph.label(v));
+            labelBytes += labels[v].length;
+        }
+        int[] slots = new int[Integer.highestOneBit(Math.max(1, 2 * n - 1)) << 1];
+        for (int v = 0; v < n; v++) {
+            int s = hash(labels[v]) & (slots.length - 1);
+            while (slots[s] != 0) {
+                s = (s + 1) & (slots.length - 1);
+            }
+            slots[s] = v + 1;
+        }
+
+        long[] sections = new long[9];
+        long[] lengths = lengths(n, m, labelBytes, slots.length);
+        long position = HEADER_SIZE;
+        for (int s = 0; s < sections.length; s++) {
+            sections[s] = position;
+            position = align(position + lengths[s]);
+        }
+
+        // Write a new file and move it over 'path', so that processes still mapping the old file
+        // keep reading its inode instead of faulting on a file truncated under them.
+        Path temporary = Files.createTempFile(path.toAbsolutePath().getParent(),
+                path.getFileName().toString(), ".tmp");
+        try {
+            write(graph, temporary, labels, labelBytes, slots, sections);
+            Files.move(temporary, path, StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(temporary);
+        }
+    }
+
+    // Writes the file 'path' for 'graph' with the encoded 'labels', hash 'slots' and section
+    // positions computed by write().
+    private static void write(CsrGraph<?> graph, Path path, byte[][] labels, long labelBytes,
+            int[] slots, long[] sections) throws IOException {
+        int n = graph.vertexCount();
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(Files.newOutputStream(path), 1 << 16))) {
+            out.writeLong(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(n);
+            out.writeLong(graph.edgeCount());
+            out.writeInt(slots.length);
+            out.writeInt(0);
+            for (long section : sections) {
+                out.writeLong(section);
+            }
+            long offset = 0;
+            for (int v = 0; v < n; v++) {
+                out.writeLong(offset);
+                offset += labels[v].length;
+            }
+            out.writeLong(offset);
+            for (byte[] label : labels) {
+                out.write(label);
+            }
+            pad(out, labelBytes);
+            writeInts(out, slots);
+            writeInts(out, graph.outOffsets);
+            writeInts(out, graph.outTargets);
+            writeInts(out, graph.outWeights);
+            writeInts(out, graph.inOffsets);
+            writeInts(out, graph.inTargets);
+            writeInts(out, graph.inWeights);
+        }
+    }
+
+    /**
+     * Maps the graph file 'path' into memory, with labels decoded by 'codec'. Reads only the
+     * header and the end of the label offsets; the rest is read from the page cache as it is
+     * used. Throws IOException if the file is not a graph file of this version, or if its header
+     * is inconsistent: counts out of range, a slot count that is not a power of two above 'n',
+     * or sections that are unaligned, overlap, are out of order or end past the end of the file.
+     */
+    public static <LabelType> MappedGraph<LabelType> open(Path path, LabelCodec<LabelType> codec)
+            throws IOException {
+        MappedRegion region = new MappedRegion(path);
+        if (region.size() < HEADER_SIZE || region.getLong(0) != MAGIC) {
+            throw new IOException(path + " is not a graph file");
+        }
+        if (region.getInt(8) != VERSION) {
+            throw new IOException(path + " has unsupported graph file version "
+                    + region.getInt(8));
+        }
+        long[] sections = new long[9];
+        for (int s = 0; s < sections.length; s++) {
+            sections[s] = region.getLong(32 + (long) s * Long.BYTES);
+        }
+        int n = region.getInt(12);
+        long m = region.getLong(16);
+        int h = region.getInt(24);
+        // Every vertex needs a slot and probing needs an empty one, so 'h' must exceed 'n'.
+        if (n < 0 || m < 0 || m > Integer.MAX_VALUE || h <= n || Integer.bitCount(h) != 1) {
+            throw new IOException(path + " is corrupt");
+        }
+        // The length of the label bytes is the last label offset, at the end of section 0.
+        long labelBytes = -1;
+        if (sections[0] >= HEADER_SIZE && (sections[0] & 7) == 0
+                && sections[0] <= region.size() - (n + 1L) * Long.BYTES) {
+            labelBytes = region.getLong(sections[0] + (long) n * Long.BYTES);
+        }
+        if (labelBytes < 0) {
+            throw new IOException(path + " is corrupt");
+        }
+        long[] lengths = lengths(n, (int) m, labelBytes, h);
+        long position = HEADER_SIZE;
+        for (int s = 0; s < sections.length; s++) {
+            if (sections[s] < position || (sections[s] & 7) != 0
+                    || sections[s] > region.size() - lengths[s]) {
+                throw new IOException(path + " is truncated or corrupt");
+            }
+            position = sections[s] + lengths[s];
+        }
+        return new MappedGraph<>(region, codec, n, (int) m, h, sections);
+    }
+
+    // Returns the lengths in bytes of the nine sections of a graph file, before padding.
+    private static long[] lengths(int n, int m, long labelBytes, int slots) {
+        return new long[] {(n + 1L) * Long.BYTES, labelBytes, (long) slots * Integer.BYTES,
+                (n + 1L) * Integer.BYTES, (long) m * Integer.BYTES, (long) m * Integer.BYTES,
+                (n + 1L) * Integer.BYTES, (long) m * Integer.BYTES, (long) m * Integer.BYTES};
+    }
+
+    /**
+     * Returns the hash of the encoded label 'bytes' that decides its first hash slot.
+     */
+    static int hash(byte[] bytes) {
+        // 32-bit FNV-1a, then spread the high bits into the low ones used by the mask.
+        int h = 0x811C9DC5;
+        for (byte b : bytes) {
+            h = (h ^ (b & 0xFF)) * 0x01000193;
+        }
+        return h ^ (h >>> 16);
+    }
+
+    // Writes 'values', then pads them to a multiple of 8 bytes.
+    private static void writeInts(DataOutputStream out, int[] values) throws IOException {
+        for (int value : values) {
+            out.writeInt(value);
+        }
+        pad(out, (long) values.length * Integer.BYTES);
+    }
+
+    // Writes the zeros that pad a section of 'length' bytes to a multiple of 8 bytes.
+    private static void pad(DataOutputStream out, long length) throws IOException {
+        for (long i = length; (i & 7) != 0; i++) {
+            out.writeByte(0);
+        }
+    }
+
+    // Returns the smallest multiple of 8 that is at least 'position'.
+    private static long align(long position) {
+        return (position + 7) & ~7L;
+    }
+}
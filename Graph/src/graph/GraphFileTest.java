@@ -0,0 +1,172 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+public class GraphFileTest {
+
+    @TempDir
+    Path directory;
+
+    @DisplayName("WHEN the graph is sparse and acyclic, THEN the mapped graph answers like the "
+            + "original.")
+    @Test
+    void testWriteAndOpen() throws IOException {
+        BasicGraph<String> g = CsrGraphTest.makeTree();
+        g.addVertex(new BasicVertex<>("ünïcode"));
+        g.addEdge("8", new BasicEdge<>("ünïcode", 6));
+        Path file = directory.resolve("tree.graph");
+        GraphFile.write(g, file, LabelCodec.strings());
+        MappedGraph<String> mapped = GraphFile.open(file, LabelCodec.strings());
+
+        assertEquals(9, mapped.vertexCount());
+        assertEquals(10, mapped.edgeCount());
+        assertTrue(mapped.containsVertex("ünïcode"));
+        assertFalse(mapped.containsVertex("9"));
+        assertNull(mapped.getVertex("9"));
+        for (Vertex<String> vertex : g.vertices) {
+            Vertex<String> read = mapped.getVertex(vertex.label());
+            assertEquals(vertex.outgoingEdges(), read.outgoingEdges());
+            assertEquals(vertex.incomingEdges(), read.incomingEdges());
+            assertEquals(g.index.get(vertex.label()), mapped.id(vertex.label()));
+        }
+        assertEquals(g.dfsTraversal("1", DfsOrder.POST_ORDER),
+                mapped.dfsTraversal("1", DfsOrder.POST_ORDER));
+        assertEquals(g.bfsTraversal("1"), mapped.bfsTraversal("1"));
+        assertEquals(g.topologicalSort(), mapped.topologicalOrder().order());
+        assertEquals(List.of("1", "4", "8", "ünïcode"),
+                mapped.shortestPath("1", "ünïcode").pathTo("ünïcode"));
+    }
+
+    @DisplayName("WHEN the graph is large and weighted, THEN the mapped graph has the same "
+            + "edges and shortest paths.")
+    @Test
+    void testLargeGraph() throws IOException {
+        CsrGraph<Integer> csr = CsrGraphTest.makeRandom(20_000, 100_000, 100, 13).freeze();
+        Path file = directory.resolve("random.graph");
+        GraphFile.write(csr, file, LabelCodec.integers());
+        MappedGraph<Integer> mapped = GraphFile.open(file, LabelCodec.integers());
+
+        assertEquals(csr.edgeCount(), mapped.edgeCount());
+        for (int v = 0; v < csr.vertexCount(); v += 7) {
+            assertEquals(v, mapped.id(csr.label(v)));
+            assertEquals(csr.outDegree(v), mapped.outDegree(v));
+            assertEquals(csr.inDegree(v), mapped.inDegree(v));
+            for (int i = 0; i < csr.inDegree(v); i++) {
+                assertEquals(csr.inTarget(v, i), mapped.inTarget(v, i));
+                assertEquals(csr.inWeight(v, i), mapped.inWeight(v, i));
+            }
+        }
+        ShortestPathResult<Integer> expected = csr.shortestPath(0);
+        ShortestPathResult<Integer> result = mapped.shortestPath(0);
+        assertArrayEquals(expected.distances(), result.distances());
+        assertEquals(expected.pathTo(12_345), result.pathTo(12_345));
+    }
+
+    @DisplayName("WHEN the file is not a graph file, THEN open throws IOException.")
+    @Test
+    void testOpenInvalidFile() throws IOException {
+        Path file = directory.resolve("text.graph");
+        Files.writeString(file, "not a graph");
+        assertThrows(IOException.class, () -> GraphFile.open(file, LabelCodec.strings()));
+
+        Path empty = directory.resolve("empty.graph");
+        GraphFile.write(new BasicGraph<String>(), empty, LabelCodec.strings());
+        assertEquals(0, GraphFile.open(empty, LabelCodec.strings()).vertexCount());
+        Files.write(empty, new byte[GraphFile.HEADER_SIZE]);
+        assertThrows(IOException.class, () -> GraphFile.open(empty, LabelCodec.strings()));
+    }
+
+    @DisplayName("WHEN the header has a bad slot count, overlapping sections or a section past "
+            + "the end of the file, THEN open throws IOException.")
+    @Test
+    void testOpenCorruptHeader() throws IOException {
+        BasicGraph<Integer> g = CsrGraphTest.makeRandom(50, 200, 10, 3);
+        Path file = directory.resolve("random.graph");
+        GraphFile.write(g, file, LabelCodec.integers());
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        long last = header.getLong(32 + 8 * Long.BYTES);
+
+        Path corrupt = directory.resolve("corrupt.graph");
+        // A slot count of 'n', and one that is not a power of two.
+        for (int slots : new int[] {50, 96, 0, -128}) {
+            Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putInt(24, slots).array());
+            assertThrows(IOException.class, () -> GraphFile.open(corrupt,
+                    LabelCodec.integers()));
+        }
+        // Out targets overlapping the out offsets, then in weights past the end of the file.
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone())
+                .putLong(32 + 4 * Long.BYTES, header.getLong(32 + 3 * Long.BYTES)).array());
+        assertThrows(IOException.class, () -> GraphFile.open(corrupt, LabelCodec.integers()));
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putLong(32 + 8 * Long.BYTES,
+                last + 8).array());
+        assertThrows(IOException.class, () -> GraphFile.open(corrupt, LabelCodec.integers()));
+        // An edge count too large for the sections.
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putLong(16, 1L << 40).array());
+        assertThrows(IOException.class, () -> GraphFile.open(corrupt, LabelCodec.integers()));
+        Files.write(corrupt, ByteBuffer.wrap(bytes.clone()).putLong(16, header.getLong(16) + 2)
+                .array());
+        assertThrows(IOException.class, () -> GraphFile.open(corrupt, LabelCodec.integers()));
+        assertEquals(50, GraphFile.open(file, LabelCodec.integers()).vertexCount());
+    }
+
+    @DisplayName("WHEN a mapped file is rewritten, THEN the open graph keeps its old contents "
+            + "AND opening the path again reads the new graph.")
+    @Test
+    void testRewriteWhileMapped() throws IOException {
+        CsrGraph<Integer> before = CsrGraphTest.makeRandom(2_000, 10_000, 10, 5).freeze();
+        Path file = directory.resolve("shared.graph");
+        GraphFile.write(before, file, LabelCodec.integers());
+        MappedGraph<Integer> mapped = GraphFile.open(file, LabelCodec.integers());
+        GraphFile.write(CsrGraphTest.makeRandom(10, 20, 10, 6), file, LabelCodec.integers());
+
+        assertEquals(before.edgeCount(), mapped.edgeCount());
+        for (int v = 0; v < before.vertexCount(); v += 11) {
+            assertEquals(before.outDegree(v), mapped.outDegree(v));
+            assertEquals(v, mapped.id(before.label(v)));
+        }
+        assertEquals(10, GraphFile.open(file, LabelCodec.integers()).vertexCount());
+        try (var files = Files.list(directory)) {
+            assertEquals(1, files.count());
+        }
+    }
+
+    @DisplayName("WHEN the hash slots hold ids out of range or no empty slot, THEN lookups throw "
+            + "IllegalStateException or stop after one pass.")
+    @Test
+    void testCorruptSlots() throws IOException {
+        BasicGraph<Integer> g = CsrGraphTest.makeRandom(50, 200, 10, 3);
+        Path file = directory.resolve("random.graph");
+        GraphFile.write(g, file, LabelCodec.integers());
+        byte[] bytes = Files.readAllBytes(file);
+        ByteBuffer header = ByteBuffer.wrap(bytes);
+        int slots = header.getInt(24);
+        int position = (int) header.getLong(32 + 2 * Long.BYTES);
+
+        Path corrupt = directory.resolve("corrupt.graph");
+        for (int[] fill : new int[][] {{51, 1}, {-5, 1}, {1, 0}}) {
+            ByteBuffer buffer = ByteBuffer.wrap(bytes.clone());
+            for (int s = 0; s < slots; s++) {
+                buffer.putInt(position + s * Integer.BYTES, fill[0]);
+            }
+            Files.write(corrupt, buffer.array());
+            MappedGraph<Integer> mapped = GraphFile.open(corrupt, LabelCodec.integers());
+            if (fill[1] == 1) {
+                assertThrows(IllegalStateException.class, () -> mapped.containsVertex(7));
+            } else {
+                // Every slot names vertex 0, so only its label is found.
+                assertTrue(mapped.containsVertex(g.vertices.get(0).label()));
+                assertFalse(mapped.containsVertex(-7));
+            }
+        }
+    }
+}
@@ -0,0 +1,387 @@
+package graph;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+
+public class GraphSnapshot<LabelType> implements Graph<Vertex<LabelType>> {
+    /**
+     * GraphSnapshot is one immutable version of a ConcurrentBasicGraph, obtained with
+     * ConcurrentBasicGraph.snapshot(). It never changes, and can be read and traversed from any
+     * number of threads without locking while writers go on modifying the graph.
+     * Every version holds its vertices in a PersistentVector indexed by vertex id, and every
+     * vertex holds SharedRows of neighbor ids. A write copies only the vertices it changes and
+     * their paths in the vector, and shares everything else with the previous version, so taking
+     * a snapshot costs nothing and a write costs O(log |V|) beyond the row update.
+     * Ids are those of the ConcurrentBasicGraph: the ids of removed vertices are holes, so the
+     * id-indexed arrays of traversal results may be longer than vertexCount(). freeze() returns
+     * a compacted CsrGraph for the whole-graph algorithms.
+     */
+
+    /**
+     * Node is one vertex of one version: its label and its rows.
+     */
+    record Node<LabelType>(LabelType label, SharedRow outgoing, SharedRow incoming) {
+    }
+
+    // Map 'index' maps every label the graph ever contained to its id; shared by all versions.
+    private final Map<LabelType, Integer> index;
+    // 'nodes.get(id)' is the vertex with id 'id' in this version, or null.
+    private final PersistentVector<Node<LabelType>> nodes;
+    // Every id in this version is below 'limit'.
+    private final int limit;
+    private final int vertices;
+    private final int edges;
+
+    GraphSnapshot(Map<LabelType, Integer> index, PersistentVector<Node<LabelType>> nodes,
+            int limit, int vertices, int edges) {
+        this.index = index;
+        this.nodes = nodes;
+        this.limit = limit;
+        this.vertices = vertices;
+        this.edges = edges;
+    }
+
+    /**
+     * Returns the version that equals this one except that vertex 'id' is 'node', with
+     * 'vertexDelta' more vertices and 'edgeDelta' more edges.
+     */
+    GraphSnapshot<LabelType> with(int id, Node<LabelType> node, int vertexDelta, int edgeDelta) {
+        return new GraphSnapshot<>(index, nodes.set(id, node), Math.max(limit, id + 1),
+                vertices + vertexDelta, edges + edgeDelta);
+    }
+
+    /**
+     * Returns the vertex with id 'id' in this version, or null.
+     */
+    Node<LabelType> node(int id) {
+        return nodes.get(id);
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertices;
+    }
+
+    public int edgeCount() {
+        return edges;
+    }
+
+    /**
+     * Returns the id of vertex 'label' in this version, or -1 if it does not exist in it.
+     */
+    int idOf(Object label) {
+        Integer id = index.get(label);
+        return id == null || id >= limit || nodes.get(id) == null ? -1 : id;
+    }
+
+    public boolean containsVertex(LabelType label) {
+        return idOf(label) >= 0;
+    }
+
+    /**
+     * Returns a read-only view of the vertex with label 'label' if it exists in this version,
+     * else returns null.
+     */
+    public Vertex<LabelType> getVertex(LabelType label) {
+        int id = idOf(label);
+        return id < 0 ? null : new SnapshotVertex(nodes.get(id));
+    }
+
+    /**
+     * Returns the vertices reachable from 'start' in depth first order 'order'.
+     */
+    public List<LabelType> dfsTraversal(LabelType start, DfsOrder order) {
+        return labelsOf(DepthFirstSearch.from(adjacency(), id(start), order));
+    }
+
+    /**
+     * Returns the order in which vertices reachable from 'start' are visited by breadth first
+     * search.
+     */
+    public List<LabelType> bfsTraversal(LabelType start) {
+        return labelsOf(BreadthFirstSearch.order(adjacency(), id(start)));
+    }
+
+    /**
+     * Returns the shortest path tree from 'start' to every vertex reachable from it.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start) {
+        return shortestPath(id(start), ShortestPathResult.NONE);
+    }
+
+    /**
+     * Returns the shortest path from 'start' to 'target', stopping as soon as 'target' is settled.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start, LabelType target) {
+        return shortestPath(id(start), id(target));
+    }
+
+    private ShortestPathResult<LabelType> shortestPath(int source, int target) {
+        int[] distances = new int[limit];
+        int[] predecessors = new int[limit];
+        ShortestPaths.dijkstra(adjacency(), source, target, distances, predecessors,
+                new IntIndexedDaryHeap(limit));
+        return new ShortestPathResult<>(source, distances, predecessors, new IdMap(),
+                id -> nodes.get(id).label());
+    }
+
+    /**
+     * Returns an immutable CsrGraph with the vertices and edges of this version, with the ids
+     * compacted so that they are 0..vertexCount() in id order.
+     * O(|V| + |E|) algorithm.
+     */
+    public CsrGraph<LabelType> freeze() {
+        // 'dense[id]' is the CsrGraph id of vertex 'id'.
+        int[] dense = new int[limit];
+        List<Node<LabelType>> live = new ArrayList<>(vertices);
+        for (int id = 0; id < limit; id++) {
+            Node<LabelType> node = nodes.get(id);
+            if (node != null) {
+                dense[id] = live.size();
+                live.add(node);
+            }
+        }
+        int n = live.size();
+        List<LabelType> labels = new ArrayList<>(n);
+        Map<LabelType, Integer> ids = HashMap.newHashMap(n);
+        int[] outOffsets = new int[n + 1];
+        int[] inOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            labels.add(live.get(v).label());
+            ids.put(live.get(v).label(), v);
+            outOffsets[v + 1] = outOffsets[v] + live.get(v).outgoing().size();
+            inOffsets[v + 1] = inOffsets[v] + live.get(v).incoming().size();
+        }
+        int[] outTargets = new int[outOffsets[n]];
+        int[] outWeights = new int[outOffsets[n]];
+        int[] inTargets = new int[inOffsets[n]];
+        int[] inWeights = new int[inOffsets[n]];
+        for (int v = 0; v < n; v++) {
+            SharedRow out = live.get(v).outgoing();
+            for (int i = 0; i < out.size(); i++) {
+                outTargets[outOffsets[v] + i] = dense[out.id(i)];
+                outWeights[outOffsets[v] + i] = out.weight(i);
+            }
+            SharedRow in = live.get(v).incoming();
+            for (int i = 0; i < in.size(); i++) {
+                inTargets[inOffsets[v] + i] = dense[in.id(i)];
+                inWeights[inOffsets[v] + i] = in.weight(i);
+            }
+        }
+        return new CsrGraph<>(labels, ids, outOffsets, outTargets, outWeights, inOffsets,
+                inTargets, inWeights);
+    }
+
+    // Returns the id of vertex 'label'. Requires that it exists in this version.
+    private int id(LabelType label) {
+        int id = idOf(label);
+        assert id >= 0;
+        return id;
+    }
+
+    // Returns the labels of the vertices with ids 'ids', in the same order.
+    private List<LabelType> labelsOf(int[] ids) {
+        List<LabelType> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(nodes.get(id).label());
+        }
+        return result;
+    }
+
+    /**
+     * Returns a view of this version by vertex id for the id-based algorithms, in which the holes
+     * left by removed vertices are vertices without edges. The view remembers the last vertex it
+     * looked up, since the algorithms ask for one vertex's edges several times in a row, so it
+     * must only be used by one thread.
+     */
+    private IntGraph adjacency() {
+        return new IntGraph() {
+            private int lastId = -1;
+            private Node<LabelType> last;
+
+            private Node<LabelType> node(int id) {
+                if (id != lastId) {
+                    lastId = id;
+                    last = nodes.get(id);
+                }
+                return last;
+            }
+
+            @Override
+            public int vertexCount() {
+                return limit;
+            }
+
+            @Override
+            public int outDegree(int v) {
+                Node<LabelType> node = node(v);
+                return node == null ? 0 : node.outgoing().size();
+            }
+
+            @Override
+            public int outTarget(int v, int i) {
+                return node(v).outgoing().id(i);
+            }
+
+            @Override
+            public int outWeight(int v, int i) {
+                return node(v).outgoing().weight(i);
+            }
+
+            @Override
+            public int inDegree(int v) {
+                Node<LabelType> node = node(v);
+                return node == null ? 0 : node.incoming().size();
+            }
+
+            @Override
+            public int inTarget(int v, int i) {
+                return node(v).incoming().id(i);
+            }
+
+            @Override
+            public int inWeight(int v, int i) {
+                return node(v).incoming().weight(i);
+            }
+        };
+    }
+
+    /**
+     * Unmodifiable Map from the labels of this version to their ids, for traversal results.
+     */
+    private class IdMap extends AbstractMap<LabelType, Integer> {
+        @Override
+        public int size() {
+            return vertices;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return idOf(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int id = idOf(key);
+            return id < 0 ? null : id;
+        }
+
+        @Override
+        public Set<Entry<LabelType, Integer>> entrySet() {
+            List<Entry<LabelType, Integer>> entries = new ArrayList<>(vertices);
+            for (int id = 0; id < limit; id++) {
+                Node<LabelType> node = nodes.get(id);
+                if (node != null) {
+                    entries.add(new SimpleImmutableEntry<>(node.label(), id));
+                }
+            }
+            return Set.copyOf(entries);
+        }
+    }
+
+    /**
+     * Read-only Vertex over one Node of this version.
+     */
+    private class SnapshotVertex implements Vertex<LabelType> {
+        private final Node<LabelType> node;
+
+        SnapshotVertex(Node<LabelType> node) {
+            this.node = node;
+        }
+
+        @Override
+        public LabelType label() {
+            return node.label();
+        }
+
+        @Override
+        public int edgeCount() {
+            return node.outgoing().size() + node.incoming().size();
+        }
+
+        @Override
+        public Map<LabelType, Integer> outgoingEdges() {
+            return new RowMap(node.outgoing());
+        }
+
+        @Override
+        public Map<LabelType, Integer> incomingEdges() {
+            return new RowMap(node.incoming());
+        }
+    }
+
+    /**
+     * Unmodifiable Map from neighbor label to weight over one SharedRow of this version.
+     */
+    private class RowMap extends AbstractMap<LabelType, Integer> {
+        private final SharedRow row;
+
+        RowMap(SharedRow row) {
+            this.row = row;
+        }
+
+        // Returns the position of neighbor 'key' in the row, or -1 if it is not a neighbor.
+        private int find(Object key) {
+            int id = idOf(key);
+            return id < 0 ? -1 : row.find(id);
+        }
+
+        @Override
+        public int size() {
+            return row.size();
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return find(key) >= 0;
+        }
+
+        @Override
+        public Integer get(Object key) {
+            int i = find(key);
+            return i < 0 ? null : row.weight(i);
+        }
+
+        @Override
+        public Set<Entry<LabelType, Integer>> entrySet() {
+            return new AbstractSet<>() {
+                @Override
+                public int size() {
+                    return row.size();
+                }
+
+                @Override
+                public Iterator<Entry<LabelType, Integer>> iterator() {
+                    return new Iterator<>() {
+                        private int i = 0;
+
+                        @Override
+                        public boolean hasNext() {
+                            return i < row.size();
+                        }
+
+                        @Override
+                        public Entry<LabelType, Integer> next() {
+                            if (!hasNext()) {
+                                throw new NoSuchElementException();
+                            }
+                            Entry<LabelType, Integer> entry = new SimpleImmutableEntry<>(
+                                    nodes.get(row.id(i)).label(), row.weight(i));
+                            i++;
+                            return entry;
+                        }
+                    };
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,304 @@
+package graph;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Preprocessing of a ContractionHierarchy: contracts the vertices of an IntGraph one at a time,
+ * least important first.  Contracting `v` removes it from the remaining graph and, for every pair
+ * of remaining edges `u -> v -> x`, adds the shortcut `u -> x` with the weight of both and middle
+ * vertex `v`, unless a witness search finds a path from `u` to `x` avoiding `v` that is no longer.
+ * Distances between the remaining vertices are thus preserved at every step.
+ * The importance of a vertex is twice its edge difference (shortcuts its contraction would add
+ * minus remaining edges it would remove), plus the number of its neighbors already contracted and
+ * its level, which spread contraction evenly over the graph and keep the hierarchy shallow.
+ * Initial importances are computed in parallel; the contraction itself runs in order of
+ * importance, recomputing the importance of a vertex when it comes first and putting it back if
+ * it is no longer the least (lazy updates).  Contracting a vertex only adds its contribution to
+ * the deleted neighbors and level terms of its neighbors until they are recomputed.
+ * A witness search stops once it settles every target, passes the length of the longest path
+ * through `v`, or settles SETTLE_LIMIT vertices (ESTIMATE_LIMIT when only estimating importance);
+ * a missed witness only adds an unnecessary shortcut.  Requires non-negative edge weights.
+ */
+final class HierarchyBuilder {
+
+    /**
+     * Most vertices a witness search settles.
+     */
+    static final int SETTLE_LIMIT = 250;
+
+    /**
+     * Most vertices a witness search settles when only estimating importance.
+     */
+    static final int ESTIMATE_LIMIT = 50;
+
+    private final int n;
+    // Edge 'e' is 'from[e] -> to[e]' with weight 'weight[e]', and is a shortcut through vertex
+    // 'middle[e]' or an original edge with middle NONE. There is at most one edge per pair.
+    private final IntList from = new IntList();
+    private final IntList to = new IntList();
+    private final IntList weight = new IntList();
+    private final IntList middle = new IntList();
+    // 'out[v]' and 'in[v]' hold the ids of the edges leaving and entering 'v' in the remaining
+    // graph; contracting a vertex detaches its edges from its neighbors.
+    private final IntList[] out;
+    private final IntList[] in;
+    // 'deleted[v]' is the number of neighbors of 'v' contracted so far, and 'level[v]' is one more
+    // than the highest level among them, an upper bound on the hops below 'v' in the hierarchy.
+    private final int[] deleted;
+    private final int[] level;
+    private final int[] rank;
+
+    HierarchyBuilder(IntGraph graph) {
+        n = graph.vertexCount();
+        out = new IntList[n];
+        in = new IntList[n];
+        for (int v = 0; v < n; v++) {
+            out[v] = new IntList(graph.outDegree(v));
+            in[v] = new IntList(graph.inDegree(v));
+        }
+        // Self-loops never shorten a path; parallel edges keep the lightest.
+        for (int v = 0; v < n; v++) {
+            for (int i = 0; i < graph.outDegree(v); i++) {
+                assert graph.outWeight(v, i) >= 0;
+                if (graph.outTarget(v, i) != v) {
+                    addShortcut(v, graph.outTarget(v, i), graph.outWeight(v, i),
+                            ShortestPathResult.NONE);
+                }
+            }
+        }
+        deleted = new int[n];
+        level = new int[n];
+        rank = new int[n];
+    }
+
+    int edgeCount() {
+        return from.size();
+    }
+
+    int from(int e) {
+        return from.get(e);
+    }
+
+    int to(int e) {
+        return to.get(e);
+    }
+
+    int weight(int e) {
+        return weight.get(e);
+    }
+
+    int middle(int e) {
+        return middle.get(e);
+    }
+
+    /**
+     * Returns the position of every vertex in the contraction order, after contract().
+     */
+    int[] rank() {
+        return rank;
+    }
+
+    /**
+     * Contracts every vertex, computing the initial importances on 'pool'.
+     */
+    void contract(ForkJoinPool pool) {
+        int[] importance = new int[n];
+        // At most one witness per thread at a time; each holds O(|V|) scratch arrays.
+        ConcurrentLinkedQueue<Witness> idle = new ConcurrentLinkedQueue<>();
+        ParallelRange.forEach(pool, 0, n, (chunk, first, last) -> {
+            Witness witness = idle.poll();
+            if (witness == null) {
+                witness = new Witness(n);
+            }
+            for (int v = first; v < last; v++) {
+                importance[v] = importance(v, witness);
+            }
+            idle.add(witness);
+        });
+        Witness witness = idle.isEmpty() ? new Witness(n) : idle.poll();
+        idle.clear();
+
+        IntIndexedDaryHeap queue = new IntIndexedDaryHeap(n);
+        for (int v = 0; v < n; v++) {
+            queue.addOrUpdate(v, importance[v]);
+        }
+        for (int next = 0; !queue.isEmpty(); ) {
+            int v = queue.removeMin();
+            int current = importance(v, witness);
+            if (!queue.isEmpty() && current > queue.minPriority()) {
+                queue.addOrUpdate(v, current);
+                continue;
+            }
+            rank[v] = next++;
+            shortcuts(v, witness, true);
+            for (int i = 0; i < in[v].size(); i++) {
+                int e = in[v].get(i);
+                detach(out[from.get(e)], e);
+                raise(queue, from.get(e), v);
+            }
+            for (int i = 0; i < out[v].size(); i++) {
+                int e = out[v].get(i);
+                detach(in[to.get(e)], e);
+                raise(queue, to.get(e), v);
+            }
+        }
+    }
+
+    // Accounts for the contraction of 'v', a neighbor of 'w', in the importance of 'w'; a neighbor
+    // in both directions counts twice.
+    private void raise(IntIndexedDaryHeap queue, int w, int v) {
+        int raised = Math.max(level[w], level[v] + 1);
+        queue.addOrUpdate(w, queue.priority(w) + 1 + raised - level[w]);
+        deleted[w]++;
+        level[w] = raised;
+    }
+
+    // Removes edge 'e' from 'edges', which contains it.
+    private static void detach(IntList edges, int e) {
+        int i = 0;
+        while (edges.get(i) != e) {
+            i++;
+        }
+        edges.set(i, edges.get(edges.size() - 1));
+        edges.removeLast();
+    }
+
+    private int importance(int v, Witness witness) {
+        int difference = shortcuts(v, witness, false) - out[v].size() - in[v].size();
+        return 2 * difference + deleted[v] + level[v];
+    }
+
+    /**
+     * Returns the number of shortcuts contracting 'v' needs, and adds them if 'add'.
+     */
+    private int shortcuts(int v, Witness witness, boolean add) {
+        int count = 0;
+        IntList incoming = in[v];
+        IntList outgoing = out[v];
+        for (int i = 0; i < incoming.size(); i++) {
+            int e = incoming.get(i);
+            int u = from.get(e);
+            int farthest = -1;
+            for (int j = 0; j < outgoing.size(); j++) {
+                if (to.get(outgoing.get(j)) != u) {
+                    farthest = Math.max(farthest, weight.get(outgoing.get(j)));
+                }
+            }
+            if (farthest < 0) {
+                continue;
+            }
+            witness.search(u, v, (long) weight.get(e) + farthest,
+                    add ? SETTLE_LIMIT : ESTIMATE_LIMIT, outgoing);
+            for (int j = 0; j < outgoing.size(); j++) {
+                int f = outgoing.get(j);
+                int x = to.get(f);
+                if (x == u) {
+                    continue;
+                }
+                long via = (long) weight.get(e) + weight.get(f);
+                if (witness.distance(x) > via) {
+                    count++;
+                    if (add) {
+                        addShortcut(u, x, (int) via, v);
+                    }
+                }
+            }
+        }
+        return count;
+    }
+
+    // Adds 'u' -> 'x' through 'through', or lowers the weight of the existing edge between them.
+    // Original edges have 'through' NONE.
+    private void addShortcut(int u, int x, int length, int through) {
+        for (int i = 0; i < out[u].size(); i++) {
+            int e = out[u].get(i);
+            if (to.get(e) == x) {
+                if (length < weight.get(e)) {
+                    weight.set(e, length);
+                    middle.set(e, through);
+                }
+                return;
+            }
+        }
+        int e = from.size();
+        from.add(u);
+        to.add(x);
+        weight.add(length);
+        middle.add(through);
+        out[u].add(e);
+        in[x].add(e);
+    }
+
+    /**
+     * Scratch space for bounded Dijkstra searches in the remaining graph. Distances are valid
+     * only for vertices stamped with the current search, so a search costs only the vertices it
+     * touches.
+     */
+    private final class Witness {
+        private final int[] distances;
+        private final int[] stamps;
+        // A vertex is a target of the current search iff its goal is the stamp.
+        private final int[] goals;
+        private int stamp;
+        private final IntIndexedDaryHeap frontier;
+
+        Witness(int n) {
+            distances = new int[n];
+            stamps = new int[n];
+            goals = new int[n];
+            frontier = new IntIndexedDaryHeap(n);
+        }
+
+        /**
+         * Computes distances from 'source' in the remaining graph without 'skip', until it
+         * settles the heads of all edges in 'targets', passes 'bound', or settles 'limit'
+         * vertices.
+         */
+        void search(int source, int skip, long bound, int limit, IntList targets) {
+            stamp++;
+            int remaining = 0;
+            for (int i = 0; i < targets.size(); i++) {
+                int x = to.get(targets.get(i));
+                if (x != source && goals[x] != stamp) {
+                    goals[x] = stamp;
+                    remaining++;
+                }
+            }
+            distances[source] = 0;
+            stamps[source] = stamp;
+            frontier.addOrUpdate(source, 0);
+            for (int settled = 0; !frontier.isEmpty() && settled < limit; settled++) {
+                if (frontier.minPriority() > bound) {
+                    break;
+                }
+                int vertex = frontier.removeMin();
+                if (goals[vertex] == stamp && --remaining == 0) {
+                    break;
+                }
+                IntList edges = out[vertex];
+                for (int i = 0; i < edges.size(); i++) {
+                    int e = edges.get(i);
+                    int neighbor = to.get(e);
+                    if (neighbor == skip) {
+                        continue;
+                    }
+                    long distance = (long) distances[vertex] + weight.get(e);
+                    if (distance <= bound && distance < distance(neighbor)) {
+                        distances[neighbor] = (int) distance;
+                        stamps[neighbor] = stamp;
+                        frontier.addOrUpdate(neighbor, (int) distance);
+                    }
+                }
+            }
+            frontier.clear();
+        }
+
+        /**
+         * Returns the distance the last search found to 'vertex', or UNREACHABLE.
+         */
+        long distance(int vertex) {
+            return stamps[vertex] == stamp ? distances[vertex] : ShortestPathResult.UNREACHABLE;
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * One direction of one vertex's adjacency, stored as parallel growable arrays of neighbor ids and
+ * edge weights. Neighbors keep their insertion order. Rows with more than `INDEX_THRESHOLD`
+ * neighbors additionally keep an open-addressing table from neighbor id to position, so lookups
+ * in high-degree rows stay O(1); small rows are scanned linearly, which is faster for them.
+ */
+final class IntAdjacency {
+
+    private static final int INDEX_THRESHOLD = 8;
+
+    private static final int[] EMPTY = new int[0];
+
+    /**
+     * Neighbor ids in insertion order.  Only `ids[0..size)` are meaningful.
+     */
+    private int[] ids;
+
+    /**
+     * `weights[i]` is the weight of the edge to `ids[i]`.
+     */
+    private int[] weights;
+
+    private int size;
+
+    /**
+     * Open-addressing table with linear probing.  A slot holds `position + 1` of a neighbor in
+     * `ids`, or 0 if empty.  Null while the row is small, or after a removal shifted positions; it
+     * is rebuilt on the next lookup.
+     */
+    private int[] slots;
+
+    IntAdjacency() {
+        ids = EMPTY;
+        weights = EMPTY;
+    }
+
+    /**
+     * Create an empty row with room for `capacity` neighbors.
+     */
+    IntAdjacency(int capacity) {
+        ids = capacity == 0 ? EMPTY : new int[capacity];
+        weights = capacity == 0 ? EMPTY : new int[capacity];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return the id of the neighbor at position `i`.  Requires `0 <= i < size()`.
+     */
+    int id(int i) {
+        assert i >= 0 && i < size;
+        return ids[i];
+    }
+
+    /**
+     * Return the weight of the edge at position `i`.  Requires `0 <= i < size()`.
+     */
+    int weight(int i) {
+        assert i >= 0 && i < size;
+        return weights[i];
+    }
+
+    /**
+     * Set the weight of the edge at position `i`.  Requires `0 <= i < size()`.
+     */
+    void setWeight(int i, int weight) {
+        assert i >= 0 && i < size;
+        weights[i] = weight;
+    }
+
+    /**
+     * Return the position of neighbor `id` in this row, or -1 if it is not a neighbor.
+     */
+    int indexOf(int id) {
+        if (size <= INDEX_THRESHOLD) {
+            for (int i = 0; i < size; i++) {
+                if (ids[i] == id) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (slots == null) {
+            rebuildSlots();
+        }
+        int mask = slots.length - 1;
+        for (int s = mix(id) & mask; slots[s] != 0; s = (s + 1) & mask) {
+            if (ids[slots[s] - 1] == id) {
+                return slots[s] - 1;
+            }
+        }
+        return -1;
+    }
+
+    boolean contains(int id) {
+        return indexOf(id) >= 0;
+    }
+
+    /**
+     * Append neighbor `id` with edge weight `weight` if it is not already a neighbor.  Returns
+     * whether it was added.
+     */
+    boolean add(int id, int weight) {
+        if (indexOf(id) >= 0) {
+            return false;
+        }
+        if (size == ids.length) {
+            int capacity = Math.max(4, size + (size >> 1));
+            ids = Arrays.copyOf(ids, capacity);
+            weights = Arrays.copyOf(weights, capacity);
+        }
+        ids[size] = id;
+        weights[size] = weight;
+        size++;
+        if (slots != null) {
+            if (2 * size > slots.length) {
+                rebuildSlots();
+            } else {
+                insertSlot(size - 1);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Append neighbor `id` with edge weight `weight` without looking for it first.  Requires that
+     * `id` is not already a neighbor and that the row has room for it, as when it was created
+     * with the exact number of neighbors it will hold.
+     */
+    void append(int id, int weight) {
+        assert size < ids.length;
+        ids[size] = id;
+        weights[size] = weight;
+        size++;
+        slots = null;
+    }
+
+    /**
+     * Remove neighbor `id`, shifting later neighbors down to keep insertion order.  Returns
+     * whether it was a neighbor.
+     */
+    boolean remove(int id) {
+        int i = indexOf(id);
+        if (i < 0) {
+            return false;
+        }
+        System.arraycopy(ids, i + 1, ids, i, size - i - 1);
+        System.arraycopy(weights, i + 1, weights, i, size - i - 1);
+        size--;
+        slots = null;
+        return true;
+    }
+
+    /**
+     * Rename neighbor `oldId` to `newId`, keeping its position and weight.  Requires that `oldId`
+     * is a neighbor and `newId` is not.
+     */
+    void replace(int oldId, int newId) {
+        int i = indexOf(oldId);
+        assert i >= 0 && indexOf(newId) < 0;
+        ids[i] = newId;
+        slots = null;
+    }
+
+    /**
+     * Copy the neighbor ids into `dest` starting at `destPos`.
+     */
+    void copyIds(int[] dest, int destPos) {
+        System.arraycopy(ids, 0, dest, destPos, size);
+    }
+
+    /**
+     * Copy the edge weights into `dest` starting at `destPos`.
+     */
+    void copyWeights(int[] dest, int destPos) {
+        System.arraycopy(weights, 0, dest, destPos, size);
+    }
+
+    private void rebuildSlots() {
+        // Keep the load factor at most 1/2.
+        slots = new int[Integer.highestOneBit(Math.max(2 * size, INDEX_THRESHOLD)) << 1];
+        for (int i = 0; i < size; i++) {
+            insertSlot(i);
+        }
+    }
+
+    private void insertSlot(int i) {
+        int mask = slots.length - 1;
+        int s = mix(ids[i]) & mask;
+        while (slots[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        slots[s] = i + 1;
+    }
+
+    /**
+     * Spread dense ids over the table; consecutive ids would otherwise form long probe runs.
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,38 @@
+package graph;
+
+/**
+ * Read access to the edges of a graph whose vertices are numbered by dense ids `0..vertexCount()`.
+ * Both BasicGraph (through `BasicGraph.adjacency()`) and CsrGraph provide it, so algorithms that
+ * work on ids are written once.  Edges of a vertex are numbered `0..outDegree(v)` and
+ * `0..inDegree(v)` in insertion order.
+ */
+interface IntGraph {
+    /**
+     * Return the number of vertices; valid ids are `0..vertexCount()`.
+     */
+    int vertexCount();
+
+    int outDegree(int v);
+
+    /**
+     * Return the id of the head of the `i`th outgoing edge of `v`.
+     */
+    int outTarget(int v, int i);
+
+    /**
+     * Return the weight of the `i`th outgoing edge of `v`.
+     */
+    int outWeight(int v, int i);
+
+    int inDegree(int v);
+
+    /**
+     * Return the id of the tail of the `i`th incoming edge of `v`.
+     */
+    int inTarget(int v, int i);
+
+    /**
+     * Return the weight of the `i`th incoming edge of `v`.
+     */
+    int inWeight(int v, int i);
+}
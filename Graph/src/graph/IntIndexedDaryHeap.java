@@ -0,0 +1,265 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+/**
+ * A min priority queue of distinct non-negative int keys (typically dense vertex ids) associated
+ * with integer priorities, implemented as a d-ary heap over parallel primitive arrays.  Unlike
+ * MinQueue, no entry objects are allocated and positions are found by array indexing instead of
+ * hashing.  A larger arity `d` makes the heap shallower, so decrease-key (the common operation in
+ * Dijkstra's algorithm) swaps fewer times, at the price of more comparisons per removal.
+ */
+public class IntIndexedDaryHeap implements PriorityQueue<Integer>, IntPriorityQueue {
+
+    /**
+     * Position of a key that is not in the queue.
+     */
+    private static final int ABSENT = -1;
+
+    /**
+     * Number of children of every heap node.
+     */
+    private final int d;
+
+    /**
+     * Heap-ordered keys: `keys[i]` is the key at heap position `i`.  Satisfies
+     * `priorities[i] >= priorities[(i-1)/d]` for all `i` in `[1..size)`.
+     */
+    private int[] keys;
+
+    /**
+     * `priorities[i]` is the priority of `keys[i]`.  Kept next to the keys rather than indexed by
+     * key, so sifting only touches the heap arrays.
+     */
+    private int[] priorities;
+
+    /**
+     * `positions[k]` is the heap position of key `k`, or ABSENT.  Satisfies
+     * `keys[positions[k]] == k` for every key `k` in the queue.
+     */
+    private int[] positions;
+
+    private int size;
+
+    /**
+     * Create an empty 4-ary queue with room for keys `0..capacity` without growing.
+     */
+    public IntIndexedDaryHeap(int capacity) {
+        this(capacity, 4);
+    }
+
+    /**
+     * Create an empty `d`-ary queue with room for keys `0..capacity` without growing.  Requires
+     * `d >= 2`.
+     */
+    public IntIndexedDaryHeap(int capacity, int d) {
+        assert d >= 2 && capacity >= 0;
+        this.d = d;
+        keys = new int[capacity];
+        priorities = new int[capacity];
+        positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+        assert checkInvariant();
+    }
+
+    /**
+     * Assert that our class invariant is satisfied.  Returns true if it is (or if assertions are
+     * disabled).
+     */
+    private boolean checkInvariant() {
+        for (int i = 1; i < size; ++i) {
+            assert priorities[i] >= priorities[(i - 1) / d];
+        }
+        for (int i = 0; i < size; ++i) {
+            assert positions[keys[i]] == i;
+        }
+        return true;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public Integer get() {
+        return getMin();
+    }
+
+    /**
+     * Return a key associated with the smallest priority in this queue, without boxing.  Throws
+     * NoSuchElementException if this queue is empty.
+     */
+    public int getMin() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return keys[0];
+    }
+
+    @Override
+    public int minPriority() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        return priorities[0];
+    }
+
+    @Override
+    public void addOrUpdate(Integer key, int priority) {
+        addOrUpdate(key.intValue(), priority);
+    }
+
+    /**
+     * If `key` is already contained in this queue, change its associated priority to `priority`.
+     * Otherwise, add it to this queue with that priority.  Requires `key >= 0`.
+     */
+    @Override
+    public void addOrUpdate(int key, int priority) {
+        assert key >= 0;
+        if (key >= positions.length) {
+            grow(key + 1);
+        }
+        int i = positions[key];
+        if (i == ABSENT) {
+            if (size == keys.length) {
+                keys = Arrays.copyOf(keys, Math.max(4, size + (size >> 1)));
+                priorities = Arrays.copyOf(priorities, keys.length);
+            }
+            i = size++;
+            keys[i] = key;
+            positions[key] = i;
+            siftUp(i, priority);
+        } else if (priority < priorities[i]) {
+            siftUp(i, priority);
+        } else {
+            siftDown(i, priority);
+        }
+        assert checkInvariant();
+    }
+
+    @Override
+    public Integer remove() {
+        return removeMin();
+    }
+
+    /**
+     * Remove and return a key associated with the smallest priority in this queue, without
+     * boxing.  Throws NoSuchElementException if this queue is empty.
+     */
+    @Override
+    public int removeMin() {
+        if (size == 0) {
+            throw new NoSuchElementException();
+        }
+        int root = keys[0];
+        positions[root] = ABSENT;
+        size--;
+        if (size > 0) {
+            // Move the last entry to the root and let it sink to its place.
+            keys[0] = keys[size];
+            positions[keys[0]] = 0;
+            siftDown(0, priorities[size]);
+        }
+        assert checkInvariant();
+        return root;
+    }
+
+    @Override
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            positions[keys[i]] = ABSENT;
+        }
+        size = 0;
+        assert checkInvariant();
+    }
+
+    @Override
+    public boolean contains(Integer key) {
+        return contains(key.intValue());
+    }
+
+    public boolean contains(int key) {
+        return key >= 0 && key < positions.length && positions[key] != ABSENT;
+    }
+
+    /**
+     * Return the priority of `key`.  Requires that `key` is contained in this queue.
+     */
+    public int priority(int key) {
+        assert contains(key);
+        return priorities[positions[key]];
+    }
+
+    /**
+     * Move the entry at position `i` up until its parent's priority is not greater than
+     * `priority`, and store it there with priority `priority`.  Shifts parents down instead of
+     * swapping, so every level costs one write per array.
+     */
+    private void siftUp(int i, int priority) {
+        int key = keys[i];
+        while (i > 0) {
+            int parent = (i - 1) / d;
+            if (priorities[parent] <= priority) {
+                break;
+            }
+            move(parent, i);
+            i = parent;
+        }
+        place(key, priority, i);
+    }
+
+    /**
+     * Move the entry at position `i` down until no child has a smaller priority than `priority`,
+     * and store it there with priority `priority`.
+     */
+    private void siftDown(int i, int priority) {
+        int key = keys[i];
+        while (true) {
+            int first = d * i + 1;
+            if (first >= size) {
+                break;
+            }
+            // Find the child with the smallest priority.
+            int last = Math.min(first + d, size);
+            int min = first;
+            for (int c = first + 1; c < last; c++) {
+                if (priorities[c] < priorities[min]) {
+                    min = c;
+                }
+            }
+            if (priorities[min] >= priority) {
+                break;
+            }
+            move(min, i);
+            i = min;
+        }
+        place(key, priority, i);
+    }
+
+    // Copy the entry at position 'from' to position 'to'.
+    private void move(int from, int to) {
+        keys[to] = keys[from];
+        priorities[to] = priorities[from];
+        positions[keys[to]] = to;
+    }
+
+    private void place(int key, int priority, int i) {
+        keys[i] = key;
+        priorities[i] = priority;
+        positions[key] = i;
+    }
+
+    // Grow 'positions' so that keys below 'minLength' can be stored.
+    private void grow(int minLength) {
+        int old = positions.length;
+        positions = Arrays.copyOf(positions, Math.max(minLength, old + (old >> 1)));
+        Arrays.fill(positions, old, positions.length, ABSENT);
+    }
+}
@@ -0,0 +1,89 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+class IntIndexedDaryHeapTest {
+    @DisplayName("WHEN a new heap is created, THEN its size will be 0 AND it will be empty")
+    @Test
+    void testNew() {
+        IntIndexedDaryHeap q = new IntIndexedDaryHeap(10);
+
+        assertEquals(0, q.size());
+        assertTrue(q.isEmpty());
+        assertFalse(q.contains(3));
+        assertThrows(NoSuchElementException.class, () -> q.getMin());
+        assertThrows(NoSuchElementException.class, () -> q.minPriority());
+        assertThrows(NoSuchElementException.class, () -> q.removeMin());
+    }
+
+    @DisplayName("GIVEN a heap, WHEN keys beyond its capacity are added, THEN it grows")
+    @Test
+    void testGrow() {
+        IntIndexedDaryHeap q = new IntIndexedDaryHeap(0, 3);
+        for (int i = 100; i >= 0; i--) {
+            q.addOrUpdate(i, 100 - i);
+        }
+        assertEquals(101, q.size());
+        assertEquals(100, q.getMin());
+        assertEquals(0, q.minPriority());
+        assertEquals(50, q.priority(50));
+    }
+
+    @DisplayName("GIVEN heaps of different arities, WHEN random updates and removals are applied, "
+            + "THEN they remove the same priorities in the same order as a MinQueue")
+    @Test
+    void testMatchesMinQueue() {
+        for (int d = 2; d <= 8; d++) {
+            IntIndexedDaryHeap q = new IntIndexedDaryHeap(50, d);
+            PriorityQueue<Integer> expected = new MinQueue<>();
+            Random rng = new Random(d);
+            for (int i = 0; i < 2000; i++) {
+                int key = rng.nextInt(50);
+                if (rng.nextInt(4) == 0 && !expected.isEmpty()) {
+                    assertEquals(expected.minPriority(), q.minPriority());
+                    int removed = q.removeMin();
+                    assertFalse(q.contains(removed));
+                    // Ties may be broken differently, so remove the same key from both.
+                    expected.addOrUpdate(removed, Integer.MIN_VALUE);
+                    assertEquals(removed, expected.remove());
+                } else {
+                    int priority = rng.nextInt(100) - 50;
+                    q.addOrUpdate(key, priority);
+                    expected.addOrUpdate(key, priority);
+                    assertEquals(priority, q.priority(key));
+                }
+                assertEquals(expected.size(), q.size());
+            }
+            q.clear();
+            assertTrue(q.isEmpty());
+            assertFalse(q.contains(0));
+        }
+    }
+
+    @DisplayName("WHEN the heap is used as the frontier of shortestPath, THEN the distances do "
+            + "not depend on the queue implementation")
+    @Test
+    void testShortestPathFrontier() {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        Random rng = new Random(7);
+        for (int i = 0; i < 200; i++) {
+            g.addVertex(new BasicVertex<>(i));
+        }
+        for (int i = 0; i < 1000; i++) {
+            int u = rng.nextInt(200);
+            int v = rng.nextInt(200);
+            if (u != v) {
+                g.addEdge(u, new BasicEdge<>(v, rng.nextInt(20)));
+            }
+        }
+        int[] expected = g.shortestPath(0, null, new MinQueue<>()).distances();
+        assertArrayEquals(expected, g.shortestPath(0).distances());
+        assertArrayEquals(expected,
+                g.shortestPath(0, null, new IntIndexedDaryHeap(200, 2)).distances());
+    }
+}
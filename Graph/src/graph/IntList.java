@@ -0,0 +1,83 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * A growable list of primitive ints, used as a work list or output buffer by the id-based
+ * algorithms so that they do not box vertex ids.
+ */
+final class IntList {
+
+    private int[] values;
+    private int size;
+
+    IntList() {
+        this(8);
+    }
+
+    IntList(int capacity) {
+        values = new int[Math.max(capacity, 1)];
+    }
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Return the value at position `i`.  Requires `0 <= i < size()`.
+     */
+    int get(int i) {
+        assert i >= 0 && i < size;
+        return values[i];
+    }
+
+    /**
+     * Replace the value at position `i`.  Requires `0 <= i < size()`.
+     */
+    void set(int i, int value) {
+        assert i >= 0 && i < size;
+        values[i] = value;
+    }
+
+    void add(int value) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size + (size >> 1) + 1);
+        }
+        values[size++] = value;
+    }
+
+    /**
+     * Remove and return the last value.  Requires that this list is not empty.
+     */
+    int removeLast() {
+        assert size > 0;
+        return values[--size];
+    }
+
+    void clear() {
+        size = 0;
+    }
+
+    /**
+     * Drop every value from position `size` on.  Requires `0 <= size <= size()`.
+     */
+    void truncate(int size) {
+        assert size >= 0 && size <= this.size;
+        this.size = size;
+    }
+
+    /**
+     * Copy the values into `dest` starting at `destPos`.
+     */
+    void copyTo(int[] dest, int destPos) {
+        System.arraycopy(values, 0, dest, destPos, size);
+    }
+
+    int[] toArray() {
+        return Arrays.copyOf(values, size);
+    }
+}
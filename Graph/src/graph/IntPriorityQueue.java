@@ -0,0 +1,72 @@
+package graph;
+
+/**
+ * The operations of a min priority queue of int keys that the shortest path algorithms use, all
+ * without boxing.  IntIndexedDaryHeap implements it directly; boxed() adapts any other queue of
+ * vertex ids.
+ */
+interface IntPriorityQueue {
+    /**
+     * Return whether this queue contains no elements.
+     */
+    boolean isEmpty();
+
+    /**
+     * Return the minimum priority associated with a key in this queue.  Throws
+     * NoSuchElementException if this queue is empty.
+     */
+    int minPriority();
+
+    /**
+     * If `key` is already contained in this queue, change its associated priority to `priority`.
+     * Otherwise, add it to this queue with that priority.
+     */
+    void addOrUpdate(int key, int priority);
+
+    /**
+     * Remove and return a key associated with the smallest priority in this queue.  Throws
+     * NoSuchElementException if this queue is empty.
+     */
+    int removeMin();
+
+    /**
+     * Remove all keys from this queue (making it empty).
+     */
+    void clear();
+
+    /**
+     * Return `queue` itself if it is an IntPriorityQueue, and otherwise a view of it that boxes
+     * every key on the way in and unboxes it on the way out.
+     */
+    static IntPriorityQueue boxed(PriorityQueue<Integer> queue) {
+        if (queue instanceof IntPriorityQueue unboxed) {
+            return unboxed;
+        }
+        return new IntPriorityQueue() {
+            @Override
+            public boolean isEmpty() {
+                return queue.isEmpty();
+            }
+
+            @Override
+            public int minPriority() {
+                return queue.minPriority();
+            }
+
+            @Override
+            public void addOrUpdate(int key, int priority) {
+                queue.addOrUpdate(key, priority);
+            }
+
+            @Override
+            public int removeMin() {
+                return queue.remove();
+            }
+
+            @Override
+            public void clear() {
+                queue.clear();
+            }
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package graph;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public interface LabelCodec<LabelType> {
+    /*
+     *  Interface converting vertex labels to and from bytes, for graph files. Equal labels must
+     *  encode to equal bytes, since a MappedGraph finds a label by comparing encoded bytes.
+     */
+
+    // Returns the bytes of 'label'.
+    byte[] encode(LabelType label);
+
+    // Returns the label whose bytes are 'bytes'.
+    LabelType decode(byte[] bytes);
+
+    /**
+     * Returns a codec storing String labels as UTF-8.
+     */
+    static LabelCodec<String> strings() {
+        return new LabelCodec<>() {
+            @Override
+            public byte[] encode(String label) {
+                return label.getBytes(StandardCharsets.UTF_8);
+            }
+
+            @Override
+            public String decode(byte[] bytes) {
+                return new String(bytes, StandardCharsets.UTF_8);
+            }
+        };
+    }
+
+    /**
+     * Returns a codec storing Integer labels as 4 big-endian bytes.
+     */
+    static LabelCodec<Integer> integers() {
+        return new LabelCodec<>() {
+            @Override
+            public byte[] encode(Integer label) {
+                return ByteBuffer.allocate(Integer.BYTES).putInt(label).array();
+            }
+
+            @Override
+            public Integer decode(byte[] bytes) {
+                return ByteBuffer.wrap(bytes).getInt();
+            }
+        };
+    }
+
+    /**
+     * Returns a codec storing Integer labels as decimal ASCII text, such as the vertex numbers
+     * of edge list files.
+     */
+    static LabelCodec<Integer> decimalIntegers() {
+        return new LabelCodec<>() {
+            @Override
+            public byte[] encode(Integer label) {
+                return label.toString().getBytes(StandardCharsets.US_ASCII);
+            }
+
+            @Override
+            public Integer decode(byte[] bytes) {
+                return Integer.valueOf(new String(bytes, StandardCharsets.US_ASCII));
+            }
+        };
+    }
+}
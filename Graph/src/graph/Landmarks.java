@@ -0,0 +1,126 @@
+package graph;
+
+import java.util.function.IntUnaryOperator;
+
+public final class Landmarks<LabelType> {
+    /**
+     * Landmarks is the precomputed data of the ALT heuristic (A*, landmarks, triangle inequality)
+     * for A* searches on one CsrGraph. For a few landmark vertices L it stores the distances
+     * d(L, v) from L and d(v, L) to L of every vertex v. By the triangle inequality, the distance
+     * from v to a target t is at least d(L, t) - d(L, v) and at least d(v, L) - d(t, L), so the
+     * largest of these bounds over all landmarks is a consistent heuristic; it is tight when a
+     * landmark lies behind v or beyond t, which is why landmarks are chosen far apart, on the
+     * edge of the graph.
+     * Takes 2 * count * |V| ints. Obtain one with CsrGraph.landmarks().
+     */
+
+    private final CsrGraph<LabelType> graph;
+    // 'from[l][v]' is d(L, v) and 'to[l][v]' is d(v, L) for landmark 'l', or UNREACHABLE.
+    private final int[][] from;
+    private final int[][] to;
+    private final int[] vertices;
+
+    /**
+     * Selects 'count' landmarks of 'graph' by farthest point selection: each next landmark is the
+     * vertex farthest from the landmarks chosen so far, counting distances in both directions,
+     * starting from the vertex farthest from vertex 0.
+     * O(count * (|V| + |E|) log |V|) algorithm.
+     */
+    Landmarks(CsrGraph<LabelType> graph, int count) {
+        assert count >= 1 && graph.vertexCount() > 0;
+        int n = graph.vertexCount();
+        this.graph = graph;
+        count = Math.min(count, n);
+        from = new int[count][n];
+        to = new int[count][n];
+        vertices = new int[count];
+        IntGraph reverse = ShortestPaths.reverse(graph);
+        int[] predecessors = new int[n];
+        IntIndexedDaryHeap frontier = new IntIndexedDaryHeap(n);
+        // 'nearest[v]' is the distance between v and the closest landmark so far, either way.
+        long[] nearest = new long[n];
+        int[] scratch = new int[n];
+        ShortestPaths.dijkstra(graph, 0, ShortestPathResult.NONE, scratch, predecessors, frontier);
+        for (int v = 0; v < n; v++) {
+            nearest[v] = closeness(scratch[v]);
+        }
+        for (int l = 0; l < count; l++) {
+            int landmark = farthest(nearest);
+            vertices[l] = landmark;
+            ShortestPaths.dijkstra(graph, landmark, ShortestPathResult.NONE, from[l],
+                    predecessors, frontier);
+            ShortestPaths.dijkstra(reverse, landmark, ShortestPathResult.NONE, to[l],
+                    predecessors, frontier);
+            for (int v = 0; v < n; v++) {
+                nearest[v] = Math.min(nearest[v],
+                        Math.min(closeness(from[l][v]), closeness(to[l][v])));
+            }
+        }
+    }
+
+    // Unreachable vertices count as the closest, so that a landmark does not land on an island.
+    private static long closeness(int distance) {
+        return distance == ShortestPathResult.UNREACHABLE ? -1 : distance;
+    }
+
+    // Returns the vertex with the largest 'nearest', the first on ties.
+    private static int farthest(long[] nearest) {
+        int best = 0;
+        for (int v = 1; v < nearest.length; v++) {
+            if (nearest[v] > nearest[best]) {
+                best = v;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the graph the landmarks were computed for.
+     */
+    CsrGraph<LabelType> graph() {
+        return graph;
+    }
+
+    /**
+     * Returns the number of landmarks.
+     */
+    public int count() {
+        return vertices.length;
+    }
+
+    /**
+     * Returns the label of landmark 'l'.
+     */
+    public LabelType landmark(int l) {
+        return graph.label(vertices[l]);
+    }
+
+    /**
+     * Returns the heuristic for searches towards vertex id 'target': a lower bound on the distance
+     * from a vertex id to 'target', or UNREACHABLE if a landmark shows that there is no path.
+     * O(count()) per evaluation.
+     */
+    IntUnaryOperator toward(int target) {
+        int unreachable = ShortestPathResult.UNREACHABLE;
+        return v -> {
+            int bound = 0;
+            for (int l = 0; l < from.length; l++) {
+                // If L reaches v but not the target, neither does v.
+                if (from[l][v] != unreachable) {
+                    if (from[l][target] == unreachable) {
+                        return unreachable;
+                    }
+                    bound = Math.max(bound, from[l][target] - from[l][v]);
+                }
+                // If the target reaches L but v does not, v cannot reach the target.
+                if (to[l][target] != unreachable) {
+                    if (to[l][v] == unreachable) {
+                        return unreachable;
+                    }
+                    bound = Math.max(bound, to[l][v] - to[l][target]);
+                }
+            }
+            return bound;
+        };
+    }
+}
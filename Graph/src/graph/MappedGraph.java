@@ -0,0 +1,262 @@
+package graph;
+
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+public class MappedGraph<LabelType> implements Graph<Vertex<LabelType>>, IntGraph {
+    /**
+     * MappedGraph is an immutable graph served directly from a memory-mapped graph file, see
+     * GraphFile for the format. Nothing is deserialized when the file is opened: edge queries
+     * read the CSR arrays in the mapping, label lookups probe the file's hash table and compare
+     * encoded bytes, and labels are decoded only when a result is returned. Opening a file costs
+     * the same regardless of its size, and processes mapping the same file share one copy of it
+     * in the page cache. Obtain one with GraphFile.open().
+     */
+
+    private final MappedRegion region;
+    private final LabelCodec<LabelType> codec;
+    private final int vertices;
+    private final int edges;
+    private final int slotMask;
+
+    // File positions of the sections, see GraphFile.
+    private final long labelOffsets;
+    private final long labelBytes;
+    private final long slots;
+    private final long outOffsets;
+    private final long outTargets;
+    private final long outWeights;
+    private final long inOffsets;
+    private final long inTargets;
+    private final long inWeights;
+
+    /**
+     * Initializes a MappedGraph over 'region', whose header GraphFile.open() has checked.
+     * 'sections' are the nine section positions of the header, in order.
+     */
+    MappedGraph(MappedRegion region, LabelCodec<LabelType> codec, int vertices, int edges,
+            int slotCount, long[] sections) {
+        assert Integer.bitCount(slotCount) == 1 && sections.length == 9;
+        this.region = region;
+        this.codec = codec;
+        this.vertices = vertices;
+        this.edges = edges;
+        slotMask = slotCount - 1;
+        labelOffsets = sections[0];
+        labelBytes = sections[1];
+        slots = sections[2];
+        outOffsets = sections[3];
+        outTargets = sections[4];
+        outWeights = sections[5];
+        inOffsets = sections[6];
+        inTargets = sections[7];
+        inWeights = sections[8];
+    }
+
+    @Override
+    public int vertexCount() {
+        return vertices;
+    }
+
+    public int edgeCount() {
+        return edges;
+    }
+
+    public boolean containsVertex(LabelType label) {
+        return find(label) >= 0;
+    }
+
+    /**
+     * Returns the id of the vertex with label 'label'. Requires that the vertex exists.
+     */
+    public int id(LabelType label) {
+        int id = find(label);
+        assert id >= 0;
+        return id;
+    }
+
+    /**
+     * Returns the label of the vertex with id 'id', decoded from the file.
+     */
+    public LabelType label(int id) {
+        long from = region.getLong(labelOffsets + (long) id * Long.BYTES);
+        long to = region.getLong(labelOffsets + (id + 1L) * Long.BYTES);
+        return codec.decode(region.get(labelBytes + from, (int) (to - from)));
+    }
+
+    /**
+     * Returns the id of the vertex with label 'label', or -1 if there is none, by probing the
+     * file's hash table. Probes every slot at most once, so a table without empty slots cannot
+     * loop forever, and throws IllegalStateException on a slot holding no vertex id, since
+     * GraphFile.open() checks the header but not the slots.
+     */
+    private int find(LabelType label) {
+        byte[] bytes = codec.encode(label);
+        int s = GraphFile.hash(bytes) & slotMask;
+        for (int probes = 0; probes <= slotMask; probes++, s = (s + 1) & slotMask) {
+            int id = region.getInt(slots + (long) s * Integer.BYTES) - 1;
+            if (id == -1) {
+                return -1;
+            }
+            if (id < 0 || id >= vertices) {
+                throw new IllegalStateException("corrupt graph file: hash slot " + s
+                        + " holds vertex id " + id + " of " + vertices);
+            }
+            long from = region.getLong(labelOffsets + (long) id * Long.BYTES);
+            long to = region.getLong(labelOffsets + (id + 1L) * Long.BYTES);
+            if (to - from == bytes.length
+                    && Arrays.equals(bytes, region.get(labelBytes + from, bytes.length))) {
+                return id;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public int outDegree(int id) {
+        return offset(outOffsets, id + 1) - offset(outOffsets, id);
+    }
+
+    @Override
+    public int outTarget(int id, int i) {
+        return region.getInt(outTargets + (long) (offset(outOffsets, id) + i) * Integer.BYTES);
+    }
+
+    @Override
+    public int outWeight(int id, int i) {
+        return region.getInt(outWeights + (long) (offset(outOffsets, id) + i) * Integer.BYTES);
+    }
+
+    @Override
+    public int inDegree(int id) {
+        return offset(inOffsets, id + 1) - offset(inOffsets, id);
+    }
+
+    @Override
+    public int inTarget(int id, int i) {
+        return region.getInt(inTargets + (long) (offset(inOffsets, id) + i) * Integer.BYTES);
+    }
+
+    @Override
+    public int inWeight(int id, int i) {
+        return region.getInt(inWeights + (long) (offset(inOffsets, id) + i) * Integer.BYTES);
+    }
+
+    // Returns entry 'id' of the offsets section at 'section'.
+    private int offset(long section, int id) {
+        return region.getInt(section + (long) id * Integer.BYTES);
+    }
+
+    /**
+     * Returns a copy of the vertex with label 'label' and its edges if it exists in the graph,
+     * else returns null.
+     */
+    public Vertex<LabelType> getVertex(LabelType label) {
+        int id = find(label);
+        if (id < 0) {
+            return null;
+        }
+        LinkedHashMap<LabelType, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < outDegree(id); i++) {
+            out.put(label(outTarget(id, i)), outWeight(id, i));
+        }
+        LinkedHashMap<LabelType, Integer> in = new LinkedHashMap<>();
+        for (int i = 0; i < inDegree(id); i++) {
+            in.put(label(inTarget(id, i)), inWeight(id, i));
+        }
+        return new BasicVertex<>(label, in, out);
+    }
+
+    /**
+     * Returns the result of Kahn's algorithm on the graph, see BasicGraph.topologicalOrder().
+     * O(|V| + |E|) algorithm.
+     */
+    public TopologicalOrder<LabelType> topologicalOrder() {
+        return TopologicalOrder.kahn(this, this::label);
+    }
+
+    /**
+     * Returns the vertices reachable from 'start' in depth first order 'order'.
+     */
+    public List<LabelType> dfsTraversal(LabelType start, DfsOrder order) {
+        return labelsOf(DepthFirstSearch.from(this, id(start), order));
+    }
+
+    /**
+     * Returns the order in which vertices reachable from 'start' are visited by breadth first
+     * search.
+     */
+    public List<LabelType> bfsTraversal(LabelType start) {
+        return labelsOf(BreadthFirstSearch.order(this, id(start)));
+    }
+
+    /**
+     * Returns the shortest path tree from 'start' to every vertex reachable from it.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start) {
+        return shortestPath(id(start), ShortestPathResult.NONE);
+    }
+
+    /**
+     * Returns the shortest path from 'start' to 'target', stopping as soon as 'target' is settled.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start, LabelType target) {
+        return shortestPath(id(start), id(target));
+    }
+
+    private ShortestPathResult<LabelType> shortestPath(int source, int target) {
+        int[] distances = new int[vertices];
+        int[] predecessors = new int[vertices];
+        ShortestPaths.dijkstra(this, source, target, distances, predecessors,
+                new IntIndexedDaryHeap(vertices));
+        return new ShortestPathResult<>(source, distances, predecessors, new IdMap(),
+                this::label);
+    }
+
+    // Returns the labels of the vertices with ids 'ids', in the same order.
+    private List<LabelType> labelsOf(int[] ids) {
+        List<LabelType> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(label(id));
+        }
+        return result;
+    }
+
+    /**
+     * Unmodifiable Map from label to id that looks labels up in the file, for traversal results.
+     */
+    private class IdMap extends AbstractMap<LabelType, Integer> {
+        @Override
+        public int size() {
+            return vertices;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Integer get(Object key) {
+            int id = find((LabelType) key);
+            return id < 0 ? null : id;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return get(key) != null;
+        }
+
+        @Override
+        public Set<Entry<LabelType, Integer>> entrySet() {
+            List<Entry<LabelType, Integer>> entries = new ArrayList<>(vertices);
+            for (int id = 0; id < vertices; id++) {
+                entries.add(new SimpleImmutableEntry<>(label(id), id));
+            }
+            return Set.copyOf(entries);
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package graph;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A read-only file mapped into memory, addressed by long positions.  A single MappedByteBuffer
+ * can only address 2 GB, so the file is mapped in chunks of `CHUNK` bytes.  Ints and longs at
+ * positions that are multiples of their size never cross a chunk boundary.  The mapping is
+ * shared with the page cache, so processes mapping the same file share its memory, and pages
+ * are read from disk only when first touched.
+ */
+final class MappedRegion {
+
+    private static final int CHUNK_BITS = 30;
+    private static final long CHUNK = 1L << CHUNK_BITS;
+
+    private final MappedByteBuffer[] chunks;
+    private final long size;
+
+    /**
+     * Map the whole file at `path`.
+     */
+    MappedRegion(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            size = channel.size();
+            chunks = new MappedByteBuffer[(int) ((size + CHUNK - 1) >>> CHUNK_BITS)];
+            for (int c = 0; c < chunks.length; c++) {
+                long start = (long) c << CHUNK_BITS;
+                chunks[c] = channel.map(FileChannel.MapMode.READ_ONLY, start,
+                        Math.min(CHUNK, size - start));
+            }
+        }
+        // The mapping stays valid after the channel is closed.
+    }
+
+    long size() {
+        return size;
+    }
+
+    /**
+     * Return the big-endian int at `position`.  Requires `position` to be a multiple of 4.
+     */
+    int getInt(long position) {
+        assert (position & 3) == 0;
+        return chunks[(int) (position >>> CHUNK_BITS)].getInt((int) (position & (CHUNK - 1)));
+    }
+
+    /**
+     * Return the big-endian long at `position`.  Requires `position` to be a multiple of 8.
+     */
+    long getLong(long position) {
+        assert (position & 7) == 0;
+        return chunks[(int) (position >>> CHUNK_BITS)].getLong((int) (position & (CHUNK - 1)));
+    }
+
+    /**
+     * Return the byte at `position`.
+     */
+    byte get(long position) {
+        return chunks[(int) (position >>> CHUNK_BITS)].get((int) (position & (CHUNK - 1)));
+    }
+
+    /**
+     * Copy `length` bytes starting at `position` into a new array, across chunk boundaries.
+     */
+    byte[] get(long position, int length) {
+        byte[] bytes = new byte[length];
+        int done = 0;
+        while (done < length) {
+            long at = position + done;
+            MappedByteBuffer chunk = chunks[(int) (at >>> CHUNK_BITS)];
+            int offset = (int) (at & (CHUNK - 1));
+            int count = Math.min(length - done, chunk.capacity() - offset);
+            chunk.get(offset, bytes, done, count);
+            done += count;
+        }
+        return bytes;
+    }
+}
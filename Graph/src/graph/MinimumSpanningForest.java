@@ -0,0 +1,216 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntFunction;
+
+/**
+ * Parallel minimum spanning forests of CsrGraph snapshots, edge directions ignored.  Edges are
+ * identified by their position `e` in `outTargets` and compared by the key `weight << 32 | e`,
+ * a total order that breaks weight ties by position.  The minimum spanning forest under it is
+ * unique, so both algorithms return the same edges, and Borůvka cannot close a cycle out of
+ * equal weights.  Both return the positions of the forest edges in increasing key order.
+ */
+final class MinimumSpanningForest {
+
+    private static final VarHandle KEYS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Key of no edge, above every edge key since positions are below 2^31.
+     */
+    static final long NONE = Long.MAX_VALUE;
+
+    private MinimumSpanningForest() {
+    }
+
+    /**
+     * Returns the minimum spanning forest of 'graph' found by 'algorithm' on 'pool'.
+     */
+    static <LabelType> SpanningForest<LabelType> forest(CsrGraph<LabelType> graph,
+            ForkJoinPool pool, SpanningForestAlgorithm algorithm, IntFunction<LabelType> labels) {
+        int[] sources = sources(graph, pool);
+        int[] edges = switch (algorithm) {
+            case BORUVKA -> boruvka(graph, sources, pool);
+            case KRUSKAL -> kruskal(graph, sources, pool);
+        };
+        int[] targets = new int[edges.length];
+        int[] weights = new int[edges.length];
+        for (int i = 0; i < edges.length; i++) {
+            targets[i] = graph.outTargets[edges[i]];
+            weights[i] = graph.outWeights[edges[i]];
+            edges[i] = sources[edges[i]];
+        }
+        return new SpanningForest<>(edges, targets, weights, labels);
+    }
+
+    /**
+     * Returns the key of the edge at position 'e'.
+     */
+    static long key(CsrGraph<?> graph, int e) {
+        return (long) graph.outWeights[e] << 32 | e;
+    }
+
+    /**
+     * Returns the source of the edge at every position.
+     * O(|V| + |E|) algorithm.
+     */
+    static int[] sources(CsrGraph<?> graph, ForkJoinPool pool) {
+        int[] sources = new int[graph.outTargets.length];
+        ParallelRange.forEach(pool, 0, graph.vertexCount(), (chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                Arrays.fill(sources, graph.outOffsets[v], graph.outOffsets[v + 1], v);
+            }
+        });
+        return sources;
+    }
+
+    /**
+     * Sorts the keys of all edges with Arrays.parallelSort on 'pool', then unions the endpoints
+     * of every edge in key order, keeping the edges that join two trees.
+     * O(|E| log |E|) algorithm.
+     */
+    static int[] kruskal(CsrGraph<?> graph, int[] sources, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        long[] keys = new long[graph.outTargets.length];
+        ParallelRange.forEach(pool, 0, n, (chunk, from, to) -> {
+            for (int e = graph.outOffsets[from]; e < graph.outOffsets[to]; e++) {
+                keys[e] = key(graph, e);
+            }
+        });
+        // Sort tasks run in the pool of the thread that starts the sort.
+        pool.invoke(ForkJoinTask.adapt(() -> Arrays.parallelSort(keys)));
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        int[] forest = new int[Math.max(n - 1, 0)];
+        int size = 0;
+        for (int i = 0; i < keys.length && size < forest.length; i++) {
+            int e = (int) keys[i];
+            if (sets.union(sources[e], graph.outTargets[e])) {
+                forest[size++] = e;
+            }
+        }
+        return Arrays.copyOf(forest, size);
+    }
+
+    /**
+     * Borůvka rounds until no edge joins two trees. Each round finds the root of every vertex,
+     * lowers 'lightest[root]' to the key of every edge between two trees with atomic minimums,
+     * then unions along the lightest edge of every tree. Chunks of vertices keep the positions
+     * of the edges out of their vertices that still join two trees in their own `live` array,
+     * compacted in place every round, so that later rounds skip the edges inside trees and
+     * still read the edge arrays in increasing position.
+     * O(|E| log |V|) work.
+     */
+    static int[] boruvka(CsrGraph<?> graph, int[] sources, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        ConcurrentUnionFind sets = new ConcurrentUnionFind(n);
+        int[] roots = new int[n];
+        long[] lightest = new long[n];
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        int[][] live = new int[range.chunks()][];
+        int[] sizes = new int[range.chunks()];
+        IntList[] forests = new IntList[range.chunks()];
+        for (int chunk = 0; chunk < forests.length; chunk++) {
+            forests[chunk] = new IntList();
+        }
+        boolean[] merged = new boolean[range.chunks()];
+        boolean first = true;
+        boolean any = true;
+        while (any) {
+            range.forEach((chunk, from, to) -> {
+                for (int v = from; v < to; v++) {
+                    roots[v] = sets.find(v);
+                    lightest[v] = NONE;
+                }
+            });
+            if (first) {
+                range.forEach((chunk, from, to) -> {
+                    int[] edges = new int[graph.outOffsets[to] - graph.outOffsets[from]];
+                    int size = 0;
+                    for (int v = from; v < to; v++) {
+                        for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                            int w = graph.outTargets[e];
+                            if (w != v) {
+                                edges[size++] = e;
+                                long key = key(graph, e);
+                                lower(lightest, v, key);
+                                lower(lightest, w, key);
+                            }
+                        }
+                    }
+                    live[chunk] = edges;
+                    sizes[chunk] = size;
+                });
+            } else {
+                range.forEach((chunk, from, to) -> {
+                    int[] edges = live[chunk];
+                    int size = 0;
+                    for (int i = 0; i < sizes[chunk]; i++) {
+                        int e = edges[i];
+                        int ru = roots[sources[e]];
+                        int rw = roots[graph.outTargets[e]];
+                        if (ru != rw) {
+                            edges[size++] = e;
+                            long key = key(graph, e);
+                            lower(lightest, ru, key);
+                            lower(lightest, rw, key);
+                        }
+                    }
+                    sizes[chunk] = size;
+                });
+            }
+            first = false;
+            // Two trees may pick the same edge; the second union finds them joined.
+            range.forEach((chunk, from, to) -> {
+                boolean joined = false;
+                for (int r = from; r < to; r++) {
+                    if (lightest[r] != NONE) {
+                        int e = (int) lightest[r];
+                        if (sets.union(sources[e], graph.outTargets[e])) {
+                            forests[chunk].add(e);
+                            joined = true;
+                        }
+                    }
+                }
+                merged[chunk] = joined;
+            });
+            any = false;
+            for (boolean joined : merged) {
+                any |= joined;
+            }
+        }
+
+        int size = 0;
+        for (IntList forest : forests) {
+            size += forest.size();
+        }
+        long[] keys = new long[size];
+        size = 0;
+        for (IntList forest : forests) {
+            for (int i = 0; i < forest.size(); i++) {
+                keys[size++] = key(graph, forest.get(i));
+            }
+        }
+        Arrays.sort(keys);
+        int[] edges = new int[size];
+        for (int i = 0; i < size; i++) {
+            edges[i] = (int) keys[i];
+        }
+        return edges;
+    }
+
+    // Lowers 'lightest[r]' to 'key' if it is smaller. Reads first, so that the many edges heavier
+    // than the current minimum cost no atomic operation.
+    private static void lower(long[] lightest, int r, long key) {
+        long current = lightest[r];
+        while (key < current) {
+            long witness = (long) KEYS.compareAndExchange(lightest, r, current, key);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class MinimumSpanningForestTest {
+
+    // Returns the total weight of a minimum spanning forest of 'g', edge directions ignored,
+    // found by Prim's algorithm from every vertex not yet reached.
+    private static long reference(CsrGraph<Integer> g) {
+        int n = g.vertexCount();
+        List<List<int[]>> neighbors = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            neighbors.add(new ArrayList<>());
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < g.outDegree(u); i++) {
+                int v = g.outTarget(u, i);
+                neighbors.get(u).add(new int[] {v, g.outWeight(u, i)});
+                neighbors.get(v).add(new int[] {u, g.outWeight(u, i)});
+            }
+        }
+        boolean[] reached = new boolean[n];
+        long total = 0;
+        for (int start = 0; start < n; start++) {
+            PriorityQueue<int[]> queue = new PriorityQueue<>((a, b) -> Integer.compare(a[1], b[1]));
+            queue.add(new int[] {start, 0});
+            while (!queue.isEmpty()) {
+                int[] next = queue.poll();
+                if (!reached[next[0]]) {
+                    reached[next[0]] = true;
+                    total += next[1];
+                    queue.addAll(neighbors.get(next[0]));
+                }
+            }
+        }
+        return total;
+    }
+
+    @DisplayName("WHEN the graph has two components, reciprocal edges and a weight tie, THEN both "
+            + "algorithms return the same lightest forest in increasing weight.")
+    @Test
+    void testSmallGraph() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("a", "b", "c", "d", "e", "f")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("a", new BasicEdge<>("b", 4));
+        g.addEdge("b", new BasicEdge<>("a", 1));
+        g.addEdge("b", new BasicEdge<>("c", 2));
+        g.addEdge("c", new BasicEdge<>("a", 2));
+        g.addEdge("c", new BasicEdge<>("d", 7));
+        g.addEdge("d", new BasicEdge<>("a", 9));
+        g.addEdge("e", new BasicEdge<>("f", -3));
+
+        ForkJoinPool pool = new ForkJoinPool(2);
+        CsrGraph<String> csr = g.freeze();
+        for (SpanningForestAlgorithm algorithm : SpanningForestAlgorithm.values()) {
+            SpanningForest<String> forest = csr.minimumSpanningForest(pool, algorithm);
+            assertEquals(4, forest.edgeCount());
+            assertEquals(-3 + 1 + 2 + 7, forest.totalWeight());
+            assertArrayEquals(new int[] {-3, 1, 2, 7}, forest.weights());
+            assertEquals("e", forest.source(0));
+            assertEquals("f", forest.target(0));
+            assertEquals("b", forest.source(1));
+            assertEquals("a", forest.target(1));
+            // b -> c and c -> a tie; the edge listed first wins.
+            assertEquals("b", forest.source(2));
+            assertEquals("c", forest.target(2));
+            assertEquals("d", forest.target(3));
+        }
+        assertEquals(7, g.minimumSpanningForest().totalWeight());
+        pool.shutdown();
+    }
+
+    @DisplayName("WHEN the graphs are random and sparse or dense with many ties, THEN Borůvka and "
+            + "Kruskal return the same edges, spanning every component at the least weight.")
+    @Test
+    void testRandomGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        for (BasicGraph<Integer> g : List.of(CsrGraphTest.makeRandom(20_000, 15_000, 1000, 12),
+                CsrGraphTest.makeRandom(5_000, 100_000, 5, 13))) {
+            CsrGraph<Integer> csr = g.freeze();
+            SpanningForest<Integer> boruvka = csr.minimumSpanningForest(pool,
+                    SpanningForestAlgorithm.BORUVKA);
+            SpanningForest<Integer> kruskal = csr.minimumSpanningForest(pool,
+                    SpanningForestAlgorithm.KRUSKAL);
+            assertArrayEquals(kruskal.sources(), boruvka.sources());
+            assertArrayEquals(kruskal.targets(), boruvka.targets());
+            assertArrayEquals(kruskal.weights(), boruvka.weights());
+            assertEquals(reference(csr), boruvka.totalWeight());
+
+            Components<Integer> components = csr.weaklyConnectedComponents();
+            assertEquals(csr.vertexCount() - components.count(), boruvka.edgeCount());
+            ConcurrentUnionFind sets = new ConcurrentUnionFind(csr.vertexCount());
+            for (int i = 0; i < boruvka.edgeCount(); i++) {
+                assertTrue(sets.union(boruvka.sources()[i], boruvka.targets()[i]));
+            }
+        }
+        pool.shutdown();
+    }
+}
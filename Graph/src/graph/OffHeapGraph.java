@@ -0,0 +1,489 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class OffHeapGraph<LabelType> implements Graph<Vertex<LabelType>>, IntGraph,
+        AutoCloseable {
+    /**
+     * OffHeapGraph is a growable graph that keeps its edges outside the Java heap, for graphs so
+     * large that the garbage collector spends its pauses walking adjacency objects. Like
+     * BasicGraph it contains no duplicate vertices or edges, gives every vertex a dense int id in
+     * order of addition, and keeps the edges of a vertex in insertion order.
+     * Every vertex has a RECORD_BYTES record in OffHeapMemory, in pages of PAGE_SIZE records,
+     * holding the address, length and block size of its outgoing and incoming rows. A row is a
+     * block of (neighbor id, weight) int pairs that doubles, moving to a block twice its size, when
+     * it is full. Like IntAdjacency, a row with more than INDEX_THRESHOLD entries also keeps an
+     * open-addressing table from neighbor id to position in its own block, so finding an edge in
+     * a dense row costs O(1) instead of a scan. The heap holds only the labels, their index and
+     * one long per page, so its size and the collector's work do not grow with the number of
+     * edges.
+     * close() releases all memory immediately; the graph must not be used afterwards. Vertices
+     * cannot be removed. Not thread-safe.
+     */
+
+    private static final int PAGE_BITS = 10;
+    private static final int PAGE_SIZE = 1 << PAGE_BITS;
+    private static final int RECORD_BITS = 6;
+    private static final int RECORD_BYTES = 1 << RECORD_BITS;
+
+    // Offsets in a record. A row is described by the fields at 'direction' and
+    // 'SIZE + direction / 2', 'BITS + direction / 2'; a row without a block has 0 bits. Its
+    // slot table is at 'TABLE + direction', with 'TABLE_BITS + direction / 2' bits, 0 if none.
+    private static final int OUT = 0;
+    private static final int IN = 8;
+    private static final int SIZE = 16;
+    private static final int BITS = 24;
+    private static final int TABLE = 32;
+    private static final int TABLE_BITS = 48;
+
+    // Bytes of one row entry: neighbor id, then weight.
+    private static final int ENTRY_BYTES = 8;
+    // The first block of a row holds 2 entries.
+    private static final int FIRST_ROW_BITS = OffHeapMemory.MIN_BITS;
+    // Rows with more entries than this keep a slot table; smaller rows are scanned.
+    private static final int INDEX_THRESHOLD = 8;
+
+    private final OffHeapMemory memory;
+    // 'pages[p]' is the address of the records of vertices 'p * PAGE_SIZE..(p + 1) * PAGE_SIZE'.
+    private long[] pages;
+    // List 'labels' maps the id of a vertex to its label; map 'index' maps it back.
+    private final List<LabelType> labels;
+    private final Map<LabelType, Integer> index;
+    private int edges;
+    private boolean closed;
+
+    /**
+     * Initializes an empty OffHeapGraph that reserves native memory 64 MB at a time.
+     */
+    public OffHeapGraph() {
+        this(1 << 26);
+    }
+
+    /**
+     * Initializes an empty OffHeapGraph that reserves native memory 'chunkBytes' bytes at a time,
+     * a power of two.
+     */
+    OffHeapGraph(int chunkBytes) {
+        memory = new OffHeapMemory(chunkBytes);
+        pages = new long[1];
+        labels = new ArrayList<>();
+        index = new HashMap<>();
+    }
+
+    @Override
+    public int vertexCount() {
+        return labels.size();
+    }
+
+    public int edgeCount() {
+        return edges;
+    }
+
+    /**
+     * Returns the number of bytes of native memory the graph holds, including blocks freed by
+     * growing rows, which later rows reuse.
+     */
+    public long offHeapBytes() {
+        return memory.reservedBytes();
+    }
+
+    public boolean containsVertex(LabelType label) {
+        checkOpen();
+        return index.containsKey(label);
+    }
+
+    /**
+     * Returns the label of the vertex with id 'id'.
+     */
+    public LabelType label(int id) {
+        return labels.get(id);
+    }
+
+    /**
+     * Returns a copy of the vertex with label 'label' and its edges if it exists in the graph,
+     * else returns null.
+     */
+    public Vertex<LabelType> getVertex(LabelType label) {
+        checkOpen();
+        Integer id = index.get(label);
+        if (id == null) {
+            return null;
+        }
+        LinkedHashMap<LabelType, Integer> out = new LinkedHashMap<>();
+        for (int i = 0; i < outDegree(id); i++) {
+            out.put(labels.get(outTarget(id, i)), outWeight(id, i));
+        }
+        LinkedHashMap<LabelType, Integer> in = new LinkedHashMap<>();
+        for (int i = 0; i < inDegree(id); i++) {
+            in.put(labels.get(inTarget(id, i)), inWeight(id, i));
+        }
+        return new BasicVertex<>(label, in, out);
+    }
+
+    /**
+     * Adds vertex 'label' if it does not already exist in the graph. Returns true if it was added.
+     */
+    public boolean addVertex(LabelType label) {
+        checkOpen();
+        if (index.containsKey(label)) {
+            return false;
+        }
+        int id = labels.size();
+        if (id % PAGE_SIZE == 0) {
+            int page = id >>> PAGE_BITS;
+            if (page == pages.length) {
+                pages = Arrays.copyOf(pages, 2 * pages.length);
+            }
+            pages[page] = memory.allocate(PAGE_BITS + RECORD_BITS);
+        }
+        long record = record(id);
+        for (int offset = 0; offset < RECORD_BYTES; offset += Long.BYTES) {
+            memory.putLong(record + offset, 0);
+        }
+        labels.add(label);
+        index.put(label, id);
+        return true;
+    }
+
+    /**
+     * Add the edge: 'label' -> 'edge'.neighbor() if edge doesn't already exist. Returns true if
+     * the edge is added. Requires both vertices exist in graph.
+     * O(1) expected, amortized over the growth of the rows.
+     */
+    public boolean addEdge(LabelType label, BasicEdge<LabelType, Integer> edge) {
+        checkOpen();
+        assert containsVertex(label) && containsVertex(edge.neighbor());
+        int source = index.get(label);
+        int dest = index.get(edge.neighbor());
+        if (contains(source, dest)) {
+            return false;
+        }
+        append(source, OUT, dest, edge.weight());
+        append(dest, IN, source, edge.weight());
+        edges++;
+        return true;
+    }
+
+    /**
+     * Remove the edge: 'sourceLabel' -> 'destLabel'. Returns true if the edge existed.
+     * Requires 'sourceLabel' and 'destLabel' vertices exist in graph.
+     * O(outDegree(source) + inDegree(dest)) algorithm, to keep the rows in insertion order.
+     */
+    public boolean removeEdge(LabelType sourceLabel, LabelType destLabel) {
+        checkOpen();
+        assert containsVertex(sourceLabel) && containsVertex(destLabel);
+        int source = index.get(sourceLabel);
+        int dest = index.get(destLabel);
+        int i = indexOf(source, OUT, dest);
+        if (i < 0) {
+            return false;
+        }
+        remove(source, OUT, i);
+        remove(dest, IN, indexOf(dest, IN, source));
+        edges--;
+        return true;
+    }
+
+    // Returns whether edge 'source' -> 'dest' exists, looking in the shorter row that holds it.
+    private boolean contains(int source, int dest) {
+        return outDegree(source) <= inDegree(dest) ? indexOf(source, OUT, dest) >= 0
+                : indexOf(dest, IN, source) >= 0;
+    }
+
+    // Returns the address of the record of vertex 'id'.
+    private long record(int id) {
+        return pages[id >>> PAGE_BITS] + (long) (id & (PAGE_SIZE - 1)) * RECORD_BYTES;
+    }
+
+    private int size(int id, int direction) {
+        return memory.getInt(record(id) + SIZE + direction / 2);
+    }
+
+    // Returns the address of entry 'i' of row 'direction' of vertex 'id'.
+    private long entry(int id, int direction, int i) {
+        return memory.getLong(record(id) + direction) + (long) i * ENTRY_BYTES;
+    }
+
+    // Returns the position of neighbor 'neighbor' in row 'direction' of vertex 'id', or -1.
+    // Scans small rows, and probes the slot table of larger ones, building it if needed.
+    private int indexOf(int id, int direction, int neighbor) {
+        long record = record(id);
+        int size = memory.getInt(record + SIZE + direction / 2);
+        long row = memory.getLong(record + direction);
+        if (size <= INDEX_THRESHOLD) {
+            for (int i = 0; i < size; i++) {
+                if (memory.getInt(row + (long) i * ENTRY_BYTES) == neighbor) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+        if (memory.getInt(record + TABLE_BITS + direction / 2) == 0) {
+            buildTable(record, direction);
+        }
+        long table = memory.getLong(record + TABLE + direction);
+        int mask = slotCount(record, direction) - 1;
+        for (int s = mix(neighbor) & mask; ; s = (s + 1) & mask) {
+            int slot = memory.getInt(table + (long) s * Integer.BYTES);
+            if (slot == 0) {
+                return -1;
+            }
+            if (memory.getInt(row + (long) (slot - 1) * ENTRY_BYTES) == neighbor) {
+                return slot - 1;
+            }
+        }
+    }
+
+    // Returns the number of slots in the table of row 'direction' of the vertex at 'record'.
+    private int slotCount(long record, int direction) {
+        return 1 << (memory.getInt(record + TABLE_BITS + direction / 2) - 2);
+    }
+
+    /**
+     * Replaces the slot table of row 'direction' of the vertex at 'record' with one of the
+     * smallest power of two of slots that is at least twice the number of entries, holding 'position + 1' of every entry, or 0 if empty.
+     */
+    private void buildTable(long record, int direction) {
+        dropTable(record, direction);
+        int size = memory.getInt(record + SIZE + direction / 2);
+        int slots = Integer.highestOneBit(Math.max(2 * size - 1, INDEX_THRESHOLD)) << 1;
+        int bits = Integer.numberOfTrailingZeros(slots) + 2;
+        long table = memory.allocate(bits);
+        for (long offset = 0; offset < (long) slots * Integer.BYTES; offset += Long.BYTES) {
+            memory.putLong(table + offset, 0);
+        }
+        memory.putLong(record + TABLE + direction, table);
+        memory.putInt(record + TABLE_BITS + direction / 2, bits);
+        for (int i = 0; i < size; i++) {
+            insertSlot(record, direction, i);
+        }
+    }
+
+    // Frees the slot table of row 'direction' of the vertex at 'record', if it has one.
+    private void dropTable(long record, int direction) {
+        int bits = memory.getInt(record + TABLE_BITS + direction / 2);
+        if (bits != 0) {
+            memory.free(memory.getLong(record + TABLE + direction), bits);
+            memory.putInt(record + TABLE_BITS + direction / 2, 0);
+        }
+    }
+
+    // Adds entry 'i' of row 'direction' of the vertex at 'record' to the row's slot table.
+    private void insertSlot(long record, int direction, int i) {
+        long table = memory.getLong(record + TABLE + direction);
+        int mask = slotCount(record, direction) - 1;
+        long row = memory.getLong(record + direction);
+        int s = mix(memory.getInt(row + (long) i * ENTRY_BYTES)) & mask;
+        while (memory.getInt(table + (long) s * Integer.BYTES) != 0) {
+            s = (s + 1) & mask;
+        }
+        memory.putInt(table + (long) s * Integer.BYTES, i + 1);
+    }
+
+    /**
+     * Spread dense ids over the table; consecutive ids would otherwise form long probe runs.
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Appends 'neighbor' with 'weight' to row 'direction' of vertex 'id', moving the row to a
+     * block twice as large if it is full, and adds it to the row's slot table if it has one.
+     */
+    private void append(int id, int direction, int neighbor, int weight) {
+        long record = record(id);
+        int size = memory.getInt(record + SIZE + direction / 2);
+        int bits = memory.getInt(record + BITS + direction / 2);
+        long row = memory.getLong(record + direction);
+        if (bits == 0 || (long) size * ENTRY_BYTES == 1L << bits) {
+            int grown = bits == 0 ? FIRST_ROW_BITS : bits + 1;
+            long moved = memory.allocate(grown);
+            if (bits != 0) {
+                memory.copy(row, moved, size * ENTRY_BYTES);
+                memory.free(row, bits);
+            }
+            row = moved;
+            memory.putLong(record + direction, row);
+            memory.putInt(record + BITS + direction / 2, grown);
+        }
+        long entry = row + (long) size * ENTRY_BYTES;
+        memory.putInt(entry, neighbor);
+        memory.putInt(entry + Integer.BYTES, weight);
+        memory.putInt(record + SIZE + direction / 2, size + 1);
+        if (memory.getInt(record + TABLE_BITS + direction / 2) != 0) {
+            if (2 * (size + 1) > slotCount(record, direction)) {
+                buildTable(record, direction);
+            } else {
+                insertSlot(record, direction, size);
+            }
+        }
+    }
+
+    // Removes entry 'i' of row 'direction' of vertex 'id', shifting later entries down. The
+    // positions in the slot table are then stale, so it is dropped and rebuilt on the next lookup.
+    private void remove(int id, int direction, int i) {
+        long record = record(id);
+        int size = memory.getInt(record + SIZE + direction / 2);
+        long row = memory.getLong(record + direction);
+        for (int j = i + 1; j < size; j++) {
+            memory.putLong(row + (long) (j - 1) * ENTRY_BYTES,
+                    memory.getLong(row + (long) j * ENTRY_BYTES));
+        }
+        memory.putInt(record + SIZE + direction / 2, size - 1);
+        dropTable(record, direction);
+    }
+
+    @Override
+    public int outDegree(int v) {
+        return size(v, OUT);
+    }
+
+    @Override
+    public int outTarget(int v, int i) {
+        return memory.getInt(entry(v, OUT, i));
+    }
+
+    @Override
+    public int outWeight(int v, int i) {
+        return memory.getInt(entry(v, OUT, i) + Integer.BYTES);
+    }
+
+    @Override
+    public int inDegree(int v) {
+        return size(v, IN);
+    }
+
+    @Override
+    public int inTarget(int v, int i) {
+        return memory.getInt(entry(v, IN, i));
+    }
+
+    @Override
+    public int inWeight(int v, int i) {
+        return memory.getInt(entry(v, IN, i) + Integer.BYTES);
+    }
+
+    /**
+     * Returns the result of Kahn's algorithm on the graph, see BasicGraph.topologicalOrder().
+     * O(|V| + |E|) algorithm.
+     */
+    public TopologicalOrder<LabelType> topologicalOrder() {
+        checkOpen();
+        return TopologicalOrder.kahn(this, labels::get);
+    }
+
+    /**
+     * Returns the vertices reachable from 'start' in depth first order 'order'.
+     * O(|V| + |E|) algorithm.
+     */
+    public List<LabelType> dfsTraversal(LabelType start, DfsOrder order) {
+        checkOpen();
+        assert containsVertex(start);
+        return labelsOf(DepthFirstSearch.from(this, index.get(start), order));
+    }
+
+    /**
+     * Returns the order in which vertices reachable from 'start' are visited by breadth first
+     * search.
+     * O(|V| + |E|) algorithm.
+     */
+    public List<LabelType> bfsTraversal(LabelType start) {
+        checkOpen();
+        assert containsVertex(start);
+        return labelsOf(BreadthFirstSearch.order(this, index.get(start)));
+    }
+
+    /**
+     * Returns the shortest path tree from 'start' to every vertex reachable from it.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start) {
+        checkOpen();
+        assert containsVertex(start);
+        return shortestPath(index.get(start), ShortestPathResult.NONE);
+    }
+
+    /**
+     * Returns the shortest path from 'start' to 'target', stopping as soon as 'target' is settled.
+     * Requires non-negative edge weights.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start, LabelType target) {
+        checkOpen();
+        assert containsVertex(start) && containsVertex(target);
+        return shortestPath(index.get(start), index.get(target));
+    }
+
+    private ShortestPathResult<LabelType> shortestPath(int source, int target) {
+        int[] distances = new int[vertexCount()];
+        int[] predecessors = new int[vertexCount()];
+        ShortestPaths.dijkstra(this, source, target, distances, predecessors,
+                new IntIndexedDaryHeap(vertexCount()));
+        return new ShortestPathResult<>(source, distances, predecessors, index, labels::get);
+    }
+
+    /**
+     * Returns an immutable on-heap CsrGraph with the vertices, ids and edges of this graph.
+     * O(|V| + |E|) algorithm.
+     */
+    public CsrGraph<LabelType> freeze() {
+        checkOpen();
+        int n = vertexCount();
+        int[] outOffsets = new int[n + 1];
+        int[] inOffsets = new int[n + 1];
+        for (int v = 0; v < n; v++) {
+            outOffsets[v + 1] = outOffsets[v] + outDegree(v);
+            inOffsets[v + 1] = inOffsets[v] + inDegree(v);
+        }
+        int[] outTargets = new int[edges];
+        int[] outWeights = new int[edges];
+        int[] inTargets = new int[edges];
+        int[] inWeights = new int[edges];
+        for (int v = 0; v < n; v++) {
+            for (int i = 0; i < outDegree(v); i++) {
+                outTargets[outOffsets[v] + i] = outTarget(v, i);
+                outWeights[outOffsets[v] + i] = outWeight(v, i);
+            }
+            for (int i = 0; i < inDegree(v); i++) {
+                inTargets[inOffsets[v] + i] = inTarget(v, i);
+                inWeights[inOffsets[v] + i] = inWeight(v, i);
+            }
+        }
+        return new CsrGraph<>(new ArrayList<>(labels), new HashMap<>(index), outOffsets,
+                outTargets, outWeights, inOffsets, inTargets, inWeights);
+    }
+
+    // Returns the labels of the vertices with ids 'ids', in the same order.
+    private List<LabelType> labelsOf(int[] ids) {
+        List<LabelType> result = new ArrayList<>(ids.length);
+        for (int id : ids) {
+            result.add(labels.get(id));
+        }
+        return result;
+    }
+
+    /**
+     * Releases the native memory of the graph. Calling close() again has no effect; calling any
+     * other method afterwards throws IllegalStateException, or for the id-based methods, an
+     * IndexOutOfBoundsException.
+     */
+    @Override
+    public void close() {
+        if (!closed) {
+            closed = true;
+            memory.close();
+        }
+    }
+
+    private void checkOpen() {
+        if (closed) {
+            throw new IllegalStateException("graph is closed");
+        }
+    }
+}
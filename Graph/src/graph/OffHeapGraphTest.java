@@ -0,0 +1,113 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class OffHeapGraphTest {
+
+    @DisplayName("WHEN edges are added and removed, THEN the off-heap graph matches a BasicGraph "
+            + "with the same changes.")
+    @Test
+    void testMatchesBasicGraph() {
+        BasicGraph<Integer> expected = new BasicGraph<>();
+        // Small chunks, so rows grow across many chunks and reuse freed blocks.
+        try (OffHeapGraph<Integer> g = new OffHeapGraph<>(1 << 12)) {
+            Random rng = new Random(5);
+            for (int v = 0; v < 3000; v++) {
+                expected.addVertex(new BasicVertex<>(v));
+                assertTrue(g.addVertex(v));
+            }
+            assertFalse(g.addVertex(0));
+            for (int e = 0; e < 20_000; e++) {
+                // Skew sources towards low ids, so some rows grow large.
+                int source = rng.nextInt(1 + rng.nextInt(3000));
+                int dest = rng.nextInt(3000);
+                if (source == dest) {
+                    continue;
+                }
+                int weight = rng.nextInt(100);
+                assertEquals(expected.addEdge(source, new BasicEdge<>(dest, weight)),
+                        g.addEdge(source, new BasicEdge<>(dest, weight)));
+                if (e % 4 == 0) {
+                    int other = rng.nextInt(3000);
+                    assertEquals(expected.removeEdge(source, other), g.removeEdge(source, other));
+                }
+            }
+
+            assertEquals(expected.vertexCount(), g.vertexCount());
+            assertEquals(expected.edgeCount(), g.edgeCount());
+            assertTrue(g.offHeapBytes() > 1 << 12);
+            for (int v = 0; v < 3000; v++) {
+                assertEquals(expected.getVertex(v).outgoingEdges(),
+                        g.getVertex(v).outgoingEdges());
+                assertEquals(expected.getVertex(v).incomingEdges(),
+                        g.getVertex(v).incomingEdges());
+            }
+            assertNull(g.getVertex(3000));
+            assertEquals(expected.dfsTraversal(0, DfsOrder.POST_ORDER),
+                    g.dfsTraversal(0, DfsOrder.POST_ORDER));
+            assertEquals(expected.bfsTraversal(1), g.bfsTraversal(1));
+            assertArrayEquals(expected.shortestPath(2).distances(),
+                    g.shortestPath(2).distances());
+            assertEquals(expected.shortestPath(2, 2999).pathTo(2999),
+                    g.shortestPath(2, 2999).pathTo(2999));
+            assertEquals(expected.freeze().edgeCount(), g.freeze().edgeCount());
+        }
+    }
+
+    @DisplayName("WHEN the graph is a clique AND edges of its dense rows are removed and added "
+            + "again, THEN every edge is found once.")
+    @Test
+    void testDenseRows() {
+        int n = 400;
+        try (OffHeapGraph<Integer> g = new OffHeapGraph<>(1 << 16)) {
+            for (int v = 0; v < n; v++) {
+                g.addVertex(v);
+            }
+            for (int u = 0; u < n; u++) {
+                for (int v = 0; v < n; v++) {
+                    if (u != v) {
+                        assertTrue(g.addEdge(u, new BasicEdge<>(v, u + v)));
+                    }
+                }
+            }
+            assertEquals(n * (n - 1), g.edgeCount());
+            assertFalse(g.addEdge(7, new BasicEdge<>(300, 1)));
+            for (int v = 1; v < n; v += 3) {
+                assertTrue(g.removeEdge(0, v));
+                assertFalse(g.removeEdge(0, v));
+                assertFalse(g.addEdge(v, new BasicEdge<>(0, 1)));
+            }
+            for (int v = 1; v < n; v += 3) {
+                assertTrue(g.addEdge(0, new BasicEdge<>(v, -v)));
+            }
+            assertEquals(n * (n - 1), g.edgeCount());
+            assertEquals(n - 1, g.outDegree(0));
+            assertEquals(-4, g.getVertex(0).outgoingEdges().get(4));
+            assertEquals(-4, g.getVertex(4).incomingEdges().get(0));
+            assertEquals(5, g.getVertex(0).outgoingEdges().get(5));
+            assertEquals(n - 1, g.inDegree(399));
+        }
+    }
+
+    @DisplayName("WHEN the graph is closed, THEN its memory is released AND it can no longer be "
+            + "used.")
+    @Test
+    void testClose() {
+        OffHeapGraph<String> g = new OffHeapGraph<>();
+        g.addVertex("a");
+        g.addVertex("b");
+        g.addEdge("a", new BasicEdge<>("b", 1));
+        assertEquals(1, g.freeze().edgeCount());
+        g.close();
+        g.close();
+
+        assertEquals(0, g.offHeapBytes());
+        assertThrows(IllegalStateException.class, () -> g.containsVertex("a"));
+        assertThrows(IllegalStateException.class, () -> g.addVertex("c"));
+        assertThrows(IndexOutOfBoundsException.class, () -> g.outDegree(0));
+    }
+}
@@ -0,0 +1,160 @@
+package graph;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+
+/**
+ * Native memory outside the Java heap, handed out in blocks.  Memory is reserved in direct
+ * ByteBuffers of at least `chunkBytes` bytes, so however much is allocated the heap only holds one
+ * small object per chunk, which the garbage collector neither scans nor copies the contents of.
+ * A block is `2^bits` bytes, `MIN_BITS <= bits <= MAX_BITS`, and is addressed by the long
+ * `chunk << 32 | offset`; the bytes of a block are at consecutive addresses.  Freed blocks are
+ * kept on one free list per size, linked through their first 8 bytes, and reused before more
+ * memory is reserved.  close() releases every chunk at once instead of leaving it to the
+ * garbage collector.  Not thread-safe.
+ */
+final class OffHeapMemory implements AutoCloseable {
+
+    static final int MIN_BITS = 4;
+    static final int MAX_BITS = 30;
+
+    /**
+     * The address of no block.
+     */
+    static final long NULL = -1;
+
+    /**
+     * sun.misc.Unsafe.invokeCleaner bound to the Unsafe instance, which frees a direct buffer
+     * immediately, or null if this JVM does not provide it.
+     */
+    private static final MethodHandle INVOKE_CLEANER = findCleaner();
+
+    private final int chunkBytes;
+    private ByteBuffer[] chunks = new ByteBuffer[4];
+    private int chunkCount;
+    // Bytes of the last chunk handed out so far.
+    private int top;
+    // 'free[bits]' is the first free block of '2^bits' bytes, or NULL.
+    private final long[] free = new long[MAX_BITS + 1];
+    private long reserved;
+
+    /**
+     * Create an empty memory that reserves chunks of `chunkBytes` bytes, a power of two.
+     */
+    OffHeapMemory(int chunkBytes) {
+        assert Integer.bitCount(chunkBytes) == 1 && chunkBytes >= 1 << MIN_BITS;
+        this.chunkBytes = chunkBytes;
+        Arrays.fill(free, NULL);
+    }
+
+    /**
+     * Return the number of bytes reserved from the operating system.
+     */
+    long reservedBytes() {
+        return reserved;
+    }
+
+    /**
+     * Return the address of an unused block of `2^bits` bytes, with undefined contents.
+     */
+    long allocate(int bits) {
+        assert bits >= MIN_BITS && bits <= MAX_BITS;
+        long block = free[bits];
+        if (block != NULL) {
+            free[bits] = getLong(block);
+            return block;
+        }
+        int size = 1 << bits;
+        if (chunkCount == 0 || chunks[chunkCount - 1].capacity() - top < size) {
+            if (chunkCount == chunks.length) {
+                chunks = Arrays.copyOf(chunks, 2 * chunkCount);
+            }
+            ByteBuffer chunk = ByteBuffer.allocateDirect(Math.max(chunkBytes, size));
+            chunks[chunkCount++] = chunk.order(ByteOrder.nativeOrder());
+            reserved += chunk.capacity();
+            top = 0;
+        }
+        block = (long) (chunkCount - 1) << 32 | top;
+        top += size;
+        return block;
+    }
+
+    /**
+     * Return the block of `2^bits` bytes at `block` for reuse.
+     */
+    void free(long block, int bits) {
+        putLong(block, free[bits]);
+        free[bits] = block;
+    }
+
+    int getInt(long address) {
+        return chunks[(int) (address >>> 32)].getInt((int) address);
+    }
+
+    void putInt(long address, int value) {
+        chunks[(int) (address >>> 32)].putInt((int) address, value);
+    }
+
+    long getLong(long address) {
+        return chunks[(int) (address >>> 32)].getLong((int) address);
+    }
+
+    void putLong(long address, long value) {
+        chunks[(int) (address >>> 32)].putLong((int) address, value);
+    }
+
+    /**
+     * Copy `length` bytes from `from` to `to`.  Requires both ranges to lie in a block each, and
+     * not to overlap.
+     */
+    void copy(long from, long to, int length) {
+        chunks[(int) (to >>> 32)].put((int) to, chunks[(int) (from >>> 32)], (int) from, length);
+    }
+
+    /**
+     * Release all memory.  Addresses must not be used afterwards; they then index an empty chunk
+     * table, so a stray access throws instead of reading freed memory.
+     */
+    @Override
+    public void close() {
+        ByteBuffer[] released = chunks;
+        int count = chunkCount;
+        chunks = new ByteBuffer[0];
+        chunkCount = 0;
+        reserved = 0;
+        Arrays.fill(free, NULL);
+        for (int c = 0; c < count; c++) {
+            release(released[c]);
+        }
+    }
+
+    private static void release(ByteBuffer chunk) {
+        if (INVOKE_CLEANER == null) {
+            // The chunk is freed when the garbage collector finds it unreachable.
+            return;
+        }
+        try {
+            INVOKE_CLEANER.invokeExact(chunk);
+        } catch (Throwable e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static MethodHandle findCleaner() {
+        try {
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Field instance = unsafeClass.getDeclaredField("theUnsafe");
+            instance.setAccessible(true);
+            return MethodHandles.lookup().findVirtual(unsafeClass, "invokeCleaner",
+                    MethodType.methodType(void.class, ByteBuffer.class))
+                    .bindTo(instance.get(null));
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+}
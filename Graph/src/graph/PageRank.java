@@ -0,0 +1,115 @@
+package graph;
+
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * PageRank by pull-based power iteration over the incoming edges of a CsrGraph.  Every iteration
+ * first computes `next[v] = (1 - d) * restart[v] + d * (dangling * restart[v] + sum of
+ * contribution[u] over edges u -> v)`, where `d` is the damping factor, `contribution[u]` is the
+ * rank of `u` divided by its out-degree, and `dangling` is the total rank of vertices without
+ * outgoing edges, whose surfers restart; then the contributions for the next iteration.  Each
+ * vertex is written by exactly one thread and only reads the previous iteration, so both passes
+ * split the vertex range across the pool without synchronization.  Sums over the vertices are
+ * accumulated per chunk and added up in chunk order.
+ * A null restart vector stands for the uniform 1 / |V|, which is ordinary PageRank.
+ * Iteration stops once the L1 distance between two successive rank vectors is at most the
+ * tolerance, or after the maximum number of iterations.
+ */
+final class PageRank {
+
+    private PageRank() {
+    }
+
+    /**
+     * Writes the ranks of 'graph' into 'ranks' and returns the number of iterations run.
+     * Requires 'restart' to be null or non-negative with sum 1, and 0 <= 'damping' < 1.
+     * O((|V| + |E|) * iterations) algorithm.
+     */
+    static int powerIteration(CsrGraph<?> graph, double damping, double[] restart,
+            double tolerance, int maxIterations, ForkJoinPool pool, double[] ranks) {
+        int n = graph.vertexCount();
+        assert ranks.length == n && (restart == null || restart.length == n);
+        assert damping >= 0 && damping < 1;
+        if (n == 0) {
+            return 0;
+        }
+        double uniform = 1.0 / n;
+        double[] contributions = new double[n];
+        double[] next = new double[n];
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        double[] partial = new double[range.chunks()];
+
+        // Start from the restart vector.
+        range.forEach((chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                ranks[v] = restart == null ? uniform : restart[v];
+            }
+        });
+        double[] current = ranks;
+        double dangling = contribute(graph, range, current, contributions, partial);
+
+        int iterations = 0;
+        while (iterations < maxIterations) {
+            iterations++;
+            double[] previous = current;
+            double[] updated = previous == ranks ? next : ranks;
+            double base = dangling;
+            range.forEach((chunk, from, to) -> {
+                int[] offsets = graph.inOffsets;
+                int[] sources = graph.inTargets;
+                double distance = 0;
+                for (int v = from; v < to; v++) {
+                    double sum = 0;
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        sum += contributions[sources[e]];
+                    }
+                    double r = restart == null ? uniform : restart[v];
+                    double rank = (1 - damping) * r + damping * (base * r + sum);
+                    distance += Math.abs(rank - previous[v]);
+                    updated[v] = rank;
+                }
+                partial[chunk] = distance;
+            });
+            double distance = sum(partial);
+            current = updated;
+            if (distance <= tolerance) {
+                break;
+            }
+            dangling = contribute(graph, range, current, contributions, partial);
+        }
+        if (current != ranks) {
+            System.arraycopy(current, 0, ranks, 0, n);
+        }
+        return iterations;
+    }
+
+    /**
+     * Sets 'contributions[u]' to the share of the rank of 'u' it passes along each outgoing
+     * edge, and returns the total rank of the vertices without outgoing edges.
+     */
+    private static double contribute(CsrGraph<?> graph, ParallelRange range, double[] ranks,
+            double[] contributions, double[] partial) {
+        range.forEach((chunk, from, to) -> {
+            double dangling = 0;
+            for (int u = from; u < to; u++) {
+                int degree = graph.outOffsets[u + 1] - graph.outOffsets[u];
+                if (degree == 0) {
+                    dangling += ranks[u];
+                    contributions[u] = 0;
+                } else {
+                    contributions[u] = ranks[u] / degree;
+                }
+            }
+            partial[chunk] = dangling;
+        });
+        return sum(partial);
+    }
+
+    private static double sum(double[] values) {
+        double sum = 0;
+        for (double value : values) {
+            sum += value;
+        }
+        return sum;
+    }
+}
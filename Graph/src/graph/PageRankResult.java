@@ -0,0 +1,84 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+public class PageRankResult<LabelType> {
+    /**
+     * PageRankResult holds the PageRank of every vertex, stored in a double array indexed by
+     * vertex id: 'ranks()[v]' is the probability that a random surfer is at 'v' in the long run.
+     * The ranks sum to 1, up to the convergence tolerance.
+     */
+
+    private final double[] ranks;
+    private final int iterations;
+    private final Map<LabelType, Integer> ids;
+    private final IntFunction<LabelType> labels;
+
+    PageRankResult(double[] ranks, int iterations, Map<LabelType, Integer> ids,
+            IntFunction<LabelType> labels) {
+        this.ranks = ranks;
+        this.iterations = iterations;
+        this.ids = ids;
+        this.labels = labels;
+    }
+
+    /**
+     * Returns the id-indexed rank array. Callers must not modify it.
+     */
+    public double[] ranks() {
+        return ranks;
+    }
+
+    /**
+     * Returns the number of power iterations run.
+     */
+    public int iterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the rank of 'label'. Requires that the vertex exists.
+     */
+    public double rankOf(LabelType label) {
+        assert ids.containsKey(label);
+        return ranks[ids.get(label)];
+    }
+
+    /**
+     * Returns the labels of the 'k' highest ranked vertices, highest first; ties go to the
+     * smaller id.
+     * O(|V| log |V|) algorithm.
+     */
+    public List<LabelType> top(int k) {
+        assert k >= 0;
+        k = Math.min(k, ranks.length);
+        if (k == 0) {
+            return List.of();
+        }
+        double[] sorted = ranks.clone();
+        Arrays.parallelSort(sorted);
+        double threshold = sorted[ranks.length - k];
+        List<Integer> best = new ArrayList<>(k);
+        for (int v = 0; v < ranks.length; v++) {
+            if (ranks[v] > threshold) {
+                best.add(v);
+            }
+        }
+        for (int v = 0; v < ranks.length && best.size() < k; v++) {
+            if (ranks[v] == threshold) {
+                best.add(v);
+            }
+        }
+        best.sort(Comparator.<Integer>comparingDouble(v -> -ranks[v]).thenComparing(v -> v));
+        List<LabelType> top = new ArrayList<>(k);
+        for (int v : best) {
+            top.add(labels.apply(v));
+        }
+        return top;
+    }
+}
@@ -0,0 +1,109 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class PageRankTest {
+
+    // Returns PageRank with damping 'd' by 1000 sequential power iterations that push along
+    // the outgoing edges, with dangling rank spread uniformly.
+    private static double[] reference(IntGraph g, double d) {
+        int n = g.vertexCount();
+        double[] ranks = new double[n];
+        Arrays.fill(ranks, 1.0 / n);
+        for (int iteration = 0; iteration < 1000; iteration++) {
+            double[] next = new double[n];
+            double dangling = 0;
+            for (int u = 0; u < n; u++) {
+                if (g.outDegree(u) == 0) {
+                    dangling += ranks[u];
+                }
+                for (int i = 0; i < g.outDegree(u); i++) {
+                    next[g.outTarget(u, i)] += d * ranks[u] / g.outDegree(u);
+                }
+            }
+            for (int v = 0; v < n; v++) {
+                next[v] += (1 - d) / n + d * dangling / n;
+            }
+            ranks = next;
+        }
+        return ranks;
+    }
+
+    @DisplayName("WHEN the graph is a cycle with a dangling vertex, THEN the ranks match the "
+            + "random surfer model and sum to 1.")
+    @Test
+    void testSmallGraph() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("a", "b", "c")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("a", new BasicEdge<>("b", 1));
+        g.addEdge("b", new BasicEdge<>("c", 1));
+        g.addEdge("c", new BasicEdge<>("a", 1));
+        PageRankResult<String> cycle = g.pageRank();
+        for (String label : List.of("a", "b", "c")) {
+            assertEquals(1.0 / 3, cycle.rankOf(label), 1e-12);
+        }
+
+        g.addVertex(new BasicVertex<>("d"));
+        g.addEdge("a", new BasicEdge<>("d", 1));
+        PageRankResult<String> result = g.pageRank();
+        double[] expected = reference(g.adjacency(), 0.85);
+        assertArrayEquals(expected, result.ranks(), 1e-9);
+        assertEquals(1, Arrays.stream(result.ranks()).sum(), 1e-9);
+        assertTrue(result.iterations() < 100);
+        assertEquals(List.of("a", "c"), result.top(2));
+        assertEquals(4, result.top(10).size());
+    }
+
+    @DisplayName("WHEN the graph is large, THEN parallel power iteration converges to the ranks "
+            + "of sequential iteration.")
+    @Test
+    void testLargeGraph() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        CsrGraph<Integer> g = CsrGraphTest.makeRandom(20_000, 60_000, 10, 5).freeze();
+        PageRankResult<Integer> result = g.pageRank(0.85, 1e-12, 1000, pool);
+        assertArrayEquals(reference(g, 0.85), result.ranks(), 1e-12);
+        assertEquals(1, Arrays.stream(result.ranks()).sum(), 1e-9);
+
+        PageRankResult<Integer> capped = g.pageRank(0.85, 0, 3, pool);
+        assertEquals(3, capped.iterations());
+        pool.shutdown();
+    }
+
+    @DisplayName("WHEN ranking personalized to one seed, THEN forward push estimates are within "
+            + "the residual bound below power iteration.")
+    @Test
+    void testPersonalized() {
+        CsrGraph<Integer> g = CsrGraphTest.makeRandom(5_000, 15_000, 10, 6).freeze();
+        ForwardPush<Integer> push = g.forwardPush();
+        for (int seed : new int[] {0, 17, 4_999}) {
+            PageRankResult<Integer> exact = g.personalizedPageRank(Map.of(seed, 1.0), 0.85,
+                    1e-13, 1000, ForkJoinPool.commonPool());
+            assertEquals(1, Arrays.stream(exact.ranks()).sum(), 1e-9);
+            Map<Integer, Double> approximate = push.personalizedPageRank(seed, 0.85, 1e-7);
+            assertTrue(approximate.containsKey(seed));
+            double error = 0;
+            for (int v = 0; v < g.vertexCount(); v++) {
+                double estimate = approximate.getOrDefault(v, 0.0);
+                assertTrue(estimate <= exact.ranks()[v] + 1e-9);
+                error += exact.ranks()[v] - estimate;
+            }
+            assertTrue(error < 0.01, "total error " + error);
+        }
+
+        // Restart weights are normalized.
+        PageRankResult<Integer> scaled = g.personalizedPageRank(Map.of(1, 2.0, 2, 6.0), 0.85,
+                1e-13, 1000, ForkJoinPool.commonPool());
+        PageRankResult<Integer> unit = g.personalizedPageRank(Map.of(1, 0.25, 2, 0.75), 0.85,
+                1e-13, 1000, ForkJoinPool.commonPool());
+        assertArrayEquals(unit.ranks(), scaled.ranks(), 1e-12);
+    }
+}
@@ -0,0 +1,100 @@
+package graph;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Splits an int range into chunks and processes them in parallel on a ForkJoinPool.  Chunks are
+ * numbered, so callers can give each chunk its own output buffer and merge the buffers afterwards
+ * instead of synchronizing on a shared one.
+ */
+final class ParallelRange {
+
+    /**
+     * Smallest number of elements worth handing to another thread.
+     */
+    static final int MIN_CHUNK = 1024;
+
+    /**
+     * Processes the elements `[from, to)` of chunk number `chunk`.
+     */
+    interface Body {
+        void run(int chunk, int from, int to);
+    }
+
+    private final ForkJoinPool pool;
+    private final int from;
+    private final int to;
+    private final int chunkSize;
+    private final int chunks;
+
+    /**
+     * Prepare to process `[from, to)` in `pool`, in about 4 chunks per worker thread but no
+     * chunk smaller than MIN_CHUNK.
+     */
+    ParallelRange(ForkJoinPool pool, int from, int to) {
+        assert from <= to;
+        this.pool = pool;
+        this.from = from;
+        this.to = to;
+        int length = to - from;
+        chunkSize = Math.max(MIN_CHUNK, length / (4 * pool.getParallelism()) + 1);
+        chunks = (int) (((long) length + chunkSize - 1) / chunkSize);
+    }
+
+    /**
+     * Return the number of chunks `forEach` will pass to its body; chunk numbers are
+     * `0..chunks()`.
+     */
+    int chunks() {
+        return chunks;
+    }
+
+    /**
+     * Run `body` on every chunk and return when all of them are done.  Writes made by the body
+     * are visible to the caller afterwards.  A single chunk runs in the calling thread.
+     */
+    void forEach(Body body) {
+        if (chunks == 1) {
+            body.run(0, from, to);
+        } else if (chunks > 1) {
+            pool.invoke(new Task(body, 0, chunks));
+        }
+    }
+
+    /**
+     * Shorthand for `new ParallelRange(pool, from, to).forEach(body)`.
+     */
+    static void forEach(ForkJoinPool pool, int from, int to, Body body) {
+        new ParallelRange(pool, from, to).forEach(body);
+    }
+
+    /**
+     * Processes chunks `[first, last)`, forking halves until one chunk is left. Tasks are never
+     * serialized; RecursiveAction is Serializable only by inheritance.
+     */
+    private class Task extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final transient Body body;
+        private final int first;
+        private final int last;
+
+        Task(Body body, int first, int last) {
+            this.body = body;
+            this.first = first;
+            this.last = last;
+        }
+
+        @Override
+        protected void compute() {
+            if (last - first == 1) {
+                int start = from + first * chunkSize;
+                body.run(first, start, Math.min(to, start + chunkSize));
+                return;
+            }
+            int middle = (first + last) >>> 1;
+            invokeAll(new Task(body, first, middle), new Task(body, middle, last));
+        }
+    }
+}
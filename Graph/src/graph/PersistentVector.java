@@ -0,0 +1,82 @@
+package graph;
+
+/**
+ * An immutable array of references indexed by int, stored as a 32-way trie.  set() copies only
+ * the path from the root to the changed slot, at most 7 arrays of 32 references, and shares the
+ * rest of the trie with the old version, so both versions stay usable.  Slots never set hold
+ * null.
+ */
+final class PersistentVector<T> {
+
+    private static final int BITS = 5;
+    private static final int WIDTH = 1 << BITS;
+    private static final int MASK = WIDTH - 1;
+
+    private static final PersistentVector<?> EMPTY = new PersistentVector<>(new Object[WIDTH], 0);
+
+    /**
+     * Inner nodes are `Object[WIDTH]` arrays of children, leaves `Object[WIDTH]` arrays of
+     * values; a missing child is null.  Slot `i` is reached by the digits of `i` in base 32, most
+     * significant first, starting at bit `shift`.
+     */
+    private final Object[] root;
+    private final int shift;
+
+    private PersistentVector(Object[] root, int shift) {
+        this.root = root;
+        this.shift = shift;
+    }
+
+    @SuppressWarnings("unchecked")
+    static <T> PersistentVector<T> empty() {
+        return (PersistentVector<T>) EMPTY;
+    }
+
+    /**
+     * Return the value at slot `i`, or null if it was never set.  Requires `i >= 0`.
+     */
+    @SuppressWarnings("unchecked")
+    T get(int i) {
+        assert i >= 0;
+        if (shift < Integer.SIZE - BITS && i >>> shift >>> BITS != 0) {
+            return null;
+        }
+        Object[] node = root;
+        for (int s = shift; s > 0; s -= BITS) {
+            node = (Object[]) node[(i >>> s) & MASK];
+            if (node == null) {
+                return null;
+            }
+        }
+        return (T) node[i & MASK];
+    }
+
+    /**
+     * Return a vector equal to this one except that slot `i` holds `value`.  Requires `i >= 0`.
+     */
+    PersistentVector<T> set(int i, T value) {
+        assert i >= 0;
+        Object[] top = root;
+        int topShift = shift;
+        // Add levels above the root until slot 'i' fits.
+        while (topShift < Integer.SIZE - BITS && i >>> topShift >>> BITS != 0) {
+            Object[] parent = new Object[WIDTH];
+            parent[0] = top;
+            top = parent;
+            topShift += BITS;
+        }
+        return new PersistentVector<>(set(top, topShift, i, value), topShift);
+    }
+
+    // Returns a copy of 'node', at level 'shift', with slot 'i' below it set to 'value'.
+    private static Object[] set(Object[] node, int shift, int i, Object value) {
+        Object[] copy = node == null ? new Object[WIDTH] : node.clone();
+        if (shift == 0) {
+            copy[i & MASK] = value;
+        } else {
+            int child = (i >>> shift) & MASK;
+            copy[child] = set((Object[]) copy[child], shift - BITS, i, value);
+        }
+        return copy;
+    }
+}
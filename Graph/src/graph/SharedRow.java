@@ -0,0 +1,162 @@
+package graph;
+
+import java.util.Arrays;
+
+/**
+ * An immutable adjacency row, like IntAdjacency, whose versions share storage.  Each version
+ * sees the neighbor ids and weights `[0..size)` of arrays that later versions only ever write
+ * beyond its size, so appending to the newest version is amortized O(1) and leaves every older
+ * version intact.  Removing a neighbor copies the row.
+ * Readers may use any version from any thread.  Only one writer at a time may call the writer
+ * methods (`indexOf`, `with`, `without`), and only on the newest version, because they share a
+ * lookup table between versions.
+ */
+final class SharedRow {
+
+    private static final int INDEX_THRESHOLD = 8;
+
+    static final SharedRow EMPTY = new SharedRow(new int[0], new int[0], 0);
+
+    private final int[] ids;
+    private final int[] weights;
+    private final int size;
+
+    /**
+     * Writer-only open-addressing table from neighbor id to `position + 1`, used once the row has
+     * more than `INDEX_THRESHOLD` neighbors; null until needed.  It is handed on to the version
+     * `with` creates, so it may also index positions beyond `size`.
+     */
+    private int[] slots;
+
+    private SharedRow(int[] ids, int[] weights, int size) {
+        this.ids = ids;
+        this.weights = weights;
+        this.size = size;
+    }
+
+    int size() {
+        return size;
+    }
+
+    /**
+     * Return the id of the neighbor at position `i`.  Requires `0 <= i < size()`.
+     */
+    int id(int i) {
+        assert i >= 0 && i < size;
+        return ids[i];
+    }
+
+    /**
+     * Return the weight of the edge at position `i`.  Requires `0 <= i < size()`.
+     */
+    int weight(int i) {
+        assert i >= 0 && i < size;
+        return weights[i];
+    }
+
+    /**
+     * Return the position of neighbor `id`, or -1 if it is not a neighbor, by scanning the row.
+     * Safe for readers.
+     */
+    int find(int id) {
+        for (int i = 0; i < size; i++) {
+            if (ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return the position of neighbor `id`, or -1 if it is not a neighbor, in O(1) for large
+     * rows.  Writer only.
+     */
+    int indexOf(int id) {
+        if (size <= INDEX_THRESHOLD) {
+            return find(id);
+        }
+        if (slots == null) {
+            rebuildSlots();
+        }
+        int mask = slots.length - 1;
+        for (int s = mix(id) & mask; slots[s] != 0; s = (s + 1) & mask) {
+            int i = slots[s] - 1;
+            if (i < size && ids[i] == id) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Return this row with neighbor `id` appended with edge weight `weight`.  Requires that `id`
+     * is not a neighbor.  Writer only.
+     */
+    SharedRow with(int id, int weight) {
+        assert indexOf(id) < 0;
+        int[] newIds = ids;
+        int[] newWeights = weights;
+        if (size == ids.length) {
+            int capacity = Math.max(4, size + (size >> 1));
+            newIds = Arrays.copyOf(ids, capacity);
+            newWeights = Arrays.copyOf(weights, capacity);
+        }
+        // No version can see position 'size' yet: this is the newest version.
+        newIds[size] = id;
+        newWeights[size] = weight;
+        SharedRow next = new SharedRow(newIds, newWeights, size + 1);
+        if (slots != null) {
+            next.slots = slots;
+            slots = null;
+            if (2 * next.size > next.slots.length) {
+                next.rebuildSlots();
+            } else {
+                next.insertSlot(size);
+            }
+        }
+        return next;
+    }
+
+    /**
+     * Return this row without neighbor `id`, keeping the order of the others, or this row if
+     * `id` is not a neighbor.  Writer only.
+     */
+    SharedRow without(int id) {
+        int i = indexOf(id);
+        if (i < 0) {
+            return this;
+        }
+        int[] newIds = new int[size - 1];
+        int[] newWeights = new int[size - 1];
+        System.arraycopy(ids, 0, newIds, 0, i);
+        System.arraycopy(ids, i + 1, newIds, i, size - i - 1);
+        System.arraycopy(weights, 0, newWeights, 0, i);
+        System.arraycopy(weights, i + 1, newWeights, i, size - i - 1);
+        return new SharedRow(newIds, newWeights, size - 1);
+    }
+
+    private void rebuildSlots() {
+        // Keep the load factor at most 1/2.
+        slots = new int[Integer.highestOneBit(Math.max(2 * size, INDEX_THRESHOLD)) << 1];
+        for (int i = 0; i < size; i++) {
+            insertSlot(i);
+        }
+    }
+
+    private void insertSlot(int i) {
+        int mask = slots.length - 1;
+        int s = mix(ids[i]) & mask;
+        while (slots[s] != 0) {
+            s = (s + 1) & mask;
+        }
+        slots[s] = i + 1;
+    }
+
+    /**
+     * Spread dense ids over the table; consecutive ids would otherwise form long probe runs.
+     */
+    private static int mix(int id) {
+        int h = id * 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
@@ -0,0 +1,310 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map.Entry;
+
+public class ShortestPathCache<LabelType> {
+    /**
+     * ShortestPathCache answers shortest path queries on a BasicGraph from a cache of complete
+     * shortest path trees, one per source, so repeated queries from the same sources do not rerun
+     * Dijkstra's algorithm. Trees are kept in least recently used order and evicted when their
+     * arrays would exceed 'maxBytes'.
+     * Modify the graph only through this class, which drops exactly the trees a change can
+     * affect. For a cached tree with distances 'd' and predecessors 'p':
+     * - a new edge u -> v with weight w affects it iff d[u] + w < d[v];
+     * - removing u -> v affects it iff p[v] == u, i.e. the edge is in the tree;
+     * - changing the weight of u -> v affects it iff the edge is in the tree, or its new weight
+     *   w has d[u] + w < d[v]; so raising the weight of an edge outside the tree affects nothing;
+     * - a new vertex has no edges and affects nothing; ShortestPathResult reports it unreachable;
+     * - removing vertex x affects it iff x is its source or on one of its paths, i.e. p[v] == x
+     *   for some v. Otherwise every path avoids x, so the tree is only renumbered like the
+     *   graph, which moves its last vertex to id x.
+     * Equal-length alternatives keep the tree valid, so they never affect it. Every change costs
+     * O(1) per cached tree, and O(|V|) per cached tree for removeVertex.
+     * Not thread-safe.
+     */
+
+    /**
+     * Stats counts the queries answered from the cache (hits), the queries that ran Dijkstra's
+     * algorithm (misses), and the trees dropped to stay within budget (evictions) or because the
+     * graph changed under them (invalidations).
+     */
+    public record Stats(long hits, long misses, long evictions, long invalidations) {
+        /**
+         * Returns the fraction of queries answered from the cache, or 0 if there were none.
+         */
+        public double hitRate() {
+            long queries = hits + misses;
+            return queries == 0 ? 0 : (double) hits / queries;
+        }
+    }
+
+    /**
+     * Tree is one cached shortest path tree, indexed by the current vertex ids.
+     */
+    private record Tree(int[] distances, int[] predecessors) {
+        long bytes() {
+            // The two arrays and their headers, plus the record and its map entry.
+            return 8L * distances.length + 96;
+        }
+    }
+
+    private final BasicGraph<LabelType> graph;
+    private final long maxBytes;
+    // Map 'trees' maps a source label to its tree, least recently used first.
+    private final LinkedHashMap<LabelType, Tree> trees;
+    private long bytes;
+
+    private long hits;
+    private long misses;
+    private long evictions;
+    private long invalidations;
+
+    /**
+     * Initializes an empty ShortestPathCache over 'graph' that keeps at most 'maxBytes' bytes of
+     * trees. Requires that all edge weights of 'graph' are non-negative.
+     */
+    public ShortestPathCache(BasicGraph<LabelType> graph, long maxBytes) {
+        assert maxBytes >= 0;
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+        trees = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Returns the graph, for reading only.
+     */
+    public BasicGraph<LabelType> graph() {
+        return graph;
+    }
+
+    public Stats stats() {
+        return new Stats(hits, misses, evictions, invalidations);
+    }
+
+    /**
+     * Returns the number of cached trees.
+     */
+    public int size() {
+        return trees.size();
+    }
+
+    /**
+     * Returns the bytes held by the cached trees, at most 'maxBytes'.
+     */
+    public long bytes() {
+        return bytes;
+    }
+
+    /**
+     * Drops every cached tree.
+     */
+    public void clear() {
+        trees.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Returns the shortest path tree from 'start' to every vertex reachable from it, from the
+     * cache if possible. The result is valid until the next change to the graph.
+     * Requires that 'start' exists in the graph.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start) {
+        assert graph.containsVertex(start);
+        Tree tree = trees.get(start);
+        if (tree != null) {
+            hits++;
+        } else {
+            misses++;
+            ShortestPathResult<LabelType> result = graph.shortestPath(start);
+            tree = new Tree(result.distances(), result.predecessors());
+            put(start, tree);
+        }
+        return new ShortestPathResult<>(graph.index.get(start), tree.distances(),
+                tree.predecessors(), graph.index, id -> graph.vertices.get(id).label());
+    }
+
+    /**
+     * Returns the shortest path from 'start' to 'target'. Unlike BasicGraph.shortestPath(start,
+     * target), a miss computes the whole tree from 'start', so that later queries from 'start'
+     * hit.
+     */
+    public ShortestPathResult<LabelType> shortestPath(LabelType start, LabelType target) {
+        assert graph.containsVertex(target);
+        return shortestPath(start);
+    }
+
+    // Caches 'tree' for 'source', evicting least recently used trees to stay within budget.
+    private void put(LabelType source, Tree tree) {
+        if (tree.bytes() > maxBytes) {
+            return;
+        }
+        trees.put(source, tree);
+        bytes += tree.bytes();
+        Iterator<Tree> eldest = trees.values().iterator();
+        while (bytes > maxBytes) {
+            bytes -= eldest.next().bytes();
+            eldest.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Adds vertex 'label' without edges if it does not already exist in the graph. Returns true
+     * if it was added. Invalidates nothing.
+     */
+    public boolean addVertex(LabelType label) {
+        if (graph.containsVertex(label)) {
+            return false;
+        }
+        graph.addVertex(new BasicVertex<>(label));
+        return true;
+    }
+
+    /**
+     * Returns and removes vertex 'label' and all of its edges, see BasicGraph.removeVertex().
+     * Drops its own tree and the trees with a path through it, and renumbers the others.
+     * Requires that the vertex exists.
+     */
+    public Vertex<LabelType> removeVertex(LabelType label) {
+        assert graph.containsVertex(label);
+        int x = graph.index.get(label);
+        int last = graph.vertexCount() - 1;
+        Iterator<Entry<LabelType, Tree>> entries = trees.entrySet().iterator();
+        while (entries.hasNext()) {
+            Entry<LabelType, Tree> entry = entries.next();
+            Tree tree = entry.getValue();
+            if (entry.getKey().equals(label) || isPredecessor(tree, x)) {
+                invalidate(entries, tree);
+            } else {
+                Tree renumbered = renumber(tree, x, last);
+                bytes += renumbered.bytes() - tree.bytes();
+                entry.setValue(renumbered);
+            }
+        }
+        return graph.removeVertex(label);
+    }
+
+    // Returns whether some vertex of 'tree' has 'x' as predecessor.
+    private static boolean isPredecessor(Tree tree, int x) {
+        for (int p : tree.predecessors()) {
+            if (p == x) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns 'tree' without vertex 'x', a predecessor of none, and with vertex 'last' moved to
+     * id 'x', as BasicGraph does when it removes 'x'.
+     */
+    private static Tree renumber(Tree tree, int x, int last) {
+        int length = Math.min(tree.distances().length, last);
+        int[] distances = Arrays.copyOf(tree.distances(), length);
+        int[] predecessors = Arrays.copyOf(tree.predecessors(), length);
+        if (x < length) {
+            boolean hasLast = last < tree.distances().length;
+            distances[x] = hasLast ? tree.distances()[last] : ShortestPathResult.UNREACHABLE;
+            predecessors[x] = hasLast ? tree.predecessors()[last] : ShortestPathResult.NONE;
+            for (int v = 0; v < length; v++) {
+                if (predecessors[v] == last) {
+                    predecessors[v] = x;
+                }
+            }
+        }
+        return new Tree(distances, predecessors);
+    }
+
+    /**
+     * Add the edge: 'label' -> 'edge'.neighbor() if edge doesn't already exist. Returns true if
+     * the edge is added, dropping the trees in which it is a shortcut.
+     * Requires both vertices exist in graph and a non-negative weight.
+     */
+    public boolean addEdge(LabelType label, BasicEdge<LabelType, Integer> edge) {
+        assert edge.weight() >= 0;
+        if (!graph.addEdge(label, edge)) {
+            return false;
+        }
+        invalidateShortcuts(graph.index.get(label), graph.index.get(edge.neighbor()),
+                edge.weight(), false);
+        return true;
+    }
+
+    /**
+     * Remove the edge: 'sourceLabel' -> 'destLabel'. Returns true if the edge existed, dropping
+     * the trees that contain it.
+     * Requires 'sourceLabel' and 'destLabel' vertices exist in graph.
+     */
+    public boolean removeEdge(LabelType sourceLabel, LabelType destLabel) {
+        if (!graph.removeEdge(sourceLabel, destLabel)) {
+            return false;
+        }
+        int u = graph.index.get(sourceLabel);
+        int v = graph.index.get(destLabel);
+        Iterator<Tree> values = trees.values().iterator();
+        while (values.hasNext()) {
+            Tree tree = values.next();
+            if (inTree(tree, u, v)) {
+                invalidate(values, tree);
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Sets the weight of the edge: 'sourceLabel' -> 'destLabel' to 'weight', see
+     * BasicGraph.setEdgeWeight(). Returns true if the edge exists, dropping the trees that contain
+     * it and those in which it becomes a shortcut.
+     * Requires 'sourceLabel' and 'destLabel' vertices exist in graph and a non-negative weight.
+     */
+    public boolean setEdgeWeight(LabelType sourceLabel, LabelType destLabel, int weight) {
+        assert weight >= 0;
+        Integer old = graph.getVertex(sourceLabel).outgoingEdges().get(destLabel);
+        if (!graph.setEdgeWeight(sourceLabel, destLabel, weight)) {
+            return false;
+        }
+        if (old != weight) {
+            invalidateShortcuts(graph.index.get(sourceLabel), graph.index.get(destLabel),
+                    weight, true);
+        }
+        return true;
+    }
+
+    /**
+     * Drops the trees in which edge 'u' -> 'v' with weight 'weight' is shorter than the path to
+     * 'v', and if 'orInTree', those that contain the edge.
+     */
+    private void invalidateShortcuts(int u, int v, int weight, boolean orInTree) {
+        Iterator<Tree> values = trees.values().iterator();
+        while (values.hasNext()) {
+            Tree tree = values.next();
+            if ((orInTree && inTree(tree, u, v)) || isShortcut(tree, u, v, weight)) {
+                invalidate(values, tree);
+            }
+        }
+    }
+
+    private static boolean inTree(Tree tree, int u, int v) {
+        return v < tree.predecessors().length && tree.predecessors()[v] == u;
+    }
+
+    // Returns whether 'u' is reachable in 'tree' and 'u' -> 'v' shortens the path to 'v'.
+    private static boolean isShortcut(Tree tree, int u, int v, int weight) {
+        int[] distances = tree.distances();
+        if (u >= distances.length || distances[u] == ShortestPathResult.UNREACHABLE) {
+            return false;
+        }
+        // A vertex added after the tree was computed is unreachable in it.
+        long old = v < distances.length ? distances[v] : ShortestPathResult.UNREACHABLE;
+        return (long) distances[u] + weight < old;
+    }
+
+    private void invalidate(Iterator<?> position, Tree tree) {
+        position.remove();
+        bytes -= tree.bytes();
+        invalidations++;
+    }
+}
@@ -0,0 +1,174 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ShortestPathCacheTest {
+
+    // Returns the path a -> b -> c -> d with weight 1 per edge, plus the edge a -> d of weight 5.
+    private static BasicGraph<String> makePath() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("a", "b", "c", "d")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("a", new BasicEdge<>("b", 1));
+        g.addEdge("b", new BasicEdge<>("c", 1));
+        g.addEdge("c", new BasicEdge<>("d", 1));
+        g.addEdge("a", new BasicEdge<>("d", 5));
+        return g;
+    }
+
+    @DisplayName("WHEN an edge changes, THEN only the trees it can affect are dropped.")
+    @Test
+    void testPreciseInvalidation() {
+        ShortestPathCache<String> cache = new ShortestPathCache<>(makePath(), 1 << 20);
+        assertEquals(List.of("a", "b", "c", "d"), cache.shortestPath("a", "d").pathTo("d"));
+        cache.shortestPath("b");
+        assertEquals(3, cache.shortestPath("a").distanceTo("d"));
+        assertEquals(new ShortestPathCache.Stats(1, 2, 0, 0), cache.stats());
+
+        // Raising a non-tree edge, adding an edge that is no shortcut, or a vertex: no effect.
+        assertTrue(cache.setEdgeWeight("a", "d", 9));
+        assertTrue(cache.addEdge("b", new BasicEdge<>("d", 2)));
+        assertTrue(cache.addVertex("e"));
+        assertFalse(cache.addVertex("e"));
+        assertEquals(2, cache.size());
+        assertFalse(cache.shortestPath("a").hasPathTo("e"));
+
+        // A shortcut from 'b' drops the trees that reach 'b', but not the tree of 'c'.
+        cache.shortestPath("c");
+        assertTrue(cache.setEdgeWeight("b", "d", 0));
+        assertEquals(1, cache.size());
+        assertEquals(1, cache.shortestPath("a").distanceTo("d"));
+
+        // Removing an edge drops the trees that contain it, here the tree of 'c' but not of 'a'.
+        assertTrue(cache.removeEdge("c", "d"));
+        assertEquals(1, cache.size());
+        assertTrue(cache.removeEdge("b", "d"));
+        assertEquals(0, cache.size());
+        assertEquals(9, cache.shortestPath("a").distanceTo("d"));
+        assertEquals(9, cache.graph().getVertex("a").outgoingEdges().get("d"));
+
+        ShortestPathCache.Stats stats = cache.stats();
+        assertEquals(2, stats.hits());
+        assertEquals(4, stats.invalidations());
+        assertEquals(0.5, new ShortestPathCache.Stats(1, 1, 0, 0).hitRate());
+    }
+
+    @DisplayName("WHEN a vertex is removed, THEN only its own tree and the trees with a path "
+            + "through it are dropped, AND the others are renumbered.")
+    @Test
+    void testRemoveVertex() {
+        ShortestPathCache<String> cache = new ShortestPathCache<>(makePath(), 1 << 20);
+        cache.addVertex("e");
+        cache.addEdge("b", new BasicEdge<>("e", 1));
+        cache.shortestPath("a");
+        cache.shortestPath("b");
+        cache.shortestPath("e");
+
+        // 'e' is a leaf of the trees of 'a' and 'b', which keep their distances.
+        cache.removeVertex("e");
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.stats().invalidations());
+        ShortestPathResult<String> fromA = cache.shortestPath("a");
+        assertEquals(List.of("a", "b", "c", "d"), fromA.pathTo("d"));
+        assertEquals(3, fromA.distanceTo("d"));
+        assertEquals(2, cache.shortestPath("b").distanceTo("d"));
+
+        // 'c' is on the path a -> d, and moves 'd' to its id.
+        cache.removeVertex("c");
+        assertEquals(0, cache.size());
+        assertEquals(5, cache.shortestPath("a").distanceTo("d"));
+        assertEquals(3, cache.stats().invalidations());
+        assertEquals(2, cache.stats().hits());
+    }
+
+    @DisplayName("WHEN the cache is full, THEN the least recently used tree is evicted.")
+    @Test
+    void testEviction() {
+        BasicGraph<String> g = makePath();
+        long tree = 8L * g.vertexCount() + 96;
+        ShortestPathCache<String> cache = new ShortestPathCache<>(g, 2 * tree);
+        cache.shortestPath("a");
+        cache.shortestPath("b");
+        cache.shortestPath("a");
+        cache.shortestPath("c");
+        assertEquals(2, cache.size());
+        assertEquals(2 * tree, cache.bytes());
+        assertEquals(1, cache.stats().evictions());
+        cache.shortestPath("a");
+        assertEquals(2, cache.stats().hits());
+        cache.clear();
+        assertEquals(0, cache.bytes());
+
+        ShortestPathCache<String> tiny = new ShortestPathCache<>(g, tree - 1);
+        tiny.shortestPath("a");
+        assertEquals(0, tiny.size());
+    }
+
+    @DisplayName("WHEN random changes are made, THEN every query matches a fresh Dijkstra run.")
+    @Test
+    void testRandomChanges() {
+        Random rng = new Random(23);
+        BasicGraph<Integer> expected = new BasicGraph<>();
+        ShortestPathCache<Integer> cache = new ShortestPathCache<>(new BasicGraph<>(), 1 << 16);
+        int next = 0;
+        for (; next < 60; next++) {
+            expected.addVertex(new BasicVertex<>(next));
+            cache.addVertex(next);
+        }
+        for (int step = 0; step < 4000; step++) {
+            List<Integer> labels = expected.dfsTraversal(DfsOrder.PRE_ORDER);
+            int a = labels.get(rng.nextInt(labels.size()));
+            int b = labels.get(rng.nextInt(labels.size()));
+            int weight = rng.nextInt(20);
+            switch (rng.nextInt(8)) {
+                case 0 -> {
+                    expected.addVertex(new BasicVertex<>(next));
+                    cache.addVertex(next++);
+                }
+                case 1 -> {
+                    if (labels.size() > 30) {
+                        assertEquals(expected.removeVertex(a).outgoingEdges(),
+                                cache.removeVertex(a).outgoingEdges());
+                    }
+                }
+                case 2 -> assertEquals(expected.removeEdge(a, b), cache.removeEdge(a, b));
+                case 3 -> assertEquals(expected.setEdgeWeight(a, b, weight),
+                        cache.setEdgeWeight(a, b, weight));
+                default -> {
+                    if (a != b) {
+                        assertEquals(expected.addEdge(a, new BasicEdge<>(b, weight)),
+                                cache.addEdge(a, new BasicEdge<>(b, weight)));
+                    }
+                }
+            }
+            int source = labels.get(rng.nextInt(Math.min(5, labels.size())));
+            if (expected.containsVertex(source)) {
+                ShortestPathResult<Integer> want = expected.shortestPath(source);
+                ShortestPathResult<Integer> got = cache.shortestPath(source);
+                for (int v : expected.dfsTraversal(DfsOrder.PRE_ORDER)) {
+                    assertEquals(want.distanceTo(v), got.distanceTo(v));
+                    assertEquals(want.distanceTo(v), pathLength(expected, got.pathTo(v)));
+                }
+            }
+        }
+        assertTrue(cache.stats().hits() > 0 && cache.stats().invalidations() > 0);
+    }
+
+    // Returns the length of 'path' in 'g', or UNREACHABLE if it is empty.
+    private static int pathLength(BasicGraph<Integer> g, List<Integer> path) {
+        if (path.isEmpty()) {
+            return ShortestPathResult.UNREACHABLE;
+        }
+        int length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            length += g.getVertex(path.get(i - 1)).outgoingEdges().get(path.get(i));
+        }
+        return length;
+    }
+}
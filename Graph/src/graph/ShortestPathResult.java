@@ -0,0 +1,99 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntFunction;
+
+public class ShortestPathResult<LabelType> {
+    /**
+     * ShortestPathResult holds the shortest path tree computed from one source vertex. Distances
+     * and predecessors are stored in int arrays indexed by vertex id: 'distances()[v]' is the
+     * length of the shortest path from the source to 'v', or UNREACHABLE, and
+     * 'predecessors()[v]' is the id of the vertex before 'v' on that path, or NONE.
+     * Ids are those the vertices had when the query ran. Removing vertices from a BasicGraph
+     * renumbers them, so read the result before removing vertices, or query a CsrGraph snapshot.
+     * For a single-target query, only the vertices settled before the target have final values;
+     * the others hold upper bounds.
+     */
+
+    // Distance of a vertex that has no path from the source.
+    public static final int UNREACHABLE = Integer.MAX_VALUE;
+    // Predecessor of the source and of unreachable vertices.
+    public static final int NONE = -1;
+
+    private final int source;
+    private final int[] distances;
+    private final int[] predecessors;
+    private final Map<LabelType, Integer> ids;
+    private final IntFunction<LabelType> labels;
+
+    /**
+     * Initializes a result from the arrays filled in by ShortestPaths. 'ids' and 'labels'
+     * translate between labels and the ids used as array indices.
+     */
+    ShortestPathResult(int source, int[] distances, int[] predecessors,
+            Map<LabelType, Integer> ids, IntFunction<LabelType> labels) {
+        assert distances.length == predecessors.length;
+        this.source = source;
+        this.distances = distances;
+        this.predecessors = predecessors;
+        this.ids = ids;
+        this.labels = labels;
+    }
+
+    public LabelType source() {
+        return labels.apply(source);
+    }
+
+    /**
+     * Returns the id-indexed distance array. Callers must not modify it.
+     */
+    public int[] distances() {
+        return distances;
+    }
+
+    /**
+     * Returns the id-indexed predecessor array. Callers must not modify it.
+     */
+    public int[] predecessors() {
+        return predecessors;
+    }
+
+    /**
+     * Returns the length of the shortest path from the source to 'label', or UNREACHABLE if
+     * there is none.
+     */
+    public int distanceTo(LabelType label) {
+        int v = idOf(label);
+        return v == NONE ? UNREACHABLE : distances[v];
+    }
+
+    public boolean hasPathTo(LabelType label) {
+        return distanceTo(label) != UNREACHABLE;
+    }
+
+    /**
+     * Returns the labels on the shortest path from the source to 'label', both included, or an
+     * empty list if there is no path.
+     */
+    public List<LabelType> pathTo(LabelType label) {
+        int v = idOf(label);
+        if (v == NONE || distances[v] == UNREACHABLE) {
+            return List.of();
+        }
+        List<LabelType> path = new ArrayList<>();
+        for (; v != NONE; v = predecessors[v]) {
+            path.add(labels.apply(v));
+        }
+        Collections.reverse(path);
+        return path;
+    }
+
+    // Returns the id of 'label', or NONE if it was not a vertex when the query ran.
+    private int idOf(LabelType label) {
+        Integer v = ids.get(label);
+        return v == null || v >= distances.length ? NONE : v;
+    }
+}
@@ -0,0 +1,210 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Single-source shortest path algorithms over an IntGraph.  Results are written into caller
+ * supplied id-indexed arrays, so the graphs can wrap them in a ShortestPathResult with their own
+ * label translation.  All algorithms require non-negative edge weights.
+ */
+final class ShortestPaths {
+
+    private ShortestPaths() {
+    }
+
+    /**
+     * Dijkstra's algorithm from `source`.  Fills `distances` and `predecessors` (both of length
+     * `graph.vertexCount()`) with the shortest path tree.  If `target` is not
+     * `ShortestPathResult.NONE`, stops as soon as `target` is settled.  `frontier` must be empty;
+     * it is used as the decrease-key queue of vertex ids and is left empty or holding unsettled
+     * vertices.  Returns the number of vertices settled.
+     */
+    static int dijkstra(IntGraph graph, int source, int target, int[] distances,
+            int[] predecessors, IntPriorityQueue frontier) {
+        assert frontier.isEmpty();
+        Arrays.fill(distances, ShortestPathResult.UNREACHABLE);
+        Arrays.fill(predecessors, ShortestPathResult.NONE);
+        distances[source] = 0;
+        frontier.addOrUpdate(source, 0);
+        int settled = 0;
+        while (!frontier.isEmpty()) {
+            int vertex = frontier.removeMin();
+            settled++;
+            if (vertex == target) {
+                return settled;
+            }
+            for (int i = 0; i < graph.outDegree(vertex); i++) {
+                int neighbor = graph.outTarget(vertex, i);
+                int weight = graph.outWeight(vertex, i);
+                assert weight >= 0;
+                // Settled vertices never pass this test, since their distance is already minimal.
+                long distance = (long) distances[vertex] + weight;
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = (int) distance;
+                    predecessors[neighbor] = vertex;
+                    frontier.addOrUpdate(neighbor, (int) distance);
+                }
+            }
+        }
+        return settled;
+    }
+
+    /**
+     * A* search from `source` to `target`: Dijkstra's algorithm with the priority of a vertex
+     * raised by `heuristic`, a lower bound on its distance to `target` (0 for `target` itself,
+     * and any value for vertices that cannot reach it).  Vertices towards `target` are thus
+     * settled first, and the search stops when `target` is settled.  A vertex whose distance
+     * drops after it was settled is queued again, so an admissible heuristic is enough for a
+     * correct result; with a consistent one, every vertex is settled at most once.  Fills
+     * `distances` and `predecessors` as dijkstra() does for a single target.  Returns the number
+     * of vertices settled.
+     */
+    static int aStar(IntGraph graph, int source, int target, IntUnaryOperator heuristic,
+            int[] distances, int[] predecessors, IntPriorityQueue frontier) {
+        assert frontier.isEmpty() && heuristic.applyAsInt(target) == 0;
+        Arrays.fill(distances, ShortestPathResult.UNREACHABLE);
+        Arrays.fill(predecessors, ShortestPathResult.NONE);
+        distances[source] = 0;
+        frontier.addOrUpdate(source, priority(0, heuristic.applyAsInt(source)));
+        int settled = 0;
+        while (!frontier.isEmpty()) {
+            int vertex = frontier.removeMin();
+            settled++;
+            if (vertex == target) {
+                break;
+            }
+            for (int i = 0; i < graph.outDegree(vertex); i++) {
+                int neighbor = graph.outTarget(vertex, i);
+                int weight = graph.outWeight(vertex, i);
+                assert weight >= 0;
+                long distance = (long) distances[vertex] + weight;
+                if (distance < distances[neighbor]) {
+                    distances[neighbor] = (int) distance;
+                    predecessors[neighbor] = vertex;
+                    frontier.addOrUpdate(neighbor,
+                            priority(distance, heuristic.applyAsInt(neighbor)));
+                }
+            }
+        }
+        frontier.clear();
+        return settled;
+    }
+
+    /**
+     * Return a view of `graph` with every edge reversed.
+     */
+    static IntGraph reverse(IntGraph graph) {
+        return new IntGraph() {
+            @Override
+            public int vertexCount() {
+                return graph.vertexCount();
+            }
+
+            @Override
+            public int outDegree(int v) {
+                return graph.inDegree(v);
+            }
+
+            @Override
+            public int outTarget(int v, int i) {
+                return graph.inTarget(v, i);
+            }
+
+            @Override
+            public int outWeight(int v, int i) {
+                return graph.inWeight(v, i);
+            }
+
+            @Override
+            public int inDegree(int v) {
+                return graph.outDegree(v);
+            }
+
+            @Override
+            public int inTarget(int v, int i) {
+                return graph.outTarget(v, i);
+            }
+
+            @Override
+            public int inWeight(int v, int i) {
+                return graph.outWeight(v, i);
+            }
+        };
+    }
+
+    // Returns 'distance + estimate', saturated below UNREACHABLE.
+    private static int priority(long distance, int estimate) {
+        return (int) Math.min(distance + Math.max(0, estimate),
+                ShortestPathResult.UNREACHABLE - 1);
+    }
+
+    /**
+     * Bidirectional Dijkstra from `source` to `target`: a forward search from `source` over
+     * outgoing edges and a backward search from `target` over incoming edges, each step advancing
+     * the search whose next vertex is closer.  `best` is the shortest path found so far through a
+     * vertex reached by both; once the two next vertices are together at least as far, no shorter
+     * path can exist.  Both searches stop after settling about the vertices within half the
+     * distance of their endpoint, instead of all within the whole distance.
+     * On return `distances` and `predecessors` hold the forward search, and the path from the
+     * meeting vertex on to `target` is copied into them, so that following `predecessors` from
+     * `target` yields the shortest path; other vertices hold upper bounds as for dijkstra() with
+     * a target.  `backward` and `successors` are scratch arrays of the same length.  Both queues
+     * must be empty.  Returns the number of vertices settled by both searches.
+     */
+    static int bidirectional(IntGraph graph, int source, int target, int[] distances,
+            int[] predecessors, int[] backward, int[] successors,
+            IntPriorityQueue forwardFrontier, IntPriorityQueue backwardFrontier) {
+        assert forwardFrontier.isEmpty() && backwardFrontier.isEmpty();
+        Arrays.fill(distances, ShortestPathResult.UNREACHABLE);
+        Arrays.fill(predecessors, ShortestPathResult.NONE);
+        Arrays.fill(backward, ShortestPathResult.UNREACHABLE);
+        Arrays.fill(successors, ShortestPathResult.NONE);
+        distances[source] = 0;
+        backward[target] = 0;
+        forwardFrontier.addOrUpdate(source, 0);
+        backwardFrontier.addOrUpdate(target, 0);
+        long best = source == target ? 0 : ShortestPathResult.UNREACHABLE;
+        int meeting = source == target ? source : ShortestPathResult.NONE;
+        int settled = 0;
+        while (!forwardFrontier.isEmpty() && !backwardFrontier.isEmpty()
+                && (long) forwardFrontier.minPriority() + backwardFrontier.minPriority() < best) {
+            boolean forward = forwardFrontier.minPriority() <= backwardFrontier.minPriority();
+            int vertex = forward ? forwardFrontier.removeMin() : backwardFrontier.removeMin();
+            settled++;
+            int degree = forward ? graph.outDegree(vertex) : graph.inDegree(vertex);
+            for (int i = 0; i < degree; i++) {
+                int neighbor = forward ? graph.outTarget(vertex, i) : graph.inTarget(vertex, i);
+                int weight = forward ? graph.outWeight(vertex, i) : graph.inWeight(vertex, i);
+                assert weight >= 0;
+                int[] near = forward ? distances : backward;
+                int[] far = forward ? backward : distances;
+                long distance = (long) near[vertex] + weight;
+                if (distance < near[neighbor]) {
+                    near[neighbor] = (int) distance;
+                    (forward ? predecessors : successors)[neighbor] = vertex;
+                    (forward ? forwardFrontier : backwardFrontier).addOrUpdate(neighbor,
+                            (int) distance);
+                    if (far[neighbor] != ShortestPathResult.UNREACHABLE
+                            && distance + far[neighbor] < best) {
+                        best = distance + far[neighbor];
+                        meeting = neighbor;
+                    }
+                }
+            }
+        }
+        forwardFrontier.clear();
+        backwardFrontier.clear();
+        if (meeting == ShortestPathResult.NONE) {
+            distances[target] = ShortestPathResult.UNREACHABLE;
+            predecessors[target] = ShortestPathResult.NONE;
+            return settled;
+        }
+        for (int v = meeting; v != target; v = successors[v]) {
+            int next = successors[v];
+            distances[next] = distances[v] + (backward[v] - backward[next]);
+            predecessors[next] = v;
+        }
+        return settled;
+    }
+}
@@ -0,0 +1,133 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class ShortestPathsTest {
+
+    static final int SIDE = 60;
+
+    // Returns a SIDE x SIDE grid with edges both ways between neighbors, weighing 10 to 19.
+    // Vertex 'y * SIDE + x' is at (x, y).
+    static BasicGraph<Integer> makeGrid(long seed) {
+        BasicGraph<Integer> g = new BasicGraph<>();
+        Random rng = new Random(seed);
+        for (int v = 0; v < SIDE * SIDE; v++) {
+            g.addVertex(new BasicVertex<>(v));
+        }
+        for (int v = 0; v < SIDE * SIDE; v++) {
+            if (v % SIDE + 1 < SIDE) {
+                g.addEdge(v, new BasicEdge<>(v + 1, 10 + rng.nextInt(10)));
+                g.addEdge(v + 1, new BasicEdge<>(v, 10 + rng.nextInt(10)));
+            }
+            if (v + SIDE < SIDE * SIDE) {
+                g.addEdge(v, new BasicEdge<>(v + SIDE, 10 + rng.nextInt(10)));
+                g.addEdge(v + SIDE, new BasicEdge<>(v, 10 + rng.nextInt(10)));
+            }
+        }
+        return g;
+    }
+
+    // Returns the length of 'path' in 'g'.
+    static int length(CsrGraph<Integer> g, List<Integer> path) {
+        int length = 0;
+        for (int i = 1; i < path.size(); i++) {
+            length += g.getVertex(path.get(i - 1)).outgoingEdges().get(path.get(i));
+        }
+        return length;
+    }
+
+    @DisplayName("WHEN the heuristic is the grid distance, THEN A* finds the shortest paths AND "
+            + "settles fewer vertices than Dijkstra's algorithm.")
+    @Test
+    void testAStarOnGrid() {
+        BasicGraph<Integer> g = makeGrid(3);
+        CsrGraph<Integer> csr = g.freeze();
+        Random rng = new Random(4);
+        long dijkstraSettled = 0;
+        long aStarSettled = 0;
+        for (int query = 0; query < 50; query++) {
+            int start = rng.nextInt(SIDE * SIDE);
+            int target = rng.nextInt(SIDE * SIDE);
+            ShortestPathResult<Integer> expected = g.shortestPath(start, target);
+            ShortestPathResult<Integer> result = g.aStar(start, target, v -> 10
+                    * (Math.abs(v % SIDE - target % SIDE) + Math.abs(v / SIDE - target / SIDE)));
+            assertEquals(expected.distanceTo(target), result.distanceTo(target));
+            assertEquals(expected.distanceTo(target), length(csr, result.pathTo(target)));
+
+            int[] distances = new int[SIDE * SIDE];
+            int[] predecessors = new int[SIDE * SIDE];
+            dijkstraSettled += ShortestPaths.dijkstra(csr, start, target, distances, predecessors,
+                    new IntIndexedDaryHeap(SIDE * SIDE));
+            aStarSettled += ShortestPaths.aStar(csr, start, target, v -> 10
+                    * (Math.abs(v % SIDE - target % SIDE) + Math.abs(v / SIDE - target / SIDE)),
+                    distances, predecessors, new IntIndexedDaryHeap(SIDE * SIDE));
+        }
+        assertTrue(2 * aStarSettled < dijkstraSettled);
+    }
+
+    @DisplayName("WHEN A* uses landmarks, THEN it finds the shortest paths, including to "
+            + "unreachable vertices.")
+    @Test
+    void testAStarWithLandmarks() {
+        BasicGraph<Integer> g = CsrGraphTest.makeRandom(2000, 6000, 50, 8);
+        CsrGraph<Integer> csr = g.freeze();
+        Landmarks<Integer> landmarks = csr.landmarks(8);
+        assertEquals(8, landmarks.count());
+        assertTrue(csr.containsVertex(landmarks.landmark(7)));
+        Random rng = new Random(9);
+        for (int query = 0; query < 200; query++) {
+            int start = rng.nextInt(2000);
+            int target = rng.nextInt(2000);
+            ShortestPathResult<Integer> expected = csr.shortestPath(start, target);
+            ShortestPathResult<Integer> result = csr.aStar(start, target, landmarks);
+            assertEquals(expected.distanceTo(target), result.distanceTo(target));
+            if (result.hasPathTo(target)) {
+                assertEquals(result.distanceTo(target), length(csr, result.pathTo(target)));
+            } else {
+                assertEquals(List.of(), result.pathTo(target));
+            }
+        }
+    }
+
+    @DisplayName("WHEN the search is bidirectional, THEN it finds the shortest paths AND settles "
+            + "fewer vertices than Dijkstra's algorithm.")
+    @Test
+    void testBidirectional() {
+        BasicGraph<Integer> grid = makeGrid(5);
+        CsrGraph<Integer> csr = grid.freeze();
+        BasicGraph<Integer> random = CsrGraphTest.makeRandom(2000, 6000, 50, 10);
+        Random rng = new Random(11);
+        long dijkstraSettled = 0;
+        long bidirectionalSettled = 0;
+        for (int query = 0; query < 100; query++) {
+            int start = rng.nextInt(2000);
+            int target = rng.nextInt(2000);
+            ShortestPathResult<Integer> expected = random.shortestPath(start, target);
+            ShortestPathResult<Integer> result = random.bidirectionalShortestPath(start, target);
+            assertEquals(expected.distanceTo(target), result.distanceTo(target));
+            assertEquals(expected.hasPathTo(target), !result.pathTo(target).isEmpty());
+
+            ShortestPathResult<Integer> onGrid = csr.bidirectionalShortestPath(start, target);
+            assertEquals(grid.shortestPath(start, target).distanceTo(target),
+                    onGrid.distanceTo(target));
+            assertEquals(start, onGrid.pathTo(target).getFirst());
+            assertEquals(onGrid.distanceTo(target), length(csr, onGrid.pathTo(target)));
+
+            int n = SIDE * SIDE;
+            int[] distances = new int[n];
+            int[] predecessors = new int[n];
+            dijkstraSettled += ShortestPaths.dijkstra(csr, start, target, distances, predecessors,
+                    new IntIndexedDaryHeap(n));
+            bidirectionalSettled += ShortestPaths.bidirectional(csr, start, target, distances,
+                    predecessors, new int[n], new int[n], new IntIndexedDaryHeap(n),
+                    new IntIndexedDaryHeap(n));
+        }
+        assertTrue(bidirectionalSettled < dijkstraSettled);
+        assertEquals(List.of(7), csr.bidirectionalShortestPath(7, 7).pathTo(7));
+    }
+}
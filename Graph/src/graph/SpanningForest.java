@@ -0,0 +1,92 @@
+package graph;
+
+import java.util.function.IntFunction;
+
+public class SpanningForest<LabelType> {
+    /**
+     * SpanningForest holds a minimum spanning forest of a graph with edge directions ignored: a
+     * tree of least total weight over every weakly connected component. Its edges are stored in
+     * arrays indexed from 0 to edgeCount() - 1, in increasing weight, with vertex ids as
+     * endpoints: edge 'i' joins 'sources()[i]' to 'targets()[i]', in the direction of the graph
+     * edge it comes from, and weighs 'weights()[i]'.
+     */
+
+    private final int[] sources;
+    private final int[] targets;
+    private final int[] weights;
+    private final long totalWeight;
+    private final IntFunction<LabelType> labels;
+
+    SpanningForest(int[] sources, int[] targets, int[] weights, IntFunction<LabelType> labels) {
+        assert sources.length == targets.length && sources.length == weights.length;
+        this.sources = sources;
+        this.targets = targets;
+        this.weights = weights;
+        this.labels = labels;
+        long total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        totalWeight = total;
+    }
+
+    /**
+     * Returns the number of edges in the forest: the number of vertices minus the number of
+     * weakly connected components.
+     */
+    public int edgeCount() {
+        return sources.length;
+    }
+
+    /**
+     * Returns the sum of the edge weights.
+     */
+    public long totalWeight() {
+        return totalWeight;
+    }
+
+    /**
+     * Returns the source ids of the edges. Callers must not modify it.
+     */
+    public int[] sources() {
+        return sources;
+    }
+
+    /**
+     * Returns the target ids of the edges. Callers must not modify it.
+     */
+    public int[] targets() {
+        return targets;
+    }
+
+    /**
+     * Returns the weights of the edges. Callers must not modify it.
+     */
+    public int[] weights() {
+        return weights;
+    }
+
+    /**
+     * Returns the label of the source of edge 'i'.
+     */
+    public LabelType source(int i) {
+        assert i >= 0 && i < edgeCount();
+        return labels.apply(sources[i]);
+    }
+
+    /**
+     * Returns the label of the target of edge 'i'.
+     */
+    public LabelType target(int i) {
+        assert i >= 0 && i < edgeCount();
+        return labels.apply(targets[i]);
+    }
+
+    /**
+     * Returns the weight of edge 'i'.
+     */
+    public int weight(int i) {
+        assert i >= 0 && i < edgeCount();
+        return weights[i];
+    }
+}
@@ -0,0 +1,20 @@
+package graph;
+
+/**
+ * The parallel algorithm that finds minimum spanning forests.
+ */
+public enum SpanningForestAlgorithm {
+    /**
+     * Borůvka: rounds in which every component picks its lightest outgoing edge, in parallel
+     * with atomic minimums, then merges along those edges in a lock-free union-find. Every
+     * round at least halves the number of components and drops the edges inside them, so most
+     * of the work is in the first few rounds, which scale with the number of threads.
+     */
+    BORUVKA,
+
+    /**
+     * Kruskal: all edges sorted by weight with a parallel sort, then added in order unless they
+     * close a cycle. Only the sort runs in parallel; the scan that follows is sequential.
+     */
+    KRUSKAL
+}
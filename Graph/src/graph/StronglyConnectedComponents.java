@@ -0,0 +1,425 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Strongly connected components over vertex ids: an iterative Tarjan for any IntGraph, and a
+ * parallel Multistep search for CsrGraph snapshots, after Slota, Rajamanickam and Madduri,
+ * "BFS and Coloring-based Parallel Algorithms for Strongly Connected Components and Related
+ * Problems" (IPDPS 2014).
+ * Multistep first trims vertices without active in- or out-neighbors, each a component of its
+ * own; then finds the component of the vertex with the most in- times out-neighbors, usually the
+ * giant one, as the intersection of a parallel forward and a backward search (forward-backward);
+ * then repeats coloring rounds: every vertex takes the largest id that reaches it, each vertex
+ * that keeps its own color is the root of a component, and a backward search from it within its
+ * color collects that component.  Once fewer than SEQUENTIAL_CUTOFF vertices remain, Tarjan
+ * finishes them.
+ * Both algorithms leave in `components[v]` some vertex of the component of `v`, and skip the
+ * vertices already assigned one; Components.smallest() then turns these into the smallest vertex
+ * id of each component.
+ */
+final class StronglyConnectedComponents {
+
+    /**
+     * Marks a vertex whose component is not known yet.
+     */
+    static final int UNASSIGNED = -1;
+
+    /**
+     * Number of remaining vertices below which Multistep hands over to Tarjan.
+     */
+    static final int SEQUENTIAL_CUTOFF = 1 << 14;
+
+    private static final VarHandle INTS = MethodHandles.arrayElementVarHandle(int[].class);
+
+    // States of a vertex during forward-backward, in 'marks'.
+    private static final int FORWARD = 1;
+    private static final int BOTH = 2;
+
+    private StronglyConnectedComponents() {
+    }
+
+    /**
+     * Tarjan's algorithm with an explicit call stack: assigns every vertex 'v' with
+     * 'components[v] == UNASSIGNED' the root of its component, ignoring the other vertices.
+     * O(|V| + |E|) algorithm.
+     */
+    static void tarjan(IntGraph graph, int[] components) {
+        int n = graph.vertexCount();
+        // 'index[v]' is 1 + the discovery position of 'v', or 0 if undiscovered.
+        int[] index = new int[n];
+        int[] low = new int[n];
+        // 'position[v]' is the next outgoing edge of 'v' to explore while 'v' is on 'calls'.
+        int[] position = new int[n];
+        boolean[] onStack = new boolean[n];
+        IntList stack = new IntList();
+        IntList calls = new IntList();
+        int next = 1;
+        for (int s = 0; s < n; s++) {
+            if (index[s] != 0 || components[s] != UNASSIGNED) {
+                continue;
+            }
+            index[s] = low[s] = next++;
+            stack.add(s);
+            onStack[s] = true;
+            calls.add(s);
+            while (!calls.isEmpty()) {
+                int v = calls.get(calls.size() - 1);
+                if (position[v] < graph.outDegree(v)) {
+                    int w = graph.outTarget(v, position[v]++);
+                    if (index[w] == 0 && components[w] == UNASSIGNED) {
+                        index[w] = low[w] = next++;
+                        stack.add(w);
+                        onStack[w] = true;
+                        calls.add(w);
+                    } else if (onStack[w]) {
+                        low[v] = Math.min(low[v], index[w]);
+                    }
+                    continue;
+                }
+                calls.removeLast();
+                if (!calls.isEmpty()) {
+                    int parent = calls.get(calls.size() - 1);
+                    low[parent] = Math.min(low[parent], low[v]);
+                }
+                if (low[v] == index[v]) {
+                    int w;
+                    do {
+                        w = stack.removeLast();
+                        onStack[w] = false;
+                        components[w] = v;
+                    } while (w != v);
+                }
+            }
+        }
+    }
+
+    /**
+     * Multistep: assigns every vertex the root of its component, using 'pool'.
+     * O((|V| + |E|) * (rounds + 1)) work, where 'rounds' counts trimming, search levels and
+     * coloring passes; low for graphs whose remainder after trimming has a short diameter.
+     */
+    static void multistep(CsrGraph<?> graph, ForkJoinPool pool, int[] components) {
+        int n = graph.vertexCount();
+        Arrays.fill(components, UNASSIGNED);
+        int[] remaining = IntStream.range(0, n).toArray();
+
+        // Trim while it pays, that is while a pass removes at least 1/64 of the vertices.
+        while (remaining.length > 0) {
+            int before = remaining.length;
+            int[] trimmed = remaining;
+            ParallelRange.forEach(pool, 0, trimmed.length, (chunk, from, to) -> {
+                for (int i = from; i < to; i++) {
+                    int v = trimmed[i];
+                    if (!hasActive(graph.outOffsets, graph.outTargets, v, components)
+                            || !hasActive(graph.inOffsets, graph.inTargets, v, components)) {
+                        components[v] = v;
+                    }
+                }
+            });
+            remaining = unassigned(pool, remaining, components);
+            if (before - remaining.length < before / 64 + 1) {
+                break;
+            }
+        }
+
+        if (remaining.length >= SEQUENTIAL_CUTOFF) {
+            forwardBackward(graph, pool, components, pivot(graph, remaining));
+            remaining = unassigned(pool, remaining, components);
+        }
+
+        int[] colors = new int[n];
+        while (remaining.length >= SEQUENTIAL_CUTOFF) {
+            color(graph, pool, remaining, components, colors);
+            remaining = unassigned(pool, remaining, components);
+        }
+        if (remaining.length > 0) {
+            tarjan(graph, components);
+        }
+    }
+
+    // Returns whether 'v' has a neighbor other than itself among 'targets[offsets[v]..]' whose
+    // component is not known yet.
+    private static boolean hasActive(int[] offsets, int[] targets, int v, int[] components) {
+        for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+            int w = targets[e];
+            if (w != v && components[w] == UNASSIGNED) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Returns the vertex of 'remaining' with the largest product of in- and out-degree.
+    private static int pivot(CsrGraph<?> graph, int[] remaining) {
+        int best = remaining[0];
+        long bestScore = -1;
+        for (int v : remaining) {
+            long score = (long) graph.outDegree(v) * graph.inDegree(v);
+            if (score > bestScore) {
+                best = v;
+                bestScore = score;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Assigns the component of 'pivot', the unassigned vertices that both reach and are reached
+     * from it.
+     */
+    private static void forwardBackward(CsrGraph<?> graph, ForkJoinPool pool, int[] components,
+            int pivot) {
+        int[] marks = new int[graph.vertexCount()];
+        marks[pivot] = FORWARD;
+        search(pool, graph.outOffsets, graph.outTargets, new int[] {pivot}, components, marks, 0,
+                FORWARD);
+        marks[pivot] = BOTH;
+        int[] found = search(pool, graph.inOffsets, graph.inTargets, new int[] {pivot},
+                components, marks, FORWARD, BOTH);
+        ParallelRange.forEach(pool, 0, found.length, (chunk, from, to) -> {
+            for (int i = from; i < to; i++) {
+                components[found[i]] = pivot;
+            }
+        });
+    }
+
+    /**
+     * Level-synchronous parallel search from 'start' along the edges in 'offsets' and 'targets',
+     * through unassigned vertices marked 'from', which it marks 'to'. Returns the vertices it
+     * marked, including 'start'.
+     */
+    private static int[] search(ForkJoinPool pool, int[] offsets, int[] targets, int[] start,
+            int[] components, int[] marks, int from, int to) {
+        IntList visited = new IntList();
+        int[] frontier = start;
+        while (frontier.length > 0) {
+            for (int v : frontier) {
+                visited.add(v);
+            }
+            int[] current = frontier;
+            ParallelRange range = new ParallelRange(pool, 0, current.length);
+            IntList[] found = new IntList[range.chunks()];
+            range.forEach((chunk, first, last) -> {
+                IntList local = new IntList();
+                for (int i = first; i < last; i++) {
+                    int v = current[i];
+                    for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                        int w = targets[e];
+                        // Read before the CAS so that visited vertices cost no atomic operation.
+                        if (marks[w] == from && components[w] == UNASSIGNED
+                                && INTS.compareAndSet(marks, w, from, to)) {
+                            local.add(w);
+                        }
+                    }
+                }
+                found[chunk] = local;
+            });
+            frontier = concat(found);
+        }
+        return visited.toArray();
+    }
+
+    /**
+     * One coloring round over the unassigned vertices 'remaining': propagates the largest id
+     * that reaches every vertex, then assigns the component of every vertex that keeps its own
+     * id.
+     */
+    private static void color(CsrGraph<?> graph, ForkJoinPool pool, int[] remaining,
+            int[] components, int[] colors) {
+        ParallelRange range = new ParallelRange(pool, 0, remaining.length);
+        range.forEach((chunk, from, to) -> {
+            for (int i = from; i < to; i++) {
+                colors[remaining[i]] = remaining[i];
+            }
+        });
+        boolean[] raised = new boolean[range.chunks()];
+        boolean changed = true;
+        while (changed) {
+            range.forEach((chunk, from, to) -> {
+                boolean any = false;
+                for (int i = from; i < to; i++) {
+                    int v = remaining[i];
+                    for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                        int w = graph.outTargets[e];
+                        if (components[w] == UNASSIGNED) {
+                            any |= raise(colors, w, colors[v]);
+                        }
+                    }
+                }
+                raised[chunk] = any;
+            });
+            changed = false;
+            for (boolean any : raised) {
+                changed |= any;
+            }
+        }
+
+        IntList[] found = new IntList[range.chunks()];
+        range.forEach((chunk, from, to) -> {
+            IntList local = new IntList();
+            for (int i = from; i < to; i++) {
+                if (colors[remaining[i]] == remaining[i]) {
+                    local.add(remaining[i]);
+                }
+            }
+            found[chunk] = local;
+        });
+        int[] roots = concat(found);
+        // Roots have different colors, so their backward searches never meet.
+        ParallelRange.forEach(pool, 0, roots.length, (chunk, from, to) -> {
+            IntList queue = new IntList();
+            for (int i = from; i < to; i++) {
+                int root = roots[i];
+                components[root] = root;
+                queue.add(root);
+                while (!queue.isEmpty()) {
+                    int v = queue.removeLast();
+                    for (int e = graph.inOffsets[v]; e < graph.inOffsets[v + 1]; e++) {
+                        int u = graph.inTargets[e];
+                        if (components[u] == UNASSIGNED && colors[u] == root) {
+                            components[u] = root;
+                            queue.add(u);
+                        }
+                    }
+                }
+            }
+        });
+    }
+
+    // Raises 'colors[w]' to 'color' unless it is already higher. Returns true if it did.
+    private static boolean raise(int[] colors, int w, int color) {
+        int current = colors[w];
+        while (color > current) {
+            if (INTS.compareAndSet(colors, w, current, color)) {
+                return true;
+            }
+            current = colors[w];
+        }
+        return false;
+    }
+
+    // Returns the vertices of 'vertices' whose component is not known yet, in the same order.
+    private static int[] unassigned(ForkJoinPool pool, int[] vertices, int[] components) {
+        ParallelRange range = new ParallelRange(pool, 0, vertices.length);
+        IntList[] kept = new IntList[range.chunks()];
+        range.forEach((chunk, from, to) -> {
+            IntList local = new IntList();
+            for (int i = from; i < to; i++) {
+                if (components[vertices[i]] == UNASSIGNED) {
+                    local.add(vertices[i]);
+                }
+            }
+            kept[chunk] = local;
+        });
+        return concat(kept);
+    }
+
+    private static int[] concat(IntList[] lists) {
+        int size = 0;
+        for (IntList list : lists) {
+            size += list.size();
+        }
+        int[] all = new int[size];
+        int position = 0;
+        for (IntList list : lists) {
+            list.copyTo(all, position);
+            position += list.size();
+        }
+        return all;
+    }
+
+    /**
+     * Returns the condensation of 'graph' into the components 'components', numbered 0 to
+     * 'count' - 1: one vertex per component, labelled with its number, and an edge c -> d for
+     * every pair of components with at least one edge from c to d, weighing the least of them.
+     * The condensation is acyclic.
+     * O(|V| + |E| log |E|) algorithm.
+     */
+    static CsrGraph<Integer> condense(CsrGraph<?> graph, int[] components, int count,
+            ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        // The edges between components as 'c << 32 | d', sorted and without duplicates.
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        long[][] found = new long[range.chunks()][];
+        range.forEach((chunk, from, to) -> {
+            long[] local = new long[graph.outOffsets[to] - graph.outOffsets[from]];
+            int size = 0;
+            for (int v = from; v < to; v++) {
+                for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                    int d = components[graph.outTargets[e]];
+                    if (d != components[v]) {
+                        local[size++] = (long) components[v] << 32 | d;
+                    }
+                }
+            }
+            found[chunk] = Arrays.copyOf(local, size);
+        });
+        long[] keys = Arrays.stream(found).flatMapToLong(Arrays::stream).toArray();
+        Arrays.parallelSort(keys);
+        int m = 0;
+        for (int i = 0; i < keys.length; i++) {
+            if (i == 0 || keys[i] != keys[i - 1]) {
+                keys[m++] = keys[i];
+            }
+        }
+        long[] edges = Arrays.copyOf(keys, m);
+
+        int[] weights = new int[m];
+        Arrays.fill(weights, Integer.MAX_VALUE);
+        range.forEach((chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                    int d = components[graph.outTargets[e]];
+                    if (d != components[v]) {
+                        int i = Arrays.binarySearch(edges, (long) components[v] << 32 | d);
+                        lower(weights, i, graph.outWeights[e]);
+                    }
+                }
+            }
+        });
+
+        int[] outOffsets = new int[count + 1];
+        int[] outTargets = new int[m];
+        int[] inOffsets = new int[count + 1];
+        for (int i = 0; i < m; i++) {
+            outOffsets[(int) (edges[i] >>> 32) + 1]++;
+            inOffsets[(int) edges[i] + 1]++;
+            outTargets[i] = (int) edges[i];
+        }
+        for (int c = 0; c < count; c++) {
+            outOffsets[c + 1] += outOffsets[c];
+            inOffsets[c + 1] += inOffsets[c];
+        }
+        int[] inTargets = new int[m];
+        int[] inWeights = new int[m];
+        int[] next = Arrays.copyOf(inOffsets, count);
+        for (int i = 0; i < m; i++) {
+            int j = next[(int) edges[i]]++;
+            inTargets[j] = (int) (edges[i] >>> 32);
+            inWeights[j] = weights[i];
+        }
+        List<Integer> labels = IntStream.range(0, count).boxed().toList();
+        Map<Integer, Integer> ids = HashMap.newHashMap(count);
+        for (int c = 0; c < count; c++) {
+            ids.put(c, c);
+        }
+        return new CsrGraph<>(labels, ids, outOffsets, outTargets, weights, inOffsets,
+                inTargets, inWeights);
+    }
+
+    // Lowers 'values[i]' to 'value' unless it is already lower.
+    private static void lower(int[] values, int i, int value) {
+        int current = values[i];
+        while (value < current && !INTS.compareAndSet(values, i, current, value)) {
+            current = values[i];
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class StronglyConnectedComponentsTest {
+
+    // Returns the strongly connected components of 'g' numbered in order of their smallest
+    // vertex id, found by Kosaraju's algorithm: a depth first search for the finishing order,
+    // then searches on the reversed edges in decreasing finishing order.
+    private static int[] reference(IntGraph g) {
+        int n = g.vertexCount();
+        int[] finished = new int[n];
+        int count = 0;
+        boolean[] visited = new boolean[n];
+        int[] position = new int[n];
+        IntList calls = new IntList();
+        for (int s = 0; s < n; s++) {
+            if (visited[s]) {
+                continue;
+            }
+            visited[s] = true;
+            calls.add(s);
+            while (!calls.isEmpty()) {
+                int v = calls.get(calls.size() - 1);
+                if (position[v] < g.outDegree(v)) {
+                    int w = g.outTarget(v, position[v]++);
+                    if (!visited[w]) {
+                        visited[w] = true;
+                        calls.add(w);
+                    }
+                } else {
+                    finished[count++] = calls.removeLast();
+                }
+            }
+        }
+        int[] roots = new int[n];
+        Arrays.fill(roots, -1);
+        IntList stack = new IntList();
+        for (int i = n - 1; i >= 0; i--) {
+            int s = finished[i];
+            if (roots[s] >= 0) {
+                continue;
+            }
+            IntList members = new IntList();
+            roots[s] = s;
+            stack.add(s);
+            while (!stack.isEmpty()) {
+                int v = stack.removeLast();
+                members.add(v);
+                for (int j = 0; j < g.inDegree(v); j++) {
+                    int u = g.inTarget(v, j);
+                    if (roots[u] < 0) {
+                        roots[u] = s;
+                        stack.add(u);
+                    }
+                }
+            }
+            int smallest = Arrays.stream(members.toArray()).min().getAsInt();
+            for (int j = 0; j < members.size(); j++) {
+                roots[members.get(j)] = smallest;
+            }
+        }
+        int[] components = new int[n];
+        int next = 0;
+        for (int v = 0; v < n; v++) {
+            components[v] = roots[v] == v ? next++ : components[roots[v]];
+        }
+        return components;
+    }
+
+    // Returns 'cycles' directed cycles of 'length' vertices each, with vertex 'c * length + i'
+    // the i-th of cycle 'c', shuffled ids, and 'extra' random edges from lower to higher cycles.
+    private static BasicGraph<Integer> makeCycles(int cycles, int length, int extra, long seed) {
+        Random rng = new Random(seed);
+        int n = cycles * length;
+        BasicGraph<Integer> g = new BasicGraph<>();
+        for (int v = 0; v < n; v++) {
+            g.addVertex(new BasicVertex<>(v));
+        }
+        for (int c = 0; c < cycles; c++) {
+            for (int i = 0; i < length; i++) {
+                g.addEdge(c * length + i,
+                        new BasicEdge<>(c * length + (i + 1) % length, rng.nextInt(10)));
+            }
+        }
+        for (int i = 0; i < extra; i++) {
+            int u = rng.nextInt(n);
+            int v = rng.nextInt(n);
+            if (u / length != v / length) {
+                g.addEdge(Math.min(u, v), new BasicEdge<>(Math.max(u, v), rng.nextInt(10)));
+            }
+        }
+        return g;
+    }
+
+    @DisplayName("WHEN the graph has two cycles joined by an edge, a self-loop and a chain, "
+            + "THEN each cycle is a component and every other vertex is one of its own.")
+    @Test
+    void testSmallGraph() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("a", "b", "c", "d", "e", "f", "g")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("a", new BasicEdge<>("b", 1));
+        g.addEdge("b", new BasicEdge<>("c", 1));
+        g.addEdge("c", new BasicEdge<>("a", 1));
+        g.addEdge("c", new BasicEdge<>("d", 5));
+        g.addEdge("b", new BasicEdge<>("e", 3));
+        g.addEdge("d", new BasicEdge<>("e", 1));
+        g.addEdge("e", new BasicEdge<>("d", 1));
+        g.addEdge("f", new BasicEdge<>("f", 1));
+        g.addEdge("f", new BasicEdge<>("g", 1));
+
+        for (Components<String> components : List.of(g.stronglyConnectedComponents(),
+                g.freeze().stronglyConnectedComponents(),
+                g.freeze().stronglyConnectedComponents(ForkJoinPool.commonPool()))) {
+            assertArrayEquals(new int[] {0, 0, 0, 1, 1, 2, 3}, components.components());
+            assertArrayEquals(new int[] {3, 2, 1, 1}, components.sizes());
+            assertTrue(components.connected("a", "c"));
+            assertFalse(components.connected("c", "d"));
+            assertEquals(List.of("d", "e"), components.vertices(components.componentOf("e")));
+        }
+
+        CsrGraph<String> csr = g.freeze();
+        CsrGraph<Integer> dag = csr.condensation(csr.stronglyConnectedComponents());
+        assertEquals(4, dag.vertexCount());
+        assertEquals(List.of(0, 1, 2, 3), List.of(dag.label(0), dag.label(1), dag.label(2),
+                dag.label(3)));
+        // Both a-b-c -> d-e edges, 5 and 3, become one of weight 3; f's self-loop disappears.
+        assertEquals(2, dag.edgeCount());
+        assertEquals(Integer.valueOf(3), dag.getVertex(0).outgoingEdges().get(1));
+        assertEquals(Integer.valueOf(1), dag.getVertex(2).outgoingEdges().get(3));
+        assertEquals(Integer.valueOf(3), dag.getVertex(1).incomingEdges().get(0));
+        assertTrue(dag.topologicalOrder().isAcyclic());
+    }
+
+    @DisplayName("WHEN the graphs are large, THEN Tarjan's algorithm and the parallel algorithm "
+            + "both find the components of Kosaraju's algorithm, and the condensation is acyclic.")
+    @Test
+    void testLargeGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        // Sparse random graphs have a giant component and many trimmed vertices; the cycles have
+        // no trimmable vertex and leave thousands of components to the coloring rounds.
+        List<BasicGraph<Integer>> graphs = List.of(
+                CsrGraphTest.makeRandom(50_000, 60_000, 10, 1),
+                CsrGraphTest.makeRandom(50_000, 120_000, 10, 2),
+                makeCycles(5_000, 8, 20_000, 3),
+                makeCycles(200, 250, 1_000, 4));
+        for (BasicGraph<Integer> g : graphs) {
+            CsrGraph<Integer> csr = g.freeze();
+            int[] expected = reference(csr);
+            assertArrayEquals(expected, g.stronglyConnectedComponents().components());
+            assertArrayEquals(expected, csr.stronglyConnectedComponents().components());
+            Components<Integer> parallel = csr.stronglyConnectedComponents(pool);
+            assertArrayEquals(expected, parallel.components());
+
+            CsrGraph<Integer> dag = csr.condensation(parallel);
+            assertEquals(parallel.count(), dag.vertexCount());
+            assertTrue(dag.topologicalOrder().isAcyclic());
+            for (int v = 0; v < csr.vertexCount(); v++) {
+                for (int i = 0; i < csr.outDegree(v); i++) {
+                    int c = expected[v];
+                    int d = expected[csr.outTarget(v, i)];
+                    if (c != d) {
+                        Integer weight = dag.getVertex(c).outgoingEdges().get(d);
+                        assertTrue(weight != null && weight <= csr.outWeight(v, i));
+                    }
+                }
+            }
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,159 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.IntFunction;
+
+public class TopologicalOrder<LabelType> {
+    /**
+     * TopologicalOrder is the result of topologically sorting a graph with Kahn's algorithm. If
+     * the graph is acyclic, order() contains every vertex. Otherwise order() contains the vertices
+     * that could be sorted, remaining() the vertices that lie on or behind a cycle, and cycle()
+     * one directed cycle among them.
+     */
+
+    private final List<LabelType> order;
+    private final List<LabelType> remaining;
+    private final List<LabelType> cycle;
+
+    private TopologicalOrder(List<LabelType> order, List<LabelType> remaining,
+            List<LabelType> cycle) {
+        this.order = Collections.unmodifiableList(order);
+        this.remaining = Collections.unmodifiableList(remaining);
+        this.cycle = Collections.unmodifiableList(cycle);
+    }
+
+    public boolean isAcyclic() {
+        return remaining.isEmpty();
+    }
+
+    /**
+     * Returns the sorted vertices: every vertex comes after all of its incoming neighbors. If the
+     * graph is cyclic, only the vertices that do not depend on a cycle are included.
+     */
+    public List<LabelType> order() {
+        return order;
+    }
+
+    /**
+     * Returns the vertices that could not be sorted because they lie on a cycle or depend on one,
+     * in id order. Empty if the graph is acyclic.
+     */
+    public List<LabelType> remaining() {
+        return remaining;
+    }
+
+    /**
+     * Returns one directed cycle [v0, v1, ..., vk] with edges v0 -> v1 -> ... -> vk -> v0, or an
+     * empty list if the graph is acyclic.
+     */
+    public List<LabelType> cycle() {
+        return cycle;
+    }
+
+    /**
+     * Kahn's algorithm over 'graph': repeatedly removes a vertex with in-degree 0, tracked in an
+     * in-degree counter array and a work queue, without modifying the graph. 'labels' maps ids
+     * to labels.
+     * Vertices are reported in the order of the original pass-based BasicGraph.topologicalSort():
+     * that method swept the vertices by id, removing every vertex whose in-degree had dropped to
+     * 0, and repeated the sweep until no vertex was left. A vertex is removed in the first sweep
+     * that reaches it after its last incoming neighbor was removed, so its sweep number is
+     * computed from its neighbors while it is dequeued, and the result is bucketed by sweep.
+     * O(|V| + |E|) algorithm.
+     */
+    static <LabelType> TopologicalOrder<LabelType> kahn(IntGraph graph,
+            IntFunction<LabelType> labels) {
+        int n = graph.vertexCount();
+        int[] inDegree = new int[n];
+        int[] sweep = new int[n];
+        int[] queue = new int[n];
+        int head = 0;
+        int tail = 0;
+        for (int v = 0; v < n; v++) {
+            inDegree[v] = graph.inDegree(v);
+            if (inDegree[v] == 0) {
+                queue[tail++] = v;
+            }
+        }
+        int maxSweep = 0;
+        while (head < tail) {
+            int vertex = queue[head++];
+            maxSweep = Math.max(maxSweep, sweep[vertex]);
+            for (int i = 0; i < graph.outDegree(vertex); i++) {
+                int neighbor = graph.outTarget(vertex, i);
+                // A neighbor with a smaller id was already passed in this sweep.
+                int neighborSweep = sweep[vertex] + (neighbor < vertex ? 1 : 0);
+                sweep[neighbor] = Math.max(sweep[neighbor], neighborSweep);
+                if (--inDegree[neighbor] == 0) {
+                    queue[tail++] = neighbor;
+                }
+            }
+        }
+
+        // Stable counting sort of the sorted vertices by sweep, then by id.
+        int[] start = new int[maxSweep + 2];
+        for (int i = 0; i < tail; i++) {
+            start[sweep[queue[i]] + 1]++;
+        }
+        for (int s = 1; s < start.length; s++) {
+            start[s] += start[s - 1];
+        }
+        int[] sorted = new int[tail];
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] == 0) {
+                sorted[start[sweep[v]]++] = v;
+            }
+        }
+        List<LabelType> order = new ArrayList<>(tail);
+        for (int v : sorted) {
+            order.add(labels.apply(v));
+        }
+
+        List<LabelType> remaining = new ArrayList<>(n - tail);
+        for (int v = 0; v < n; v++) {
+            if (inDegree[v] > 0) {
+                remaining.add(labels.apply(v));
+            }
+        }
+        return new TopologicalOrder<>(order, remaining, findCycle(graph, inDegree, labels));
+    }
+
+    /**
+     * Returns a cycle among the vertices with 'inDegree[v] > 0' after Kahn's algorithm, or an
+     * empty list if there are none. Each such vertex still has an incoming neighbor that is also
+     * such a vertex, so walking backwards along those edges must eventually repeat a vertex.
+     */
+    private static <LabelType> List<LabelType> findCycle(IntGraph graph, int[] inDegree,
+            IntFunction<LabelType> labels) {
+        int vertex = 0;
+        while (vertex < inDegree.length && inDegree[vertex] == 0) {
+            vertex++;
+        }
+        if (vertex == inDegree.length) {
+            return List.of();
+        }
+        // 'step[v]' is 1 + the step at which the backward walk reached 'v', or 0 if it did not.
+        int[] step = new int[inDegree.length];
+        List<Integer> walk = new ArrayList<>();
+        while (step[vertex] == 0) {
+            walk.add(vertex);
+            step[vertex] = walk.size();
+            int previous = -1;
+            for (int i = 0; previous < 0; i++) {
+                int in = graph.inTarget(vertex, i);
+                if (inDegree[in] > 0) {
+                    previous = in;
+                }
+            }
+            vertex = previous;
+        }
+        // The walk went backwards along edges, so reverse the repeated part.
+        List<LabelType> cycle = new ArrayList<>();
+        for (int i = walk.size() - 1; i >= step[vertex] - 1; i--) {
+            cycle.add(labels.apply(walk.get(i)));
+        }
+        return cycle;
+    }
+}
@@ -0,0 +1,248 @@
+package graph;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Exact triangle counting over the undirected simple graph underlying a CsrGraph: edge directions
+ * are ignored, and self-loops and repeated edges do not count.
+ * The neighbors of every vertex are first gathered into sorted, duplicate-free arrays.  Edges are
+ * then oriented from lower to higher rank, ranking vertices by degree and then id, so that every
+ * vertex keeps at most O(sqrt(|E|)) forward neighbors, hubs included.  A triangle a < b < c in
+ * rank order is found exactly once, at its edge a -> b, as the element c common to the forward
+ * neighbors of a and b.  The forward neighbors of 'a' are marked in an array indexed by vertex,
+ * so that each list of b is scanned once, without the unpredictable branches of a merge; when
+ * the list of b is more than GALLOP_RATIO times longer than that of a, as for an ordinary vertex
+ * next to a hub, each neighbor of a is searched in it by galloping (exponential then binary
+ * search) instead.  Vertices are processed in parallel; the triangles found at 'a' are added to
+ * b and c with atomic adds, once per edge.
+ */
+final class TriangleCounting {
+
+    /**
+     * Length ratio beyond which intersection gallops through the longer list.
+     */
+    static final int GALLOP_RATIO = 32;
+
+    private static final VarHandle LONGS = MethodHandles.arrayElementVarHandle(long[].class);
+
+    /**
+     * Sorted undirected neighbors of every vertex: 'targets[offsets[v]..offsets[v+1])'.
+     */
+    record Neighbors(int[] offsets, int[] targets) {
+        int degree(int v) {
+            return offsets[v + 1] - offsets[v];
+        }
+    }
+
+    private TriangleCounting() {
+    }
+
+    /**
+     * Returns the neighbors of every vertex of 'graph' in either direction, sorted by id, without
+     * 'v' itself or duplicates.
+     * O(|V| + |E| log |E|) algorithm.
+     */
+    static Neighbors neighbors(CsrGraph<?> graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        int[][] chunkTargets = new int[range.chunks()][];
+        int[] offsets = new int[n + 1];
+        range.forEach((chunk, from, to) -> {
+            int[] local = new int[graph.outOffsets[to] - graph.outOffsets[from]
+                    + graph.inOffsets[to] - graph.inOffsets[from]];
+            int size = 0;
+            for (int v = from; v < to; v++) {
+                int start = size;
+                for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                    local[size++] = graph.outTargets[e];
+                }
+                for (int e = graph.inOffsets[v]; e < graph.inOffsets[v + 1]; e++) {
+                    local[size++] = graph.inTargets[e];
+                }
+                Arrays.sort(local, start, size);
+                int end = start;
+                for (int i = start; i < size; i++) {
+                    if (local[i] != v && (end == start || local[i] != local[end - 1])) {
+                        local[end++] = local[i];
+                    }
+                }
+                size = end;
+                offsets[v + 1] = end - start;
+            }
+            chunkTargets[chunk] = Arrays.copyOf(local, size);
+        });
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[n]];
+        int position = 0;
+        for (int[] part : chunkTargets) {
+            System.arraycopy(part, 0, targets, position, part.length);
+            position += part.length;
+        }
+        return new Neighbors(offsets, targets);
+    }
+
+    /**
+     * Returns the neighbors of every vertex that rank above it: by degree in 'neighbors', then
+     * by id. Each edge appears once; lists stay sorted by id.
+     * O(|V| + |E|) algorithm.
+     */
+    static Neighbors orient(Neighbors neighbors, ForkJoinPool pool) {
+        int n = neighbors.offsets().length - 1;
+        int[] offsets = new int[n + 1];
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        range.forEach((chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                int count = 0;
+                for (int e = neighbors.offsets()[v]; e < neighbors.offsets()[v + 1]; e++) {
+                    if (above(neighbors, neighbors.targets()[e], v)) {
+                        count++;
+                    }
+                }
+                offsets[v + 1] = count;
+            }
+        });
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[n]];
+        range.forEach((chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                int i = offsets[v];
+                for (int e = neighbors.offsets()[v]; e < neighbors.offsets()[v + 1]; e++) {
+                    int u = neighbors.targets()[e];
+                    if (above(neighbors, u, v)) {
+                        targets[i++] = u;
+                    }
+                }
+            }
+        });
+        return new Neighbors(offsets, targets);
+    }
+
+    // Returns whether 'u' ranks above 'v'.
+    private static boolean above(Neighbors neighbors, int u, int v) {
+        int du = neighbors.degree(u);
+        int dv = neighbors.degree(v);
+        return du > dv || (du == dv && u > v);
+    }
+
+    /**
+     * Counts the triangles through every vertex into 'triangles', given the forward neighbors
+     * 'forward' from orient(), and returns the total number of triangles.
+     * O(|E| sqrt(|E|)) algorithm.
+     */
+    static long count(Neighbors forward, ForkJoinPool pool, long[] triangles) {
+        int n = forward.offsets().length - 1;
+        int[] offsets = forward.offsets();
+        int[] targets = forward.targets();
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        long[] partial = new long[range.chunks()];
+        ConcurrentLinkedQueue<int[]> idle = new ConcurrentLinkedQueue<>();
+        range.forEach((chunk, from, to) -> {
+            // 'marks[c]' is k + 1 if c is the k-th forward neighbor of 'a', and 0 otherwise;
+            // 'hits[k + 1]' counts the triangles of 'a' through that neighbor.
+            int[] marks = idle.poll();
+            marks = marks != null ? marks : new int[n];
+            int[] hits = new int[16];
+            long total = 0;
+            for (int a = from; a < to; a++) {
+                int fromA = offsets[a];
+                int toA = offsets[a + 1];
+                if (hits.length <= toA - fromA) {
+                    hits = new int[Math.max(toA - fromA + 1, 2 * hits.length)];
+                }
+                for (int e = fromA; e < toA; e++) {
+                    marks[targets[e]] = e - fromA + 1;
+                }
+                long found = 0;
+                for (int e = fromA; e < toA; e++) {
+                    int b = targets[e];
+                    int fromB = offsets[b];
+                    int toB = offsets[b + 1];
+                    int common = toB - fromB > GALLOP_RATIO * (toA - fromA)
+                            ? intersect(targets, fromA, toA, fromB, toB, hits)
+                            : scan(targets, fromB, toB, marks, hits);
+                    if (common > 0) {
+                        LONGS.getAndAdd(triangles, b, (long) common);
+                        found += common;
+                    }
+                }
+                for (int e = fromA; e < toA; e++) {
+                    marks[targets[e]] = 0;
+                    int k = e - fromA + 1;
+                    if (hits[k] > 0) {
+                        LONGS.getAndAdd(triangles, targets[e], (long) hits[k]);
+                        hits[k] = 0;
+                    }
+                }
+                if (found > 0) {
+                    LONGS.getAndAdd(triangles, a, found);
+                }
+                total += found;
+            }
+            partial[chunk] = total;
+            idle.add(marks);
+        });
+        long total = 0;
+        for (long count : partial) {
+            total += count;
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of elements of 'targets[from..to)' with a nonzero mark, adding 1 to
+     * 'hits[marks[c]]' for each such element 'c'. Misses go to 'hits[0]', which is left
+     * unchanged, so that the loop has no data-dependent branch.
+     */
+    static int scan(int[] targets, int from, int to, int[] marks, int[] hits) {
+        for (int e = from; e < to; e++) {
+            hits[marks[targets[e]]]++;
+        }
+        int misses = hits[0];
+        hits[0] = 0;
+        return to - from - misses;
+    }
+
+    /**
+     * Returns the number of elements common to the sorted ranges 'targets[fromA..toA)' and
+     * 'targets[fromB..toB)', galloping through the second for every element of the first, and
+     * adds 1 to 'hits[i - fromA + 1]' for every common element at position 'i' of the first.
+     */
+    static int intersect(int[] targets, int fromA, int toA, int fromB, int toB, int[] hits) {
+        int common = 0;
+        int low = fromB;
+        for (int i = fromA; i < toA && low < toB; i++) {
+            int found = gallop(targets, low, toB, targets[i]);
+            if (found >= 0) {
+                hits[i - fromA + 1]++;
+                common++;
+                low = found + 1;
+            } else {
+                low = -found - 1;
+            }
+        }
+        return common;
+    }
+
+    // Returns the position of 'x' in the sorted range 'targets[from..to)', or -(insertion point)
+    // - 1 if absent, like Arrays.binarySearch, galloping from 'from' so that the cost grows with
+    // the log of the distance to 'x' rather than of the range.
+    private static int gallop(int[] targets, int from, int to, int x) {
+        int step = 1;
+        int low = from;
+        int high = from;
+        while (high < to && targets[high] < x) {
+            low = high + 1;
+            high += step;
+            step <<= 1;
+        }
+        return Arrays.binarySearch(targets, low, Math.min(high + 1, to), x);
+    }
+}
@@ -0,0 +1,129 @@
+package graph;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+public class TriangleCountingTest {
+
+    // Returns the triangles through every vertex of 'g', edge directions ignored, found by
+    // checking every pair of neighbors.
+    private static long[] reference(CsrGraph<Integer> g) {
+        int n = g.vertexCount();
+        List<Set<Integer>> neighbors = new ArrayList<>();
+        for (int v = 0; v < n; v++) {
+            neighbors.add(new HashSet<>());
+        }
+        for (int u = 0; u < n; u++) {
+            for (int i = 0; i < g.outDegree(u); i++) {
+                int v = g.outTarget(u, i);
+                if (u != v) {
+                    neighbors.get(u).add(v);
+                    neighbors.get(v).add(u);
+                }
+            }
+        }
+        long[] triangles = new long[n];
+        for (int v = 0; v < n; v++) {
+            List<Integer> list = new ArrayList<>(neighbors.get(v));
+            for (int i = 0; i < list.size(); i++) {
+                for (int j = i + 1; j < list.size(); j++) {
+                    if (neighbors.get(list.get(i)).contains(list.get(j))) {
+                        triangles[v]++;
+                    }
+                }
+            }
+        }
+        return triangles;
+    }
+
+    @DisplayName("WHEN the graph is a clique of four with a pendant vertex and reciprocal edges, "
+            + "THEN each triangle counts once and clustering matches.")
+    @Test
+    void testSmallGraph() {
+        BasicGraph<String> g = new BasicGraph<>();
+        for (String label : List.of("a", "b", "c", "d", "e")) {
+            g.addVertex(new BasicVertex<>(label));
+        }
+        g.addEdge("a", new BasicEdge<>("b", 1));
+        g.addEdge("b", new BasicEdge<>("a", 1));
+        g.addEdge("a", new BasicEdge<>("c", 1));
+        g.addEdge("d", new BasicEdge<>("a", 1));
+        g.addEdge("b", new BasicEdge<>("c", 1));
+        g.addEdge("b", new BasicEdge<>("d", 1));
+        g.addEdge("c", new BasicEdge<>("d", 1));
+        g.addEdge("d", new BasicEdge<>("e", 1));
+
+        Triangles<String> triangles = g.triangles();
+        assertEquals(4, triangles.count());
+        assertArrayEquals(new long[] {3, 3, 3, 3, 0}, triangles.triangles());
+        assertArrayEquals(new int[] {3, 3, 3, 4, 1}, triangles.degrees());
+        assertEquals(1.0, triangles.clusteringCoefficient("a"));
+        assertEquals(0.5, triangles.clusteringCoefficient("d"));
+        assertEquals(0.0, triangles.clusteringCoefficient("e"));
+        assertEquals((3 + 0.5) / 5, triangles.averageClustering(), 1e-12);
+        // 12 triangle corners out of 3 * 3 + 6 wedges.
+        assertEquals(12.0 / 15, triangles.globalClustering(), 1e-12);
+    }
+
+    @DisplayName("WHEN scanning marked neighbors or galloping through a long range, THEN both "
+            + "find the common elements.")
+    @Test
+    void testIntersect() {
+        int[] targets = new int[1100];
+        for (int i = 0; i < 1000; i++) {
+            targets[i] = 2 * i;
+        }
+        int[] shorter = {0, 3, 8, 500, 501, 1998, 1999};
+        System.arraycopy(shorter, 0, targets, 1000, shorter.length);
+        // Hits are counted at 1 + the position in the shorter range.
+        int[] hits = new int[8];
+        assertEquals(4, TriangleCounting.intersect(targets, 1000, 1007, 0, 1000, hits));
+        assertArrayEquals(new int[] {0, 1, 0, 1, 1, 0, 1, 0}, hits);
+        assertEquals(0, TriangleCounting.intersect(targets, 1000, 1007, 0, 0, hits));
+
+        int[] marks = new int[2000];
+        for (int i = 0; i < shorter.length; i++) {
+            marks[shorter[i]] = i + 1;
+        }
+        hits = new int[8];
+        assertEquals(4, TriangleCounting.scan(targets, 0, 1000, marks, hits));
+        assertArrayEquals(new int[] {0, 1, 0, 1, 1, 0, 1, 0}, hits);
+    }
+
+    @DisplayName("WHEN the graphs are random, with and without hubs, THEN parallel counts match "
+            + "checking every pair of neighbors.")
+    @Test
+    void testRandomGraphs() {
+        ForkJoinPool pool = new ForkJoinPool(4);
+        Random rng = new Random(9);
+        BasicGraph<Integer> hubs = CsrGraphTest.makeRandom(3_000, 30_000, 10, 10);
+        for (int hub = 0; hub < 5; hub++) {
+            for (int v = 0; v < 3_000; v++) {
+                if (v != hub && rng.nextInt(3) == 0) {
+                    hubs.addEdge(v, new BasicEdge<>(hub, 1));
+                }
+            }
+        }
+        for (BasicGraph<Integer> g : List.of(CsrGraphTest.makeRandom(2_000, 40_000, 10, 11),
+                hubs)) {
+            CsrGraph<Integer> csr = g.freeze();
+            long[] expected = reference(csr);
+            Triangles<Integer> triangles = csr.triangles(pool);
+            assertArrayEquals(expected, triangles.triangles());
+            long corners = 0;
+            for (long count : expected) {
+                corners += count;
+            }
+            assertEquals(corners / 3, triangles.count());
+        }
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,106 @@
+package graph;
+
+import java.util.Map;
+
+public class Triangles<LabelType> {
+    /**
+     * Triangles holds the triangles of the undirected simple graph underlying a graph: edge
+     * directions are ignored, and self-loops and repeated edges do not count. Per-vertex counts
+     * and degrees are stored in arrays indexed by vertex id: 'triangles()[v]' is the number of
+     * triangles through 'v', and 'degrees()[v]' its number of distinct neighbors.
+     */
+
+    private final long count;
+    private final long[] triangles;
+    private final int[] degrees;
+    private final Map<LabelType, Integer> ids;
+
+    Triangles(long count, long[] triangles, int[] degrees, Map<LabelType, Integer> ids) {
+        assert triangles.length == degrees.length;
+        this.count = count;
+        this.triangles = triangles;
+        this.degrees = degrees;
+        this.ids = ids;
+    }
+
+    /**
+     * Returns the number of triangles in the graph.
+     */
+    public long count() {
+        return count;
+    }
+
+    /**
+     * Returns the id-indexed triangle counts. Callers must not modify it.
+     */
+    public long[] triangles() {
+        return triangles;
+    }
+
+    /**
+     * Returns the id-indexed undirected degrees. Callers must not modify it.
+     */
+    public int[] degrees() {
+        return degrees;
+    }
+
+    /**
+     * Returns the number of triangles through 'label'. Requires that the vertex exists.
+     */
+    public long trianglesOf(LabelType label) {
+        assert ids.containsKey(label);
+        return triangles[ids.get(label)];
+    }
+
+    /**
+     * Returns the local clustering coefficient of 'label': the fraction of pairs of its
+     * neighbors that are adjacent, or 0 if it has fewer than two neighbors. Requires that the
+     * vertex exists.
+     */
+    public double clusteringCoefficient(LabelType label) {
+        assert ids.containsKey(label);
+        return clustering(ids.get(label));
+    }
+
+    /**
+     * Returns the id-indexed local clustering coefficients.
+     * O(|V|) algorithm.
+     */
+    public double[] clusteringCoefficients() {
+        double[] coefficients = new double[triangles.length];
+        for (int v = 0; v < triangles.length; v++) {
+            coefficients[v] = clustering(v);
+        }
+        return coefficients;
+    }
+
+    /**
+     * Returns the mean local clustering coefficient over all vertices, or 0 for an empty graph.
+     * O(|V|) algorithm.
+     */
+    public double averageClustering() {
+        double sum = 0;
+        for (int v = 0; v < triangles.length; v++) {
+            sum += clustering(v);
+        }
+        return triangles.length == 0 ? 0 : sum / triangles.length;
+    }
+
+    /**
+     * Returns the global clustering coefficient, or transitivity: three times the number of
+     * triangles over the number of paths of two edges, or 0 if there are none.
+     * O(|V|) algorithm.
+     */
+    public double globalClustering() {
+        long wedges = 0;
+        for (int degree : degrees) {
+            wedges += (long) degree * (degree - 1) / 2;
+        }
+        return wedges == 0 ? 0 : 3.0 * count / wedges;
+    }
+
+    private double clustering(int v) {
+        long pairs = (long) degrees[v] * (degrees[v] - 1) / 2;
+        return pairs == 0 ? 0 : (double) triangles[v] / pairs;
+    }
+}
@@ -0,0 +1,276 @@
+package graph;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Weighted undirected graph in compressed sparse row form, the input of community detection.
+ * The neighbors of `v` are `targets[offsets[v]..offsets[v+1])` with weights at the same
+ * positions; every edge between two distinct vertices appears in the rows of both, and a vertex
+ * may list the same neighbor more than once, the weights adding up.  Edges from a vertex to
+ * itself are kept apart in `loops`, counted in both directions, as in the adjacency matrix
+ * convention of modularity: `degrees[v]` is the row sum `loops[v]` + the weights of `v`, and
+ * `total`, the sum of all degrees, is twice the total edge weight.
+ * Weights are doubles, so that coarsening can add up any number of int weights.
+ */
+final class UndirectedGraph {
+
+    final int n;
+    final int[] offsets;
+    final int[] targets;
+    final double[] weights;
+    final double[] loops;
+    final double[] degrees;
+    final double total;
+
+    private UndirectedGraph(int[] offsets, int[] targets, double[] weights, double[] loops) {
+        n = loops.length;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.loops = loops;
+        degrees = new double[n];
+        double sum = 0;
+        for (int v = 0; v < n; v++) {
+            double degree = loops[v];
+            for (int e = offsets[v]; e < offsets[v + 1]; e++) {
+                degree += weights[e];
+            }
+            degrees[v] = degree;
+            sum += degree;
+        }
+        total = sum;
+    }
+
+    /**
+     * Returns 'graph' with edge directions ignored: u -> v and v -> u both become, or add to, the
+     * undirected edge between them. Each row lists the outgoing edges of the vertex, then the
+     * incoming ones.
+     * O(|V| + |E|) algorithm.
+     */
+    static UndirectedGraph of(CsrGraph<?> graph, ForkJoinPool pool) {
+        int n = graph.vertexCount();
+        int[] offsets = new int[n + 1];
+        double[] loops = new double[n];
+        ParallelRange range = new ParallelRange(pool, 0, n);
+        range.forEach((chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                int count = 0;
+                for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                    if (graph.outTargets[e] == v) {
+                        loops[v] += 2.0 * graph.outWeights[e];
+                    } else {
+                        count++;
+                    }
+                }
+                for (int e = graph.inOffsets[v]; e < graph.inOffsets[v + 1]; e++) {
+                    if (graph.inTargets[e] != v) {
+                        count++;
+                    }
+                }
+                offsets[v + 1] = count;
+            }
+        });
+        for (int v = 0; v < n; v++) {
+            offsets[v + 1] += offsets[v];
+        }
+        int[] targets = new int[offsets[n]];
+        double[] weights = new double[offsets[n]];
+        range.forEach((chunk, from, to) -> {
+            for (int v = from; v < to; v++) {
+                int i = offsets[v];
+                for (int e = graph.outOffsets[v]; e < graph.outOffsets[v + 1]; e++) {
+                    if (graph.outTargets[e] != v) {
+                        targets[i] = graph.outTargets[e];
+                        weights[i++] = graph.outWeights[e];
+                    }
+                }
+                for (int e = graph.inOffsets[v]; e < graph.inOffsets[v + 1]; e++) {
+                    if (graph.inTargets[e] != v) {
+                        targets[i] = graph.inTargets[e];
+                        weights[i++] = graph.inWeights[e];
+                    }
+                }
+            }
+        });
+        return new UndirectedGraph(offsets, targets, weights, loops);
+    }
+
+    /**
+     * Returns the graph with one vertex per community, where 'community[v]' is the community of
+     * vertex 'v', numbered 0 to 'count' - 1. Community C has a single edge to every other
+     * community D, weighing the edges between their members, and keeps the edges among its own
+     * members as loops, so degrees and total are preserved. Communities are built in parallel,
+     * one per thread at a time, in a single pass over the edges.
+     * O(|V| + |E|) algorithm.
+     */
+    UndirectedGraph coarsen(int[] community, int count, ForkJoinPool pool) {
+        // Members of community C are 'members[memberOffsets[C]..memberOffsets[C+1])'.
+        int[] memberOffsets = new int[count + 1];
+        for (int v = 0; v < n; v++) {
+            memberOffsets[community[v] + 1]++;
+        }
+        for (int c = 0; c < count; c++) {
+            memberOffsets[c + 1] += memberOffsets[c];
+        }
+        int[] members = new int[n];
+        int[] next = memberOffsets.clone();
+        for (int v = 0; v < n; v++) {
+            members[next[community[v]]++] = v;
+        }
+
+        // Chunks cover consecutive communities, so their rows, concatenated in chunk order, are
+        // the rows of the coarse graph.
+        int[] offsets = new int[count + 1];
+        double[] loops = new double[count];
+        ParallelRange range = new ParallelRange(pool, 0, count);
+        int[][] chunkTargets = new int[range.chunks()][];
+        double[][] chunkWeights = new double[range.chunks()][];
+        ConcurrentLinkedQueue<Scratch> idle = new ConcurrentLinkedQueue<>();
+        range.forEach((chunk, from, to) -> {
+            Scratch scratch = Scratch.poll(idle, count);
+            int[] localTargets = new int[Math.max(16, to - from)];
+            double[] localWeights = new double[localTargets.length];
+            int size = 0;
+            for (int c = from; c < to; c++) {
+                loops[c] = gather(c, community, memberOffsets, members, scratch);
+                int degree = scratch.touched.size();
+                offsets[c + 1] = degree;
+                if (size + degree > localTargets.length) {
+                    int capacity = Math.max(size + degree, 2 * localTargets.length);
+                    localTargets = Arrays.copyOf(localTargets, capacity);
+                    localWeights = Arrays.copyOf(localWeights, capacity);
+                }
+                for (int i = 0; i < degree; i++) {
+                    localTargets[size] = scratch.touched.get(i);
+                    localWeights[size++] = scratch.weightAt(i);
+                }
+            }
+            chunkTargets[chunk] = Arrays.copyOf(localTargets, size);
+            chunkWeights[chunk] = Arrays.copyOf(localWeights, size);
+            idle.add(scratch);
+        });
+        for (int c = 0; c < count; c++) {
+            offsets[c + 1] += offsets[c];
+        }
+        int[] targets = new int[offsets[count]];
+        double[] weights = new double[offsets[count]];
+        int position = 0;
+        for (int chunk = 0; chunk < chunkTargets.length; chunk++) {
+            System.arraycopy(chunkTargets[chunk], 0, targets, position, chunkTargets[chunk].length);
+            System.arraycopy(chunkWeights[chunk], 0, weights, position, chunkWeights[chunk].length);
+            position += chunkTargets[chunk].length;
+        }
+        return new UndirectedGraph(offsets, targets, weights, loops);
+    }
+
+    // Adds the weight from the members of community 'c' to every other community into 'scratch',
+    // and returns the loop weight of 'c'.
+    private double gather(int c, int[] community, int[] memberOffsets, int[] members,
+            Scratch scratch) {
+        scratch.begin();
+        double loop = 0;
+        for (int i = memberOffsets[c]; i < memberOffsets[c + 1]; i++) {
+            int u = members[i];
+            loop += loops[u];
+            for (int e = offsets[u]; e < offsets[u + 1]; e++) {
+                int d = community[targets[e]];
+                if (d == c) {
+                    loop += weights[e];
+                } else {
+                    scratch.add(d, weights[e]);
+                }
+            }
+        }
+        return loop;
+    }
+
+    /**
+     * Scratch accumulates weights by community for one vertex or community at a time. The first
+     * SMALL communities are kept in a short list searched linearly, which stays in cache for the
+     * typical low-degree vertex; beyond that, weights move to arrays indexed by community, valid
+     * only if their stamp is the current one, so starting over costs nothing.
+     */
+    static final class Scratch {
+        static final int SMALL = 16;
+
+        private final double[] weights;
+        private final int[] stamps;
+        private int stamp;
+        private final double[] sums = new double[SMALL];
+        private boolean large;
+        // The communities with a weight since begin(), in order of their first weight.
+        final IntList touched = new IntList();
+
+        Scratch(int n) {
+            weights = new double[n];
+            stamps = new int[n];
+        }
+
+        /**
+         * Returns an idle Scratch for 'n' communities from 'idle', or a new one. Callers add it
+         * back when done, so that each thread allocates at most one.
+         */
+        static Scratch poll(ConcurrentLinkedQueue<Scratch> idle, int n) {
+            Scratch scratch = idle.poll();
+            return scratch != null ? scratch : new Scratch(n);
+        }
+
+        void begin() {
+            stamp++;
+            large = false;
+            touched.clear();
+        }
+
+        void add(int c, double weight) {
+            if (!large) {
+                int size = touched.size();
+                for (int i = 0; i < size; i++) {
+                    if (touched.get(i) == c) {
+                        sums[i] += weight;
+                        return;
+                    }
+                }
+                if (size < SMALL) {
+                    sums[size] = weight;
+                    touched.add(c);
+                    return;
+                }
+                large = true;
+                for (int i = 0; i < size; i++) {
+                    stamps[touched.get(i)] = stamp;
+                    weights[touched.get(i)] = sums[i];
+                }
+            }
+            if (stamps[c] != stamp) {
+                stamps[c] = stamp;
+                weights[c] = 0;
+                touched.add(c);
+            }
+            weights[c] += weight;
+        }
+
+        /**
+         * Returns the weight of 'touched.get(i)'.
+         */
+        double weightAt(int i) {
+            return large ? weights[touched.get(i)] : sums[i];
+        }
+
+        /**
+         * Returns the weight of community 'c'.
+         */
+        double weight(int c) {
+            if (large) {
+                return stamps[c] == stamp ? weights[c] : 0;
+            }
+            for (int i = 0; i < touched.size(); i++) {
+                if (touched.get(i) == c) {
+                    return sums[i];
+                }
+            }
+            return 0;
+        }
+    }
+}